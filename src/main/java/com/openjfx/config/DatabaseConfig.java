@@ -2,10 +2,12 @@ package com.openjfx.config;
 
 import java.io.File;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.h2.tools.Server;
 import org.jetbrains.annotations.NotNull;
 
@@ -126,7 +128,13 @@ public class DatabaseConfig {
             "choice3 VARCHAR(50)," +
             "choice4 VARCHAR(50)," +
             "choice5 VARCHAR(50)," +
-            "choice6 VARCHAR(50)" +
+            "choice6 VARCHAR(50)," +
+            "choice1_event_id INTEGER NULL," +
+            "choice2_event_id INTEGER NULL," +
+            "choice3_event_id INTEGER NULL," +
+            "choice4_event_id INTEGER NULL," +
+            "choice5_event_id INTEGER NULL," +
+            "choice6_event_id INTEGER NULL" +
             ")");
 
     // Save the time slots in the database
@@ -138,40 +146,49 @@ public class DatabaseConfig {
             "slot VARCHAR(50) NOT NULL" +
             ")");
 
+    // Runs table for keeping several scheduling scenarios side by side
+    stmt.execute(
+        "CREATE TABLE IF NOT EXISTS runs (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 2) PRIMARY KEY," +
+            "name VARCHAR(255) NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")");
+    stmt.execute("MERGE INTO runs (id, name) KEY (id) VALUES (1, 'Default')");
+
     // Timetable assignments table for tracking event-room-time slot assignments
     stmt.execute(
         "CREATE TABLE IF NOT EXISTS timetable_assignments (" +
             "id INTEGER PRIMARY KEY AUTO_INCREMENT," +
+            "run_id INTEGER DEFAULT 1 NOT NULL," +
             "event_id INTEGER NOT NULL," +
             "room_id VARCHAR(255) NOT NULL," +
-            "time_slot VARCHAR(50) NOT NULL" +
+            "time_slot VARCHAR(50) NOT NULL," +
+            runForeignKey("timetable_assignments") +
             ")");
 
     // Student assignments table for tracking student-event assignments
     stmt.execute(
         "CREATE TABLE IF NOT EXISTS student_assignments (" +
             "id INTEGER PRIMARY KEY AUTO_INCREMENT," +
+            "run_id INTEGER DEFAULT 1 NOT NULL," +
             "event_id INTEGER NOT NULL," +
             "first_name VARCHAR(255) NOT NULL," +
             "last_name VARCHAR(255) NOT NULL," +
             "choice_no INTEGER NULL," +
             "class_ref VARCHAR(50) NOT NULL," +
             "time_slot VARCHAR(50) NULL," +
-            "room_id VARCHAR(255) NULL" +
+            "room_id VARCHAR(255) NULL," +
+            runForeignKey("student_assignments") +
             ")");
 
     // Workshop demand table for tracking workshop demand per event
-    stmt.execute(
-        "CREATE TABLE IF NOT EXISTS workshop_demand (" +
-            "event_id INTEGER PRIMARY KEY," +
-            "demand INTEGER NOT NULL," +
-            "FOREIGN KEY (event_id) REFERENCES events(id)" +
-            ")");
+    createWorkshopDemandTable(stmt);
 
     // Fulfillment scores table for tracking student fulfillment scores
     stmt.execute(
     "CREATE TABLE IF NOT EXISTS fulfillment_scores (" +
         "id INTEGER PRIMARY KEY AUTO_INCREMENT," +
+        "run_id INTEGER DEFAULT 1 NOT NULL," +
         "student_id VARCHAR(255)," +
         "class_ref VARCHAR(50)," +
         "first_name VARCHAR(255)," +
@@ -187,12 +204,125 @@ public class DatabaseConfig {
         "overall_fulfillment_percentage DOUBLE DEFAULT 0.0," +
         "total_students INTEGER DEFAULT 0," +
         "total_score INTEGER DEFAULT 0," +
-        "max_possible_score DOUBLE DEFAULT 0.0" +
+        "max_possible_score DOUBLE DEFAULT 0.0," +
+        runForeignKey("fulfillment_scores") +
         ")");
+
+    migrateRunScope(stmt);
+    migrateChoiceEventIds(stmt);
+
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_assignments_run "
+        + "ON timetable_assignments (run_id)");
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_student_assignments_run "
+        + "ON student_assignments (run_id)");
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_fulfillment_scores_run "
+        + "ON fulfillment_scores (run_id)");
+  }
+
+  /**
+   * Adds the run_id column to tables created before runs existed. Existing rows are assigned to
+   * the default run, and workshop_demand is rebuilt with the key (run_id, event_id). The run_id
+   * columns are then linked to the runs, after dropping rows of runs that no longer exist.
+   *
+   * @param stmt statement to execute the migration with
+   * @throws SQLException if the schema cannot be altered
+   * @author mian
+   */
+  private static void migrateRunScope(Statement stmt) throws SQLException {
+    for (String table : new String[]{"timetable_assignments", "student_assignments",
+        "fulfillment_scores"}) {
+      stmt.execute("ALTER TABLE " + table
+          + " ADD COLUMN IF NOT EXISTS run_id INTEGER DEFAULT 1 NOT NULL");
+    }
+
+    // H2 cannot drop a primary key that backs a constraint, so the old table is rebuilt
+    if (!hasColumn(stmt, "WORKSHOP_DEMAND", "RUN_ID")) {
+      stmt.execute("ALTER TABLE workshop_demand RENAME TO workshop_demand_old");
+      createWorkshopDemandTable(stmt);
+      stmt.execute("INSERT INTO workshop_demand (run_id, event_id, demand) "
+          + "SELECT 1, event_id, demand FROM workshop_demand_old");
+      stmt.execute("DROP TABLE workshop_demand_old");
+    }
+
+    for (String table : new String[]{"timetable_assignments", "student_assignments",
+        "workshop_demand", "fulfillment_scores"}) {
+      stmt.execute("DELETE FROM " + table + " WHERE run_id NOT IN (SELECT id FROM runs)");
+      stmt.execute("ALTER TABLE " + table + " ADD " + runForeignKey(table));
+    }
+  }
+
+  /**
+   * Returns the constraint that links the run_id column of a table to the runs. Deleting a run
+   * deletes its rows.
+   *
+   * @param table the run-scoped table
+   * @return the constraint definition
+   * @author mian
+   */
+  private static String runForeignKey(String table) {
+    return "CONSTRAINT IF NOT EXISTS fk_" + table + "_run "
+        + "FOREIGN KEY (run_id) REFERENCES runs(id) ON DELETE CASCADE";
+  }
+
+  /**
+   * Adds the event id columns to choices created before the choice strings were resolved at
+   * import, fills them from the stored strings and links them to the events. Deleting an event
+   * sets the ids referring to it to NULL, so that the choices survive an event import.
+   *
+   * @param stmt statement to execute the migration with
+   * @throws SQLException if the schema cannot be altered
+   * @author mian
+   */
+  private static void migrateChoiceEventIds(Statement stmt) throws SQLException {
+    boolean backfill = !hasColumn(stmt, "CHOICES", "CHOICE1_EVENT_ID");
+    for (int i = 1; i <= 6; i++) {
+      String column = "choice" + i + "_event_id";
+      stmt.execute("ALTER TABLE choices ADD COLUMN IF NOT EXISTS " + column + " INTEGER NULL");
+      if (backfill) {
+        stmt.execute("UPDATE choices SET " + column + " = (SELECT e.id FROM events e "
+            + "WHERE CAST(e.id AS VARCHAR) = REGEXP_REPLACE("
+            + "REGEXP_REPLACE(choice" + i + ", '[^0-9]', ''), '^0+(?=.)', ''))");
+      }
+      stmt.execute("ALTER TABLE choices ADD CONSTRAINT IF NOT EXISTS fk_choices_" + column
+          + " FOREIGN KEY (" + column + ") REFERENCES events(id) ON DELETE SET NULL");
+    }
   }
 
   /**
-   * Creates and configures a HikariCP configuration object with optimized settings.
+   * Creates the workshop demand table, keyed by run and event.
+   *
+   * @param stmt statement to execute the DDL with
+   * @throws SQLException if the table cannot be created
+   * @author mian
+   */
+  private static void createWorkshopDemandTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        "CREATE TABLE IF NOT EXISTS workshop_demand (" +
+            "run_id INTEGER DEFAULT 1 NOT NULL," +
+            "event_id INTEGER NOT NULL," +
+            "demand INTEGER NOT NULL," +
+            "PRIMARY KEY (run_id, event_id)," +
+            "FOREIGN KEY (event_id) REFERENCES events(id)," +
+            runForeignKey("workshop_demand") +
+            ")");
+  }
+
+  /**
+   * Checks whether a table in the current schema has the given column.
+   *
+   * @author mian
+   */
+  private static boolean hasColumn(Statement stmt, String table, String column)
+      throws SQLException {
+    try (ResultSet rs = stmt.executeQuery(
+        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() "
+            + "AND TABLE_NAME = '" + table + "' AND COLUMN_NAME = '" + column + "'")) {
+      return rs.next() && rs.getInt(1) > 0;
+    }
+  }
+
+  /**
+   * Creates and configures a HikariCP configuration object.
    *
    * @return Configured HikariConfig instance
    * @throws RuntimeException if configuration creation fails
@@ -207,15 +337,8 @@ public class DatabaseConfig {
    *                          for connection (20000ms / 20 seconds) - autoCommit: Enable automatic
    *                          transaction commit
    *                          <p>
-   *                          - Performance optimizations: - cachePrepStmts: Enable prepared
-   *                          statement caching - prepStmtCacheSize: Number of prepared statements
-   *                          to cache (250) - prepStmtCacheSqlLimit: Maximum length of SQL string
-   *                          to cache (2048) - useServerPrepStmts: Use server-side prepared
-   *                          statements - useLocalSessionState: Avoid unnecessary round trips to
-   *                          server - rewriteBatchedStatements: Optimize batch operations -
-   *                          cacheResultSetMetadata: Cache ResultSet metadata -
-   *                          elideSetAutoCommits: Optimize autocommit calls - maintainTimeStats:
-   *                          Disable time statistics tracking
+   *                          No driver-specific data source properties are set; the H2 driver
+   *                          ignores the MySQL statement caching and batching options.
    * @author mian
    */
   private static @NotNull HikariConfig getHikariConfig() {
@@ -223,32 +346,54 @@ public class DatabaseConfig {
     config.setJdbcUrl(DB_URL);
     config.setUsername("thanos");
     config.setPassword("infinitystones");
+    config.setPoolName("bot-app");
     config.setMaximumPoolSize(10);
     config.setMinimumIdle(5);
     config.setIdleTimeout(300000);
     config.setConnectionTimeout(20000);
     config.setAutoCommit(true);
-    config.addDataSourceProperty("cachePrepStmts", "true");
-    config.addDataSourceProperty("prepStmtCacheSize", "250");
-    config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-    config.addDataSourceProperty("useServerPrepStmts", "true");
-    config.addDataSourceProperty("useLocalSessionState", "true");
-    config.addDataSourceProperty("rewriteBatchedStatements", "true");
-    config.addDataSourceProperty("cacheResultSetMetadata", "true");
-    config.addDataSourceProperty("elideSetAutoCommits", "true");
-    config.addDataSourceProperty("maintainTimeStats", "false");
     return config;
   }
 
   /**
-   * Gets a connection from the connection pool.
+   * Gets a connection from the connection pool. The time spent waiting for the pool and every
+   * statement executed on the returned connection are recorded in {@link DatabaseMetrics}.
    *
    * @return Connection object from the pool
    * @throws SQLException if a database access error occurs
    * @author mian
    */
   public static Connection getConnection() throws SQLException {
-    return dataSource.getConnection();
+    long start = System.nanoTime();
+    Connection connection = dataSource.getConnection();
+    DatabaseMetrics.recordPoolWait(System.nanoTime() - start);
+    return InstrumentedJdbc.wrap(connection);
+  }
+
+  /**
+   * Returns the HikariCP pool statistics (active, idle and waiting connections).
+   *
+   * @return the pool MXBean, or null if the pool is not running
+   * @author mian
+   */
+  public static HikariPoolMXBean getPoolMXBean() {
+    if (dataSource == null || dataSource.isClosed()) {
+      return null;
+    }
+    return dataSource.getHikariPoolMXBean();
+  }
+
+  /**
+   * Evicts all pooled connections, for example after the database was shut down. Idle connections
+   * are closed immediately, connections in use when they are returned to the pool.
+   *
+   * @author mian
+   */
+  public static void evictConnections() {
+    HikariPoolMXBean pool = getPoolMXBean();
+    if (pool != null) {
+      pool.softEvictConnections();
+    }
   }
 
   /**
@@ -259,6 +404,7 @@ public class DatabaseConfig {
    */
   public static void closeDataSource() {
     if (dataSource != null) {
+      DatabaseMetrics.dumpSummary();
       dataSource.close();
     }
     if (h2TcpServer != null && h2TcpServer.isRunning(true)) {
@@ -0,0 +1,226 @@
+package com.openjfx.config;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects timing and row count statistics for database access.
+ *
+ * <p>Every statement executed through a connection from {@link DatabaseConfig#getConnection()}
+ * is recorded under its SQL text in a histogram with power-of-two microsecond buckets, together
+ * with the number of rows it affected or returned. The time spent waiting for a pooled connection
+ * is recorded separately, which makes it possible to tell pool exhaustion, slow statements (H2
+ * lock waits show up here) and Java-side work apart.</p>
+ *
+ * @author mian
+ */
+public final class DatabaseMetrics {
+
+  /**
+   * Number of histogram buckets; bucket i counts durations below 2^i microseconds, the last one
+   * everything above.
+   */
+  private static final int BUCKETS = 32;
+
+  /**
+   * Maximum length of the SQL text shown in the summary.
+   */
+  private static final int SQL_DISPLAY_LENGTH = 90;
+
+  private static final Map<String, Histogram> STATEMENTS = new ConcurrentHashMap<>();
+  private static final Histogram POOL_WAIT = new Histogram();
+
+  private DatabaseMetrics() {
+  }
+
+  /**
+   * Records the execution of a statement.
+   *
+   * @param sql         the SQL text
+   * @param nanos       the execution time in nanoseconds
+   * @param rows        the number of rows affected or fetched, or -1 if unknown
+   * @author mian
+   */
+  static void recordStatement(String sql, long nanos, long rows) {
+    STATEMENTS.computeIfAbsent(normalize(sql), k -> new Histogram()).record(nanos, rows);
+  }
+
+  /**
+   * Adds fetched rows to a statement that has already been recorded.
+   *
+   * @param sql  the SQL text
+   * @param rows the number of rows fetched
+   * @author mian
+   */
+  static void recordRows(String sql, long rows) {
+    STATEMENTS.computeIfAbsent(normalize(sql), k -> new Histogram()).rows.addAndGet(rows);
+  }
+
+  /**
+   * Records the time spent waiting for a connection from the pool.
+   *
+   * @param nanos the wait time in nanoseconds
+   * @author mian
+   */
+  static void recordPoolWait(long nanos) {
+    POOL_WAIT.record(nanos, -1);
+  }
+
+  /**
+   * Discards all recorded statistics.
+   *
+   * @author mian
+   */
+  public static void reset() {
+    STATEMENTS.clear();
+    POOL_WAIT.clear();
+  }
+
+  /**
+   * Returns the number of times the given statement was executed.
+   *
+   * @param sql the SQL text
+   * @return the execution count, 0 if the statement was never executed
+   * @author mian
+   */
+  public static long getExecutionCount(String sql) {
+    Histogram histogram = STATEMENTS.get(normalize(sql));
+    return histogram == null ? 0 : histogram.count.get();
+  }
+
+  /**
+   * Returns the number of rows affected or fetched by the given statement.
+   *
+   * @param sql the SQL text
+   * @return the row count, 0 if the statement was never executed
+   * @author mian
+   */
+  public static long getRowCount(String sql) {
+    Histogram histogram = STATEMENTS.get(normalize(sql));
+    return histogram == null ? 0 : histogram.rows.get();
+  }
+
+  /**
+   * Builds a human-readable summary of the pool state, the pool wait times and the statements
+   * ordered by total time spent.
+   *
+   * @return the summary text
+   * @author mian
+   */
+  public static String getSummary() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("=== Database metrics ===\n");
+
+    HikariPoolMXBean pool = DatabaseConfig.getPoolMXBean();
+    if (pool != null) {
+      sb.append(String.format("Pool: active=%d idle=%d total=%d waiting=%d%n",
+          pool.getActiveConnections(), pool.getIdleConnections(), pool.getTotalConnections(),
+          pool.getThreadsAwaitingConnection()));
+    }
+    sb.append("Pool wait: ").append(POOL_WAIT.describe()).append('\n');
+
+    List<Map.Entry<String, Histogram>> entries = new ArrayList<>(STATEMENTS.entrySet());
+    entries.sort(Comparator.comparingLong(
+        (Map.Entry<String, Histogram> e) -> e.getValue().totalNanos.get()).reversed());
+
+    sb.append("Statements (by total time):\n");
+    for (Map.Entry<String, Histogram> entry : entries) {
+      Histogram histogram = entry.getValue();
+      String sql = entry.getKey();
+      if (sql.length() > SQL_DISPLAY_LENGTH) {
+        sql = sql.substring(0, SQL_DISPLAY_LENGTH - 3) + "...";
+      }
+      sb.append("  ").append(histogram.describe())
+          .append(", rows=").append(histogram.rows.get())
+          .append("  ").append(sql).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Prints the summary to standard output.
+   *
+   * @author mian
+   */
+  public static void dumpSummary() {
+    System.out.print(getSummary());
+  }
+
+  /**
+   * Collapses whitespace so the same statement is always recorded under the same key.
+   *
+   * @author mian
+   */
+  private static String normalize(String sql) {
+    return sql == null ? "<unknown>" : sql.trim().replaceAll("\\s+", " ");
+  }
+
+  /**
+   * Lock-free latency histogram with power-of-two microsecond buckets.
+   */
+  private static final class Histogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    void record(long nanos, long rowCount) {
+      long micros = nanos / 1000;
+      int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+      buckets.incrementAndGet(bucket);
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+      if (rowCount > 0) {
+        rows.addAndGet(rowCount);
+      }
+    }
+
+    void clear() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets.set(i, 0);
+      }
+      count.set(0);
+      totalNanos.set(0);
+      maxNanos.set(0);
+      rows.set(0);
+    }
+
+    /**
+     * Returns the upper bound in microseconds of the bucket containing the given quantile.
+     */
+    long quantileMicros(double quantile) {
+      long total = count.get();
+      if (total == 0) {
+        return 0;
+      }
+      long threshold = (long) Math.ceil(total * quantile);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += buckets.get(i);
+        if (seen >= threshold) {
+          return 1L << i;
+        }
+      }
+      return 1L << (BUCKETS - 1);
+    }
+
+    String describe() {
+      long n = count.get();
+      if (n == 0) {
+        return "n=0";
+      }
+      return String.format("n=%d total=%.1fms avg=%.3fms p50<%.3fms p95<%.3fms max=%.3fms",
+          n, totalNanos.get() / 1e6, totalNanos.get() / 1e6 / n,
+          quantileMicros(0.50) / 1e3, quantileMicros(0.95) / 1e3, maxNanos.get() / 1e6);
+    }
+  }
+}
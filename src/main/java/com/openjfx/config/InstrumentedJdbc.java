@@ -0,0 +1,178 @@
+package com.openjfx.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Dynamic proxies that report statement timings and row counts to {@link DatabaseMetrics}.
+ *
+ * <p>The connection proxy wraps every statement it creates. Statement proxies time each
+ * {@code execute*} call; update counts are taken from the return value and query results are
+ * counted as they are read from the result set.</p>
+ *
+ * @author mian
+ */
+final class InstrumentedJdbc {
+
+  private InstrumentedJdbc() {
+  }
+
+  /**
+   * Wraps a connection so that all statements created from it are instrumented.
+   *
+   * @param connection the pooled connection
+   * @return the instrumented connection
+   * @author mian
+   */
+  static Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+  }
+
+  /**
+   * Invokes a method on the target and unwraps reflection exceptions so callers see the original
+   * SQLException.
+   *
+   * @author mian
+   */
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Intercepts statement creation on a connection.
+   */
+  private static final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = InstrumentedJdbc.invoke(target, method, args);
+      switch (method.getName()) {
+        case "createStatement":
+          return wrapStatement(Statement.class, (Statement) result, null);
+        case "prepareStatement":
+          return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+        case "prepareCall":
+          return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+        default:
+          return result;
+      }
+    }
+
+    private static Object wrapStatement(Class<?> type, Statement statement, String sql) {
+      return Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+          new Class<?>[]{type}, new StatementHandler(statement, sql));
+    }
+  }
+
+  /**
+   * Times execute calls on a statement.
+   */
+  private static final class StatementHandler implements InvocationHandler {
+
+    private final Statement target;
+    private final String preparedSql;
+
+    StatementHandler(Statement target, String preparedSql) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (!name.startsWith("execute")) {
+        return InstrumentedJdbc.invoke(target, method, args);
+      }
+
+      String sql = args != null && args.length > 0 && args[0] instanceof String
+          ? (String) args[0] : preparedSql;
+      long start = System.nanoTime();
+      Object result = InstrumentedJdbc.invoke(target, method, args);
+      long elapsed = System.nanoTime() - start;
+
+      DatabaseMetrics.recordStatement(sql, elapsed, rowCount(result));
+      if (result instanceof ResultSet) {
+        return Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, new ResultSetHandler((ResultSet) result, sql));
+      }
+      return result;
+    }
+
+    private static long rowCount(Object result) {
+      if (result instanceof Integer) {
+        return (Integer) result;
+      }
+      if (result instanceof Long) {
+        return (Long) result;
+      }
+      long rows = 0;
+      if (result instanceof int[]) {
+        for (int count : (int[]) result) {
+          rows += Math.max(count, 0);
+        }
+      } else if (result instanceof long[]) {
+        for (long count : (long[]) result) {
+          rows += Math.max(count, 0);
+        }
+      }
+      return rows;
+    }
+  }
+
+  /**
+   * Counts the rows read from a result set and reports them when it is closed.
+   */
+  private static final class ResultSetHandler implements InvocationHandler {
+
+    private final ResultSet target;
+    private final String sql;
+    private long rows;
+    private boolean reported;
+
+    ResultSetHandler(ResultSet target, String sql) {
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = InstrumentedJdbc.invoke(target, method, args);
+      String name = method.getName();
+      if ("next".equals(name)) {
+        if (Boolean.TRUE.equals(result)) {
+          rows++;
+        } else {
+          report();
+        }
+      } else if ("close".equals(name)) {
+        report();
+      }
+      return result;
+    }
+
+    private void report() {
+      if (!reported) {
+        reported = true;
+        DatabaseMetrics.recordRows(sql, rows);
+      }
+    }
+  }
+}
@@ -6,27 +6,41 @@ import com.openjfx.handlers.Export.FulfillmentScoreHandler;
 import com.openjfx.handlers.Export.RoomPlanHandler;
 import com.openjfx.handlers.Export.WorkshopDemandHandler;
 import com.openjfx.handlers.Import.Handler;
+import com.openjfx.models.AttendanceSheet;
 import com.openjfx.models.Event;
+import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.RoutingSlip;
+import com.openjfx.models.ScoreSheet;
 import com.openjfx.models.StudentAssignment;
 import com.openjfx.models.WorkshopDemand;
 import com.openjfx.services.*;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.util.Pair;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
+import javafx.stage.DirectoryChooser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -34,9 +48,14 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.stream.Collectors;
 
 /**
@@ -77,17 +96,27 @@ public class ExportController {
   @FXML
   private MenuItem exportToPdfMenuItemRoutingSlip;
   @FXML
+  private MenuItem exportToPdfPerClassMenuItemRoutingSlip;
+  @FXML
+  private MenuItem regenerateChangedMenuItemRoutingSlip;
+  @FXML
   private MenuButton ExportButtonAttendanceList;
   @FXML
   private MenuItem exportToExcelMenuItemAttendanceList;
   @FXML
   private MenuItem exportToPdfMenuItemAttendanceList;
   @FXML
+  private MenuItem regenerateChangedMenuItemAttendanceList;
+  @FXML
   private MenuButton ExportButtonFulfilmentScore;
   @FXML
   private MenuItem exportToExcelMenuItemFulfilmentScore;
   @FXML
   private MenuItem exportToPdfMenuItemFulfilmentScore;
+  @FXML
+  private VBox exportJobsBox;
+  @FXML
+  private Button exportBundleButton;
 
   private boolean dataVerified = false;
   private final EventService eventService;
@@ -98,12 +127,27 @@ public class ExportController {
   private final StudentTimetableMappingService studentTimetableMappingService;
   private final StudentAssignmentService studentAssignmentService;
   private final FulfillmentScoreService fulfillmentScoreService;
+  private final WriteBehindPersister persister;
   private WorkshopDemandHandler workshopDemandHandler;
   private Handler<?> currentHandler;
   private AssignmentHandler assignmentHandler;
   private RoomPlanHandler roomPlanHandler;
   private RoomService roomService;
   private FulfillmentScoreHandler fulfillmentScoreHandler;
+  private final ExportJobService exportJobService = new ExportJobService();
+  private final Map<ExportJob, JobRow> jobRows = new HashMap<>();
+  private final Consumer<ExportJob> jobListener =
+      job -> Platform.runLater(() -> showJobStatus(job));
+
+  /**
+   * Setting holding the directory the last export bundle was written to.
+   */
+  private static final String EXPORT_DIRECTORY_SETTING = "exportDirectory";
+
+  /**
+   * Setting holding the naming pattern of export bundles, see {@link ExportBundleExporter}.
+   */
+  private static final String EXPORT_PATTERN_SETTING = "exportNamingPattern";
 
   // Track whether each step has been executed
   private boolean assignmentsGenerated = false;
@@ -118,6 +162,7 @@ public class ExportController {
    * @author mian
    */
   public ExportController() {
+    this.persister = new WriteBehindPersister();
     this.excelService = new ExcelService();
     this.workshopDemandService = new WorkshopDemandService();
     this.timetableService = new TimetableService();
@@ -133,7 +178,8 @@ public class ExportController {
 
     this.assignmentService = new AssignmentService(
         choiceService, eventService, roomService, timeSlotService,
-        studentAssignmentService, this.timetableService, this.workshopDemandService);
+        studentAssignmentService, this.timetableService, this.workshopDemandService,
+        this.persister);
 
     this.assignmentHandler = new AssignmentHandler(this.excelService, this.timetableService);
     this.roomPlanHandler = new RoomPlanHandler(this.timetableService, this.excelService,
@@ -143,6 +189,7 @@ public class ExportController {
     this.studentTimetableMappingService = new StudentTimetableMappingService();
     this.studentAssignmentService = new StudentAssignmentService();
     this.fulfillmentScoreService = new FulfillmentScoreService(this.studentAssignmentService);
+    this.fulfillmentScoreService.setPersister(this.persister);
     this.fulfillmentScoreHandler = new FulfillmentScoreHandler(this.excelService);
   }
 
@@ -163,6 +210,13 @@ public class ExportController {
     // Set default handler to AssignmentHandler
     switchHandler(assignmentHandler, AssignmentButton);
 
+    // Stop the writer thread once the view is replaced by another one
+    tableView.sceneProperty().addListener((obs, oldScene, newScene) -> {
+      if (newScene == null) {
+        closePersister();
+      }
+    });
+
     // Begin data generation once only if needed
     Platform.runLater(() -> {
       if (!assignmentsGenerated || !workshopDemandGenerated ||
@@ -173,6 +227,19 @@ public class ExportController {
     });
   }
 
+  /**
+   * Writes the outstanding results and stops the writer thread of the persister.
+   *
+   * @author mian
+   */
+  private void closePersister() {
+    try {
+      persister.close();
+    } catch (SQLException e) {
+      System.err.println("Error persisting pending results: " + e.getMessage());
+    }
+  }
+
   /**
    * Initialize data for the first view if needed
    *
@@ -210,7 +277,10 @@ public class ExportController {
 
     if (!timetableGenerated) {
       try {
-        Map<Integer, Integer> workshopDemand = assignmentService.loadWorkshopDemand();
+        Map<Integer, Integer> workshopDemand = assignmentService.getWorkshopDemand();
+        if (workshopDemand == null) {
+          workshopDemand = assignmentService.loadWorkshopDemand();
+        }
         assignmentService.createAndSaveTimetable(workshopDemand);
         timetableGenerated = true;
       } catch (IOException ex) {
@@ -220,6 +290,15 @@ public class ExportController {
       }
     }
 
+    // The mapping works on the stored assignments and timetable, so wait for pending writes
+    try {
+      assignmentService.awaitPersisted();
+    } catch (IOException ex) {
+      showErrorAlert("Error saving generated data", ex.getMessage());
+      ex.printStackTrace();
+      return;
+    }
+
     if (!studentTimetableMappingGenerated) {
       try {
         showGeneratingAlert("Mapping students to timetable, please wait...");
@@ -240,6 +319,7 @@ public class ExportController {
       try {
         showGeneratingAlert("Calculating fulfillment scores, please wait...");
         double fulfillmentScore = fulfillmentScoreService.calculateFulfillmentScore();
+        assignmentService.awaitPersisted();
         fulfillmentScoreGenerated = true;
         showInfoAlert("Fulfillment Score",
             String.format("Overall fulfillment score: %.2f%%", fulfillmentScore));
@@ -420,23 +500,33 @@ public class ExportController {
 
     exportToExcelMenuItemAttendanceList.setOnAction(e -> exportData("excelAttendanceList", ""));
     exportToPdfMenuItemAttendanceList.setOnAction(e -> exportData("pdfAttendanceList", ""));
+    regenerateChangedMenuItemAttendanceList.setOnAction(
+        e -> exportData("changedAttendanceList", ""));
 
     exportToExcelMenuItemRoutingSlip.setOnAction(
         e -> exportData("excelRoutingSlip", searchField.getText()));
     exportToPdfMenuItemRoutingSlip.setOnAction(
         e -> exportData("pdfRoutingSlip", searchField.getText()));
+    exportToPdfPerClassMenuItemRoutingSlip.setOnAction(
+        e -> exportData("pdfRoutingSlipPerClass", searchField.getText()));
+    regenerateChangedMenuItemRoutingSlip.setOnAction(
+        e -> exportData("changedRoutingSlip", searchField.getText()));
 
     exportToExcelMenuItemFulfilmentScore.setOnAction(
             e -> exportData("excelFulfilmentScore", searchField.getText()));
     exportToPdfMenuItemFulfilmentScore.setOnAction(
             e -> exportData("pdfFulfilmentScore", searchField.getText()));
+
+    exportBundleButton.setOnAction(e -> handleBundleExport());
   }
 
   /**
    * Exports the table data in the specified format.
    *
    * @param format      The export format ("excelRoom", "pdfRoom", "excelAttendanceList",
-   *                    "pdfAttendanceList", "excelRoutingSlip", "pdfRoutingSlip")
+   *                    "pdfAttendanceList", "excelRoutingSlip", "pdfRoutingSlip",
+   *                    "pdfRoutingSlipPerClass", "changedAttendanceList",
+   *                    "changedRoutingSlip")
    * @param searchField the value of the search fields
    * @author mian | leon
    */
@@ -474,6 +564,15 @@ public class ExportController {
         case "pdfRoutingSlip":
           handleRoutingSlipExportPDF(dataToExport, searchField);
           break;
+        case "pdfRoutingSlipPerClass":
+          handleRoutingSlipExportPDFPerClass(dataToExport, searchField);
+          break;
+        case "changedAttendanceList":
+          handleChangedAttendanceListsExport();
+          break;
+        case "changedRoutingSlip":
+          handleChangedRoutingSlipsExport(dataToExport, searchField);
+          break;
         case "excelFulfilmentScore":
           handleFulfilmentScoreExport(dataToExport, searchField);
           break;
@@ -793,24 +892,20 @@ public class ExportController {
    * @param filterName     The filter name to include in the filename
    * @param currentHandler The RoomPlanHandler instance for processing
    *
-   * @author leon
+   * @author leon | mian
    */
   private void handleExcelExport(Object dataToExport, String filterName, Object currentHandler) {
     if (!(currentHandler instanceof RoomPlanHandler)) {
       return;
     }
 
-    List<Map<String, Object>> data = roomService.prepareDataForExport((List<Object>) dataToExport);
-    String filePath = roomService.getFilePath() + "_" + filterName + ".xlsx";
-
-    try {
-      ((RoomPlanHandler) currentHandler).exportRooms(data, filterName);
-      showInfoAlert("Export Successful",
-          "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-          "Could not export to the file: " + filePath + ", " + e.getMessage());
-    }
+    RoomPlanHandler handler = (RoomPlanHandler) currentHandler;
+    startExportJob("Room plan " + filterName + " (Excel)", progress -> {
+      List<Map<String, Object>> data = roomService.prepareDataForExport(
+          (List<?>) dataToExport);
+      handler.exportRooms(data, filterName);
+      return List.of(new File(roomService.getFilePath() + "_" + filterName + ".xlsx"));
+    });
   }
 
   /**
@@ -820,79 +915,108 @@ public class ExportController {
    * @param filterName     The filter name to include in the filename
    * @param currentHandler The RoomPlanHandler instance for processing
    *
-   * @author leon
+   * @author leon | mian
    */
   private void handlePdfExport(Object dataToExport, String filterName, Object currentHandler) {
     if (!(currentHandler instanceof RoomPlanHandler)) return;
 
-    List<Map<String, Object>> data = roomService.prepareDataForExport((List<Object>) dataToExport);
-    String filePath = roomService.getFilePath() + "_" + filterName + ".pdf";
-
-    try {
-      ((RoomPlanHandler) currentHandler).exportRoomsPDF(data, filterName);
-      showInfoAlert("Export Successful",
-              "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-              "Could not export to the file: " + filePath + ", " + e.getMessage());
-    }
+    RoomPlanHandler handler = (RoomPlanHandler) currentHandler;
+    startExportJob("Room plan " + filterName + " (PDF)", progress -> {
+      List<Map<String, Object>> data = roomService.prepareDataForExport(
+          (List<?>) dataToExport);
+      handler.exportRoomsPDF(data, filterName);
+      return List.of(new File(roomService.getFilePath() + "_" + filterName + ".pdf"));
+    });
   }
 
 
   /**
-   * Handles the export of attendance list data to Excel format
+   * Handles the export of attendance list data to Excel format. For "All Events" the attendance
+   * lists of all events are exported into one ZIP file.
    *
    * @param dataToExport The attendance data to export
-   * @param filterName   The filter name (must not be "All Events")
+   * @param filterName   The filter name
    *
-   * @author leon
+   * @author leon | mian
    */
   private void handleAttendanceListExport(Object dataToExport, String filterName) {
     if (filterName.equals("All Events")) {
-      showErrorAlert("Choice Error", "Please select a specific event and not All Events.");
+      handleAllAttendanceListsExport((List<?>) dataToExport,
+          AttendanceListBatchExporter.Format.EXCEL);
       return;
     }
 
-    Map<String, Object> data = (Map<String, Object>) timetableService.prepareDataForExportForAttendanceList(
-        (List<Object>) dataToExport);
-    String filePath = timetableService.getFilePathEvent() + "_" + filterName + ".xlsx";
-
-    try {
+    startExportJob("Attendance list " + filterName + " (Excel)", progress -> {
+      AttendanceSheet data = timetableService
+          .prepareDataForExportForAttendanceList((List<?>) dataToExport);
       assignmentHandler.exportEvents(data, filterName);
-      showInfoAlert("Export Successful",
-          "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-          "Could not export to the file: " + filePath + e.getMessage());
-    }
+      return List.of(new File(timetableService.getFilePathEvent() + "_" + filterName + ".xlsx"));
+    });
   }
 
   /**
-   * Handles the export of attendance list data to PDF format
+   * Handles the export of attendance list data to PDF format. For "All Events" the attendance
+   * lists of all events are exported into one ZIP file.
    *
    * @param dataToExport The attendance data to export
-   * @param filterName   The filter name (must not be "All Events")
+   * @param filterName   The filter name
    *
-   * @author leon
+   * @author leon | mian
    */
   private void handleAttendanceListExportPDF(Object dataToExport, String filterName) {
     if (filterName.equals("All Events")) {
-      showErrorAlert("Choice Error", "Please select a specific event and not All Events.");
+      handleAllAttendanceListsExport((List<?>) dataToExport,
+          AttendanceListBatchExporter.Format.PDF);
       return;
     }
 
-    Map<String, Object> data = (Map<String, Object>) timetableService.prepareDataForExportForAttendanceList(
-            (List<Object>) dataToExport);
-    String filePath = timetableService.getFilePathEvent() + "_" + filterName + ".pdf";
-
-    try {
+    startExportJob("Attendance list " + filterName + " (PDF)", progress -> {
+      AttendanceSheet data = timetableService
+          .prepareDataForExportForAttendanceList((List<?>) dataToExport);
       assignmentHandler.exportEventsPDF(data, filterName);
-      showInfoAlert("Export Successful",
-              "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-              "Could not export to the file: " + filePath + e.getMessage());
-    }
+      return List.of(new File(timetableService.getFilePathEvent() + "_" + filterName + ".pdf"));
+    });
+  }
+
+  /**
+   * Exports the attendance lists of all events into one ZIP file in the background. The status
+   * area shows the number of files written; cancelling the job deletes the unfinished ZIP file.
+   *
+   * @param dataToExport the assignments of all events
+   * @param format       the format of the attendance lists
+   * @author mian
+   */
+  private void handleAllAttendanceListsExport(List<?> dataToExport,
+      AttendanceListBatchExporter.Format format) {
+    File zipFile = new File(timetableService.getFilePathEvent() + "_All Events.zip");
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService);
+
+    startExportJob("Attendance lists of all events (" + format + ")", progress -> {
+      try {
+        exporter.exportToZip(dataToExport, zipFile, EnumSet.of(format), progress);
+      } catch (Exception e) {
+        zipFile.delete();
+        throw e;
+      }
+      return List.of(zipFile);
+    });
+  }
+
+  /**
+   * Writes the attendance lists of all events as Excel and PDF files into the attendance list
+   * folder, rendering only the lists whose participants changed since the last export. The event
+   * filter is ignored, as the folder always holds the lists of all events.
+   *
+   * @author mian
+   */
+  private void handleChangedAttendanceListsExport() {
+    List<StudentAssignment> dataToExport = assignmentHandler.loadData();
+    File directory = new File(timetableService.getFilePathEvent());
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService);
+
+    startExportJob("Changed attendance lists", progress -> exporter.exportChangedToDirectory(
+        dataToExport, directory, EnumSet.allOf(AttendanceListBatchExporter.Format.class),
+        progress));
   }
 
   /**
@@ -900,44 +1024,67 @@ public class ExportController {
    *
    * @param dataToExport The routing slip data to export
    * @param searchField  The search field to include in the filename
-   * @author leon
+   * @author leon | mian
    */
   private void handleRoutingSlipExport(Object dataToExport, String searchField) {
-    Map<String, Object> preparedData = timetableService.prepareDataForExportForRoutingSlip(
-        (List<Object>) dataToExport);
     String filePath = timetableService.getFilePathChoices() +
         (searchField.isEmpty() ? ".xlsx" : "_" + searchField + ".xlsx");
 
-    try {
+    startExportJob("Routing slips " + searchField + " (Excel)", progress -> {
+      List<RoutingSlip> preparedData = timetableService.prepareDataForExportForRoutingSlip(
+          (List<?>) dataToExport);
       assignmentHandler.exportChoices(preparedData, searchField);
-      showInfoAlert("Export Successful",
-          "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-          "Could not export to the file: " + filePath + "'" + e.getMessage());
-    }
+      return List.of(new File(filePath));
+    });
   }
   /**
    * Handles the export of routing slip data to Pdf format
    *
    * @param dataToExport The routing slip data to export
    * @param searchField  The search field to include in the filename
-   * @author leon
+   * @author leon | mian
    */
   private void handleRoutingSlipExportPDF(Object dataToExport, String searchField) {
-    Map<String, Object> preparedData = timetableService.prepareDataForExportForRoutingSlip(
-            (List<Object>) dataToExport);
     String filePath = timetableService.getFilePathChoices() +
             (searchField.isEmpty() ? ".pdf" : "_" + searchField + ".pdf");
 
-    try {
+    startExportJob("Routing slips " + searchField + " (PDF)", progress -> {
+      List<RoutingSlip> preparedData = timetableService.prepareDataForExportForRoutingSlip(
+          (List<?>) dataToExport);
       assignmentHandler.exportChoicesPDF(preparedData, searchField);
-      showInfoAlert("Export Successful",
-              "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-              "Could not export to the file: " + filePath + "'" + e.getMessage());
-    }
+      return List.of(new File(filePath));
+    });
+  }
+
+  /**
+   * Handles the export of routing slip data to one PDF file per class
+   *
+   * @param dataToExport The routing slip data to export
+   * @param searchField  The search field to include in the directory name
+   * @author mian
+   */
+  private void handleRoutingSlipExportPDFPerClass(Object dataToExport, String searchField) {
+    startExportJob("Routing slips " + searchField + " (PDF per class)", progress -> {
+      List<RoutingSlip> preparedData = timetableService.prepareDataForExportForRoutingSlip(
+          (List<?>) dataToExport);
+      return assignmentHandler.exportChoicesPDFPerClass(preparedData, searchField);
+    });
+  }
+
+  /**
+   * Writes the routing slips of the classes whose students' schedules changed since the last
+   * export into the folder of the per class export.
+   *
+   * @param dataToExport The routing slip data to export
+   * @param searchField  The search field to include in the directory name
+   * @author mian
+   */
+  private void handleChangedRoutingSlipsExport(Object dataToExport, String searchField) {
+    startExportJob("Changed routing slips " + searchField + " (PDF per class)", progress -> {
+      List<RoutingSlip> preparedData = timetableService.prepareDataForExportForRoutingSlip(
+          (List<?>) dataToExport);
+      return assignmentHandler.exportChangedChoicesPDFPerClass(preparedData, searchField);
+    });
   }
 
   /**
@@ -945,22 +1092,18 @@ public class ExportController {
    *
    * @param dataToExport The fulfilment score data to export
    * @param searchField  The search field to include in the filename
-   * @author leon
+   * @author leon | mian
    */
   private void handleFulfilmentScoreExport(Object dataToExport, String searchField) {
-    Map<String, Object> preparedData = fulfillmentScoreService.prepareDataForExportForFulfillmentScore(
-            (List<Object>) dataToExport);
     String filePath = fulfillmentScoreService.getFilePathScore() +
             (searchField.isEmpty() ? ".xlsx" : "_" + searchField + ".xlsx");
 
-    try {
+    startExportJob("Fulfilment scores " + searchField + " (Excel)", progress -> {
+      ScoreSheet preparedData = fulfillmentScoreService
+          .prepareDataForExportForFulfillmentScore((List<?>) dataToExport);
       fulfillmentScoreHandler.exportScore(preparedData, searchField);
-      showInfoAlert("Export Successful",
-              "Data has been successfully exported to file: '" + filePath + "'");
-    } catch (IOException e) {
-      showErrorAlert("File Error",
-              "Could not export to the file: " + filePath + "'" + e.getMessage());
-    }
+      return List.of(new File(filePath));
+    });
   }
 
   /**
@@ -968,22 +1111,201 @@ public class ExportController {
    *
    * @param dataToExport The fulfilment score data to export
    * @param searchField  The search field to include in the filename
-   * @author leon
+   * @author leon | mian
    */
   private void handleFulfilmentScoreExportPDF(Object dataToExport, String searchField) {
-    Map<String, Object> preparedData = fulfillmentScoreService.prepareDataForExportForFulfillmentScore(
-            (List<Object>) dataToExport);
     String filePath = fulfillmentScoreService.getFilePathScore() +
             (searchField.isEmpty() ? ".pdf" : "_" + searchField + ".pdf");
 
-    try {
+    startExportJob("Fulfilment scores " + searchField + " (PDF)", progress -> {
+      ScoreSheet preparedData = fulfillmentScoreService
+          .prepareDataForExportForFulfillmentScore((List<?>) dataToExport);
       fulfillmentScoreHandler.exportScorePDF(preparedData, searchField);
-      showInfoAlert("Export Successful",
-              "Data has been successfully exported to file: '" + filePath + "'");
+      return List.of(new File(filePath));
+    });
+  }
+
+  /**
+   * Exports the room plan, the attendance lists of all events, the routing slips and the
+   * fulfillment report as PDF files into one ZIP file, regardless of the current view and
+   * filters. The user picks the output directory, which is remembered in the settings; the file
+   * names follow the naming pattern in the settings.
+   *
+   * @author mian
+   */
+  private void handleBundleExport() {
+    Properties settings = loadSettings();
+    DirectoryChooser chooser = new DirectoryChooser();
+    chooser.setTitle("Select Export Folder");
+    File lastDirectory = new File(settings.getProperty(EXPORT_DIRECTORY_SETTING, "."));
+    if (lastDirectory.isDirectory()) {
+      chooser.setInitialDirectory(lastDirectory.getAbsoluteFile());
+    }
+    File directory = chooser.showDialog(exportBundleButton.getScene().getWindow());
+    if (directory == null) {
+      return;
+    }
+    settings.setProperty(EXPORT_DIRECTORY_SETTING, directory.getPath());
+    saveSettings(settings);
+
+    ExportBundleExporter exporter;
+    try {
+      exporter = new ExportBundleExporter(timetableService, roomService, fulfillmentScoreService,
+          directory, settings.getProperty(EXPORT_PATTERN_SETTING,
+          ExportBundleExporter.DEFAULT_PATTERN));
+    } catch (IllegalArgumentException e) {
+      showErrorAlert("Invalid Naming Pattern", e.getMessage());
+      return;
+    }
+
+    List<Map<String, String>> roomPlan = roomPlanHandler.loadData();
+    List<StudentAssignment> assignments = assignmentHandler.loadData();
+    List<FulfillmentScore> scores = fulfillmentScoreHandler.loadData();
+    startExportJob("Export bundle", progress -> List.of(exporter.export(roomPlan, assignments,
+        scores, EnumSet.of(AttendanceListBatchExporter.Format.PDF), progress)));
+  }
+
+  /**
+   * Loads the application settings.
+   *
+   * @return the settings, or empty settings if the file cannot be read
+   * @author mian
+   */
+  private Properties loadSettings() {
+    Properties settings = new Properties();
+    try (FileInputStream in = new FileInputStream(SettingController.SETTINGS_FILE)) {
+      settings.load(in);
     } catch (IOException e) {
-      showErrorAlert("File Error",
-              "Could not export to the file: " + filePath + "'" + e.getMessage());
+      System.out.println("Settings file not found, using defaults.");
     }
+    return settings;
   }
 
+  /**
+   * Saves the application settings, keeping the settings of the other views.
+   *
+   * @param settings the settings to save
+   * @author mian
+   */
+  private void saveSettings(Properties settings) {
+    try (FileOutputStream out = new FileOutputStream(SettingController.SETTINGS_FILE)) {
+      settings.store(out, null);
+    } catch (IOException e) {
+      System.err.println("Could not save settings: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Runs an export in the background and adds a row for it to the status area. An export that is
+   * still running with the same name is not started twice, as both would write the same file.
+   *
+   * @param name the name of the export shown in the status area
+   * @param work the export to run
+   * @author mian
+   */
+  private void startExportJob(String name, ExportJob.Work work) {
+    for (ExportJob job : exportJobService.getActiveJobs()) {
+      if (job.getName().equals(name)) {
+        showErrorAlert("Export Running", "'" + name + "' is already being exported.");
+        return;
+      }
+    }
+
+    try {
+      showJobStatus(exportJobService.submit(name, work, jobListener));
+    } catch (RejectedExecutionException e) {
+      showErrorAlert("Export Queue Full", e.getMessage());
+    }
+  }
+
+  /**
+   * Shows the state and progress of an export in its row of the status area, creating the row
+   * for a new export. Finished exports keep their row until the user closes it.
+   *
+   * @param job the export
+   * @author mian
+   */
+  private void showJobStatus(ExportJob job) {
+    JobRow row = jobRows.get(job);
+    if (row == null) {
+      row = new JobRow();
+      row.button.setOnAction(e -> exportJobService.cancel(job, jobListener));
+      jobRows.put(job, row);
+      exportJobsBox.getChildren().add(row.box);
+    }
+
+    switch (job.getState()) {
+      case QUEUED:
+        row.label.setText(job.getName() + ": waiting");
+        row.progressBar.setProgress(0);
+        break;
+      case RUNNING:
+        row.label.setText(job.getName() + (job.getTotal() > 0
+            ? ": " + job.getDone() + " of " + job.getTotal() + " files" : ": exporting"));
+        row.progressBar.setProgress(job.getTotal() > 0
+            ? (double) job.getDone() / job.getTotal() : ProgressBar.INDETERMINATE_PROGRESS);
+        break;
+      case SUCCEEDED:
+        row.label.setText(job.getName() + ": saved to " + describeFiles(job.getFiles()));
+        row.progressBar.setProgress(1);
+        break;
+      case FAILED:
+        row.label.setText(job.getName() + ": failed, " + job.getError().getMessage());
+        row.progressBar.setProgress(0);
+        break;
+      case CANCELLED:
+        row.label.setText(job.getName() + ": cancelled");
+        row.progressBar.setProgress(0);
+        break;
+    }
+
+    if (job.isFinished()) {
+      JobRow finished = row;
+      row.button.setText("Close");
+      row.button.setOnAction(e -> {
+        jobRows.remove(job);
+        exportJobsBox.getChildren().remove(finished.box);
+      });
+    } else if (job.isCancelRequested()) {
+      row.button.setDisable(true);
+    }
+  }
+
+  /**
+   * Describes the files written by an export for the status area.
+   *
+   * @param files the files written
+   * @return the path of a single file, otherwise the number of files and their folder
+   * @author mian
+   */
+  private String describeFiles(List<File> files) {
+    if (files.isEmpty()) {
+      return "no files, nothing has changed";
+    }
+    if (files.size() == 1) {
+      return "'" + files.get(0).getPath() + "'";
+    }
+    File parent = files.get(0).getAbsoluteFile().getParentFile();
+    return files.size() + " files" + (parent == null ? "" : " in '" + parent.getPath() + "'");
+  }
+
+  /**
+   * A row of the status area showing one export.
+   *
+   * @author mian
+   */
+  private static final class JobRow {
+
+    private final Label label = new Label();
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Button button = new Button("Cancel");
+    private final HBox box = new HBox(10, label, progressBar, button);
+
+    private JobRow() {
+      box.setAlignment(Pos.CENTER_LEFT);
+      HBox.setHgrow(label, Priority.ALWAYS);
+      label.setMaxWidth(Double.MAX_VALUE);
+      progressBar.setPrefWidth(150);
+    }
+  }
 }
\ No newline at end of file
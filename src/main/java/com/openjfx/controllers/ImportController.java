@@ -3,7 +3,9 @@ package com.openjfx.controllers;
 import com.openjfx.handlers.Import.ChoiceHandler;
 import com.openjfx.handlers.Import.EventHandler;
 import com.openjfx.handlers.Import.Handler;
+import com.openjfx.handlers.Import.ImportTask;
 import com.openjfx.handlers.Import.RoomHandler;
+import com.openjfx.models.ImportDelta;
 import com.openjfx.services.*;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -13,6 +15,7 @@ import javafx.stage.Stage;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import javafx.util.Pair;
 
@@ -34,12 +37,24 @@ public class ImportController {
   @FXML
   private Button importButton;
   @FXML
+  private Button workbookImportButton;
+  @FXML
+  private CheckBox deltaCheckBox;
+  @FXML
   private TextField searchField;
+  @FXML
+  private Button cancelImportButton;
+  @FXML
+  private Label importStatusLabel;
+  @FXML
+  private ProgressBar importProgressBar;
 
   private Handler<?> currentHandler;
   private final EventHandler eventHandler;
   private final ChoiceHandler choiceHandler;
   private final RoomHandler roomHandler;
+  private final WorkbookImportService workbookImportService;
+  private ImportTask importTask;
 
   /**
    * Constructor initializes the import handlers with the Excel service.
@@ -51,6 +66,7 @@ public class ImportController {
     this.eventHandler = new EventHandler(excelService);
     this.choiceHandler = new ChoiceHandler(excelService);
     this.roomHandler = new RoomHandler(excelService);
+    this.workbookImportService = new WorkbookImportService(excelService);
   }
 
   /**
@@ -86,6 +102,8 @@ public class ImportController {
     choicesButton.setOnAction(e -> switchHandler(choiceHandler, choicesButton));
     roomsButton.setOnAction(e -> switchHandler(roomHandler, roomsButton));
     importButton.setOnAction(this::handleImport);
+    workbookImportButton.setOnAction(this::handleWorkbookImport);
+    cancelImportButton.setOnAction(e -> cancelImport());
   }
 
   /**
@@ -173,25 +191,122 @@ public class ImportController {
   }
 
   /**
-   * Handles the import action, importing data from a selected file. Shows appropriate error
-   * messages for different failure scenarios.
+   * Handles the import action, importing data from a selected file in the background. The table
+   * is refreshed once the import has finished.
    *
    * @param event the action event
    * @author mian
    */
   private void handleImport(ActionEvent event) {
+    if (importTask != null) {
+      return; // An import is already running
+    }
     File file = new FileSelecterService().selectFile((Stage) importButton.getScene().getWindow());
     if (file == null) {
       return; // User canceled file selection
     }
 
-    try {
-      currentHandler.importData(file);
-      refreshTable();
+    importTask = new ImportTask(currentHandler, file, deltaCheckBox.isSelected());
+    importStatusLabel.textProperty().bind(importTask.messageProperty());
+    importProgressBar.progressProperty().bind(importTask.progressProperty());
+    setImportRunning(true);
+    importTask.start(this::importFinished);
+  }
+
+  /**
+   * Handles the workbook import action, importing events, rooms and choices from the sheets of
+   * one workbook in the background.
+   *
+   * @param event the action event
+   * @author mian
+   */
+  private void handleWorkbookImport(ActionEvent event) {
+    if (importTask != null) {
+      return; // An import is already running
+    }
+    File file = new FileSelecterService().selectFile((Stage) importButton.getScene().getWindow());
+    if (file == null) {
+      return; // User canceled file selection
+    }
+
+    importTask = new ImportTask(workbookImportService, file);
+    importStatusLabel.textProperty().bind(importTask.messageProperty());
+    importProgressBar.progressProperty().bind(importTask.progressProperty());
+    setImportRunning(true);
+    importTask.start(this::importFinished);
+  }
+
+  /**
+   * Asks the running import to stop after the current batch.
+   *
+   * @author mian
+   */
+  private void cancelImport() {
+    if (importTask != null) {
+      cancelImportButton.setDisable(true);
+      importTask.cancel();
+    }
+  }
+
+  /**
+   * Refreshes the table and reports the outcome once the import thread has ended.
+   *
+   * @param task the finished import task
+   * @author mian
+   */
+  private void importFinished(ImportTask task) {
+    importStatusLabel.textProperty().unbind();
+    importProgressBar.progressProperty().unbind();
+    importTask = null;
+    setImportRunning(false);
+    refreshTable();
+
+    if (task.isCancelled() || task.getException() instanceof CancellationException) {
+      showSuccess("Import Cancelled", "The import was cancelled before it was completed.");
+    } else if (task.getException() != null) {
+      showImportError(task.getException());
+    } else if (task.isWorkbookImport()) {
+      showSuccess("Import Successful", task.getSavedRows().entrySet().stream()
+          .map(entry -> entry.getValue() + " " + entry.getKey())
+          .collect(Collectors.joining(", ", "Imported ", ".")));
+    } else if (task.isChangesOnly()) {
+      ImportDelta delta = task.getValue();
+      showSuccess("Import Successful", String.format(
+          "%d added, %d changed, %d removed, %d unchanged.", delta.getInserted().size(),
+          delta.getUpdated().size(), delta.getDeleted().size(), delta.getUnchanged()));
+    } else {
       showSuccess("Import Successful", "Data has been successfully imported.");
-    } catch (IOException ex) {
+    }
+  }
+
+  /**
+   * Shows or hides the import progress and locks the controls that must not be used while an
+   * import is running.
+   *
+   * @param running true while an import is running
+   * @author mian
+   */
+  private void setImportRunning(boolean running) {
+    List.of(importButton, workbookImportButton, deltaCheckBox, eventsButton, choicesButton,
+            roomsButton)
+        .forEach(control -> control.setDisable(running));
+    cancelImportButton.setDisable(false);
+    List.of(cancelImportButton, importStatusLabel, importProgressBar).forEach(node -> {
+      node.setVisible(running);
+      node.setManaged(running);
+    });
+  }
+
+  /**
+   * Shows appropriate error messages for different import failure scenarios.
+   *
+   * @param ex the exception that ended the import
+   * @author mian
+   */
+  private void showImportError(Throwable ex) {
+    if (ex instanceof IOException) {
       showError("File Error", "Could not read the file: " + ex.getMessage());
-    } catch (IllegalArgumentException ex) {
+    } else if (ex instanceof IllegalArgumentException) {
       // This catches missing required fields exceptions
       String message = ex.getMessage();
 
@@ -206,7 +321,7 @@ public class ImportController {
       }
 
       showError("Import Error", errorPrefix + message);
-    } catch (Exception ex) {
+    } else {
       // Catch all other exceptions
       showError("Import Failed", "An unexpected error occurred during import: " + ex.getMessage());
     }
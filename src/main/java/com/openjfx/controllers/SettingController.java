@@ -21,7 +21,12 @@ import com.openjfx.App;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
+import java.io.File;
+import javafx.stage.FileChooser;
+import com.openjfx.services.SnapshotService;
+import com.openjfx.config.DatabaseMetrics;
 /**
  * Controller class for handling the settings view. This class manages the H2 Console button and
  * starts the H2 server when the button is clicked.
@@ -34,6 +39,12 @@ public class SettingController {
   private Button docsButton;
   @FXML
   private Button h2ConsoleButton;
+  @FXML
+  private Button snapshotExportButton;
+  @FXML
+  private Button snapshotImportButton;
+  @FXML
+  private Button dbMetricsButton;
 
   private static final int H2_PORT = 8082;
   private static final String H2_URL = "http://localhost:" + H2_PORT;
@@ -46,7 +57,7 @@ public class SettingController {
 
   private Scene scene;
   private boolean isDarkMode;
-  private static final String SETTINGS_FILE = "settings.properties";
+  static final String SETTINGS_FILE = "settings.properties";
 
   /**
    * Initializes the controller class. This method is automatically called after
@@ -57,6 +68,9 @@ public class SettingController {
     loadSettings();
     docsButton.setOnAction(event -> openDocs());
     h2ConsoleButton.setOnAction(event -> openH2Console());
+    snapshotExportButton.setOnAction(event -> exportSnapshot());
+    snapshotImportButton.setOnAction(event -> importSnapshot());
+    dbMetricsButton.setOnAction(event -> showDatabaseMetrics());
     themeToggle.setSelected(isDarkMode);
     themeToggle.setText(isDarkMode ? "Dark Mode" : "Light Mode");
     themeToggle.setOnAction(event -> toggleTheme());
@@ -399,6 +413,76 @@ public class SettingController {
     }
   }
 
+  /**
+   * Lets the user choose a target file and writes a snapshot of the current run to it.
+   *
+   * @author mian
+   */
+  private void exportSnapshot() {
+    FileChooser fileChooser = createSnapshotChooser("Save Snapshot");
+    fileChooser.setInitialFileName("bot-run.botsnap");
+    File file = fileChooser.showSaveDialog(snapshotExportButton.getScene().getWindow());
+    if (file == null) {
+      return;
+    }
+
+    try {
+      Map<String, Integer> counts = new SnapshotService().exportSnapshot(file.toPath());
+      showAlert("Information", "Snapshot saved to " + file.getName() + "\n" + counts);
+    } catch (Exception e) {
+      e.printStackTrace();
+      showAlert("Error", "Failed to save snapshot: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Lets the user choose a snapshot file and replaces the current run with its contents.
+   *
+   * @author mian
+   */
+  private void importSnapshot() {
+    FileChooser fileChooser = createSnapshotChooser("Load Snapshot");
+    File file = fileChooser.showOpenDialog(snapshotImportButton.getScene().getWindow());
+    if (file == null) {
+      return;
+    }
+
+    try {
+      Map<String, Integer> counts = new SnapshotService().importSnapshot(file.toPath());
+      showAlert("Information", "Snapshot loaded from " + file.getName() + "\n" + counts);
+    } catch (Exception e) {
+      e.printStackTrace();
+      showAlert("Error", "Failed to load snapshot: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Prints the database timing summary and shows it in a dialog.
+   *
+   * @author mian
+   */
+  private void showDatabaseMetrics() {
+    String summary = DatabaseMetrics.getSummary();
+    System.out.print(summary);
+    showAlert("Database statistics", summary);
+  }
+
+  /**
+   * Creates a file chooser filtered to snapshot files.
+   *
+   * @param title the dialog title
+   * @return the configured file chooser
+   * @author mian
+   */
+  private FileChooser createSnapshotChooser(String title) {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setTitle(title);
+    fileChooser.getExtensionFilters().addAll(
+        new FileChooser.ExtensionFilter("Snapshot Files", "*.botsnap"),
+        new FileChooser.ExtensionFilter("All Files", "*.*"));
+    return fileChooser;
+  }
+
   /**
    * Checks if a specific port is in use.
    *
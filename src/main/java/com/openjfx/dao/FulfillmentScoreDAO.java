@@ -2,6 +2,7 @@ package com.openjfx.dao;
 
 import com.openjfx.config.DatabaseConfig;
 import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.RunContext;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +17,34 @@ import java.util.List;
  */
 public class FulfillmentScoreDAO {
 
+  private static final String INSERT_SQL =
+      "INSERT INTO fulfillment_scores (student_id, class_ref, first_name, last_name, " +
+          "choice1_score, choice2_score, choice3_score, choice4_score, choice5_score, " +
+          "choice6_score, student_total_score, calculation_timestamp, " +
+          "overall_fulfillment_percentage, total_students, total_score, max_possible_score, " +
+          "run_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final RunContext runContext;
+
+  /**
+   * Creates a DAO for the fulfillment scores of the default run.
+   *
+   * @author mian
+   */
+  public FulfillmentScoreDAO() {
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Creates a DAO for the fulfillment scores of the given run.
+   *
+   * @param runContext the run to read and write
+   * @author mian
+   */
+  public FulfillmentScoreDAO(RunContext runContext) {
+    this.runContext = runContext;
+  }
+
   /**
    * Saves a fulfillment score record to the database.
    *
@@ -27,34 +56,46 @@ public class FulfillmentScoreDAO {
    * @author mian
    */
   public void saveFulfillmentScore(FulfillmentScore score) throws SQLException {
-    String sql = "INSERT INTO fulfillment_scores (student_id, class_ref, first_name, last_name, " +
-        "choice1_score, choice2_score, choice3_score, choice4_score, choice5_score, choice6_score, "
-        +
-        "student_total_score, calculation_timestamp, overall_fulfillment_percentage, " +
-        "total_students, total_score, max_possible_score) " +
-        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-      stmt.setString(1, score.getStudentId());
-      stmt.setString(2, score.getClassRef());
-      stmt.setString(3, score.getFirstName());
-      stmt.setString(4, score.getLastName());
-      stmt.setInt(5, score.getChoice1Score());
-      stmt.setInt(6, score.getChoice2Score());
-      stmt.setInt(7, score.getChoice3Score());
-      stmt.setInt(8, score.getChoice4Score());
-      stmt.setInt(9, score.getChoice5Score());
-      stmt.setInt(10, score.getChoice6Score());
-      stmt.setInt(11, score.getStudentTotalScore());
-      stmt.setTimestamp(12, Timestamp.valueOf(score.getCalculationTimestamp()));
-      stmt.setDouble(13, score.getOverallFulfillmentPercentage());
-      stmt.setInt(14, score.getTotalStudents());
-      stmt.setInt(15, score.getTotalScore());
-      stmt.setDouble(16, score.getMaxPossibleScore());
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      saveFulfillmentScores(conn, List.of(score));
+    }
+  }
 
-      stmt.executeUpdate();
+  /**
+   * Saves a list of fulfillment score records as one batch using the given connection.
+   *
+   * <p>The caller owns the connection and its transaction; this method neither commits nor closes
+   * it.</p>
+   *
+   * @param conn   the connection to write with
+   * @param scores the FulfillmentScore objects to be saved
+   * @throws SQLException if a database access error occurs or the SQL statement fails
+   * @author mian
+   */
+  public void saveFulfillmentScores(Connection conn, List<FulfillmentScore> scores)
+      throws SQLException {
+    try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+      for (FulfillmentScore score : scores) {
+        stmt.setString(1, score.getStudentId());
+        stmt.setString(2, score.getClassRef());
+        stmt.setString(3, score.getFirstName());
+        stmt.setString(4, score.getLastName());
+        stmt.setInt(5, score.getChoice1Score());
+        stmt.setInt(6, score.getChoice2Score());
+        stmt.setInt(7, score.getChoice3Score());
+        stmt.setInt(8, score.getChoice4Score());
+        stmt.setInt(9, score.getChoice5Score());
+        stmt.setInt(10, score.getChoice6Score());
+        stmt.setInt(11, score.getStudentTotalScore());
+        stmt.setTimestamp(12, Timestamp.valueOf(score.getCalculationTimestamp()));
+        stmt.setDouble(13, score.getOverallFulfillmentPercentage());
+        stmt.setInt(14, score.getTotalStudents());
+        stmt.setInt(15, score.getTotalScore());
+        stmt.setDouble(16, score.getMaxPossibleScore());
+        stmt.setInt(17, runContext.getRunId());
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
     }
   }
 
@@ -67,11 +108,12 @@ public class FulfillmentScoreDAO {
    */
   public List<FulfillmentScore> getAllFulfillmentScores() throws SQLException {
     List<FulfillmentScore> scores = new ArrayList<>();
-    String sql = "SELECT * FROM fulfillment_scores";
+    String sql = "SELECT * FROM fulfillment_scores WHERE run_id = ?";
 
     try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        ResultSet rs = stmt.executeQuery()) {
+        PreparedStatement stmt = conn.prepareStatement(sql)) {
+      stmt.setInt(1, runContext.getRunId());
+      ResultSet rs = stmt.executeQuery();
 
       while (rs.next()) {
         FulfillmentScore score = new FulfillmentScore();
@@ -107,11 +149,12 @@ public class FulfillmentScoreDAO {
    * @author mian
    */
   public boolean hasFulfillmentScores() throws SQLException {
-    String sql = "SELECT COUNT(*) FROM fulfillment_scores";
+    String sql = "SELECT COUNT(*) FROM fulfillment_scores WHERE run_id = ?";
 
     try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        ResultSet rs = stmt.executeQuery()) {
+        PreparedStatement stmt = conn.prepareStatement(sql)) {
+      stmt.setInt(1, runContext.getRunId());
+      ResultSet rs = stmt.executeQuery();
 
       if (rs.next()) {
         return rs.getInt(1) > 0;
@@ -1,7 +1,10 @@
 package com.openjfx.handlers.Export;
 
 import com.openjfx.handlers.Import.Handler;
+import com.openjfx.models.AttendanceSheet;
 import com.openjfx.models.Choice;
+import com.openjfx.models.ImportDelta;
+import com.openjfx.models.RoutingSlip;
 import com.openjfx.models.StudentAssignment;
 import com.openjfx.services.*;
 import javafx.util.Pair;
@@ -111,6 +114,20 @@ public class AssignmentHandler implements Handler<StudentAssignment> {
     // Not needed for this handler
   }
 
+  /**
+   * Import functionality is not needed for this handler.
+   *
+   * @param selectedFile file to import data from (not used)
+   * @return an empty delta, since nothing is imported
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    // Not needed for this handler
+    return new ImportDelta(List.of(), List.of(), List.of(), 0);
+  }
+
   /**
    * Checks if a student assignment matches the provided search term.
    *
@@ -170,62 +187,97 @@ public class AssignmentHandler implements Handler<StudentAssignment> {
    * Exports Event data to an Excel file. This method calls the exportEventData() function from the
    * TimetableService to generate and save the event data in Excel format.
    *
-   * @param data       The room data to be exported as a list of maps.
+   * @param data       The attendance list of the event.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportEvents(Map<String, Object> data, String filterName) throws IOException {
+  public void exportEvents(AttendanceSheet data, String filterName) throws IOException {
     String filePath = timetableService.getFilePathEvent() + "_" + filterName + ".xlsx";
-    timetableService.exportEventData(filePath,data);
+    timetableService.exportAttendanceSheet(filePath, data);
   }
 
   /**
    * Exports Event data to an PDF file. This method calls the exportAttendanceListPDF() function from the
    * TimetableService to generate and save the event data in PDF format.
    *
-   * @param data       The room data to be exported as a list of maps.
+   * @param data       The attendance list of the event.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportEventsPDF(Map<String, Object> data, String filterName) throws IOException {
+  public void exportEventsPDF(AttendanceSheet data, String filterName) throws IOException {
     String filePath = timetableService.getFilePathEvent() + "_" + filterName + ".pdf";
-    timetableService.exportEventDataPDF(filePath,data);
+    timetableService.exportAttendanceSheetPDF(filePath, data);
   }
 
   /**
    * Exports Event data to an Excel file. This method calls the exportChoiceData() function from the
    * TimetableService to generate and save the choice data in Excel format.
    *
-   * @param data       The room data to be exported as a list of maps.
+   * @param data       The routing slips, grouped by class.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportChoices(Map<String, Object> data, String filterName) throws IOException {
+  public void exportChoices(List<RoutingSlip> data, String filterName) throws IOException {
     String filePath = timetableService.getFilePathChoices() + "_" + filterName + ".xlsx";
-    List<Map<String, Object>> exportData = (List<Map<String, Object>>) data.get("data");
-    timetableService.exportChoiceData(filePath, exportData);
+    timetableService.exportRoutingSlips(filePath, data);
   }
 
   /**
-   * Exports Event data to a PDF file. This method calls the exportChoiceDataPDF() function from the
-   * TimetableService to generate and save the choice data in PDF format.
+   * Exports the routing slips to a PDF file. The classes are rendered in parallel and merged in
+   * class order.
    *
-   * @param data       The room data to be exported as a list of maps.
+   * @param data       The routing slips, grouped by class.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportChoicesPDF(Map<String, Object> data, String filterName) throws IOException {
+  public void exportChoicesPDF(List<RoutingSlip> data, String filterName) throws IOException {
     String filePath = timetableService.getFilePathChoices() + "_" + filterName + ".pdf";
-    List<Map<String, Object>> exportData = (List<Map<String, Object>>) data.get("data");
-    timetableService.exportChoiceDataPDF(filePath, exportData);
+    new RoutingSlipPdfRenderer(timetableService).exportMerged(data, filePath,
+        ExportProgress.NONE);
+  }
+
+  /**
+   * Exports the routing slips to one PDF file per class. The files are written into a directory
+   * named after the routing slip export.
+   *
+   * @param data       The routing slips, grouped by class
+   * @param filterName The addition to the directory name, or an empty string
+   * @return the written files, in class order
+   * @throws IOException If an error occurs during export.
+   * @author mian
+   */
+  public List<File> exportChoicesPDFPerClass(List<RoutingSlip> data, String filterName)
+      throws IOException {
+    File directory = new File(timetableService.getFilePathChoices()
+        + (filterName.isEmpty() ? "" : "_" + filterName));
+    return new RoutingSlipPdfRenderer(timetableService).exportPerClass(data, directory,
+        ExportProgress.NONE);
+  }
+
+  /**
+   * Exports the routing slips of the classes whose students' schedules changed since the last
+   * export to one PDF file per class. The files of unchanged classes are kept.
+   *
+   * @param data       The routing slips, grouped by class
+   * @param filterName The addition to the directory name, or an empty string
+   * @return the files written again, in class order
+   * @throws IOException If an error occurs during export.
+   * @author mian
+   */
+  public List<File> exportChangedChoicesPDFPerClass(List<RoutingSlip> data, String filterName)
+      throws IOException {
+    File directory = new File(timetableService.getFilePathChoices()
+        + (filterName.isEmpty() ? "" : "_" + filterName));
+    return new RoutingSlipPdfRenderer(timetableService).exportChangedPerClass(data,
+        directory, ExportProgress.NONE);
   }
 
 
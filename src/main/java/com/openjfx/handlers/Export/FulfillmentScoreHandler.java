@@ -3,6 +3,8 @@ package com.openjfx.handlers.Export;
 import com.openjfx.dao.FulfillmentScoreDAO;
 import com.openjfx.handlers.Import.Handler;
 import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.ImportDelta;
+import com.openjfx.models.ScoreSheet;
 import com.openjfx.services.ExcelService;
 import com.openjfx.services.FulfillmentScoreService;
 import com.openjfx.services.StudentAssignmentService;
@@ -13,7 +15,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Handler class for managing fulfillment score data and display.
@@ -96,6 +97,20 @@ public class FulfillmentScoreHandler implements Handler<FulfillmentScore> {
     // Not needed
   }
 
+  /**
+   * Import functionality is not supported for fulfillment scores.
+   *
+   * @param selectedFile unused
+   * @return an empty delta, since nothing is imported
+   * @throws IOException never thrown
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    // Not needed
+    return new ImportDelta(List.of(), List.of(), List.of(), 0);
+  }
+
   /**
    * Checks if a fulfillment score matches the search term.
    *
@@ -148,29 +163,29 @@ public class FulfillmentScoreHandler implements Handler<FulfillmentScore> {
    * Exports Fulfillment Score data to an Excel file. This method calls the exportScoreData() function from the
    * FulfillmentScoreService to generate and save the score data in Excel format.
    *
-   * @param data       The score data to be exported as a list of maps.
+   * @param data       The score sheet to be exported.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportScore(Map<String, Object> data, String filterName) throws IOException {
+  public void exportScore(ScoreSheet data, String filterName) throws IOException {
     String filePath = fulfillmentScoreService.getFilePathScore() + "_" + filterName + ".xlsx";
-    fulfillmentScoreService.exportScoreData(filePath, data);
+    fulfillmentScoreService.exportScoreSheet(filePath, data);
   }
 
   /**
    * Exports Fulfillment Score data to an PDF file. This method calls the exportScoreDataToPDF() function from the
    * FulfillmentScoreService to generate and save the room data in Excel format.
    *
-   * @param data       The score data to be exported as a list of maps.
+   * @param data       The score sheet to be exported.
    * @param filterName The addition to the file path
    * @throws IOException If an error occurs during export.
    *
-   * @author leon
+   * @author leon | mian
    */
-  public void exportScorePDF(Map<String, Object> data, String filterName) throws IOException {
+  public void exportScorePDF(ScoreSheet data, String filterName) throws IOException {
     String filePath = fulfillmentScoreService.getFilePathScore() + "_" + filterName + ".pdf";
-    fulfillmentScoreService.exportScoreDataToPDF(filePath, data);
+    fulfillmentScoreService.exportScoreSheetToPDF(filePath, data);
   }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.openjfx.handlers.Export;
 
 import com.openjfx.handlers.Import.Handler;
+import com.openjfx.models.ImportDelta;
 import com.openjfx.models.TimeSlot;
 import com.openjfx.models.TimetableRow;
 import com.openjfx.services.*;
@@ -188,6 +189,20 @@ public class RoomPlanHandler implements Handler<Map<String, String>> {
     // Not needed for export
   }
 
+  /**
+   * Import functionality is not needed for this export handler.
+   *
+   * @param selectedFile file to import data from (not used)
+   * @return an empty delta, since nothing is imported
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    // Not needed for export
+    return new ImportDelta(List.of(), List.of(), List.of(), 0);
+  }
+
   /**
    * Checks if an item matches the provided search term.
    *
@@ -1,6 +1,7 @@
 package com.openjfx.handlers.Export;
 
 import com.openjfx.handlers.Import.Handler;
+import com.openjfx.models.ImportDelta;
 import com.openjfx.models.WorkshopDemand;
 import com.openjfx.services.AssignmentService;
 import com.openjfx.services.ExcelService;
@@ -90,6 +91,20 @@ public class WorkshopDemandHandler implements Handler<WorkshopDemand> {
     // Not needed for this handler
   }
 
+  /**
+   * Import functionality not needed for this handler.
+   *
+   * @param selectedFile file to import (not used)
+   * @return an empty delta, since nothing is imported
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    // Not needed for this handler
+    return new ImportDelta(List.of(), List.of(), List.of(), 0);
+  }
+
   /**
    * Checks if a workshop demand item matches the search term.
    *
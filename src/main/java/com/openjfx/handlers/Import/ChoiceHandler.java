@@ -1,13 +1,17 @@
 package com.openjfx.handlers.Import;
 
+import com.openjfx.models.ImportDelta;
 import com.openjfx.models.Choice;
 import com.openjfx.services.ChoiceService;
 import com.openjfx.services.ExcelService;
-import com.openjfx.utils.TempFileManager;
+import com.openjfx.services.ImportPipeline;
+import com.openjfx.services.ImportProgress;
+import com.openjfx.utils.ImportSource;
 import javafx.util.Pair;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Handler for importing Choice data from an Excel file.
@@ -70,19 +74,63 @@ public class ChoiceHandler implements Handler<Choice> {
    */
   @Override
   public void importData(File selectedFile) throws IOException {
-    File tempFile = TempFileManager.createTempFile(selectedFile);
-    try {
-      List<Choice> choices = choiceService.loadFromExcel(new File(tempFile.getAbsolutePath()));
+    importData(selectedFile, ImportProgress.NONE);
+  }
 
-      if (choices.isEmpty()) {
-        throw new IllegalArgumentException("The Excel file contains no data rows");
-      }
+  /**
+   * Imports choice data from the specified file and reports the progress.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @throws IOException if an I/O error occurs during import
+   * @author mian
+   */
+  @Override
+  public void importData(File selectedFile, ImportProgress progress) throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      // Existing data is deleted in the import transaction once the first rows are valid
+      new ImportPipeline<>(choiceService).run(source.getFile(), progress);
+    }
+  }
 
-      // Clear existing data before importing new data
-      clearData();
-      choices.forEach(choiceService::saveChoice);
-    } finally {
-      TempFileManager.deleteTempFile(tempFile);
+  /**
+   * Imports only the choice rows that differ from the stored data.
+   *
+   * @param selectedFile the file to import data from
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    return importChanges(selectedFile, ImportProgress.NONE);
+  }
+
+  /**
+   * Imports only the choice rows that differ from the stored data and reports the progress.
+   * The import can be cancelled until the changes are written.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile, ImportProgress progress)
+      throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      List<Choice> choices = choiceService.loadFromExcel(source.getFile());
+      progress.update(choices.size(), choices.size(), 0);
+      if (progress.isCancelled()) {
+        throw new CancellationException("Import cancelled");
+      }
+      ImportDelta delta = choiceService.applyDelta(choices);
+      if (delta == null) {
+        throw new IOException("Failed to save the imported choices to the database");
+      }
+      progress.update(choices.size(), choices.size(), choices.size());
+      return delta;
     }
   }
 
@@ -1,13 +1,18 @@
 package com.openjfx.handlers.Import;
 
+import com.openjfx.models.ImportDelta;
 import com.openjfx.models.Event;
+import com.openjfx.services.ChoiceService;
 import com.openjfx.services.EventService;
 import com.openjfx.services.ExcelService;
-import com.openjfx.utils.TempFileManager;
+import com.openjfx.services.ImportPipeline;
+import com.openjfx.services.ImportProgress;
+import com.openjfx.utils.ImportSource;
 import javafx.util.Pair;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Handler for importing Event data from an Excel file.
@@ -17,6 +22,7 @@ import java.util.List;
 public class EventHandler implements Handler<Event> {
 
   private final EventService eventService;
+  private final ChoiceService choiceService;
 
   /**
    * Constructs an EventImportHandler with the specified ExcelService.
@@ -26,6 +32,7 @@ public class EventHandler implements Handler<Event> {
    */
   public EventHandler(ExcelService excelService) {
     this.eventService = new EventService(excelService);
+    this.choiceService = new ChoiceService(excelService);
   }
 
   /**
@@ -67,21 +74,71 @@ public class EventHandler implements Handler<Event> {
    */
   @Override
   public void importData(File selectedFile) throws IOException {
-    File tempFile = TempFileManager.createTempFile(selectedFile);
-    try {
-      List<Event> events = eventService.loadFromExcel(tempFile);
-
-      if (events.isEmpty()) {
-        throw new IllegalArgumentException("No valid events found in the file");
-      }
+    importData(selectedFile, ImportProgress.NONE);
+  }
 
-      // Clear existing events and save new ones
-      clearData();
-      events.forEach(eventService::saveEvent);
+  /**
+   * Imports event data from the specified file and reports the progress.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @throws IOException if an I/O error occurs during import
+   * @author mian
+   */
+  @Override
+  public void importData(File selectedFile, ImportProgress progress) throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      // Existing data is deleted in the import transaction once the first rows are valid
+      new ImportPipeline<>(eventService).run(source.getFile(), progress);
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Failed to import events: " + e.getMessage());
     } finally {
-      TempFileManager.deleteTempFile(tempFile);
+      // Replacing the events clears the event ids of the stored choices
+      choiceService.linkEventIds();
+    }
+  }
+
+  /**
+   * Imports only the event rows that differ from the stored data.
+   *
+   * @param selectedFile the file to import data from
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    return importChanges(selectedFile, ImportProgress.NONE);
+  }
+
+  /**
+   * Imports only the event rows that differ from the stored data and reports the progress.
+   * The import can be cancelled until the changes are written.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile, ImportProgress progress)
+      throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      List<Event> events = eventService.loadFromExcel(source.getFile());
+      progress.update(events.size(), events.size(), 0);
+      if (progress.isCancelled()) {
+        throw new CancellationException("Import cancelled");
+      }
+      ImportDelta delta = eventService.applyDelta(events);
+      if (delta == null) {
+        throw new IOException("Failed to save the imported events to the database");
+      }
+      progress.update(events.size(), events.size(), events.size());
+      choiceService.linkEventIds();
+      return delta;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Failed to import events: " + e.getMessage());
     }
   }
 
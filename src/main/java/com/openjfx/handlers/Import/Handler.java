@@ -1,6 +1,8 @@
 package com.openjfx.handlers.Import;
 
+import com.openjfx.models.ImportDelta;
 import com.openjfx.services.ExcelService;
+import com.openjfx.services.ImportProgress;
 import javafx.util.Pair;
 import java.io.File;
 import java.io.IOException;
@@ -40,6 +42,47 @@ public interface Handler<T> {
    */
   void importData(File selectedFile) throws IOException;
 
+  /**
+   * Imports data from the specified file and reports the progress. The import checks for
+   * cancellation between batches and rolls back when it has been cancelled. Handlers that do not
+   * report progress import the file with {@link #importData(File)}.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @throws IOException if an I/O error occurs during import
+   * @author mian
+   */
+  default void importData(File selectedFile, ImportProgress progress) throws IOException {
+    importData(selectedFile);
+  }
+
+  /**
+   * Imports only the rows of the specified file that differ from the stored data. Rows are
+   * matched by their natural key; new rows are inserted, changed rows updated and rows missing
+   * from the file deleted.
+   *
+   * @param selectedFile the file to import data from
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  ImportDelta importChanges(File selectedFile) throws IOException;
+
+  /**
+   * Imports only the changed rows of the specified file and reports the progress. The import can
+   * be cancelled until the changes are written.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  default ImportDelta importChanges(File selectedFile, ImportProgress progress)
+      throws IOException {
+    return importChanges(selectedFile);
+  }
+
   /**
    * Checks if the given item matches the search term.
    *
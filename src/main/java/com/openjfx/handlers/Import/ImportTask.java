@@ -0,0 +1,166 @@
+package com.openjfx.handlers.Import;
+
+import com.openjfx.models.ImportDelta;
+import com.openjfx.services.ImportProgress;
+import com.openjfx.services.WorkbookImportService;
+import java.io.File;
+import java.util.Map;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+/**
+ * Runs an import in the background so that the user interface stays responsive. The task reports
+ * the number of rows read, validated and saved as its message and can be cancelled; the import
+ * stops between batches and rolls back its transaction.
+ *
+ * <p>Cancelling never interrupts the import thread, so a database statement is not aborted
+ * halfway. Use {@link #start(Consumer)} to be notified once the import thread has really
+ * finished, also after a cancellation.</p>
+ *
+ * @author mian
+ */
+public class ImportTask extends Task<ImportDelta> {
+
+  private final Handler<?> handler;
+  private final WorkbookImportService workbookService;
+  private final File file;
+  private final boolean changesOnly;
+  private volatile Map<String, Integer> savedRows;
+
+  /**
+   * Creates a task that imports the whole file.
+   *
+   * @param handler the handler that imports the data
+   * @param file    the file to import
+   * @author mian
+   */
+  public ImportTask(Handler<?> handler, File file) {
+    this(handler, file, false);
+  }
+
+  /**
+   * Creates an import task.
+   *
+   * @param handler     the handler that imports the data
+   * @param file        the file to import
+   * @param changesOnly true to apply only the rows that differ from the stored data
+   * @author mian
+   */
+  public ImportTask(Handler<?> handler, File file, boolean changesOnly) {
+    this(handler, null, file, changesOnly);
+  }
+
+  /**
+   * Creates a task that imports all sheets of a workbook together.
+   *
+   * @param workbookService the service that imports the sheets
+   * @param file            the workbook to import
+   * @author mian
+   */
+  public ImportTask(WorkbookImportService workbookService, File file) {
+    this(null, workbookService, file, false);
+  }
+
+  private ImportTask(Handler<?> handler, WorkbookImportService workbookService, File file,
+      boolean changesOnly) {
+    this.handler = handler;
+    this.workbookService = workbookService;
+    this.file = file;
+    this.changesOnly = changesOnly;
+    updateMessage("Reading " + file.getName() + "...");
+  }
+
+  /**
+   * Imports the file.
+   *
+   * @return the applied changes for a delta import, or null for a full or workbook import
+   * @throws Exception if the import fails
+   * @author mian
+   */
+  @Override
+  protected ImportDelta call() throws Exception {
+    ImportProgress progress = new ImportProgress() {
+      @Override
+      public void update(int parsed, int validated, int written) {
+        updateMessage(String.format("%d rows read, %d validated, %d saved", parsed, validated,
+            written));
+        // The total is only known once the whole sheet has been read
+        updateProgress(written, parsed);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return ImportTask.this.isCancelled();
+      }
+    };
+
+    if (workbookService != null) {
+      savedRows = workbookService.importWorkbook(file, progress);
+      return null;
+    }
+    if (changesOnly) {
+      return handler.importChanges(file, progress);
+    }
+    handler.importData(file, progress);
+    return null;
+  }
+
+  /**
+   * Cancels the import at the next batch boundary. The import thread is never interrupted.
+   *
+   * @param mayInterruptIfRunning ignored
+   * @return true if the task was cancelled
+   * @author mian
+   */
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    return super.cancel(false);
+  }
+
+  /**
+   * Gets whether this task applies only the changed rows.
+   *
+   * @return true for a delta import
+   * @author mian
+   */
+  public boolean isChangesOnly() {
+    return changesOnly;
+  }
+
+  /**
+   * Gets whether this task imports all sheets of a workbook.
+   *
+   * @return true for a workbook import
+   * @author mian
+   */
+  public boolean isWorkbookImport() {
+    return workbookService != null;
+  }
+
+  /**
+   * Gets the number of rows saved per table by a successful workbook import.
+   *
+   * @return the saved rows per table, or null if no workbook has been imported
+   * @author mian
+   */
+  public Map<String, Integer> getSavedRows() {
+    return savedRows;
+  }
+
+  /**
+   * Starts the task on a background thread.
+   *
+   * @param onFinished called on the JavaFX application thread once the import thread has ended,
+   *                   whether the task succeeded, failed or was cancelled
+   * @author mian
+   */
+  public void start(Consumer<ImportTask> onFinished) {
+    Thread thread = new Thread(() -> {
+      run();
+      Platform.runLater(() -> onFinished.accept(this));
+    }, "import-task");
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
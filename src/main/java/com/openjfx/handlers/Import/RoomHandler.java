@@ -1,13 +1,17 @@
 package com.openjfx.handlers.Import;
 
+import com.openjfx.models.ImportDelta;
 import com.openjfx.models.Room;
 import com.openjfx.services.ExcelService;
+import com.openjfx.services.ImportPipeline;
+import com.openjfx.services.ImportProgress;
 import com.openjfx.services.RoomService;
-import com.openjfx.utils.TempFileManager;
+import com.openjfx.utils.ImportSource;
 import javafx.util.Pair;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Handler for importing Room data from an Excel file.
@@ -63,19 +67,63 @@ public class RoomHandler implements Handler<Room> {
    */
   @Override
   public void importData(File selectedFile) throws IOException {
-    File tempFile = TempFileManager.createTempFile(selectedFile);
-    try {
-      List<Room> rooms = roomService.loadFromExcel(new File(tempFile.getAbsolutePath()));
+    importData(selectedFile, ImportProgress.NONE);
+  }
 
-      if (rooms.isEmpty()) {
-        throw new IOException("No rooms found in Excel file");
-      }
+  /**
+   * Imports room data from the specified file and reports the progress.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @throws IOException if an I/O error occurs during import
+   * @author mian
+   */
+  @Override
+  public void importData(File selectedFile, ImportProgress progress) throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      // Existing data is deleted in the import transaction once the first rows are valid
+      new ImportPipeline<>(roomService).run(source.getFile(), progress);
+    }
+  }
 
-      // Clear existing room data before importing new data
-      clearData();
-      rooms.forEach(roomService::saveRoom);
-    } finally {
-      TempFileManager.deleteTempFile(tempFile);
+  /**
+   * Imports only the room rows that differ from the stored data.
+   *
+   * @param selectedFile the file to import data from
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile) throws IOException {
+    return importChanges(selectedFile, ImportProgress.NONE);
+  }
+
+  /**
+   * Imports only the room rows that differ from the stored data and reports the progress.
+   * The import can be cancelled until the changes are written.
+   *
+   * @param selectedFile the file to import data from
+   * @param progress     receives the row counts and tells the import whether to stop
+   * @return the applied changes
+   * @throws IOException if an I/O error occurs or the changes cannot be saved
+   * @author mian
+   */
+  @Override
+  public ImportDelta importChanges(File selectedFile, ImportProgress progress)
+      throws IOException {
+    try (ImportSource source = ImportSource.open(selectedFile)) {
+      List<Room> rooms = roomService.loadFromExcel(source.getFile());
+      progress.update(rooms.size(), rooms.size(), 0);
+      if (progress.isCancelled()) {
+        throw new CancellationException("Import cancelled");
+      }
+      ImportDelta delta = roomService.applyDelta(rooms);
+      if (delta == null) {
+        throw new IOException("Failed to save the imported rooms to the database");
+      }
+      progress.update(rooms.size(), rooms.size(), rooms.size());
+      return delta;
     }
   }
 
@@ -0,0 +1,217 @@
+package com.openjfx.models;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The `AttendanceSheet` class holds the attendance list of one event: the participants of each
+ * time slot, in chronological order. It is prepared once from the assignments of the event and
+ * read directly by the Excel and PDF writers.
+ *
+ * @author mian
+ */
+public final class AttendanceSheet {
+
+  private final String event;
+  private final List<Slot> slots;
+
+  /**
+   * Constructs a new `AttendanceSheet`.
+   *
+   * @param event the name of the event
+   * @param slots the time slots of the event, in the order they are printed
+   * @author mian
+   */
+  public AttendanceSheet(String event, List<Slot> slots) {
+    this.event = event;
+    this.slots = List.copyOf(slots);
+  }
+
+  /**
+   * Returns the name of the event.
+   *
+   * @return the event name
+   * @author mian
+   */
+  public String getEvent() {
+    return event;
+  }
+
+  /**
+   * Returns the time slots of the event.
+   *
+   * @return the time slots, in the order they are printed
+   * @author mian
+   */
+  public List<Slot> getSlots() {
+    return slots;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AttendanceSheet)) {
+      return false;
+    }
+    AttendanceSheet that = (AttendanceSheet) o;
+    return Objects.equals(event, that.event) && slots.equals(that.slots);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(event, slots);
+  }
+
+  @Override
+  public String toString() {
+    return "AttendanceSheet[event=" + event + ", slots=" + slots + "]";
+  }
+
+  /**
+   * The participants of an event in one time slot.
+   *
+   * @author mian
+   */
+  public static final class Slot {
+
+    private final String time;
+    private final List<Participant> participants;
+
+    /**
+     * Constructs a new `Slot`.
+     *
+     * @param time         the time range of the slot, such as 08:45-09:30
+     * @param participants the participants, in the order they are printed
+     * @author mian
+     */
+    public Slot(String time, List<Participant> participants) {
+      this.time = time;
+      this.participants = List.copyOf(participants);
+    }
+
+    /**
+     * Returns the time range of the slot.
+     *
+     * @return the time range
+     * @author mian
+     */
+    public String getTime() {
+      return time;
+    }
+
+    /**
+     * Returns the participants of the slot.
+     *
+     * @return the participants, in the order they are printed
+     * @author mian
+     */
+    public List<Participant> getParticipants() {
+      return participants;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Slot)) {
+        return false;
+      }
+      Slot that = (Slot) o;
+      return Objects.equals(time, that.time) && participants.equals(that.participants);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(time, participants);
+    }
+
+    @Override
+    public String toString() {
+      return "Slot[time=" + time + ", participants=" + participants + "]";
+    }
+  }
+
+  /**
+   * A student on the attendance list.
+   *
+   * @author mian
+   */
+  public static final class Participant {
+
+    private final String className;
+    private final String lastName;
+    private final String firstName;
+
+    /**
+     * Constructs a new `Participant`.
+     *
+     * @param className the class of the student
+     * @param lastName  the last name of the student
+     * @param firstName the first name of the student
+     * @author mian
+     */
+    public Participant(String className, String lastName, String firstName) {
+      this.className = className;
+      this.lastName = lastName;
+      this.firstName = firstName;
+    }
+
+    /**
+     * Returns the class of the student.
+     *
+     * @return the class
+     * @author mian
+     */
+    public String getClassName() {
+      return className;
+    }
+
+    /**
+     * Returns the last name of the student.
+     *
+     * @return the last name
+     * @author mian
+     */
+    public String getLastName() {
+      return lastName;
+    }
+
+    /**
+     * Returns the first name of the student.
+     *
+     * @return the first name
+     * @author mian
+     */
+    public String getFirstName() {
+      return firstName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Participant)) {
+        return false;
+      }
+      Participant that = (Participant) o;
+      return Objects.equals(className, that.className)
+          && Objects.equals(lastName, that.lastName)
+          && Objects.equals(firstName, that.firstName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(className, lastName, firstName);
+    }
+
+    @Override
+    public String toString() {
+      return "Participant[className=" + className + ", lastName=" + lastName + ", firstName="
+          + firstName + "]";
+    }
+  }
+}
@@ -10,6 +10,13 @@ import java.util.Objects;
  */
 public class Choice {
 
+  /**
+   * Event id of a choice that is empty or names no known event.
+   *
+   * @author mian
+   */
+  public static final int NO_EVENT = 0;
+
   private String classRef;
   private String firstName;
   private String lastName;
@@ -19,6 +26,7 @@ public class Choice {
   private String choice4;
   private String choice5;
   private String choice6;
+  private final int[] choiceEventIds = new int[6];
 
   /**
    * Constructs a new Choice with the specified attributes.
@@ -240,6 +248,29 @@ public class Choice {
     this.choice6 = choice6;
   }
 
+  /**
+   * Gets the event id a choice was resolved to when it was imported. The choice strings are kept
+   * for display only; assignment and demand calculations use these ids.
+   *
+   * @param priority the priority of the choice, from 1 (most preferred) to 6
+   * @return the event id, or {@link #NO_EVENT} if the choice names no known event
+   * @author mian
+   */
+  public int getChoiceEventId(int priority) {
+    return choiceEventIds[priority - 1];
+  }
+
+  /**
+   * Sets the event id a choice was resolved to.
+   *
+   * @param priority the priority of the choice, from 1 (most preferred) to 6
+   * @param eventId  the event id, or {@link #NO_EVENT} if the choice names no known event
+   * @author mian
+   */
+  public void setChoiceEventId(int priority, int eventId) {
+    choiceEventIds[priority - 1] = eventId;
+  }
+
   /**
    * Checks if this Choice is equal to another object.
    *
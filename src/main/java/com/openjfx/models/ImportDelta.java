@@ -0,0 +1,113 @@
+package com.openjfx.models;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The `ImportDelta` class describes the changes applied by a delta import. Rows are identified by
+ * their natural key (student name and class, event id or room name), so later steps can be
+ * limited to the students, events or rooms that actually changed.
+ *
+ * @author mian
+ */
+public class ImportDelta {
+
+  private final List<String> inserted;
+  private final List<String> updated;
+  private final List<String> deleted;
+  private final int unchanged;
+
+  /**
+   * Constructs a new `ImportDelta`.
+   *
+   * @param inserted  natural keys of the inserted rows
+   * @param updated   natural keys of the updated rows
+   * @param deleted   natural keys of the deleted rows
+   * @param unchanged number of rows that were already up to date
+   * @author mian
+   */
+  public ImportDelta(List<String> inserted, List<String> updated, List<String> deleted,
+      int unchanged) {
+    this.inserted = Collections.unmodifiableList(inserted);
+    this.updated = Collections.unmodifiableList(updated);
+    this.deleted = Collections.unmodifiableList(deleted);
+    this.unchanged = unchanged;
+  }
+
+  /**
+   * Returns the natural keys of the inserted rows.
+   *
+   * @return the inserted keys
+   * @author mian
+   */
+  public List<String> getInserted() {
+    return inserted;
+  }
+
+  /**
+   * Returns the natural keys of the updated rows.
+   *
+   * @return the updated keys
+   * @author mian
+   */
+  public List<String> getUpdated() {
+    return updated;
+  }
+
+  /**
+   * Returns the natural keys of the deleted rows.
+   *
+   * @return the deleted keys
+   * @author mian
+   */
+  public List<String> getDeleted() {
+    return deleted;
+  }
+
+  /**
+   * Returns the number of rows that were already up to date.
+   *
+   * @return the number of unchanged rows
+   * @author mian
+   */
+  public int getUnchanged() {
+    return unchanged;
+  }
+
+  /**
+   * Returns the natural keys of all inserted, updated and deleted rows.
+   *
+   * @return the affected keys
+   * @author mian
+   */
+  public Set<String> getAffectedKeys() {
+    Set<String> keys = new LinkedHashSet<>(inserted);
+    keys.addAll(updated);
+    keys.addAll(deleted);
+    return keys;
+  }
+
+  /**
+   * Returns whether the import changed nothing.
+   *
+   * @return true if no row was inserted, updated or deleted
+   * @author mian
+   */
+  public boolean isEmpty() {
+    return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+  }
+
+  /**
+   * Returns a string representation of the `ImportDelta` object.
+   *
+   * @return a string representation of the `ImportDelta` object
+   * @author mian
+   */
+  @Override
+  public String toString() {
+    return "ImportDelta{inserted=" + inserted.size() + ", updated=" + updated.size()
+        + ", deleted=" + deleted.size() + ", unchanged=" + unchanged + '}';
+  }
+}
@@ -0,0 +1,194 @@
+package com.openjfx.models;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The `RoutingSlip` class holds the routing slip of one student: the events the student attends,
+ * in the order of the time slots. Routing slips are prepared once from the assignments, grouped
+ * by class and student, and read directly by the Excel and PDF writers.
+ *
+ * @author mian
+ */
+public final class RoutingSlip {
+
+  private final String className;
+  private final String studentName;
+  private final List<Entry> entries;
+
+  /**
+   * Constructs a new `RoutingSlip`.
+   *
+   * @param className   the class of the student
+   * @param studentName the name of the student as printed, "last name, first name"
+   * @param entries     the events of the student, in the order they are printed
+   * @author mian
+   */
+  public RoutingSlip(String className, String studentName, List<Entry> entries) {
+    this.className = className;
+    this.studentName = studentName;
+    this.entries = List.copyOf(entries);
+  }
+
+  /**
+   * Returns the class of the student.
+   *
+   * @return the class
+   * @author mian
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Returns the name of the student as printed.
+   *
+   * @return the student name
+   * @author mian
+   */
+  public String getStudentName() {
+    return studentName;
+  }
+
+  /**
+   * Returns the events of the student.
+   *
+   * @return the entries, in the order they are printed
+   * @author mian
+   */
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RoutingSlip)) {
+      return false;
+    }
+    RoutingSlip that = (RoutingSlip) o;
+    return Objects.equals(className, that.className)
+        && Objects.equals(studentName, that.studentName)
+        && entries.equals(that.entries);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(className, studentName, entries);
+  }
+
+  @Override
+  public String toString() {
+    return "RoutingSlip[className=" + className + ", studentName=" + studentName + ", entries="
+        + entries + "]";
+  }
+
+  /**
+   * One event on a routing slip.
+   *
+   * @author mian
+   */
+  public static final class Entry {
+
+    private final String time;
+    private final String room;
+    private final String event;
+    private final String description;
+    private final Integer choice;
+
+    /**
+     * Constructs a new `Entry`.
+     *
+     * @param time        the time range of the event, such as 08:00-08:45
+     * @param room        the room of the event
+     * @param event       the company hosting the event
+     * @param description the subject of the event
+     * @param choice      the number of the student's choice the event fulfills, or null
+     * @author mian
+     */
+    public Entry(String time, String room, String event, String description, Integer choice) {
+      this.time = time;
+      this.room = room;
+      this.event = event;
+      this.description = description;
+      this.choice = choice;
+    }
+
+    /**
+     * Returns the time range of the event.
+     *
+     * @return the time range
+     * @author mian
+     */
+    public String getTime() {
+      return time;
+    }
+
+    /**
+     * Returns the room of the event.
+     *
+     * @return the room
+     * @author mian
+     */
+    public String getRoom() {
+      return room;
+    }
+
+    /**
+     * Returns the company hosting the event.
+     *
+     * @return the company
+     * @author mian
+     */
+    public String getEvent() {
+      return event;
+    }
+
+    /**
+     * Returns the subject of the event.
+     *
+     * @return the subject
+     * @author mian
+     */
+    public String getDescription() {
+      return description;
+    }
+
+    /**
+     * Returns the number of the student's choice the event fulfills.
+     *
+     * @return the choice number, or null if the event was not chosen
+     * @author mian
+     */
+    public Integer getChoice() {
+      return choice;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry that = (Entry) o;
+      return Objects.equals(time, that.time) && Objects.equals(room, that.room)
+          && Objects.equals(event, that.event) && Objects.equals(description, that.description)
+          && Objects.equals(choice, that.choice);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(time, room, event, description, choice);
+    }
+
+    @Override
+    public String toString() {
+      return "Entry[time=" + time + ", room=" + room + ", event=" + event + ", description="
+          + description + ", choice=" + choice + "]";
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.openjfx.models;
+
+import java.util.Objects;
+
+/**
+ * The `RunContext` class identifies one scheduling run (scenario). Assignments, timetable,
+ * workshop demand and fulfillment scores are stored per run, so several variants of a schedule can
+ * exist side by side. The `runId` field is used as the primary key for identifying runs.
+ *
+ * @author mian
+ */
+public class RunContext {
+
+  /**
+   * The run that existing data belongs to and that is used when no run is selected.
+   */
+  public static final RunContext DEFAULT = new RunContext(1, "Default");
+
+  private final int runId;
+  private final String name;
+
+  /**
+   * Constructs a new `RunContext` with the specified id and name.
+   *
+   * @param runId the id of the run
+   * @param name  the display name of the run
+   * @author mian
+   */
+  public RunContext(int runId, String name) {
+    this.runId = runId;
+    this.name = name;
+  }
+
+  /**
+   * Returns the id of the run.
+   *
+   * @return the id of the run
+   * @author mian
+   */
+  public int getRunId() {
+    return runId;
+  }
+
+  /**
+   * Returns the display name of the run.
+   *
+   * @return the display name of the run
+   * @author mian
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Indicates whether some other object is "equal to" this one. The `runId` field is used for
+   * equality comparison.
+   *
+   * @param o the reference object with which to compare
+   * @return `true` if this object is the same as the obj argument; `false` otherwise
+   * @author mian
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RunContext that = (RunContext) o;
+    return runId == that.runId;
+  }
+
+  /**
+   * Returns a hash code value for the object. The `runId` field is used for generating the hash
+   * code.
+   *
+   * @return a hash code value for this object
+   * @author mian
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(runId);
+  }
+
+  /**
+   * Returns a string representation of the object.
+   *
+   * @return a string representation of the object
+   * @author mian
+   */
+  @Override
+  public String toString() {
+    return "RunContext{" +
+        "runId=" + runId +
+        ", name='" + name + '\'' +
+        '}';
+  }
+}
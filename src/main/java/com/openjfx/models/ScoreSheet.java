@@ -0,0 +1,136 @@
+package com.openjfx.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The `ScoreSheet` class holds the fulfillment report: one row of values per student, in the
+ * order of the columns. Values are kept as numbers where they are numbers, so that the Excel
+ * writer can store them as numeric cells.
+ *
+ * @author mian
+ */
+public final class ScoreSheet {
+
+  /**
+   * The columns of the fulfillment report.
+   *
+   * @author mian
+   */
+  public static final List<String> COLUMNS = List.of("Class", "First Name", "Last Name",
+      "Choice 1 Score", "Choice 2 Score", "Choice 3 Score", "Choice 4 Score", "Choice 5 Score",
+      "Choice 6 Score", "Total Score", "Overall %", "Class Total", "Max Possible");
+
+  private final List<String> columns;
+  private final List<Row> rows;
+
+  /**
+   * Constructs a new `ScoreSheet`.
+   *
+   * @param columns the column titles
+   * @param rows    the rows, each with one value per column
+   * @author mian
+   */
+  public ScoreSheet(List<String> columns, List<Row> rows) {
+    this.columns = List.copyOf(columns);
+    this.rows = List.copyOf(rows);
+  }
+
+  /**
+   * Returns the column titles.
+   *
+   * @return the column titles
+   * @author mian
+   */
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns the rows of the report.
+   *
+   * @return the rows, in the order they are printed
+   * @author mian
+   */
+  public List<Row> getRows() {
+    return rows;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ScoreSheet)) {
+      return false;
+    }
+    ScoreSheet that = (ScoreSheet) o;
+    return columns.equals(that.columns) && rows.equals(that.rows);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * columns.hashCode() + rows.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ScoreSheet[columns=" + columns + ", rows=" + rows + "]";
+  }
+
+  /**
+   * The values of one student, in column order.
+   *
+   * @author mian
+   */
+  public static final class Row {
+
+    private final Object[] values;
+
+    /**
+     * Constructs a new `Row`.
+     *
+     * @param values the values in column order; missing values are null
+     * @author mian
+     */
+    public Row(Object... values) {
+      this.values = values.clone();
+    }
+
+    /**
+     * Returns the number of values in the row.
+     *
+     * @return the number of values
+     * @author mian
+     */
+    public int size() {
+      return values.length;
+    }
+
+    /**
+     * Returns the value of a column.
+     *
+     * @param column the index of the column
+     * @return the value, or null if the row has no value for the column
+     * @author mian
+     */
+    public Object get(int column) {
+      return column < values.length ? values[column] : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || (o instanceof Row && Arrays.equals(values, ((Row) o).values));
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+      return "Row" + Arrays.toString(values);
+    }
+  }
+}
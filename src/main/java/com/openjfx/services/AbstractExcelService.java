@@ -1,10 +1,18 @@
 package com.openjfx.services;
 
+import com.openjfx.config.DatabaseConfig;
+import com.openjfx.models.ImportDelta;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.io.File;
 
 /**
@@ -33,29 +41,30 @@ public abstract class AbstractExcelService<T> {
   protected final ExcelService excelService;
 
   /**
-   * Constructs a new AbstractExcelService with the specified Excel service.
+   * Default number of rows sent to the database in one JDBC batch by {@link #saveAll(List)}.
    *
-   * @param excelService the Excel service to use for file operations
    * @author mian
    */
-  public AbstractExcelService(ExcelService excelService) {
-    this.excelService = excelService;
-  }
+  public static final int DEFAULT_BATCH_SIZE = 500;
 
   /**
-   * Finds a column in the Excel data that matches the given prefix. The matching is
-   * case-insensitive and uses the startsWith method.
+   * Number of rows sent to the database in one JDBC batch.
    *
-   * @param row          the row data containing column names
-   * @param columnPrefix the prefix to match against column names
-   * @return the matched column name, or an empty string if no match is found
    * @author mian
    */
-  protected String findColumn(Map<String, String> row, String columnPrefix) {
-    return row.keySet().stream()
-        .filter(key -> key.toLowerCase().trim().startsWith(columnPrefix))
-        .findFirst()
-        .orElse("");
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  /**
+   * Constructs a new AbstractExcelService with the specified Excel service.
+   *
+   * @param excelService the Excel service to use for file operations
+   * @author mian
+   */
+  public AbstractExcelService(ExcelService excelService) {
+    this.excelService = excelService;
   }
 
   /**
@@ -68,46 +77,68 @@ public abstract class AbstractExcelService<T> {
    * @author mian
    */
   public List<T> loadFromExcel(File excelFile) throws IOException, IllegalArgumentException {
-    List<Map<String, String>> rows = excelService.readExcelFile(excelFile.getPath());
-    if (rows.isEmpty()) {
-      throw new IllegalArgumentException("The Excel file contains no data rows");
-    }
-
-    Map<String, String> columnMappings = new HashMap<>();
-    Map<String, String> firstRow = rows.get(0);
-    Map<String, String> columnPrefixes = getColumnPrefixes();
-
-    for (Map.Entry<String, String> entry : columnPrefixes.entrySet()) {
-      String key = entry.getKey();
-      String prefix = entry.getValue();
-      columnMappings.put(key, findColumn(firstRow, prefix));
-    }
+    List<T> importedObjects = new ArrayList<>();
 
-    validateRequiredColumns(columnMappings);
+    excelService.readExcelFile(excelFile.getPath(), new ExcelService.RowConsumer() {
+      private ImportPlan plan;
 
-    List<T> importedObjects = new ArrayList<>();
-    int rowNumber = 1;
+      @Override
+      public void headers(String[] headers) {
+        plan = compileImportPlan(headers);
+      }
 
-    for (Map<String, String> row : rows) {
-      rowNumber++;
-      try {
-        T model = createModelFromRow(row, columnMappings);
-        if (model != null) {
-          importedObjects.add(model);
-        } else {
-          throw new IllegalArgumentException("Invalid data in row " + rowNumber);
+      @Override
+      public void row(int rowNumber, String[] values) {
+        if (importedObjects.isEmpty()) {
+          validateRequiredColumns(plan.getColumnMappings());
         }
-      } catch (IllegalArgumentException e) {
-        throw new IllegalArgumentException("Error in row " + rowNumber + ": " + e.getMessage());
-      } catch (Exception e) {
-        throw new IllegalArgumentException(
-            "Error processing row " + rowNumber + ": " + e.getMessage());
+        importedObjects.add(convertRow(values, plan, rowNumber));
       }
-    }
+    });
 
+    if (importedObjects.isEmpty()) {
+      throw new IllegalArgumentException("The Excel file contains no data rows");
+    }
     return importedObjects;
   }
 
+  /**
+   * Compiles the column mapping for a header row, so that rows can be converted by column index.
+   *
+   * @param headers the header names, indexed by column
+   * @return the compiled import plan
+   * @author mian
+   */
+  protected ImportPlan compileImportPlan(String[] headers) {
+    return ImportPlan.compile(headers, getColumnPrefixes(), getImportFields());
+  }
+
+  /**
+   * Converts one data row to a model object and reports failures with the row number.
+   *
+   * @param values    the row buffer, indexed by column
+   * @param plan      the import plan compiled from the header row
+   * @param rowNumber the row number as shown in Excel
+   * @return the model object
+   * @throws IllegalArgumentException if the row data is invalid
+   * @author mian
+   */
+  protected T convertRow(String[] values, ImportPlan plan, int rowNumber)
+      throws IllegalArgumentException {
+    try {
+      T model = createModelFromValues(values, plan);
+      if (model != null) {
+        return model;
+      }
+      throw new IllegalArgumentException("Invalid data in row " + rowNumber);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Error in row " + rowNumber + ": " + e.getMessage());
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Error processing row " + rowNumber + ": " + e.getMessage());
+    }
+  }
+
   /**
    * Validates that all required columns are present in the column mappings.
    *
@@ -156,6 +187,319 @@ public abstract class AbstractExcelService<T> {
     excelService.createExcelFile(data, path);
   }
 
+  /**
+   * Inserts all model objects into the database in a single transaction using JDBC batches of
+   * {@link #getBatchSize()} rows. Either all rows are saved or, if any insert fails, none.
+   *
+   * @param models the model objects to save
+   * @return true if all rows were saved, false if the transaction was rolled back
+   * @author mian
+   */
+  public boolean saveAll(List<T> models) {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+
+      try {
+        insertAll(conn, models);
+        conn.commit();
+        return true;
+      } catch (SQLException e) {
+        conn.rollback();
+        System.err.println("Error saving " + models.size() + " rows, transaction rolled back: "
+            + e.getMessage());
+        e.printStackTrace();
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      System.err.println("Database connection error: " + e.getMessage());
+      e.printStackTrace();
+    }
+    return false;
+  }
+
+  /**
+   * Applies only the differences between the imported model objects and the rows stored in the
+   * database. Rows are matched by {@link #getNaturalKey(Object)} and compared by
+   * {@link #contentHash(Object)}; new keys are inserted, changed rows updated and keys missing
+   * from the import deleted, all in one transaction.
+   *
+   * @param imported the model objects read from the import file
+   * @return the applied changes, or null if the transaction was rolled back
+   * @throws IllegalArgumentException if the import contains the same natural key twice
+   * @author mian
+   */
+  public ImportDelta applyDelta(List<T> imported) throws IllegalArgumentException {
+    DeltaPlan<T> plan = planDelta(loadExisting(), imported);
+    if (plan.isEmpty()) {
+      return plan.toDelta();
+    }
+
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+
+      try {
+        if (!plan.deletes.isEmpty()) {
+          deleteRows(conn, plan.deletes);
+        }
+        executeBatches(conn, getUpdateSql(), plan.updates, this::bindUpdate);
+        executeBatches(conn, getInsertSql(), plan.inserts, this::bindInsert);
+        conn.commit();
+        return plan.toDelta();
+      } catch (SQLException e) {
+        conn.rollback();
+        System.err.println("Error applying import changes, transaction rolled back: "
+            + e.getMessage());
+        e.printStackTrace();
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      System.err.println("Database connection error: " + e.getMessage());
+      e.printStackTrace();
+    }
+    return null;
+  }
+
+  /**
+   * Compares the stored and the imported model objects by natural key and content hash.
+   *
+   * @param existing the model objects stored in the database
+   * @param imported the model objects read from the import file
+   * @return the rows to delete, update and insert
+   * @throws IllegalArgumentException if the import contains the same natural key twice
+   * @author mian
+   */
+  DeltaPlan<T> planDelta(List<T> existing, List<T> imported) throws IllegalArgumentException {
+    Map<String, T> stored = new LinkedHashMap<>();
+    Set<String> duplicated = new HashSet<>();
+    for (T model : existing) {
+      String key = getNaturalKey(model);
+      if (stored.putIfAbsent(key, model) != null) {
+        duplicated.add(key);
+      }
+    }
+
+    DeltaPlan<T> plan = new DeltaPlan<>();
+    Set<String> seen = new HashSet<>();
+    for (T model : imported) {
+      String key = getNaturalKey(model);
+      if (!seen.add(key)) {
+        throw new IllegalArgumentException("Duplicate entry " + key + " in the imported data");
+      }
+
+      T old = stored.get(key);
+      if (old == null) {
+        plan.inserts.add(model);
+        plan.inserted.add(key);
+      } else if (duplicated.contains(key)) {
+        // Duplicate rows cannot be updated by key, replace all of them
+        plan.deletes.add(old);
+        plan.inserts.add(model);
+        plan.updated.add(key);
+      } else if (contentHash(old) != contentHash(model)) {
+        plan.updates.add(model);
+        plan.updated.add(key);
+      } else {
+        plan.unchanged++;
+      }
+    }
+
+    for (Map.Entry<String, T> entry : stored.entrySet()) {
+      if (!seen.contains(entry.getKey())) {
+        plan.deletes.add(entry.getValue());
+        plan.deleted.add(entry.getKey());
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Computes a stable 64-bit FNV-1a hash over the exported columns of a model object, in column
+   * name order.
+   *
+   * @param model the model object
+   * @return the content hash
+   * @author mian
+   */
+  protected long contentHash(T model) {
+    long hash = FNV_OFFSET_BASIS;
+    for (Map.Entry<String, Object> entry : new TreeMap<>(convertModelToRow(model)).entrySet()) {
+      hash = fnv1a(hash, entry.getKey());
+      hash = fnv1a(hash, String.valueOf(entry.getValue()));
+    }
+    return hash;
+  }
+
+  /**
+   * Feeds the characters of a value followed by a separator into an FNV-1a hash.
+   *
+   * @author mian
+   */
+  private static long fnv1a(long hash, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    hash ^= 0x1F;
+    return hash * FNV_PRIME;
+  }
+
+  /**
+   * Inserts model objects in JDBC batches of {@link #getBatchSize()} rows within the transaction
+   * of the given connection.
+   *
+   * @param conn   the connection of the running transaction
+   * @param models the model objects to insert
+   * @throws SQLException if a row cannot be inserted
+   * @author mian
+   */
+  void insertAll(Connection conn, List<T> models) throws SQLException {
+    executeBatches(conn, getInsertSql(), models, this::bindInsert);
+  }
+
+  /**
+   * Deletes the rows of the given model objects. Subclasses override this when dependent rows
+   * have to be removed first.
+   *
+   * @param conn   the connection of the running transaction
+   * @param models the model objects whose rows are deleted
+   * @throws SQLException if a row cannot be deleted
+   * @author mian
+   */
+  protected void deleteRows(Connection conn, List<T> models) throws SQLException {
+    executeBatches(conn, getDeleteSql(), models, this::bindDelete);
+  }
+
+  /**
+   * Executes a statement for every model object in JDBC batches of {@link #getBatchSize()} rows.
+   *
+   * @author mian
+   */
+  private void executeBatches(Connection conn, String sql, List<T> models, Binder<T> binder)
+      throws SQLException {
+    if (models.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      int pending = 0;
+      for (T model : models) {
+        binder.bind(pstmt, model);
+        pstmt.addBatch();
+        if (++pending == batchSize) {
+          pstmt.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        pstmt.executeBatch();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of rows sent to the database in one JDBC batch.
+   *
+   * @return the batch size
+   * @author mian
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Sets the number of rows sent to the database in one JDBC batch.
+   *
+   * @param batchSize the batch size, at least 1
+   * @throws IllegalArgumentException if the batch size is less than 1
+   * @author mian
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Gets the INSERT statement used by {@link #saveAll(List)}.
+   *
+   * @return the parameterized INSERT statement
+   * @author mian
+   */
+  protected abstract String getInsertSql();
+
+  /**
+   * Sets the parameters of the INSERT statement from {@link #getInsertSql()} for one model object.
+   *
+   * @param pstmt the prepared INSERT statement
+   * @param model the model object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  protected abstract void bindInsert(PreparedStatement pstmt, T model) throws SQLException;
+
+  /**
+   * Gets the table the model objects are stored in.
+   *
+   * @return the table name
+   * @author mian
+   */
+  protected abstract String getTableName();
+
+  /**
+   * Gets the natural key that identifies the row of a model object across imports.
+   *
+   * @param model the model object
+   * @return the natural key
+   * @author mian
+   */
+  protected abstract String getNaturalKey(T model);
+
+  /**
+   * Loads the model objects currently stored in the database.
+   *
+   * @return the stored model objects
+   * @author mian
+   */
+  protected abstract List<T> loadExisting();
+
+  /**
+   * Gets the UPDATE statement that changes the row with the natural key of a model object.
+   *
+   * @return the parameterized UPDATE statement
+   * @author mian
+   */
+  protected abstract String getUpdateSql();
+
+  /**
+   * Sets the parameters of the UPDATE statement from {@link #getUpdateSql()}.
+   *
+   * @param pstmt the prepared UPDATE statement
+   * @param model the model object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  protected abstract void bindUpdate(PreparedStatement pstmt, T model) throws SQLException;
+
+  /**
+   * Gets the DELETE statement that removes the rows with the natural key of a model object.
+   *
+   * @return the parameterized DELETE statement
+   * @author mian
+   */
+  protected abstract String getDeleteSql();
+
+  /**
+   * Sets the parameters of the DELETE statement from {@link #getDeleteSql()}.
+   *
+   * @param pstmt the prepared DELETE statement
+   * @param model the model object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  protected abstract void bindDelete(PreparedStatement pstmt, T model) throws SQLException;
+
   /**
    * Defines the mapping between model properties and Excel column prefixes. Must be implemented by
    * subclasses to specify their column mappings.
@@ -166,16 +510,25 @@ public abstract class AbstractExcelService<T> {
   protected abstract Map<String, String> getColumnPrefixes();
 
   /**
-   * Creates a model object from a row of Excel data. Must be implemented by subclasses to handle
-   * their specific model type.
+   * Gets the fields read by {@link #createModelFromValues(String[], ImportPlan)}. The position of
+   * a field in this list is the index passed to {@link ImportPlan#get(String[], int)}.
+   *
+   * @return the fields in plan order
+   * @author mian
+   */
+  protected abstract List<String> getImportFields();
+
+  /**
+   * Creates a model object from a row buffer using the compiled import plan, reading the fields
+   * of {@link #getImportFields()} by column index. The buffer is reused for the next row, so it
+   * must not be kept.
    *
-   * @param row            the row data from Excel
-   * @param columnMappings the mappings between property names and Excel columns
+   * @param values the row buffer, indexed by column
+   * @param plan   the import plan compiled from the header row
    * @return a new model object, or null if the row data is invalid
    * @author mian
    */
-  protected abstract T createModelFromRow(Map<String, String> row,
-      Map<String, String> columnMappings);
+  protected abstract T createModelFromValues(String[] values, ImportPlan plan);
 
   /**
    * Converts a model object to a map of column names and values for Excel export. Must be
@@ -190,4 +543,35 @@ public abstract class AbstractExcelService<T> {
   public ExcelService getExcelService() {
     return excelService;
   }
-}
\ No newline at end of file
+
+  /**
+   * Sets the parameters of a prepared statement for one model object.
+   */
+  @FunctionalInterface
+  private interface Binder<T> {
+
+    void bind(PreparedStatement pstmt, T model) throws SQLException;
+  }
+
+  /**
+   * The rows a delta import deletes, updates and inserts, and the natural keys it reports.
+   */
+  static final class DeltaPlan<T> {
+
+    final List<T> deletes = new ArrayList<>();
+    final List<T> updates = new ArrayList<>();
+    final List<T> inserts = new ArrayList<>();
+    final List<String> inserted = new ArrayList<>();
+    final List<String> updated = new ArrayList<>();
+    final List<String> deleted = new ArrayList<>();
+    int unchanged;
+
+    boolean isEmpty() {
+      return deletes.isEmpty() && updates.isEmpty() && inserts.isEmpty();
+    }
+
+    ImportDelta toDelta() {
+      return new ImportDelta(inserted, updated, deleted, unchanged);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import com.openjfx.models.Event;
 import com.openjfx.models.Room;
 import com.openjfx.models.TimeSlot;
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +23,7 @@ public class AssignmentService {
   private final StudentAssignmentService studentAssignmentService;
   private final TimetableService timetableService;
   private final WorkshopDemandService workshopDemandService;
+  private final WriteBehindPersister persister;
 
   private List<Choice> choices;
   private List<Event> events;
@@ -38,6 +40,28 @@ public class AssignmentService {
       StudentAssignmentService studentAssignmentService,
       TimetableService timetableService,
       WorkshopDemandService workshopDemandService) {
+    this(choiceService, eventService, roomService, timeSlotService, studentAssignmentService,
+        timetableService, workshopDemandService, null);
+  }
+
+  /**
+   * Creates an assignment service that hands stage results to a write-behind persister. Stages
+   * continue from the in-memory result of the previous stage while it is being written; call
+   * {@link #awaitPersisted()} before reading the results back from the database.
+   *
+   * @param persister the write-behind persister, or null to save each stage before returning
+   * @author mian
+   */
+  public AssignmentService(
+      ChoiceService choiceService,
+      EventService eventService,
+      RoomService roomService,
+      TimeSlotService timeSlotService,
+      StudentAssignmentService studentAssignmentService,
+      TimetableService timetableService,
+      WorkshopDemandService workshopDemandService,
+      WriteBehindPersister persister) {
+    this.persister = persister;
     this.choiceService = choiceService;
     this.eventService = eventService;
     this.roomService = roomService;
@@ -81,7 +105,12 @@ public class AssignmentService {
     if (choices == null || events == null) {
       loadAllData();
     }
-    this.studentAssignments = studentAssignmentService.getAssignmentsAsMap();
+    if (persister != null && studentAssignments != null) {
+      // Continue from the in-memory result while it is still being written
+      this.studentAssignments = studentAssignmentService.toAssignmentMap(studentAssignments);
+    } else {
+      this.studentAssignments = studentAssignmentService.getAssignmentsAsMap();
+    }
     calculateWorkshopDemand();
   }
 
@@ -106,7 +135,12 @@ public class AssignmentService {
   private void assignStudents() {
     this.studentAssignments = studentAssignmentService.assignStudentsToEvents(choices, events);
     // Save assignments to the database
-    studentAssignmentService.saveAssignmentsToDatabase(studentAssignments);
+    if (persister != null) {
+      persister.submit("student assignments",
+          studentAssignmentService.createAssignmentsWriter(studentAssignments));
+    } else {
+      studentAssignmentService.saveAssignmentsToDatabase(studentAssignments);
+    }
   }
 
   /**
@@ -116,7 +150,11 @@ public class AssignmentService {
    */
   private void calculateWorkshopDemand() {
       this.workshopDemand = workshopDemandService.calculateWorkshopsNeeded(events, studentAssignments);
-      workshopDemandService.saveDemandToDatabase(workshopDemand);
+      if (persister != null) {
+        persister.submit("workshop demand", workshopDemandService.createDemandWriter(workshopDemand));
+      } else {
+        workshopDemandService.saveDemandToDatabase(workshopDemand);
+      }
   }
 
   /**
@@ -125,7 +163,7 @@ public class AssignmentService {
    * @author mian
    */
   private void createTimetable() {
-    timetableService.createAndSaveTimetable(events, rooms, timeSlots, workshopDemand);
+    timetableService.createAndSaveTimetable(events, rooms, timeSlots, workshopDemand, persister);
   }
 
   /**
@@ -142,9 +180,11 @@ public class AssignmentService {
    * Returns the workshop demand.
    *
    * @return a map of event IDs to the number of students assigned to each event
+   * @throws IOException if any of the pending writes failed
    * @author mian
    */
-  public Map<Integer, Integer> loadWorkshopDemand() {
+  public Map<Integer, Integer> loadWorkshopDemand() throws IOException {
+    awaitPersisted();
     this.workshopDemand = workshopDemandService.loadDemandFromDatabase();
     return this.workshopDemand;
   }
@@ -160,6 +200,34 @@ public class AssignmentService {
     if (events == null || rooms == null || timeSlots == null) {
       loadAllData(); // Make sure data is loaded if not already
     }
-    timetableService.createAndSaveTimetable(events, rooms, timeSlots, workshopDemand);
+    timetableService.createAndSaveTimetable(events, rooms, timeSlots, workshopDemand, persister);
+  }
+
+  /**
+   * Returns the workshop demand calculated by the last run without reading the database.
+   *
+   * @return a map of event IDs to the number of workshops needed, or null if not calculated yet
+   * @author mian
+   */
+  public Map<Integer, Integer> getWorkshopDemand() {
+    return workshopDemand;
+  }
+
+  /**
+   * Blocks until all stage results handed to the persister have been written. Does nothing if
+   * this service saves synchronously.
+   *
+   * @throws IOException if any of the pending writes failed
+   * @author mian
+   */
+  public void awaitPersisted() throws IOException {
+    if (persister == null) {
+      return;
+    }
+    try {
+      persister.flush();
+    } catch (SQLException e) {
+      throw new IOException(e.getMessage(), e);
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,356 @@
+package com.openjfx.services;
+
+import com.openjfx.models.AttendanceSheet;
+import com.openjfx.models.StudentAssignment;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the attendance lists of all events in one run. The assignments are grouped by event in
+ * a single pass, and the list of each event is rendered on a worker pool with
+ * {@link TimetableService#exportAttendanceSheet(OutputStream, AttendanceSheet)} or
+ * {@link TimetableService#exportAttendanceSheetPDF(OutputStream, AttendanceSheet)}.
+ *
+ * <p>The rendered files are written by the calling thread in event id order, either into a
+ * directory or into a single ZIP stream. Only a few files are rendered ahead of the one being
+ * written, so memory use does not grow with the number of events. Progress is reported after
+ * every file, and a cancelled export stops before writing the next file.</p>
+ *
+ * <p>Exports into a directory record the data of each file in an {@link ExportManifest}, so that
+ * a later export can render only the lists whose data changed.</p>
+ *
+ * @author mian
+ */
+public class AttendanceListBatchExporter {
+
+  /**
+   * File formats an attendance list can be exported in.
+   *
+   * @author mian
+   */
+  public enum Format {
+    EXCEL(".xlsx"),
+    PDF(".pdf");
+
+    private final String extension;
+
+    Format(String extension) {
+      this.extension = extension;
+    }
+
+    /**
+     * Gets the file extension of the format.
+     *
+     * @return the extension, including the dot
+     * @author mian
+     */
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  private final TimetableService timetableService;
+  private final int workers;
+
+  /**
+   * Creates an exporter with one worker per processor.
+   *
+   * @param timetableService the service that renders the attendance lists
+   * @author mian
+   */
+  public AttendanceListBatchExporter(TimetableService timetableService) {
+    this(timetableService, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates an exporter.
+   *
+   * @param timetableService the service that renders the attendance lists
+   * @param workers          number of threads rendering attendance lists
+   * @author mian
+   */
+  public AttendanceListBatchExporter(TimetableService timetableService, int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers must be at least 1");
+    }
+    this.timetableService = timetableService;
+    this.workers = workers;
+  }
+
+  /**
+   * Groups the assignments by event id in one pass. Items that are not student assignments are
+   * ignored.
+   *
+   * @param assignments the assignments to group
+   * @return the assignments of each event, ordered by event id
+   * @author mian
+   */
+  public static Map<Integer, List<Object>> groupByEvent(List<?> assignments) {
+    Map<Integer, List<Object>> groups = new TreeMap<>();
+    for (Object item : assignments) {
+      if (item instanceof StudentAssignment) {
+        groups.computeIfAbsent(((StudentAssignment) item).getEventId(), k -> new ArrayList<>())
+            .add(item);
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Writes the attendance list of every event into a directory and records the data of each file
+   * in the directory's {@link ExportManifest}.
+   *
+   * @param assignments the assignments of all events
+   * @param directory   the directory to write to, created if it does not exist
+   * @param formats     the formats to export each attendance list in
+   * @param progress    receives the number of files written and is asked before every file
+   *                    whether the export has been cancelled
+   * @return the written files, in event id order
+   * @throws IOException           if a file cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<File> exportToDirectory(List<?> assignments, File directory, Set<Format> formats,
+      ExportProgress progress) throws IOException {
+    return exportToDirectory(assignments, directory, formats, progress, false);
+  }
+
+  /**
+   * Writes the attendance lists of the events whose participants changed since the last export
+   * into the directory. Lists whose data matches the hash in the directory's
+   * {@link ExportManifest} are kept as they are.
+   *
+   * @param assignments the assignments of all events
+   * @param directory   the directory to write to, created if it does not exist
+   * @param formats     the formats to export each attendance list in
+   * @param progress    receives the number of files written and is asked before every file
+   *                    whether the export has been cancelled
+   * @return the files written again, in event id order
+   * @throws IOException           if a file cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<File> exportChangedToDirectory(List<?> assignments, File directory,
+      Set<Format> formats, ExportProgress progress) throws IOException {
+    return exportToDirectory(assignments, directory, formats, progress, true);
+  }
+
+  /**
+   * Writes the attendance list of every event into a ZIP file.
+   *
+   * @param assignments the assignments of all events
+   * @param zipFile     the ZIP file to write, overwritten if it exists
+   * @param formats     the formats to export each attendance list in
+   * @param progress    receives the number of files written and is asked before every file
+   *                    whether the export has been cancelled
+   * @return the names of the ZIP entries, in event id order
+   * @throws IOException           if a file cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<String> exportToZip(List<?> assignments, File zipFile, Set<Format> formats,
+      ExportProgress progress) throws IOException {
+    try (OutputStream out = new FileOutputStream(zipFile)) {
+      return exportToZip(assignments, out, formats, progress);
+    }
+  }
+
+  /**
+   * Writes the attendance list of every event into a ZIP stream. The ZIP is finished, but the
+   * stream is not closed.
+   *
+   * @param assignments the assignments of all events
+   * @param out         the stream to write the ZIP to
+   * @param formats     the formats to export each attendance list in
+   * @param progress    receives the number of files written and is asked before every file
+   *                    whether the export has been cancelled
+   * @return the names of the ZIP entries, in event id order
+   * @throws IOException           if a file cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<String> exportToZip(List<?> assignments, OutputStream out, Set<Format> formats,
+      ExportProgress progress) throws IOException {
+    List<String> entries = new ArrayList<>();
+    ZipOutputStream zip = new ZipOutputStream(out);
+    render(plan(assignments, formats), progress, (name, content) -> {
+      zip.putNextEntry(new ZipEntry(name));
+      zip.write(content);
+      zip.closeEntry();
+      entries.add(name);
+    });
+    zip.finish();
+    return entries;
+  }
+
+  /**
+   * Writes the attendance lists into a directory, optionally only those whose data changed. The
+   * manifest is updated after every file, so a cancelled export keeps the files it finished.
+   *
+   * @author mian
+   */
+  private List<File> exportToDirectory(List<?> assignments, File directory, Set<Format> formats,
+      ExportProgress progress, boolean onlyChanged) throws IOException {
+    List<Render> renders = plan(assignments, formats);
+    Files.createDirectories(directory.toPath());
+    ExportManifest manifest = ExportManifest.load(directory);
+
+    List<Render> changed = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    for (Render render : renders) {
+      names.add(render.name);
+      if (!onlyChanged || !manifest.isCurrent(render.name, render.hash)) {
+        changed.add(render);
+      }
+    }
+
+    List<File> files = new ArrayList<>();
+    try {
+      render(changed, progress, (name, content) -> {
+        // Files arrive in the order of the changed lists
+        Render render = changed.get(files.size());
+        File file = new File(directory, name);
+        Files.write(file.toPath(), content);
+        manifest.put(name, render.hash);
+        files.add(file);
+      });
+      manifest.retain(names);
+    } finally {
+      manifest.save();
+    }
+    return files;
+  }
+
+  /**
+   * Groups the assignments by event and prepares the attendance list of each event in each
+   * format, in event id order.
+   *
+   * @author mian
+   */
+  private List<Render> plan(List<?> assignments, Set<Format> formats) {
+    if (formats.isEmpty()) {
+      throw new IllegalArgumentException("No export format selected");
+    }
+    Map<String, List<Object>> events = nameEvents(groupByEvent(assignments));
+    if (events.isEmpty()) {
+      throw new IllegalArgumentException("There are no assignments to export");
+    }
+
+    List<Render> renders = new ArrayList<>();
+    for (Map.Entry<String, List<Object>> event : events.entrySet()) {
+      AttendanceSheet data = timetableService.prepareDataForExportForAttendanceList(
+          event.getValue());
+      String hash = ExportManifest.hash(data);
+      for (Format format : Format.values()) {
+        if (formats.contains(format)) {
+          renders.add(new Render(event.getKey() + format.getExtension(), data, hash, format));
+        }
+      }
+    }
+    return renders;
+  }
+
+  /**
+   * Prepares the attendance list of every event without rendering it, for exports that bundle
+   * the attendance lists with other documents.
+   *
+   * @param assignments the assignments of all events
+   * @param formats     the formats to export each attendance list in
+   * @return a task rendering each file, keyed by file name, in event id order
+   * @author mian
+   */
+  Map<String, Callable<byte[]>> renderTasks(List<?> assignments, Set<Format> formats) {
+    Map<String, Callable<byte[]>> tasks = new LinkedHashMap<>();
+    for (Render render : plan(assignments, formats)) {
+      tasks.put(render.name, render);
+    }
+    return tasks;
+  }
+
+  /**
+   * Renders the attendance lists on the worker pool and hands them to the sink in event id order.
+   *
+   * @author mian
+   */
+  private void render(List<Render> renders, ExportProgress progress, FileSink sink)
+      throws IOException {
+    List<Callable<byte[]>> tasks = new ArrayList<>(renders);
+    ParallelRenderer.render(workers, tasks, progress,
+        (index, content) -> sink.write(renders.get(index).name, content));
+  }
+
+  /**
+   * Gives each event a file name without extension. Names are based on the company and made
+   * unique with the event id where two events belong to the same company.
+   *
+   * @author mian
+   */
+  private Map<String, List<Object>> nameEvents(Map<Integer, List<Object>> groups) {
+    Map<String, List<Object>> named = new LinkedHashMap<>();
+    Set<String> used = new HashSet<>();
+    for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+      StudentAssignment first = (StudentAssignment) group.getValue().get(0);
+      String company = first.getCompanyName() != null ? first.getCompanyName() : "";
+      String name = timetableService.getFilePathEvent() + "_"
+          + ParallelRenderer.sanitize(company);
+      if (!used.add(name)) {
+        name = name + "_" + group.getKey();
+        used.add(name);
+      }
+      named.put(name, group.getValue());
+    }
+    return named;
+  }
+
+  /**
+   * Receives the rendered files in order.
+   */
+  private interface FileSink {
+
+    void write(String name, byte[] content) throws IOException;
+  }
+
+  /**
+   * Renders the attendance list of one event in one format.
+   */
+  private final class Render implements Callable<byte[]> {
+
+    private final String name;
+    private final AttendanceSheet data;
+    private final String hash;
+    private final Format format;
+
+    Render(String name, AttendanceSheet data, String hash, Format format) {
+      this.name = name;
+      this.data = data;
+      this.hash = hash;
+      this.format = format;
+    }
+
+    @Override
+    public byte[] call() throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      if (format == Format.PDF) {
+        timetableService.exportAttendanceSheetPDF(out, data);
+      } else {
+        timetableService.exportAttendanceSheet(out, data);
+      }
+      return out.toByteArray();
+    }
+  }
+}
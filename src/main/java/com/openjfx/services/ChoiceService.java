@@ -8,6 +8,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +40,88 @@ import java.util.Map;
  */
 public class ChoiceService extends AbstractExcelService<Choice> {
 
+  /**
+   * Looks up an event id in the events table, so that ids of unknown events are stored as NULL.
+   *
+   * @author mian
+   */
+  private static final String EVENT_ID_SQL = "(SELECT id FROM events WHERE id = ?)";
+
+  /**
+   * Statement used to insert a single choice.
+   *
+   * @author mian
+   */
+  private static final String INSERT_SQL = "INSERT INTO choices ("
+      + "class_ref, "
+      + "first_name, "
+      + "last_name, "
+      + "choice1, "
+      + "choice2, "
+      + "choice3, "
+      + "choice4, "
+      + "choice5, "
+      + "choice6, "
+      + "choice1_event_id, "
+      + "choice2_event_id, "
+      + "choice3_event_id, "
+      + "choice4_event_id, "
+      + "choice5_event_id, "
+      + "choice6_event_id) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, "
+      + String.join(", ", Collections.nCopies(6, EVENT_ID_SQL)) + ")";
+
+  /**
+   * Statement used to update the choices of a student during a delta import.
+   *
+   * @author mian
+   */
+  private static final String UPDATE_SQL = "UPDATE choices SET "
+      + "choice1 = ?, choice2 = ?, choice3 = ?, choice4 = ?, choice5 = ?, choice6 = ?, "
+      + "choice1_event_id = " + EVENT_ID_SQL + ", "
+      + "choice2_event_id = " + EVENT_ID_SQL + ", "
+      + "choice3_event_id = " + EVENT_ID_SQL + ", "
+      + "choice4_event_id = " + EVENT_ID_SQL + ", "
+      + "choice5_event_id = " + EVENT_ID_SQL + ", "
+      + "choice6_event_id = " + EVENT_ID_SQL + " "
+      + "WHERE class_ref = ? AND first_name = ? AND last_name = ?";
+
+  /**
+   * Statement used to resolve the event ids of a stored choice again.
+   *
+   * @author mian
+   */
+  private static final String LINK_SQL = "UPDATE choices SET "
+      + "choice1_event_id = " + EVENT_ID_SQL + ", "
+      + "choice2_event_id = " + EVENT_ID_SQL + ", "
+      + "choice3_event_id = " + EVENT_ID_SQL + ", "
+      + "choice4_event_id = " + EVENT_ID_SQL + ", "
+      + "choice5_event_id = " + EVENT_ID_SQL + ", "
+      + "choice6_event_id = " + EVENT_ID_SQL + " "
+      + "WHERE id = ?";
+
+  /**
+   * Statement used to delete the choices of a student during a delta import.
+   *
+   * @author mian
+   */
+  private static final String DELETE_SQL =
+      "DELETE FROM choices WHERE class_ref = ? AND first_name = ? AND last_name = ?";
+
+  /**
+   * Fields read by {@link #createModelFromValues(String[], ImportPlan)}, in plan order.
+   *
+   * @author mian
+   */
+  private static final List<String> IMPORT_FIELDS = List.of(
+      "classRef", "firstName", "lastName",
+      "choice1", "choice2", "choice3", "choice4", "choice5", "choice6");
+
+  private static final int CLASS_REF = 0;
+  private static final int FIRST_NAME = 1;
+  private static final int LAST_NAME = 2;
+  private static final int CHOICE_1 = 3;
+
   /**
    * Constructs a new ChoiceService with the specified Excel service.
    *
@@ -83,7 +166,19 @@ public class ChoiceService extends AbstractExcelService<Choice> {
   }
 
   /**
-   * Creates a Choice object from a row of Excel data.
+   * Returns the fields read from a row buffer, in plan order.
+   *
+   * @return the import fields
+   * @author mian
+   */
+  @Override
+  protected List<String> getImportFields() {
+    return IMPORT_FIELDS;
+  }
+
+  /**
+   * Creates a Choice object from a row buffer, reading the fields by the column indexes of the
+   * compiled plan.
    *
    * <p>Required fields are:
    * <ul>
@@ -97,17 +192,35 @@ public class ChoiceService extends AbstractExcelService<Choice> {
    *   <li>Choice 1-6 (strings): Student's preferences in order</li>
    * </ul>
    *
-   * @param row            the row data from Excel
-   * @param columnMappings the mappings between internal names and actual Excel columns
+   * @param values the row buffer, indexed by column
+   * @param plan   the import plan compiled from the header row
    * @return a new Choice object, or null if the row data is invalid
    * @author mian
    */
   @Override
-  protected Choice createModelFromRow(Map<String, String> row, Map<String, String> columnMappings) {
-    String classRef = row.get(columnMappings.get("classRef"));
-    String firstName = row.get(columnMappings.get("firstName"));
-    String lastName = row.get(columnMappings.get("lastName"));
+  protected Choice createModelFromValues(String[] values, ImportPlan plan) {
+    return createChoice(
+        plan.get(values, CLASS_REF),
+        plan.get(values, FIRST_NAME),
+        plan.get(values, LAST_NAME),
+        plan.get(values, CHOICE_1),
+        plan.get(values, CHOICE_1 + 1),
+        plan.get(values, CHOICE_1 + 2),
+        plan.get(values, CHOICE_1 + 3),
+        plan.get(values, CHOICE_1 + 4),
+        plan.get(values, CHOICE_1 + 5));
+  }
 
+  /**
+   * Creates a Choice object from the raw cell values of a row.
+   *
+   * @return a new Choice object, or null if it cannot be created
+   * @throws IllegalArgumentException if a required field is missing
+   * @author mian
+   */
+  private Choice createChoice(String classRef, String firstName, String lastName,
+      String choice1, String choice2, String choice3, String choice4, String choice5,
+      String choice6) {
     // Throw an exception if any of the required fields are missing
     if (classRef == null || firstName == null || lastName == null) {
       throw new IllegalArgumentException(
@@ -115,15 +228,8 @@ public class ChoiceService extends AbstractExcelService<Choice> {
     }
 
     // Optional fields with null handling
-    String choice1 = row.get(columnMappings.get("choice1"));
-    String choice2 = row.get(columnMappings.get("choice2"));
-    String choice3 = row.get(columnMappings.get("choice3"));
-    String choice4 = row.get(columnMappings.get("choice4"));
-    String choice5 = row.get(columnMappings.get("choice5"));
-    String choice6 = row.get(columnMappings.get("choice6"));
-
     try {
-      return new Choice(
+      Choice choice = new Choice(
           classRef.trim(),
           firstName.trim(),
           lastName.trim(),
@@ -134,12 +240,66 @@ public class ChoiceService extends AbstractExcelService<Choice> {
           choice5 != null ? choice5.trim() : "",
           choice6 != null ? choice6.trim() : ""
       );
+      for (int priority = 1; priority <= 6; priority++) {
+        choice.setChoiceEventId(priority, parseEventId(getChoiceText(choice, priority)));
+      }
+      return choice;
     } catch (Exception e) {
-      System.err.println("Error creating Choice object: " + e.getMessage() + " - " + row);
+      System.err.println("Error creating Choice object for " + firstName + " " + lastName + ": "
+          + e.getMessage());
       return null;
     }
   }
 
+  /**
+   * Parses the event id out of a choice string such as "12" or "Nr. 12". All characters except
+   * the digits are ignored.
+   *
+   * @param choice the choice string
+   * @return the event id, or {@link Choice#NO_EVENT} if the string holds no valid number
+   * @author mian
+   */
+  static int parseEventId(String choice) {
+    if (choice == null) {
+      return Choice.NO_EVENT;
+    }
+    long eventId = 0;
+    boolean hasDigits = false;
+    for (int i = 0; i < choice.length(); i++) {
+      char c = choice.charAt(i);
+      if (c >= '0' && c <= '9') {
+        eventId = eventId * 10 + (c - '0');
+        if (eventId > Integer.MAX_VALUE) {
+          return Choice.NO_EVENT;
+        }
+        hasDigits = true;
+      }
+    }
+    return hasDigits ? (int) eventId : Choice.NO_EVENT;
+  }
+
+  /**
+   * Gets the choice string of the given priority.
+   *
+   * @author mian
+   */
+  private static String getChoiceText(Choice choice, int priority) {
+    switch (priority) {
+      case 1:
+        return choice.getChoice1();
+      case 2:
+        return choice.getChoice2();
+      case 3:
+        return choice.getChoice3();
+      case 4:
+        return choice.getChoice4();
+      case 5:
+        return choice.getChoice5();
+      default:
+        return choice.getChoice6();
+    }
+  }
+
   /**
    * Converts a Choice object to a map of column names and values for Excel export.
    *
@@ -162,6 +322,136 @@ public class ChoiceService extends AbstractExcelService<Choice> {
     );
   }
 
+  /**
+   * Gets the table choices are stored in.
+   *
+   * @return the table name
+   * @author mian
+   */
+  @Override
+  protected String getTableName() {
+    return "choices";
+  }
+
+  /**
+   * Gets the INSERT statement used to save choices in bulk.
+   *
+   * @return the parameterized INSERT statement
+   * @author mian
+   */
+  @Override
+  protected String getInsertSql() {
+    return INSERT_SQL;
+  }
+
+  /**
+   * Sets the INSERT parameters for one choice.
+   *
+   * @param pstmt the prepared INSERT statement
+   * @param choice the Choice object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindInsert(PreparedStatement pstmt, Choice choice) throws SQLException {
+    pstmt.setString(1, choice.getClassRef());
+    pstmt.setString(2, choice.getFirstName());
+    pstmt.setString(3, choice.getLastName());
+    pstmt.setString(4, choice.getChoice1());
+    pstmt.setString(5, choice.getChoice2());
+    pstmt.setString(6, choice.getChoice3());
+    pstmt.setString(7, choice.getChoice4());
+    pstmt.setString(8, choice.getChoice5());
+    pstmt.setString(9, choice.getChoice6());
+    for (int priority = 1; priority <= 6; priority++) {
+      pstmt.setInt(9 + priority, choice.getChoiceEventId(priority));
+    }
+  }
+
+  /**
+   * Identifies a student by name and class.
+   *
+   * @param choice the Choice object
+   * @return the natural key of the student
+   * @author mian
+   */
+  @Override
+  protected String getNaturalKey(Choice choice) {
+    return choice.getFirstName() + " " + choice.getLastName() + " (" + choice.getClassRef() + ")";
+  }
+
+  /**
+   * Loads the stored choices for comparison during a delta import.
+   *
+   * @return the stored choices
+   * @author mian
+   */
+  @Override
+  protected List<Choice> loadExisting() {
+    return loadChoices();
+  }
+
+  /**
+   * Gets the UPDATE statement used by delta imports.
+   *
+   * @return the parameterized UPDATE statement
+   * @author mian
+   */
+  @Override
+  protected String getUpdateSql() {
+    return UPDATE_SQL;
+  }
+
+  /**
+   * Sets the UPDATE parameters for one choice.
+   *
+   * @param pstmt  the prepared UPDATE statement
+   * @param choice the Choice object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindUpdate(PreparedStatement pstmt, Choice choice) throws SQLException {
+    pstmt.setString(1, choice.getChoice1());
+    pstmt.setString(2, choice.getChoice2());
+    pstmt.setString(3, choice.getChoice3());
+    pstmt.setString(4, choice.getChoice4());
+    pstmt.setString(5, choice.getChoice5());
+    pstmt.setString(6, choice.getChoice6());
+    for (int priority = 1; priority <= 6; priority++) {
+      pstmt.setInt(6 + priority, choice.getChoiceEventId(priority));
+    }
+    pstmt.setString(13, choice.getClassRef());
+    pstmt.setString(14, choice.getFirstName());
+    pstmt.setString(15, choice.getLastName());
+  }
+
+  /**
+   * Gets the DELETE statement used by delta imports.
+   *
+   * @return the parameterized DELETE statement
+   * @author mian
+   */
+  @Override
+  protected String getDeleteSql() {
+    return DELETE_SQL;
+  }
+
+  /**
+   * Sets the DELETE parameters for one choice.
+   *
+   * @param pstmt  the prepared DELETE statement
+   * @param choice the Choice object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindDelete(PreparedStatement pstmt, Choice choice) throws SQLException {
+    pstmt.setString(1, choice.getClassRef());
+    pstmt.setString(2, choice.getFirstName());
+    pstmt.setString(3, choice.getLastName());
+  }
+
   /**
    * Saves a Choice object to the database.
    *
@@ -169,34 +459,12 @@ public class ChoiceService extends AbstractExcelService<Choice> {
    * @author mian
    */
   public void saveChoice(Choice choice) {
-    // SQL query to insert a new choice into the choices table
-    String sql = "INSERT INTO choices ("
-        + "class_ref, "
-        + "first_name, "
-        + "last_name, "
-        + "choice1, "
-        + "choice2, "
-        + "choice3, "
-        + "choice4, "
-        + "choice5, "
-        + "choice6) "
-        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
     try (Connection conn = DatabaseConfig.getConnection()) {
       // Disable auto-commit to manage transactions manually
       conn.setAutoCommit(false);
 
-      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        // Set the parameters for the PreparedStatement
-        pstmt.setString(1, choice.getClassRef());
-        pstmt.setString(2, choice.getFirstName());
-        pstmt.setString(3, choice.getLastName());
-        pstmt.setString(4, choice.getChoice1());
-        pstmt.setString(5, choice.getChoice2());
-        pstmt.setString(6, choice.getChoice3());
-        pstmt.setString(7, choice.getChoice4());
-        pstmt.setString(8, choice.getChoice5());
-        pstmt.setString(9, choice.getChoice6());
+      try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+        bindInsert(pstmt, choice);
 
         // Execute the update and get the number of affected rows
         int result = pstmt.executeUpdate();
@@ -220,22 +488,70 @@ public class ChoiceService extends AbstractExcelService<Choice> {
   }
 
   /**
-   * Deletes a Choice object from the database.
+   * Deletes all choices from the database and restarts their id sequence.
    *
    * @author mian
    */
 
   public void clearChoices() {
-    String delete = "DELETE FROM choices";
+    new DatabaseResetService().reset("choices");
+  }
 
-    try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement()) {
+  /**
+   * Resolves the event ids of all stored choices again from their choice strings. Deleting an
+   * event sets the ids that refer to it to NULL, so this is run whenever the events have been
+   * imported without the choices.
+   *
+   * @return true if the ids were updated, false otherwise
+   * @author mian
+   */
+  public boolean linkEventIds() {
+    try (Connection conn = DatabaseConfig.getConnection()) {
       conn.setAutoCommit(false);
-      stmt.executeUpdate(delete);
-      conn.commit();
+      try {
+        linkEventIds(conn);
+        conn.commit();
+        return true;
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
     } catch (SQLException e) {
-      System.err.println("Error clearing events: " + e.getMessage());
+      System.err.println("Error linking choices to events: " + e.getMessage());
       e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Resolves the event ids of all stored choices within the transaction of the given connection.
+   *
+   * @param conn the connection of the running transaction
+   * @throws SQLException if the choices cannot be read or updated
+   * @author mian
+   */
+  static void linkEventIds(Connection conn) throws SQLException {
+    try (Statement select = conn.createStatement();
+        ResultSet rs = select.executeQuery(
+            "SELECT id, choice1, choice2, choice3, choice4, choice5, choice6 FROM choices");
+        PreparedStatement update = conn.prepareStatement(LINK_SQL)) {
+      int pending = 0;
+      while (rs.next()) {
+        for (int priority = 1; priority <= 6; priority++) {
+          update.setInt(priority, parseEventId(rs.getString("choice" + priority)));
+        }
+        update.setInt(7, rs.getInt("id"));
+        update.addBatch();
+        if (++pending == DEFAULT_BATCH_SIZE) {
+          update.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        update.executeBatch();
+      }
     }
   }
 
@@ -267,6 +583,10 @@ public class ChoiceService extends AbstractExcelService<Choice> {
             rs.getString("choice5"),
             rs.getString("choice6")
         );
+        for (int priority = 1; priority <= 6; priority++) {
+          // getInt returns 0, i.e. NO_EVENT, for NULL
+          choice.setChoiceEventId(priority, rs.getInt("choice" + priority + "_event_id"));
+        }
 
         // Add the Choice object to the list
         choices.add(choice);
@@ -0,0 +1,156 @@
+package com.openjfx.services;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Estimates the column widths of a sheet while its rows are written and sets them once the sheet
+ * is complete. It replaces {@link Sheet#autoSizeColumn(int)}, which measures every cell again
+ * with AWT font rendering: that is slow, needs installed fonts on a headless server and does not
+ * work on streaming workbooks, whose older rows have already been flushed.
+ *
+ * <p>Text is measured with the metrics of the standard PDF fonts Helvetica and Helvetica Bold,
+ * which ship with PDFBox and are cached per glyph by {@link PdfTextLayout}. Excel measures
+ * column widths in multiples of the width of the digit zero in the default font, so the width of
+ * a value is taken relative to the width of "0" and scaled by its font size. Bold and larger
+ * cells therefore get wider columns than plain ones with the same number of characters.</p>
+ *
+ * @author mian
+ */
+public final class ColumnWidthEstimator {
+
+  /**
+   * Widest column Excel accepts, in characters.
+   *
+   * @author mian
+   */
+  private static final int MAX_CHARACTERS = 255;
+
+  /**
+   * Space added to each column so that the text does not touch the cell border, in characters.
+   *
+   * @author mian
+   */
+  private static final int PADDING = 2;
+
+  /**
+   * Size of the default font of new workbooks, in points.
+   *
+   * @author mian
+   */
+  private static final int DEFAULT_FONT_SIZE = 11;
+
+  private static final PdfTextLayout REGULAR = PdfTextLayout.of(PDType1Font.HELVETICA);
+  private static final PdfTextLayout BOLD = PdfTextLayout.of(PDType1Font.HELVETICA_BOLD);
+
+  private final DataFormatter formatter = new DataFormatter();
+  private float[] widths = new float[8];
+
+  /**
+   * Records the values of all cells of a row, using the font of each cell's style. Call it once
+   * the row has been filled and before more than {@link StreamingWorkbook#ROW_WINDOW} further
+   * rows have been created.
+   *
+   * @param row the row to measure
+   * @author mian
+   */
+  public void track(Row row) {
+    for (Cell cell : row) {
+      Font font = row.getSheet().getWorkbook().getFontAt(cell.getCellStyle().getFontIndex());
+      track(cell.getColumnIndex(), formatter.formatCellValue(cell), font.getBold(),
+          font.getFontHeightInPoints());
+    }
+  }
+
+  /**
+   * Records a value written to a column in the regular default font.
+   *
+   * @param column the column index
+   * @param value  the value as displayed
+   * @author mian
+   */
+  public void track(int column, String value) {
+    track(column, value, false, DEFAULT_FONT_SIZE);
+  }
+
+  /**
+   * Records a value written to a column.
+   *
+   * @param column   the column index
+   * @param value    the value as displayed
+   * @param bold     whether the value is bold
+   * @param fontSize the font size of the value in points
+   * @author mian
+   */
+  public void track(int column, String value, boolean bold, int fontSize) {
+    if (value == null || value.isEmpty()) {
+      return;
+    }
+    if (column >= widths.length) {
+      widths = Arrays.copyOf(widths, Math.max(column + 1, widths.length * 2));
+    }
+    PdfTextLayout layout = bold ? BOLD : REGULAR;
+    float width = 0;
+    // Multi-line values are as wide as their longest line
+    for (String line : value.split("\n", -1)) {
+      width = Math.max(width, measure(layout, line));
+    }
+    widths[column] = Math.max(widths[column], width * fontSize / DEFAULT_FONT_SIZE);
+  }
+
+  /**
+   * Gets the estimated width of a column.
+   *
+   * @param column the column index
+   * @return the width of the widest value in characters of the default font, without padding
+   * @author mian
+   */
+  public float getWidth(int column) {
+    return column < widths.length ? widths[column] : 0;
+  }
+
+  /**
+   * Sets the width of the given columns from the recorded values. Columns without values keep
+   * their width.
+   *
+   * @param sheet       the sheet to adjust
+   * @param columnCount the number of columns to adjust, starting with the first
+   * @author mian
+   */
+  public void apply(Sheet sheet, int columnCount) {
+    for (int column = 0; column < columnCount && column < widths.length; column++) {
+      if (widths[column] > 0) {
+        float characters = Math.min(widths[column] + PADDING, MAX_CHARACTERS);
+        sheet.setColumnWidth(column, Math.round(characters * 256));
+      }
+    }
+  }
+
+  /**
+   * Measures a line in multiples of the width of "0". Characters the font cannot encode count
+   * as wide as "0".
+   *
+   * @author mian
+   */
+  private static float measure(PdfTextLayout layout, String line) {
+    try {
+      return layout.getWidth(line, 1) / layout.getWidth("0", 1);
+    } catch (IllegalArgumentException | IOException e) {
+      float width = 0;
+      for (int i = 0; i < line.length(); i++) {
+        try {
+          width += layout.getWidth(String.valueOf(line.charAt(i)), 1) / layout.getWidth("0", 1);
+        } catch (IllegalArgumentException | IOException unsupported) {
+          width += 1;
+        }
+      }
+      return width;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.openjfx.services;
 import com.openjfx.config.DatabaseConfig;
 import com.openjfx.models.Event;
 import com.openjfx.models.EventRoomAssignment;
+import com.openjfx.models.RunContext;
 import com.openjfx.models.StudentAssignment;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -27,6 +28,7 @@ public class ConflictResolutionService {
   private final WorkshopDemandService workshopDemandService;
   private final TimetableService timetableService;
   private final EventService eventService;
+  private final RunContext runContext;
 
   /**
    * Constructs a new ConflictResolutionService with required dependencies.
@@ -34,9 +36,20 @@ public class ConflictResolutionService {
    * @author mian
    */
   public ConflictResolutionService() {
-    this.studentAssignmentService = new StudentAssignmentService();
-    this.workshopDemandService = new WorkshopDemandService();
-    this.timetableService = new TimetableService();
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Constructs a new ConflictResolutionService that works on the given run.
+   *
+   * @param runContext the run to work on
+   * @author mian
+   */
+  public ConflictResolutionService(RunContext runContext) {
+    this.runContext = runContext;
+    this.studentAssignmentService = new StudentAssignmentService(runContext);
+    this.workshopDemandService = new WorkshopDemandService(runContext);
+    this.timetableService = new TimetableService(runContext);
     ExcelService excelService = new ExcelService();
     this.eventService = new EventService(excelService);
   }
@@ -429,7 +442,7 @@ public class ConflictResolutionService {
       String roomId) throws SQLException {
 
     String sql = "UPDATE student_assignments SET time_slot = ?, room_id = ? " +
-        "WHERE first_name = ? AND last_name = ? AND event_id = ?";
+        "WHERE first_name = ? AND last_name = ? AND event_id = ? AND run_id = ?";
 
     try (PreparedStatement stmt = conn.prepareStatement(sql)) {
       stmt.setString(1, timeSlot);
@@ -437,6 +450,7 @@ public class ConflictResolutionService {
       stmt.setString(3, assignment.getFirstName());
       stmt.setString(4, assignment.getLastName());
       stmt.setInt(5, assignment.getEventId());
+      stmt.setInt(6, runContext.getRunId());
       stmt.executeUpdate();
     }
   }
@@ -452,12 +466,13 @@ public class ConflictResolutionService {
   private void deleteStudentAssignment(Connection conn, StudentAssignment assignment)
       throws SQLException {
     String sql = "DELETE FROM student_assignments " +
-        "WHERE first_name = ? AND last_name = ? AND event_id = ?";
+        "WHERE first_name = ? AND last_name = ? AND event_id = ? AND run_id = ?";
 
     try (PreparedStatement stmt = conn.prepareStatement(sql)) {
       stmt.setString(1, assignment.getFirstName());
       stmt.setString(2, assignment.getLastName());
       stmt.setInt(3, assignment.getEventId());
+      stmt.setInt(4, runContext.getRunId());
       stmt.executeUpdate();
     }
   }
@@ -488,8 +503,8 @@ public class ConflictResolutionService {
 
     // FIXED: Removed company and subject columns, which don't exist in the table
     String sql = "INSERT INTO student_assignments " +
-        "(event_id, first_name, last_name, class_ref, time_slot, room_id, choice_no) " +
-        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        "(event_id, first_name, last_name, class_ref, time_slot, room_id, choice_no, run_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
     try (PreparedStatement stmt = conn.prepareStatement(sql)) {
       stmt.setInt(1, eventId);
@@ -499,6 +514,7 @@ public class ConflictResolutionService {
       stmt.setString(5, timeSlot);
       stmt.setString(6, roomId);
       stmt.setInt(7, choiceNo);
+      stmt.setInt(8, runContext.getRunId());
       stmt.executeUpdate();
     }
   }
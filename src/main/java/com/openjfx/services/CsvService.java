@@ -0,0 +1,365 @@
+package com.openjfx.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The `CsvService` class reads and writes CSV files without Apache POI. Rows are delivered
+ * through the same {@link ExcelService.RowConsumer} as Excel sheets, so every
+ * {@link AbstractExcelService} can import CSV files with its existing column mappings.
+ *
+ * <p>The parser streams the file through a {@link FileChannel} with one reusable byte and char
+ * buffer. It supports quoted fields with embedded separators, line breaks and doubled quotes.
+ * The encoding is UTF-8 if the file starts with a byte order mark or its first block decodes as
+ * valid UTF-8, and Windows-1252 otherwise. The separator is whichever of semicolon, comma or
+ * tab occurs most often in the header line.</p>
+ *
+ * @author mian
+ */
+public class CsvService {
+
+  /**
+   * File extension handled by this service.
+   */
+  public static final String EXTENSION = ".csv";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+  private static final char[] SEPARATORS = {';', ',', '\t'};
+
+  /**
+   * Returns whether the given path names a CSV file.
+   *
+   * @param filePath the file path
+   * @return true if the path ends with .csv
+   * @author mian
+   */
+  public static boolean isCsvFile(String filePath) {
+    return filePath.toLowerCase().endsWith(EXTENSION);
+  }
+
+  /**
+   * Reads a CSV file and pushes its rows to the consumer while reading. The first non-empty
+   * line is the header; empty lines are skipped.
+   *
+   * @param filePath the path to the CSV file
+   * @param consumer receives the header row and the data rows
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  public void readCsvFile(String filePath, ExcelService.RowConsumer consumer) throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+      ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+      CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+      channel.read(bytes);
+      bytes.flip();
+
+      CharsetDecoder decoder = detectCharset(bytes).newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      RecordParser parser = new RecordParser(consumer);
+
+      boolean endOfInput = false;
+      while (true) {
+        CoderResult result = decoder.decode(bytes, chars, endOfInput);
+        if (result.isError()) {
+          result.throwException();
+        }
+        if (endOfInput) {
+          decoder.flush(chars);
+        }
+        chars.flip();
+        parser.parse(chars);
+        chars.clear();
+
+        if (endOfInput) {
+          break;
+        }
+        bytes.compact();
+        endOfInput = channel.read(bytes) < 0;
+        bytes.flip();
+      }
+      parser.finish();
+    }
+  }
+
+  /**
+   * Writes the given data to a UTF-8 CSV file with a byte order mark, so that Excel detects the
+   * encoding. The column order is taken from the first row, like
+   * {@link ExcelService#createExcelFile(List, String)}.
+   *
+   * @param data     the data to be written
+   * @param filePath the path where the CSV file will be saved
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  public void createCsvFile(List<Map<String, Object>> data, String filePath) throws IOException {
+    Set<String> headers = data.get(0).keySet();
+
+    try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filePath),
+        StandardCharsets.UTF_8)) {
+      writer.write('\uFEFF');
+      writeRecord(writer, new ArrayList<>(headers));
+
+      List<Object> values = new ArrayList<>(headers.size());
+      for (Map<String, Object> rowData : data) {
+        values.clear();
+        for (String header : headers) {
+          values.add(rowData.get(header));
+        }
+        writeRecord(writer, values);
+      }
+    }
+  }
+
+  /**
+   * Writes one comma separated record, quoting fields where necessary.
+   *
+   * @author mian
+   */
+  private void writeRecord(BufferedWriter writer, List<?> values) throws IOException {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      String value = format(values.get(i));
+      if (needsQuotes(value)) {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(value);
+      }
+    }
+    writer.write("\r\n");
+  }
+
+  /**
+   * Returns whether a value contains a character that any of the accepted separators, quotes or
+   * line breaks would split.
+   *
+   * @author mian
+   */
+  private static boolean needsQuotes(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == ';' || c == '\t' || c == '"' || c == '\n' || c == '\r') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Formats a cell value the way Excel shows it in the general format; whole numbers are
+   * written without a fraction.
+   *
+   * @author mian
+   */
+  private static String format(Object value) {
+    if (value instanceof String) {
+      return (String) value;
+    }
+    if (value instanceof Number) {
+      double number = ((Number) value).doubleValue();
+      if (number == Math.rint(number) && !Double.isInfinite(number)) {
+        return String.valueOf((long) number);
+      }
+      return String.valueOf(number);
+    }
+    return "";
+  }
+
+  /**
+   * Detects the encoding from the first block of the file and skips a UTF-8 byte order mark.
+   *
+   * @param bytes the first block of the file, ready for reading
+   * @return the detected charset
+   * @author mian
+   */
+  static Charset detectCharset(ByteBuffer bytes) {
+    if (bytes.remaining() >= 3 && (bytes.get(0) & 0xFF) == 0xEF
+        && (bytes.get(1) & 0xFF) == 0xBB && (bytes.get(2) & 0xFF) == 0xBF) {
+      bytes.position(3);
+      return StandardCharsets.UTF_8;
+    }
+
+    CharsetDecoder strict = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+    CharBuffer sample = CharBuffer.allocate(bytes.remaining());
+    // Not the end of input: a character cut off at the end of the block is not an error
+    CoderResult result = strict.decode(bytes.duplicate(), sample, false);
+    return result.isError() ? WINDOWS_1252 : StandardCharsets.UTF_8;
+  }
+
+  /**
+   * State machine that splits decoded characters into records and fields. It keeps its state
+   * between buffers, so records may span buffer boundaries.
+   */
+  private static final class RecordParser {
+
+    private final ExcelService.RowConsumer consumer;
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder headerLine = new StringBuilder();
+
+    private String[] headers;
+    private String[] values;
+    private char separator;
+    private boolean quoted;
+    private boolean quoteInQuoted;
+    private boolean afterCarriageReturn;
+    private boolean fieldStarted;
+    private int recordNumber;
+
+    RecordParser(ExcelService.RowConsumer consumer) {
+      this.consumer = consumer;
+    }
+
+    void parse(CharBuffer chars) {
+      while (chars.hasRemaining()) {
+        char c = chars.get();
+
+        if (separator == 0) {
+          // The separator is not known before the header line is complete
+          if (c == '\n' || c == '\r') {
+            separator = detectSeparator(headerLine);
+            reparse(headerLine);
+          } else {
+            headerLine.append(c);
+            continue;
+          }
+        }
+        accept(c);
+      }
+    }
+
+    void finish() {
+      if (separator == 0) {
+        if (headerLine.length() == 0) {
+          return;
+        }
+        separator = detectSeparator(headerLine);
+        reparse(headerLine);
+      }
+      if (fieldStarted || field.length() > 0 || !fields.isEmpty()) {
+        endRecord();
+      }
+    }
+
+    /**
+     * Feeds the buffered header line through the parser once the separator is known.
+     */
+    private void reparse(CharSequence line) {
+      for (int i = 0; i < line.length(); i++) {
+        accept(line.charAt(i));
+      }
+    }
+
+    private void accept(char c) {
+      if (quoted) {
+        if (quoteInQuoted) {
+          quoteInQuoted = false;
+          if (c == '"') {
+            field.append('"');
+            return;
+          }
+          quoted = false;
+        } else if (c == '"') {
+          quoteInQuoted = true;
+          return;
+        } else {
+          field.append(c);
+          return;
+        }
+      }
+
+      if (afterCarriageReturn) {
+        afterCarriageReturn = false;
+        if (c == '\n') {
+          return;
+        }
+      }
+
+      if (c == separator) {
+        endField();
+      } else if (c == '\r' || c == '\n') {
+        afterCarriageReturn = c == '\r';
+        endRecord();
+      } else if (c == '"' && !fieldStarted) {
+        quoted = true;
+        fieldStarted = true;
+      } else {
+        field.append(c);
+        fieldStarted = true;
+      }
+    }
+
+    private void endField() {
+      fields.add(field.toString().trim());
+      field.setLength(0);
+      fieldStarted = false;
+      quoted = false;
+      quoteInQuoted = false;
+    }
+
+    private void endRecord() {
+      endField();
+      recordNumber++;
+      boolean empty = fields.size() == 1 && fields.get(0).isEmpty();
+      if (!empty) {
+        if (headers == null) {
+          headers = fields.toArray(new String[0]);
+          values = new String[headers.length];
+          consumer.headers(headers.clone());
+        } else {
+          Arrays.fill(values, "");
+          for (int i = 0; i < values.length && i < fields.size(); i++) {
+            values[i] = fields.get(i);
+          }
+          consumer.row(recordNumber, values);
+        }
+      }
+      fields.clear();
+    }
+
+    private static char detectSeparator(CharSequence line) {
+      char best = SEPARATORS[0];
+      int bestCount = -1;
+      for (char candidate : SEPARATORS) {
+        int count = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+          char c = line.charAt(i);
+          if (c == '"') {
+            inQuotes = !inQuotes;
+          } else if (c == candidate && !inQuotes) {
+            count++;
+          }
+        }
+        if (count > bestCount) {
+          best = candidate;
+          bestCount = count;
+        }
+      }
+      return best;
+    }
+  }
+}
@@ -0,0 +1,280 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service for emptying whole tables quickly. Unlike a plain {@code DELETE FROM}, which makes H2
+ * log and undo every single row, tables that no foreign key points to are emptied with
+ * {@code TRUNCATE TABLE ... RESTART IDENTITY}.
+ *
+ * <p>The foreign keys are read from INFORMATION_SCHEMA. Tables referencing a table that is reset
+ * are reset as well, and children are always emptied before their parents. H2 cannot truncate a
+ * table that is still referenced by a foreign key and commits implicitly on TRUNCATE, so the
+ * unreferenced tables are truncated first and the referenced ones are then deleted in a single
+ * transaction with their identity columns restarted. Tables whose foreign key is declared
+ * {@code ON DELETE SET NULL} keep their rows; the database clears the referring column.</p>
+ *
+ * @author mian
+ */
+public class DatabaseResetService {
+
+  private static final String FOREIGN_KEYS_SQL =
+      "SELECT fk.TABLE_NAME AS child_table, pk.TABLE_NAME AS parent_table, rc.DELETE_RULE "
+          + "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc "
+          + "JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS fk "
+          + "ON fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA "
+          + "AND fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME "
+          + "JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS pk "
+          + "ON pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA "
+          + "AND pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME "
+          + "WHERE rc.CONSTRAINT_SCHEMA = 'PUBLIC'";
+
+  private static final String IDENTITY_COLUMNS_SQL =
+      "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+          + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? AND IS_IDENTITY = 'YES'";
+
+  /**
+   * Empties the given tables and every table that references them, and restarts their identity
+   * columns.
+   *
+   * @param tables the tables to empty
+   * @return true if all tables were emptied, false otherwise
+   * @author mian
+   */
+  public boolean reset(String... tables) {
+    return reset(false, tables);
+  }
+
+  /**
+   * Empties the given tables and every table that references them, restarts their identity
+   * columns and optionally compacts the database file afterwards.
+   *
+   * @param compact true to compact the database file once the tables are empty
+   * @param tables  the tables to empty
+   * @return true if all tables were emptied, false otherwise
+   * @author mian
+   */
+  public boolean reset(boolean compact, String... tables) {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      Set<String> referencedTables = new HashSet<>();
+      Map<String, Set<String>> children = loadChildTables(conn, referencedTables);
+      List<String> ordered =
+          orderForReset(new HashSet<>(Arrays.asList(normalize(tables))), children);
+
+      List<String> referenced = new ArrayList<>();
+      try (Statement stmt = conn.createStatement()) {
+        for (String table : ordered) {
+          if (referencedTables.contains(table)) {
+            referenced.add(table);
+          } else {
+            stmt.executeUpdate("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+          }
+        }
+      }
+
+      if (!referenced.isEmpty()) {
+        deleteAll(conn, referenced);
+      }
+    } catch (SQLException e) {
+      System.err.println("Error resetting tables " + String.join(", ", tables) + ": "
+          + e.getMessage());
+      e.printStackTrace();
+      return false;
+    }
+
+    return !compact || compact();
+  }
+
+  /**
+   * Deletes all rows of the given tables and every table that references them, children first,
+   * within the transaction of the given connection. Nothing is truncated and no identity column
+   * is restarted, since both would commit the transaction.
+   *
+   * @param conn   the connection of the running transaction
+   * @param tables the tables to empty
+   * @throws SQLException if a table cannot be emptied
+   * @author mian
+   */
+  public void deleteAllRows(Connection conn, String... tables) throws SQLException {
+    List<String> ordered = orderForReset(new HashSet<>(Arrays.asList(normalize(tables))),
+        loadChildTables(conn, new HashSet<>()));
+    try (Statement stmt = conn.createStatement()) {
+      for (String table : ordered) {
+        stmt.executeUpdate("DELETE FROM " + table);
+      }
+    }
+  }
+
+  /**
+   * Compacts the database file. H2 only rewrites the file when the database is closed, so this
+   * shuts the database down; it is reopened by the next connection and the pooled connections to
+   * the closed database are evicted.
+   *
+   * @return true if the database was compacted, false otherwise
+   * @author mian
+   */
+  public boolean compact() {
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("SHUTDOWN COMPACT");
+    } catch (SQLException e) {
+      System.err.println("Error compacting database: " + e.getMessage());
+      e.printStackTrace();
+      return false;
+    } finally {
+      DatabaseConfig.evictConnections();
+    }
+    return true;
+  }
+
+  /**
+   * Deletes all rows of the given referenced tables in one transaction and restarts their
+   * identity columns. The tables must already be ordered children first.
+   *
+   * @author mian
+   */
+  private void deleteAll(Connection conn, List<String> tables) throws SQLException {
+    conn.setAutoCommit(false);
+    try (Statement stmt = conn.createStatement()) {
+      for (String table : tables) {
+        stmt.executeUpdate("DELETE FROM " + table);
+        for (String column : loadIdentityColumns(conn, table)) {
+          stmt.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN " + column
+              + " RESTART WITH 1");
+        }
+      }
+      conn.commit();
+    } catch (SQLException e) {
+      conn.rollback();
+      throw e;
+    } finally {
+      conn.setAutoCommit(true);
+    }
+  }
+
+  /**
+   * Reads the foreign keys of the database as a map from each parent table to the tables that
+   * have to be emptied with it. Tables referring to a parent with {@code ON DELETE SET NULL} are
+   * left out, since deleting the parent rows does not delete theirs.
+   *
+   * @param referenced receives every table that another table refers to
+   * @author mian
+   */
+  private Map<String, Set<String>> loadChildTables(Connection conn, Set<String> referenced)
+      throws SQLException {
+    Map<String, Set<String>> children = new HashMap<>();
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(FOREIGN_KEYS_SQL)) {
+      while (rs.next()) {
+        String parent = rs.getString("parent_table");
+        String child = rs.getString("child_table");
+        if (!child.equals(parent)) {
+          referenced.add(parent);
+        }
+        if (!"SET NULL".equals(rs.getString("DELETE_RULE"))) {
+          children.computeIfAbsent(parent, k -> new TreeSet<>()).add(child);
+        }
+      }
+    }
+    return children;
+  }
+
+  /**
+   * Reads the identity columns of a table.
+   *
+   * @author mian
+   */
+  private List<String> loadIdentityColumns(Connection conn, String table) throws SQLException {
+    List<String> columns = new ArrayList<>();
+    try (PreparedStatement stmt = conn.prepareStatement(IDENTITY_COLUMNS_SQL)) {
+      stmt.setString(1, table);
+      try (ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          columns.add(rs.getString("COLUMN_NAME"));
+        }
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Expands the requested tables with all tables that reference them, directly or indirectly,
+   * and orders the result so that every table comes after the tables referencing it.
+   *
+   * @param requested the tables to reset, in upper case
+   * @param children  map from each parent table to the tables referencing it
+   * @return the tables to reset, children first
+   * @throws IllegalStateException if the foreign keys form a cycle
+   * @author mian
+   */
+  static List<String> orderForReset(Set<String> requested, Map<String, Set<String>> children) {
+    Set<String> tables = new TreeSet<>();
+    Deque<String> pending = new ArrayDeque<>(requested);
+    while (!pending.isEmpty()) {
+      String table = pending.pop();
+      if (tables.add(table)) {
+        pending.addAll(children.getOrDefault(table, Set.of()));
+      }
+    }
+
+    List<String> ordered = new ArrayList<>();
+    Set<String> visiting = new HashSet<>();
+    Set<String> done = new HashSet<>();
+    for (String table : tables) {
+      visit(table, children, visiting, done, ordered);
+    }
+    return ordered;
+  }
+
+  /**
+   * Depth-first visit that appends a table after all of its children.
+   *
+   * @author mian
+   */
+  private static void visit(String table, Map<String, Set<String>> children, Set<String> visiting,
+      Set<String> done, List<String> ordered) {
+    if (done.contains(table)) {
+      return;
+    }
+    if (!visiting.add(table)) {
+      throw new IllegalStateException("Foreign key cycle involving table " + table);
+    }
+    for (String child : children.getOrDefault(table, Set.of())) {
+      if (!child.equals(table)) {
+        visit(child, children, visiting, done, ordered);
+      }
+    }
+    visiting.remove(table);
+    done.add(table);
+    ordered.add(table);
+  }
+
+  /**
+   * Converts table names to the upper case used by INFORMATION_SCHEMA.
+   *
+   * @author mian
+   */
+  private static String[] normalize(String[] tables) {
+    String[] normalized = new String[tables.length];
+    for (int i = 0; i < tables.length; i++) {
+      normalized[i] = tables[i].toUpperCase(Locale.ROOT);
+    }
+    return normalized;
+  }
+}
@@ -2,6 +2,7 @@ package com.openjfx.services;
 
 import com.openjfx.config.DatabaseConfig;
 import com.openjfx.models.Event;
+import com.openjfx.models.RunContext;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -39,19 +40,79 @@ import java.util.Map;
 
 public class EventService extends AbstractExcelService<Event> {
 
+  /**
+   * Statement used to insert a single event.
+   *
+   * @author mian
+   */
+  private static final String INSERT_SQL = "INSERT INTO events ("
+      + "id, "
+      + "company, "
+      + "subject, "
+      + "max_participants, "
+      + "min_participants, "
+      + "earliest_start) "
+      + "VALUES (?, ?, ?, ?, ?, ?)";
+
+  /**
+   * Statement used to update an event during a delta import.
+   *
+   * @author mian
+   */
+  private static final String UPDATE_SQL = "UPDATE events SET "
+      + "company = ?, subject = ?, max_participants = ?, min_participants = ?, "
+      + "earliest_start = ? WHERE id = ?";
+
+  /**
+   * Statement used to delete an event during a delta import.
+   *
+   * @author mian
+   */
+  private static final String DELETE_SQL = "DELETE FROM events WHERE id = ?";
+
   // Default values for empty fields
   private static final String DEFAULT_EMPTY_STRING = "Empty";
   private static final int DEFAULT_MIN = 0;
   private static final int DEFAULT_MAX = 0;
 
   /**
-   * Constructs a new EventService with the specified Excel service.
+   * Fields read by {@link #createModelFromValues(String[], ImportPlan)}, in plan order.
+   *
+   * @author mian
+   */
+  private static final List<String> IMPORT_FIELDS = List.of(
+      "id", "company", "subject", "max", "min", "time");
+
+  private static final int ID = 0;
+  private static final int COMPANY = 1;
+  private static final int SUBJECT = 2;
+  private static final int MAX = 3;
+  private static final int MIN = 4;
+  private static final int TIME = 5;
+
+  private final RunContext runContext;
+
+  /**
+   * Constructs a new EventService with the specified Excel service that works on the default
+   * run.
    *
    * @param excelService the Excel service to use for file operations
    * @author mian
    */
   public EventService(ExcelService excelService) {
+    this(excelService, RunContext.DEFAULT);
+  }
+
+  /**
+   * Constructs a new EventService with the specified Excel service that works on the given run.
+   *
+   * @param excelService the Excel service to use for file operations
+   * @param runContext   the run whose workshop demand is removed with deleted events
+   * @author mian
+   */
+  public EventService(ExcelService excelService, RunContext runContext) {
     super(excelService);
+    this.runContext = runContext;
   }
 
   /**
@@ -86,7 +147,19 @@ public class EventService extends AbstractExcelService<Event> {
 
 
   /**
-   * Creates an Event object from a row of Excel data.
+   * Returns the fields read from a row buffer, in plan order.
+   *
+   * @return the import fields
+   * @author mian
+   */
+  @Override
+  protected List<String> getImportFields() {
+    return IMPORT_FIELDS;
+  }
+
+  /**
+   * Creates an Event object from a row buffer, reading the fields by the column indexes of the
+   * compiled plan.
    *
    * <p>Required fields are:
    * <ul>
@@ -102,16 +175,31 @@ public class EventService extends AbstractExcelService<Event> {
    *   <li>Earliest start time (default: "Empty")</li>
    * </ul>
    *
-   * @param row            the row data from Excel
-   * @param columnMappings the mappings between internal names and actual Excel columns
-   * @return a new Event object, or null if the ID is missing or invalid
+   * @param values the row buffer, indexed by column
+   * @param plan   the import plan compiled from the header row
+   * @return a new Event object, or null if the ID is invalid
    * @author mian
    */
   @Override
-  protected Event createModelFromRow(Map<String, String> row, Map<String, String> columnMappings) {
-    // Get the ID (the only truly required field)
-    String idStr = row.get(columnMappings.get("id"));
+  protected Event createModelFromValues(String[] values, ImportPlan plan) {
+    return createEvent(
+        plan.get(values, ID),
+        plan.get(values, COMPANY),
+        plan.get(values, SUBJECT),
+        plan.get(values, MAX),
+        plan.get(values, MIN),
+        plan.get(values, TIME));
+  }
 
+  /**
+   * Creates an Event object from the raw cell values of a row.
+   *
+   * @return a new Event object, or null if the ID is invalid
+   * @throws IllegalArgumentException if the ID is missing
+   * @author mian
+   */
+  private Event createEvent(String idStr, String company, String subject, String max,
+      String min, String time) {
     // Throw an exception if the ID is missing
     if (idStr == null || idStr.trim().isEmpty()) {
       throw new IllegalArgumentException("Missing required field: id");
@@ -121,20 +209,16 @@ public class EventService extends AbstractExcelService<Event> {
       // Parse ID - this is the only required field
       int id = Integer.parseInt(idStr.trim());
 
-      // Get optional fields with defaults if missing
-      String company = getOptionalStringValue(row, columnMappings, "company", DEFAULT_EMPTY_STRING);
-      String subject = getOptionalStringValue(row, columnMappings, "subject", DEFAULT_EMPTY_STRING);
-      String time = getOptionalStringValue(row, columnMappings, "time", DEFAULT_EMPTY_STRING);
-
-      // Parse numeric fields with defaults
-      int max = getOptionalIntValue(row, columnMappings, "max", DEFAULT_MAX);
-      int min = getOptionalIntValue(row, columnMappings, "min", DEFAULT_MIN);
-
       // Create the Event with all fields (using defaults for missing ones)
-      return new Event(id, company, subject, max, min, time);
+      return new Event(id,
+          getOptionalStringValue(company, DEFAULT_EMPTY_STRING),
+          getOptionalStringValue(subject, DEFAULT_EMPTY_STRING),
+          getOptionalIntValue(max, "max", DEFAULT_MAX),
+          getOptionalIntValue(min, "min", DEFAULT_MIN),
+          getOptionalStringValue(time, DEFAULT_EMPTY_STRING));
 
     } catch (NumberFormatException e) {
-      System.err.println("Error parsing ID in row: " + row + " - " + e.getMessage());
+      System.err.println("Error parsing ID '" + idStr + "' - " + e.getMessage());
       return null;
     }
   }
@@ -142,32 +226,25 @@ public class EventService extends AbstractExcelService<Event> {
   /**
    * Helper method to get an optional string value with a default if missing.
    *
-   * @param row            the row data
-   * @param columnMappings column mappings
-   * @param field          the field name
-   * @param defaultValue   default value to use if missing
+   * @param value        the cell value, or null if the column is missing
+   * @param defaultValue default value to use if missing
    * @return the string value or default
    * @author mian
    */
-  private String getOptionalStringValue(Map<String, String> row, Map<String, String> columnMappings,
-      String field, String defaultValue) {
-    String value = row.get(columnMappings.get(field));
+  private String getOptionalStringValue(String value, String defaultValue) {
     return (value != null && !value.trim().isEmpty()) ? value : defaultValue;
   }
 
   /**
    * Helper method to get an optional integer value with a default if missing.
    *
-   * @param row            the row data
-   * @param columnMappings column mappings
-   * @param field          the field name
-   * @param defaultValue   default value to use if missing
+   * @param value        the cell value, or null if the column is missing
+   * @param field        the field name
+   * @param defaultValue default value to use if missing
    * @return the integer value or default
    * @author mian
    */
-  private int getOptionalIntValue(Map<String, String> row, Map<String, String> columnMappings,
-      String field, int defaultValue) {
-    String value = row.get(columnMappings.get(field));
+  private int getOptionalIntValue(String value, String field, int defaultValue) {
     if (value == null || value.trim().isEmpty()) {
       return defaultValue;
     }
@@ -199,6 +276,146 @@ public class EventService extends AbstractExcelService<Event> {
     );
   }
 
+  /**
+   * Gets the table events are stored in.
+   *
+   * @return the table name
+   * @author mian
+   */
+  @Override
+  protected String getTableName() {
+    return "events";
+  }
+
+  /**
+   * Gets the INSERT statement used to save events in bulk.
+   *
+   * @return the parameterized INSERT statement
+   * @author mian
+   */
+  @Override
+  protected String getInsertSql() {
+    return INSERT_SQL;
+  }
+
+  /**
+   * Sets the INSERT parameters for one event.
+   *
+   * @param pstmt the prepared INSERT statement
+   * @param event the Event object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindInsert(PreparedStatement pstmt, Event event) throws SQLException {
+    pstmt.setInt(1, event.getId());
+    pstmt.setString(2, event.getCompany());
+    pstmt.setString(3, event.getSubject());
+    pstmt.setInt(4, event.getMaxParticipants());
+    pstmt.setInt(5, event.getMinParticipants());
+    pstmt.setString(6, event.getEarliestStart());
+  }
+
+  /**
+   * Identifies an event by its id.
+   *
+   * @param event the Event object
+   * @return the natural key of the event
+   * @author mian
+   */
+  @Override
+  protected String getNaturalKey(Event event) {
+    return String.valueOf(event.getId());
+  }
+
+  /**
+   * Loads the stored events for comparison during a delta import.
+   *
+   * @return the stored events
+   * @author mian
+   */
+  @Override
+  protected List<Event> loadExisting() {
+    return loadEvents();
+  }
+
+  /**
+   * Gets the UPDATE statement used by delta imports.
+   *
+   * @return the parameterized UPDATE statement
+   * @author mian
+   */
+  @Override
+  protected String getUpdateSql() {
+    return UPDATE_SQL;
+  }
+
+  /**
+   * Sets the UPDATE parameters for one event.
+   *
+   * @param pstmt the prepared UPDATE statement
+   * @param event the Event object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindUpdate(PreparedStatement pstmt, Event event) throws SQLException {
+    pstmt.setString(1, event.getCompany());
+    pstmt.setString(2, event.getSubject());
+    pstmt.setInt(3, event.getMaxParticipants());
+    pstmt.setInt(4, event.getMinParticipants());
+    pstmt.setString(5, event.getEarliestStart());
+    pstmt.setInt(6, event.getId());
+  }
+
+  /**
+   * Gets the DELETE statement used by delta imports.
+   *
+   * @return the parameterized DELETE statement
+   * @author mian
+   */
+  @Override
+  protected String getDeleteSql() {
+    return DELETE_SQL;
+  }
+
+  /**
+   * Sets the DELETE parameters for one event.
+   *
+   * @param pstmt the prepared DELETE statement
+   * @param event the Event object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindDelete(PreparedStatement pstmt, Event event) throws SQLException {
+    pstmt.setInt(1, event.getId());
+  }
+
+  /**
+   * Deletes events together with the workshop demand of the current run that references them.
+   * The demand of other runs is never touched, so an event that another run still has demand
+   * for cannot be deleted and the delta import is rolled back.
+   *
+   * @param conn   the connection of the running transaction
+   * @param events the events to delete
+   * @throws SQLException if a row cannot be deleted
+   * @author mian
+   */
+  @Override
+  protected void deleteRows(Connection conn, List<Event> events) throws SQLException {
+    try (PreparedStatement pstmt = conn.prepareStatement(
+        "DELETE FROM workshop_demand WHERE event_id = ? AND run_id = ?")) {
+      for (Event event : events) {
+        pstmt.setInt(1, event.getId());
+        pstmt.setInt(2, runContext.getRunId());
+        pstmt.addBatch();
+      }
+      pstmt.executeBatch();
+    }
+    super.deleteRows(conn, events);
+  }
+
   /**
    * Saves an Event object to the database.
    *
@@ -206,28 +423,12 @@ public class EventService extends AbstractExcelService<Event> {
    * @author mian
    */
   public void saveEvent(Event event) {
-    // SQL query to insert a new event into the events table
-    String sql = "INSERT INTO events ("
-        + "id, "
-        + "company, "
-        + "subject, "
-        + "max_participants, "
-        + "min_participants, "
-        + "earliest_start) "
-        + "VALUES (?, ?, ?, ?, ?, ?)";
-
     try (Connection conn = DatabaseConfig.getConnection()) {
       // Disable auto-commit to manage transactions manually
       conn.setAutoCommit(false);
 
-      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        // Set the parameters for the PreparedStatement
-        pstmt.setInt(1, event.getId());
-        pstmt.setString(2, event.getCompany());
-        pstmt.setString(3, event.getSubject());
-        pstmt.setInt(4, event.getMaxParticipants());
-        pstmt.setInt(5, event.getMinParticipants());
-        pstmt.setString(6, event.getEarliestStart());
+      try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+        bindInsert(pstmt, event);
 
         // Execute the update and get the number of affected rows
         int result = pstmt.executeUpdate();
@@ -251,22 +452,13 @@ public class EventService extends AbstractExcelService<Event> {
   }
 
   /**
-   * Deletes an Event object from the database.
+   * Deletes all events from the database. The workshop demand of all runs references the events
+   * and is deleted with them.
    *
    * @author mian
    */
   public void clearEvents() {
-    String delete = "DELETE FROM events";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement()) {
-      conn.setAutoCommit(false);
-      stmt.executeUpdate(delete);
-      conn.commit();
-    } catch (SQLException e) {
-      System.err.println("Error clearing events: " + e.getMessage());
-      e.printStackTrace();
-    }
+    new DatabaseResetService().reset("events");
   }
 
   /**
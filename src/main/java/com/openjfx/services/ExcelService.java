@@ -1,7 +1,8 @@
 package com.openjfx.services;
 
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.*;
 import java.util.*;
@@ -14,6 +15,13 @@ import java.util.*;
  */
 public class ExcelService {
 
+  /**
+   * Codec used for files with the .csv extension.
+   *
+   * @author mian
+   */
+  private final CsvService csvService = new CsvService();
+
   /**
    * Creates an Excel file with the given data and saves it to the specified file path.
    *
@@ -23,7 +31,12 @@ public class ExcelService {
    * @author mian
    */
   public void createExcelFile(List<Map<String, Object>> data, String filePath) throws IOException {
-    try (Workbook workbook = new XSSFWorkbook()) {
+    if (CsvService.isCsvFile(filePath)) {
+      csvService.createCsvFile(data, filePath);
+      return;
+    }
+
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
 
       Sheet sheet = workbook.createSheet("Data");
 
@@ -52,12 +65,55 @@ public class ExcelService {
       }
 
       // Write the workbook to the file system
-      try (FileOutputStream out = new FileOutputStream(filePath)) {
-        workbook.write(out);
-      }
+      StreamingWorkbook.write(workbook, filePath);
     }
   }
 
+  /**
+   * Receives the rows of a sheet while it is being read.
+   *
+   * @author mian
+   */
+  public interface RowConsumer {
+
+    /**
+     * Called once with the trimmed header cells of the first row.
+     *
+     * @param headers the header names, indexed by column
+     * @author mian
+     */
+    void headers(String[] headers);
+
+    /**
+     * Called for every data row. The array has one formatted, trimmed value per header column;
+     * empty cells are empty strings. The reader reuses the array for the next row, so a consumer
+     * that keeps the values must copy them.
+     *
+     * @param rowNumber the 1-based row number as shown in Excel
+     * @param values    the cell values, indexed by column
+     * @author mian
+     */
+    void row(int rowNumber, String[] values);
+  }
+
+  /**
+   * Chooses how the rows of each sheet of a workbook are consumed.
+   *
+   * @author mian
+   */
+  @FunctionalInterface
+  public interface SheetConsumer {
+
+    /**
+     * Called before a sheet is read.
+     *
+     * @param sheetName the name of the sheet
+     * @return the consumer of the sheet's rows, or null to skip the sheet
+     * @author mian
+     */
+    RowConsumer sheet(String sheetName);
+  }
+
   /**
    * Reads an Excel file from the specified file path and returns the data as a list of maps.
    *
@@ -69,42 +125,135 @@ public class ExcelService {
   public List<Map<String, String>> readExcelFile(String filePath) throws IOException {
     List<Map<String, String>> result = new ArrayList<>();
 
-    try (InputStream inputStream = new FileInputStream(filePath);
-        Workbook workbook = WorkbookFactory.create(inputStream)) {
+    readExcelFile(filePath, new RowConsumer() {
+      private String[] headers;
 
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rowIterator = sheet.iterator();
-
-      // Read headers
-      Row headerRow = rowIterator.next();
-      List<String> headers = new ArrayList<>();
-      for (Cell cell : headerRow) {
-        headers.add(cell.getStringCellValue().trim()); // Trim headers to avoid whitespace issues
+      @Override
+      public void headers(String[] headers) {
+        this.headers = headers;
       }
-      int numColumns = headers.size();
 
-      // Read data rows
-      while (rowIterator.hasNext()) {
-        Row row = rowIterator.next();
+      @Override
+      public void row(int rowNumber, String[] values) {
         Map<String, String> rowData = new HashMap<>();
+        for (int colIdx = 0; colIdx < headers.length; colIdx++) {
+          rowData.put(headers[colIdx], values[colIdx]);
+        }
+        result.add(rowData);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Reads the first sheet of an Excel file and pushes its rows to the consumer while reading.
+   * .xlsx files are parsed with the streaming event model, so memory use does not depend on the
+   * number of rows; .csv files are read by {@link CsvService} without POI; other formats are
+   * loaded as a workbook.
+   *
+   * @param filePath the path to the Excel file
+   * @param consumer receives the header row and the data rows
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  public void readExcelFile(String filePath, RowConsumer consumer) throws IOException {
+    if (CsvService.isCsvFile(filePath)) {
+      csvService.readCsvFile(filePath, consumer);
+      return;
+    }
+
+    File file = new File(filePath);
+    if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+      new StreamingSheetReader(file, consumer).read();
+    } else {
+      readWorkbook(file, consumer);
+    }
+  }
+
+  /**
+   * Opens a workbook once and pushes the rows of all its sheets, in workbook order, to the
+   * consumers chosen per sheet. .xlsx files are streamed sheet by sheet; a .csv file counts as a
+   * single sheet named after the file.
+   *
+   * @param filePath the path to the Excel file
+   * @param consumer chooses the row consumer of each sheet
+   * @throws IOException if an I/O error occurs
+   * @author mian
+   */
+  public void readAllSheets(String filePath, SheetConsumer consumer) throws IOException {
+    File file = new File(filePath);
+    if (CsvService.isCsvFile(filePath)) {
+      RowConsumer rows = consumer.sheet(file.getName());
+      if (rows != null) {
+        csvService.readCsvFile(filePath, rows);
+      }
+      return;
+    }
 
-        // Iterate through ALL columns (based on header count)
-        for (int colIdx = 0; colIdx < numColumns; colIdx++) {
-          Cell cell = row.getCell(colIdx, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
-          DataFormatter formatter = new DataFormatter();
-          String value = (cell != null) ? formatter.formatCellValue(cell).trim() : "";
-          rowData.put(headers.get(colIdx), value);
+    if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+      new StreamingSheetReader(file, consumer).read();
+      return;
+    }
+
+    // Opened read-only from the file, so the workbook is not loaded into a byte array first
+    try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+      DataFormatter formatter = new DataFormatter();
+      for (Sheet sheet : workbook) {
+        RowConsumer rows = consumer.sheet(sheet.getSheetName());
+        if (rows != null) {
+          readSheet(sheet, formatter, rows);
         }
+      }
+    }
+  }
 
-        result.add(rowData);
+  /**
+   * Reads the first sheet of a workbook that cannot be streamed, such as a legacy .xls file.
+   *
+   * @author mian
+   */
+  private void readWorkbook(File file, RowConsumer consumer) throws IOException {
+    // Opened read-only from the file, so the workbook is not loaded into a byte array first
+    try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+      readSheet(workbook.getSheetAt(0), new DataFormatter(), consumer);
+    }
+  }
+
+  /**
+   * Pushes the rows of a loaded sheet to the consumer.
+   *
+   * @author mian
+   */
+  private void readSheet(Sheet sheet, DataFormatter formatter, RowConsumer consumer) {
+    Iterator<Row> rowIterator = sheet.iterator();
+    if (!rowIterator.hasNext()) {
+      return;
+    }
+
+    // Read headers
+    Row headerRow = rowIterator.next();
+    String[] headers = new String[Math.max(headerRow.getLastCellNum(), 0)];
+    for (int colIdx = 0; colIdx < headers.length; colIdx++) {
+      Cell cell = headerRow.getCell(colIdx, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
+      headers[colIdx] = (cell != null) ? formatter.formatCellValue(cell).trim() : "";
+    }
+    consumer.headers(headers.clone());
+
+    // Read data rows into one reused buffer
+    String[] values = new String[headers.length];
+    while (rowIterator.hasNext()) {
+      Row row = rowIterator.next();
+      for (int colIdx = 0; colIdx < headers.length; colIdx++) {
+        Cell cell = row.getCell(colIdx, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
+        values[colIdx] = (cell != null) ? formatter.formatCellValue(cell).trim() : "";
       }
+      consumer.row(row.getRowNum() + 1, values);
     }
-    return result;
   }
 
   public void createExcelFileCustom(List<Map<String, Object>> data, String filePath)
       throws IOException {
-    try (Workbook workbook = new XSSFWorkbook()) {
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
       Sheet sheet = workbook.createSheet("Data");
 
       int rowIndex = 0;
@@ -132,9 +281,7 @@ public class ExcelService {
       }
 
       // Datei speichern
-      try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-        workbook.write(fileOut);
-      }
+      StreamingWorkbook.write(workbook, filePath);
     }
   }
 }
\ No newline at end of file
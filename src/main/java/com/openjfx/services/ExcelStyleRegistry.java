@@ -0,0 +1,103 @@
+package com.openjfx.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Creates the cell styles of one workbook from {@link ExcelStyleSpec}s. Each distinct spec
+ * becomes one style and each distinct font one font, however many cells use them, so an export
+ * stays far below the limit of 64,000 styles per workbook.
+ *
+ * <p>A registry belongs to a single workbook and is not thread-safe, like the workbook
+ * itself.</p>
+ *
+ * @author mian
+ */
+public final class ExcelStyleRegistry {
+
+  private final Workbook workbook;
+  private final Map<ExcelStyleSpec, CellStyle> styles = new HashMap<>();
+  private final Map<Integer, Font> fonts = new HashMap<>();
+
+  /**
+   * Creates a registry for a workbook.
+   *
+   * @param workbook the workbook to create the styles in
+   * @author mian
+   */
+  public ExcelStyleRegistry(Workbook workbook) {
+    this.workbook = workbook;
+  }
+
+  /**
+   * Gets the style of a spec, creating it on first use.
+   *
+   * @param spec the look of the cell
+   * @return the style of the workbook matching the spec
+   * @author mian
+   */
+  public CellStyle get(ExcelStyleSpec spec) {
+    CellStyle style = styles.get(spec);
+    if (style == null) {
+      style = createStyle(spec);
+      styles.put(spec, style);
+    }
+    return style;
+  }
+
+  /**
+   * Gets the number of styles created so far.
+   *
+   * @return the number of distinct specs used
+   * @author mian
+   */
+  public int size() {
+    return styles.size();
+  }
+
+  /**
+   * Creates the style of a spec in the workbook.
+   *
+   * @author mian
+   */
+  private CellStyle createStyle(ExcelStyleSpec spec) {
+    CellStyle style = workbook.createCellStyle();
+    if (spec.isBold() || spec.getFontSize() > 0) {
+      style.setFont(getFont(spec.isBold(), spec.getFontSize()));
+    }
+    style.setBorderTop(spec.getBorderTop());
+    style.setBorderBottom(spec.getBorderBottom());
+    style.setBorderLeft(spec.getBorderLeft());
+    style.setBorderRight(spec.getBorderRight());
+    style.setAlignment(spec.getAlignment());
+    style.setWrapText(spec.isWrapText());
+    if (spec.getFill() != null) {
+      style.setFillForegroundColor(spec.getFill().getIndex());
+      style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+    }
+    return style;
+  }
+
+  /**
+   * Gets the font with the given weight and size, creating it on first use.
+   *
+   * @author mian
+   */
+  private Font getFont(boolean bold, short fontSize) {
+    int key = fontSize * 2 + (bold ? 1 : 0);
+    Font font = fonts.get(key);
+    if (font == null) {
+      font = workbook.createFont();
+      font.setBold(bold);
+      if (fontSize > 0) {
+        font.setFontHeightInPoints(fontSize);
+      }
+      fonts.put(key, font);
+    }
+    return font;
+  }
+}
@@ -0,0 +1,267 @@
+package com.openjfx.services;
+
+import java.util.Objects;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+/**
+ * Describes the look of a cell in an Excel export: font, borders, alignment and fill. Specs are
+ * immutable values; each method returns a copy with one property changed, so exports can declare
+ * their styles as constants and derive variants from them. Equal specs give the same
+ * {@link org.apache.poi.ss.usermodel.CellStyle} in an {@link ExcelStyleRegistry}.
+ *
+ * @author mian
+ */
+public final class ExcelStyleSpec {
+
+  /**
+   * The default style of a workbook: regular font, no borders, no fill.
+   *
+   * @author mian
+   */
+  public static final ExcelStyleSpec PLAIN = new ExcelStyleSpec(false, (short) 0,
+      BorderStyle.NONE, BorderStyle.NONE, BorderStyle.NONE, BorderStyle.NONE,
+      HorizontalAlignment.GENERAL, false, null);
+
+  private final boolean bold;
+  private final short fontSize;
+  private final BorderStyle borderTop;
+  private final BorderStyle borderBottom;
+  private final BorderStyle borderLeft;
+  private final BorderStyle borderRight;
+  private final HorizontalAlignment alignment;
+  private final boolean wrapText;
+  private final IndexedColors fill;
+
+  private ExcelStyleSpec(boolean bold, short fontSize, BorderStyle borderTop,
+      BorderStyle borderBottom, BorderStyle borderLeft, BorderStyle borderRight,
+      HorizontalAlignment alignment, boolean wrapText, IndexedColors fill) {
+    this.bold = bold;
+    this.fontSize = fontSize;
+    this.borderTop = borderTop;
+    this.borderBottom = borderBottom;
+    this.borderLeft = borderLeft;
+    this.borderRight = borderRight;
+    this.alignment = alignment;
+    this.wrapText = wrapText;
+    this.fill = fill;
+  }
+
+  /**
+   * Returns this spec with a bold font.
+   *
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec bold() {
+    return new ExcelStyleSpec(true, fontSize, borderTop, borderBottom, borderLeft, borderRight,
+        alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the given font size.
+   *
+   * @param points the font size in points
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec fontSize(int points) {
+    return new ExcelStyleSpec(bold, (short) points, borderTop, borderBottom, borderLeft,
+        borderRight, alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the same border on all four sides.
+   *
+   * @param border the border style
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec borders(BorderStyle border) {
+    return new ExcelStyleSpec(bold, fontSize, border, border, border, border, alignment,
+        wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the given top border.
+   *
+   * @param border the border style
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec borderTop(BorderStyle border) {
+    return new ExcelStyleSpec(bold, fontSize, border, borderBottom, borderLeft, borderRight,
+        alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the given bottom border.
+   *
+   * @param border the border style
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec borderBottom(BorderStyle border) {
+    return new ExcelStyleSpec(bold, fontSize, borderTop, border, borderLeft, borderRight,
+        alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the given right border.
+   *
+   * @param border the border style
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec borderRight(BorderStyle border) {
+    return new ExcelStyleSpec(bold, fontSize, borderTop, borderBottom, borderLeft, border,
+        alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with the given horizontal alignment.
+   *
+   * @param alignment the alignment
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec align(HorizontalAlignment alignment) {
+    return new ExcelStyleSpec(bold, fontSize, borderTop, borderBottom, borderLeft, borderRight,
+        alignment, wrapText, fill);
+  }
+
+  /**
+   * Returns this spec with text wrapping enabled.
+   *
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec wrapText() {
+    return new ExcelStyleSpec(bold, fontSize, borderTop, borderBottom, borderLeft, borderRight,
+        alignment, true, fill);
+  }
+
+  /**
+   * Returns this spec with a solid background color.
+   *
+   * @param color the background color
+   * @return the changed spec
+   * @author mian
+   */
+  public ExcelStyleSpec fill(IndexedColors color) {
+    return new ExcelStyleSpec(bold, fontSize, borderTop, borderBottom, borderLeft, borderRight,
+        alignment, wrapText, color);
+  }
+
+  /**
+   * Gets whether the font is bold.
+   *
+   * @return true for a bold font
+   * @author mian
+   */
+  public boolean isBold() {
+    return bold;
+  }
+
+  /**
+   * Gets the font size.
+   *
+   * @return the font size in points, or 0 for the default size
+   * @author mian
+   */
+  public short getFontSize() {
+    return fontSize;
+  }
+
+  /**
+   * Gets the top border.
+   *
+   * @return the border style
+   * @author mian
+   */
+  public BorderStyle getBorderTop() {
+    return borderTop;
+  }
+
+  /**
+   * Gets the bottom border.
+   *
+   * @return the border style
+   * @author mian
+   */
+  public BorderStyle getBorderBottom() {
+    return borderBottom;
+  }
+
+  /**
+   * Gets the left border.
+   *
+   * @return the border style
+   * @author mian
+   */
+  public BorderStyle getBorderLeft() {
+    return borderLeft;
+  }
+
+  /**
+   * Gets the right border.
+   *
+   * @return the border style
+   * @author mian
+   */
+  public BorderStyle getBorderRight() {
+    return borderRight;
+  }
+
+  /**
+   * Gets the horizontal alignment.
+   *
+   * @return the alignment
+   * @author mian
+   */
+  public HorizontalAlignment getAlignment() {
+    return alignment;
+  }
+
+  /**
+   * Gets whether text is wrapped.
+   *
+   * @return true if text wraps
+   * @author mian
+   */
+  public boolean isWrapText() {
+    return wrapText;
+  }
+
+  /**
+   * Gets the background color.
+   *
+   * @return the color, or null for no fill
+   * @author mian
+   */
+  public IndexedColors getFill() {
+    return fill;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ExcelStyleSpec)) {
+      return false;
+    }
+    ExcelStyleSpec other = (ExcelStyleSpec) o;
+    return bold == other.bold && fontSize == other.fontSize && borderTop == other.borderTop
+        && borderBottom == other.borderBottom && borderLeft == other.borderLeft
+        && borderRight == other.borderRight && alignment == other.alignment
+        && wrapText == other.wrapText && fill == other.fill;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(bold, fontSize, borderTop, borderBottom, borderLeft, borderRight,
+        alignment, wrapText, fill);
+  }
+}
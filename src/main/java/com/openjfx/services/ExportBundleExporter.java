@@ -0,0 +1,331 @@
+package com.openjfx.services;
+
+import com.openjfx.models.RoutingSlip;
+import com.openjfx.models.ScoreSheet;
+import com.openjfx.services.AttendanceListBatchExporter.Format;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the complete printout set for an event day into one ZIP file: the room plan, the
+ * attendance lists of all events, the routing slips and the fulfillment report.
+ *
+ * <p>Every document is rendered into memory on a worker pool and streamed straight into the ZIP,
+ * so no files are written next to the bundle. Documents are rendered ahead of the one being
+ * written, which lets the large routing slips overlap with the many small attendance lists, while
+ * a bounded number of finished documents is kept in memory.</p>
+ *
+ * <p>The bundle is written to a configurable directory. File names follow a naming pattern in
+ * which {@value #DOCUMENT} stands for the name of the document, such as the name of the
+ * attendance list of an event, and {@value #DATE} for the date of the export.</p>
+ *
+ * @author mian
+ */
+public class ExportBundleExporter {
+
+  /**
+   * Placeholder for the name of a document in the naming pattern.
+   *
+   * @author mian
+   */
+  public static final String DOCUMENT = "{document}";
+
+  /**
+   * Placeholder for the date of the export, as yyyy-MM-dd, in the naming pattern.
+   *
+   * @author mian
+   */
+  public static final String DATE = "{date}";
+
+  /**
+   * Naming pattern that keeps the names of the separate exports.
+   *
+   * @author mian
+   */
+  public static final String DEFAULT_PATTERN = DOCUMENT;
+
+  /**
+   * Name of the bundle itself, before the naming pattern is applied.
+   *
+   * @author mian
+   */
+  public static final String BUNDLE_NAME = "EXPORT Bundle";
+
+  private final TimetableService timetableService;
+  private final RoomService roomService;
+  private final FulfillmentScoreService fulfillmentScoreService;
+  private final File outputDirectory;
+  private final String namingPattern;
+  private final int workers;
+
+  /**
+   * Creates an exporter with one worker per processor.
+   *
+   * @param timetableService        the service that renders attendance lists and routing slips
+   * @param roomService             the service that renders the room plan
+   * @param fulfillmentScoreService the service that renders the fulfillment report
+   * @param outputDirectory         the directory the bundle is written to
+   * @param namingPattern           the pattern for the names of the bundle and its documents
+   * @author mian
+   */
+  public ExportBundleExporter(TimetableService timetableService, RoomService roomService,
+      FulfillmentScoreService fulfillmentScoreService, File outputDirectory,
+      String namingPattern) {
+    this(timetableService, roomService, fulfillmentScoreService, outputDirectory, namingPattern,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates an exporter.
+   *
+   * @param timetableService        the service that renders attendance lists and routing slips
+   * @param roomService             the service that renders the room plan
+   * @param fulfillmentScoreService the service that renders the fulfillment report
+   * @param outputDirectory         the directory the bundle is written to
+   * @param namingPattern           the pattern for the names of the bundle and its documents
+   * @param workers                 number of threads rendering documents
+   * @author mian
+   */
+  public ExportBundleExporter(TimetableService timetableService, RoomService roomService,
+      FulfillmentScoreService fulfillmentScoreService, File outputDirectory,
+      String namingPattern, int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers must be at least 1");
+    }
+    if (namingPattern == null || !namingPattern.contains(DOCUMENT)) {
+      // Without the document name all entries would have the same name
+      throw new IllegalArgumentException("The naming pattern must contain " + DOCUMENT);
+    }
+    this.timetableService = timetableService;
+    this.roomService = roomService;
+    this.fulfillmentScoreService = fulfillmentScoreService;
+    this.outputDirectory = outputDirectory;
+    this.namingPattern = namingPattern;
+    this.workers = workers;
+  }
+
+  /**
+   * Applies the naming pattern to a document name.
+   *
+   * @param document the name of the document
+   * @return the file name without extension, without characters that are not allowed in files
+   * @author mian
+   */
+  public String getFileName(String document) {
+    return ParallelRenderer.sanitize(namingPattern
+        .replace(DATE, LocalDate.now().toString())
+        .replace(DOCUMENT, document));
+  }
+
+  /**
+   * Gets the file the bundle is written to.
+   *
+   * @return the ZIP file in the output directory
+   * @author mian
+   */
+  public File getBundleFile() {
+    return new File(outputDirectory, getFileName(BUNDLE_NAME) + ".zip");
+  }
+
+  /**
+   * Writes the bundle into the output directory. An unfinished bundle is deleted.
+   *
+   * @param roomPlan    the rows of the room plan
+   * @param assignments the assignments of all students, for attendance lists and routing slips
+   * @param scores      the fulfillment scores of all students
+   * @param formats     the formats to export each document in
+   * @param progress    receives the number of documents written and tells the export whether
+   *                    to stop
+   * @return the bundle file
+   * @throws IOException           if a document cannot be rendered or the bundle not be written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public File export(List<?> roomPlan, List<?> assignments, List<?> scores, Set<Format> formats,
+      ExportProgress progress) throws IOException {
+    Files.createDirectories(outputDirectory.toPath());
+    File bundle = getBundleFile();
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(bundle))) {
+      export(roomPlan, assignments, scores, formats, out, progress);
+    } catch (IOException | RuntimeException e) {
+      bundle.delete();
+      throw e;
+    }
+    return bundle;
+  }
+
+  /**
+   * Writes the bundle into a ZIP stream. The ZIP is finished, but the stream is not closed.
+   * Documents without data are left out.
+   *
+   * @param roomPlan    the rows of the room plan
+   * @param assignments the assignments of all students, for attendance lists and routing slips
+   * @param scores      the fulfillment scores of all students
+   * @param formats     the formats to export each document in
+   * @param out         the stream to write the ZIP to
+   * @param progress    receives the number of documents written and tells the export whether
+   *                    to stop
+   * @return the names of the ZIP entries, in the order they were written
+   * @throws IOException           if a document cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<String> export(List<?> roomPlan, List<?> assignments, List<?> scores,
+      Set<Format> formats, OutputStream out, ExportProgress progress) throws IOException {
+    if (formats.isEmpty()) {
+      throw new IllegalArgumentException("No export format selected");
+    }
+    List<String> names = new ArrayList<>();
+    List<Callable<byte[]>> tasks = new ArrayList<>();
+    addRoomPlan(roomPlan, formats, names, tasks);
+    addAttendanceLists(assignments, formats, names, tasks);
+    addRoutingSlips(assignments, formats, names, tasks);
+    addFulfillmentReport(scores, formats, names, tasks);
+    if (tasks.isEmpty()) {
+      throw new IllegalArgumentException("There is no data to export");
+    }
+
+    ZipOutputStream zip = new ZipOutputStream(out);
+    ParallelRenderer.render(workers, tasks, progress, (index, content) -> {
+      zip.putNextEntry(new ZipEntry(names.get(index)));
+      zip.write(content);
+      zip.closeEntry();
+    });
+    zip.finish();
+    return names;
+  }
+
+  /**
+   * Adds the room plan in every format.
+   *
+   * @author mian
+   */
+  private void addRoomPlan(List<?> roomPlan, Set<Format> formats, List<String> names,
+      List<Callable<byte[]>> tasks) {
+    List<Map<String, Object>> data = roomService.prepareDataForExport(roomPlan);
+    if (data.isEmpty()) {
+      return;
+    }
+    String name = getFileName(roomService.getFilePath());
+    if (formats.contains(Format.EXCEL)) {
+      add(name + Format.EXCEL.getExtension(), out -> roomService.exportDataToExcel(data, out),
+          names, tasks);
+    }
+    if (formats.contains(Format.PDF)) {
+      add(name + Format.PDF.getExtension(), out -> roomService.roomExportToPdf(data, out), names,
+          tasks);
+    }
+  }
+
+  /**
+   * Adds the attendance list of every event, named as in the attendance list batch export.
+   *
+   * @author mian
+   */
+  private void addAttendanceLists(List<?> assignments, Set<Format> formats, List<String> names,
+      List<Callable<byte[]>> tasks) {
+    if (AttendanceListBatchExporter.groupByEvent(assignments).isEmpty()) {
+      return;
+    }
+    Map<String, Callable<byte[]>> lists = new AttendanceListBatchExporter(timetableService,
+        workers).renderTasks(assignments, formats);
+    for (Map.Entry<String, Callable<byte[]>> list : lists.entrySet()) {
+      String fileName = list.getKey();
+      int extension = fileName.lastIndexOf('.');
+      names.add(getFileName(fileName.substring(0, extension)) + fileName.substring(extension));
+      tasks.add(list.getValue());
+    }
+  }
+
+  /**
+   * Adds the routing slips of all classes in every format.
+   *
+   * @author mian
+   */
+  private void addRoutingSlips(List<?> assignments, Set<Format> formats, List<String> names,
+      List<Callable<byte[]>> tasks) {
+    List<RoutingSlip> slips = timetableService.prepareDataForExportForRoutingSlip(assignments);
+    if (slips.isEmpty()) {
+      return;
+    }
+    String name = getFileName(timetableService.getFilePathChoices());
+    if (formats.contains(Format.EXCEL)) {
+      add(name + Format.EXCEL.getExtension(),
+          out -> timetableService.exportRoutingSlips(out, slips), names, tasks);
+    }
+    if (formats.contains(Format.PDF)) {
+      // The task already runs on a worker of the bundle, so the classes are rendered on it too.
+      // The merged PDF goes through a file, which is read once instead of growing a buffer.
+      names.add(name + Format.PDF.getExtension());
+      tasks.add(() -> {
+        File merged = Files.createTempFile("routing_slips_", ".pdf").toFile();
+        try {
+          new RoutingSlipPdfRenderer(timetableService, 1).exportMerged(slips, merged.getPath(),
+              ExportProgress.NONE);
+          return Files.readAllBytes(merged.toPath());
+        } finally {
+          Files.deleteIfExists(merged.toPath());
+        }
+      });
+    }
+  }
+
+  /**
+   * Adds the fulfillment report in every format.
+   *
+   * @author mian
+   */
+  private void addFulfillmentReport(List<?> scores, Set<Format> formats, List<String> names,
+      List<Callable<byte[]>> tasks) {
+    if (scores.isEmpty()) {
+      return;
+    }
+    ScoreSheet data = fulfillmentScoreService.prepareDataForExportForFulfillmentScore(scores);
+    String name = getFileName(fulfillmentScoreService.getFilePathScore());
+    if (formats.contains(Format.EXCEL)) {
+      add(name + Format.EXCEL.getExtension(),
+          out -> fulfillmentScoreService.exportScoreSheet(out, data), names, tasks);
+    }
+    if (formats.contains(Format.PDF)) {
+      add(name + Format.PDF.getExtension(),
+          out -> fulfillmentScoreService.exportScoreSheetToPDF(out, data), names, tasks);
+    }
+  }
+
+  /**
+   * Adds a document that is rendered into memory by a writer.
+   *
+   * @author mian
+   */
+  private static void add(String name, DocumentWriter writer, List<String> names,
+      List<Callable<byte[]>> tasks) {
+    names.add(name);
+    tasks.add(() -> {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writer.write(out);
+      return out.toByteArray();
+    });
+  }
+
+  /**
+   * Writes one document to a stream.
+   */
+  private interface DocumentWriter {
+
+    void write(OutputStream out) throws IOException;
+  }
+}
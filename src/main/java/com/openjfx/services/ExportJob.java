@@ -0,0 +1,176 @@
+package com.openjfx.services;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * An export running in the background on an {@link ExportJobService}. The job holds the state,
+ * progress and result of the export; all of them may change from a worker thread.
+ *
+ * @author mian
+ */
+public final class ExportJob {
+
+  /**
+   * States of an export job.
+   *
+   * @author mian
+   */
+  public enum State {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED
+  }
+
+  /**
+   * The export a job runs.
+   *
+   * @author mian
+   */
+  @FunctionalInterface
+  public interface Work {
+
+    /**
+     * Runs the export.
+     *
+     * @param progress receives the number of files written and tells the export whether to stop
+     * @return the files written
+     * @throws Exception if the export fails
+     * @author mian
+     */
+    List<File> run(ExportProgress progress) throws Exception;
+  }
+
+  private final String name;
+  private volatile State state = State.QUEUED;
+  private volatile int done;
+  private volatile int total;
+  private volatile List<File> files = List.of();
+  private volatile Throwable error;
+  private volatile boolean cancelRequested;
+  Runnable task;
+
+  /**
+   * Creates a queued job.
+   *
+   * @param name the name of the export shown to the user
+   * @author mian
+   */
+  ExportJob(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Gets the name of the export.
+   *
+   * @return the name shown to the user
+   * @author mian
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the state of the job.
+   *
+   * @return the current state
+   * @author mian
+   */
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * Gets whether the job has ended, successfully or not.
+   *
+   * @return true if the job succeeded, failed or was cancelled
+   * @author mian
+   */
+  public boolean isFinished() {
+    State current = state;
+    return current == State.SUCCEEDED || current == State.FAILED
+        || current == State.CANCELLED;
+  }
+
+  /**
+   * Gets the number of files written so far. Exports that write a single file report no
+   * progress until they are finished.
+   *
+   * @return the files written
+   * @author mian
+   */
+  public int getDone() {
+    return done;
+  }
+
+  /**
+   * Gets the number of files the export writes.
+   *
+   * @return the total, or 0 while it is unknown
+   * @author mian
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * Gets the files written by a successful job.
+   *
+   * @return the files, or an empty list if the job has not succeeded
+   * @author mian
+   */
+  public List<File> getFiles() {
+    return files;
+  }
+
+  /**
+   * Gets the error of a failed job.
+   *
+   * @return the error, or null if the job has not failed
+   * @author mian
+   */
+  public Throwable getError() {
+    return error;
+  }
+
+  /**
+   * Gets whether the user asked to cancel the job.
+   *
+   * @return true once cancelling has been requested
+   * @author mian
+   */
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+
+  void requestCancel() {
+    cancelRequested = true;
+  }
+
+  void start() {
+    state = State.RUNNING;
+  }
+
+  void progress(int done, int total) {
+    this.total = total;
+    this.done = done;
+  }
+
+  void succeed(List<File> files) {
+    this.files = List.copyOf(files);
+    this.done = Math.max(done, files.size());
+    this.total = Math.max(total, files.size());
+    state = State.SUCCEEDED;
+  }
+
+  void fail(Throwable error) {
+    this.error = error;
+    state = State.FAILED;
+  }
+
+  void cancelled() {
+    state = State.CANCELLED;
+  }
+}
@@ -0,0 +1,165 @@
+package com.openjfx.services;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs exports in the background so that the user interface stays responsive. A fixed number of
+ * exports run at the same time; further exports wait in a queue of limited size, and exports
+ * beyond that are rejected instead of piling up.
+ *
+ * <p>Every change of a job, including its progress, is reported to the listener given when the
+ * job was submitted. The listener is called on a worker thread, except for jobs cancelled while
+ * they were still queued.</p>
+ *
+ * <p>Cancelling a queued job removes it from the queue. A running job is asked to stop through
+ * {@link ExportProgress#isCancelled()}. An export that finishes anyway, because it cannot stop
+ * halfway or had already written its files, keeps them and succeeds, since it may have replaced
+ * a file the user had before.</p>
+ *
+ * @author mian
+ */
+public class ExportJobService {
+
+  /**
+   * Number of exports that run at the same time by default.
+   *
+   * @author mian
+   */
+  public static final int DEFAULT_WORKERS = 2;
+
+  /**
+   * Number of exports that may wait for a worker by default.
+   *
+   * @author mian
+   */
+  public static final int DEFAULT_QUEUE_SIZE = 8;
+
+  private final ThreadPoolExecutor executor;
+  private final List<ExportJob> jobs = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates a service with the default number of workers and queue size.
+   *
+   * @author mian
+   */
+  public ExportJobService() {
+    this(DEFAULT_WORKERS, DEFAULT_QUEUE_SIZE);
+  }
+
+  /**
+   * Creates a service.
+   *
+   * @param workers   number of exports that run at the same time
+   * @param queueSize number of exports that may wait for a worker
+   * @author mian
+   */
+  public ExportJobService(int workers, int queueSize) {
+    executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize), r -> {
+          Thread thread = new Thread(r, "export-job");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Queues an export.
+   *
+   * @param name     the name of the export shown to the user
+   * @param work     the export to run
+   * @param listener called whenever the state or progress of the job changes
+   * @return the queued job
+   * @throws RejectedExecutionException if too many exports are running and waiting already
+   * @author mian
+   */
+  public ExportJob submit(String name, ExportJob.Work work, Consumer<ExportJob> listener) {
+    ExportJob job = new ExportJob(name);
+    job.task = () -> run(job, work, listener);
+    jobs.add(job);
+    try {
+      executor.execute(job.task);
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job);
+      throw new RejectedExecutionException("Too many exports are running, please wait for one"
+          + " of them to finish", e);
+    }
+    listener.accept(job);
+    return job;
+  }
+
+  /**
+   * Cancels an export. A queued export is removed from the queue at once; a running export ends
+   * at its next check for cancellation.
+   *
+   * @param job      the job to cancel
+   * @param listener called if the job is cancelled before it has started
+   * @author mian
+   */
+  public void cancel(ExportJob job, Consumer<ExportJob> listener) {
+    job.requestCancel();
+    if (executor.remove(job.task)) {
+      job.cancelled();
+      jobs.remove(job);
+      listener.accept(job);
+    }
+  }
+
+  /**
+   * Gets the exports that are queued or running.
+   *
+   * @return the unfinished jobs, in submission order
+   * @author mian
+   */
+  public List<ExportJob> getActiveJobs() {
+    return List.copyOf(jobs);
+  }
+
+  /**
+   * Runs an export on a worker thread and records its outcome.
+   *
+   * @author mian
+   */
+  private void run(ExportJob job, ExportJob.Work work, Consumer<ExportJob> listener) {
+    try {
+      if (job.isCancelRequested()) {
+        job.cancelled();
+        return;
+      }
+      job.start();
+      listener.accept(job);
+
+      ExportProgress progress = new ExportProgress() {
+        @Override
+        public void update(int done, int total) {
+          job.progress(done, total);
+          listener.accept(job);
+        }
+
+        @Override
+        public boolean isCancelled() {
+          return job.isCancelRequested();
+        }
+      };
+
+      try {
+        job.succeed(work.run(progress));
+      } catch (CancellationException e) {
+        job.cancelled();
+      } catch (Throwable e) {
+        // Errors such as running out of memory must not leave the job running forever
+        System.err.println("Export '" + job.getName() + "' failed: " + e);
+        job.fail(e);
+      }
+    } finally {
+      jobs.remove(job);
+      listener.accept(job);
+    }
+  }
+}
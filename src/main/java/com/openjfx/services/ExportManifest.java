@@ -0,0 +1,220 @@
+package com.openjfx.services;
+
+import com.openjfx.models.AttendanceSheet;
+import com.openjfx.models.RoutingSlip;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Records, for each file an export wrote into a directory, a hash of the data the file was
+ * rendered from. An export that is run again can then skip the files whose data has not changed,
+ * for example the attendance lists of events whose participants are the same as before.
+ *
+ * <p>The manifest is kept as {@value #FILE_NAME} next to the exported files. A file is only
+ * considered current if it still exists and its recorded hash matches, so files that were
+ * deleted or never finished are rendered again.</p>
+ *
+ * @author mian
+ */
+public final class ExportManifest {
+
+  /**
+   * Name of the manifest file inside the export directory.
+   *
+   * @author mian
+   */
+  public static final String FILE_NAME = "export-manifest.properties";
+
+  private final File directory;
+  private final Properties hashes = new Properties();
+
+  private ExportManifest(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Loads the manifest of an export directory.
+   *
+   * @param directory the directory the export writes to
+   * @return the recorded hashes, or an empty manifest if the directory has none yet
+   * @throws IOException if the manifest exists but cannot be read
+   * @author mian
+   */
+  public static ExportManifest load(File directory) throws IOException {
+    ExportManifest manifest = new ExportManifest(directory);
+    Path file = new File(directory, FILE_NAME).toPath();
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        manifest.hashes.load(in);
+      }
+    }
+    return manifest;
+  }
+
+  /**
+   * Gets whether a file is up to date with its data.
+   *
+   * @param fileName the name of the file inside the export directory
+   * @param hash     the hash of the data the file would be rendered from
+   * @return true if the file exists and was rendered from data with the same hash
+   * @author mian
+   */
+  public boolean isCurrent(String fileName, String hash) {
+    return hash.equals(hashes.getProperty(fileName)) && new File(directory, fileName).isFile();
+  }
+
+  /**
+   * Gets the recorded hash of a file.
+   *
+   * @param fileName the name of the file inside the export directory
+   * @return the hash, or null if the file is not recorded
+   * @author mian
+   */
+  public String getHash(String fileName) {
+    return hashes.getProperty(fileName);
+  }
+
+  /**
+   * Records the hash of a file that has just been written.
+   *
+   * @param fileName the name of the file inside the export directory
+   * @param hash     the hash of the data the file was rendered from
+   * @author mian
+   */
+  public void put(String fileName, String hash) {
+    hashes.setProperty(fileName, hash);
+  }
+
+  /**
+   * Forgets the files an export no longer produces. The files themselves are kept.
+   *
+   * @param fileNames the names of the files the export produces
+   * @author mian
+   */
+  public void retain(Collection<String> fileNames) {
+    Set<String> keep = new HashSet<>(fileNames);
+    hashes.stringPropertyNames().stream()
+        .filter(name -> !keep.contains(name))
+        .forEach(hashes::remove);
+  }
+
+  /**
+   * Writes the manifest into the export directory. The previous manifest is replaced in one step,
+   * so an interrupted save leaves it intact.
+   *
+   * @throws IOException if the manifest cannot be written
+   * @author mian
+   */
+  public void save() throws IOException {
+    Path target = new File(directory, FILE_NAME).toPath();
+    Path temp = Files.createTempFile(directory.toPath(), FILE_NAME, ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        hashes.store(out, "Hashes of the data each exported file was rendered from");
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Hashes the prepared data of an exported file. Attendance sheets and routing slips are hashed
+   * field by field, and collections of them in their order, because it decides the order in the
+   * document. The hash does not depend on how the models print themselves.
+   *
+   * @param data the data the file is rendered from
+   * @return the SHA-256 hash of the data as hex string
+   * @throws IllegalArgumentException if the data contains a value that cannot be hashed
+   * @author mian
+   */
+  public static String hash(Object data) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    update(digest, data);
+
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Adds a value to the digest with a type tag and length, so that different structures with
+   * the same text do not collide.
+   *
+   * @author mian
+   */
+  private static void update(MessageDigest digest, Object value) {
+    if (value instanceof AttendanceSheet) {
+      AttendanceSheet sheet = (AttendanceSheet) value;
+      digest.update((byte) 'A');
+      update(digest, sheet.getEvent());
+      update(digest, sheet.getSlots());
+    } else if (value instanceof AttendanceSheet.Slot) {
+      AttendanceSheet.Slot slot = (AttendanceSheet.Slot) value;
+      digest.update((byte) 'T');
+      update(digest, slot.getTime());
+      update(digest, slot.getParticipants());
+    } else if (value instanceof AttendanceSheet.Participant) {
+      AttendanceSheet.Participant participant = (AttendanceSheet.Participant) value;
+      digest.update((byte) 'P');
+      update(digest, participant.getClassName());
+      update(digest, participant.getLastName());
+      update(digest, participant.getFirstName());
+    } else if (value instanceof RoutingSlip) {
+      RoutingSlip slip = (RoutingSlip) value;
+      digest.update((byte) 'R');
+      update(digest, slip.getClassName());
+      update(digest, slip.getStudentName());
+      update(digest, slip.getEntries());
+    } else if (value instanceof RoutingSlip.Entry) {
+      RoutingSlip.Entry entry = (RoutingSlip.Entry) value;
+      digest.update((byte) 'E');
+      update(digest, entry.getTime());
+      update(digest, entry.getRoom());
+      update(digest, entry.getEvent());
+      update(digest, entry.getDescription());
+      update(digest, entry.getChoice());
+    } else if (value instanceof Collection) {
+      Collection<?> collection = (Collection<?>) value;
+      digest.update((byte) 'L');
+      updateLength(digest, collection.size());
+      for (Object element : collection) {
+        update(digest, element);
+      }
+    } else if (value == null) {
+      digest.update((byte) 'N');
+    } else if (value instanceof String || value instanceof Integer) {
+      byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+      digest.update((byte) (value instanceof String ? 'S' : 'I'));
+      updateLength(digest, text.length);
+      digest.update(text);
+    } else {
+      throw new IllegalArgumentException("Cannot hash " + value.getClass().getName());
+    }
+  }
+
+  private static void updateLength(MessageDigest digest, int length) {
+    digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16),
+        (byte) (length >>> 8), (byte) length});
+  }
+}
@@ -0,0 +1,39 @@
+package com.openjfx.services;
+
+/**
+ * Receives progress updates from a running export that produces several files and tells it
+ * whether to stop. Exports check for cancellation between files.
+ *
+ * <p>Updates may come from a background thread.</p>
+ *
+ * @author mian
+ */
+public interface ExportProgress {
+
+  /**
+   * Progress callback that ignores all updates and never cancels.
+   *
+   * @author mian
+   */
+  ExportProgress NONE = (done, total) -> {
+  };
+
+  /**
+   * Called whenever a file has been written.
+   *
+   * @param done  number of files written so far
+   * @param total number of files the export writes
+   * @author mian
+   */
+  void update(int done, int total);
+
+  /**
+   * Returns whether the export should stop.
+   *
+   * @return true if the export has been cancelled
+   * @author mian
+   */
+  default boolean isCancelled() {
+    return false;
+  }
+}
@@ -24,14 +24,14 @@ public class FileSelecterService {
   }
 
   /**
-   * Configures the file chooser with default settings and Excel file filter.
+   * Configures the file chooser with default settings and a filter for Excel and CSV files.
    *
    * @author mian
    */
   private void configureFileChooser() {
     fileChooser.setTitle("Select Excel File");
     fileChooser.getExtensionFilters().addAll(
-        new FileChooser.ExtensionFilter("Excel Files", "*.xlsx", "*.xls"),
+        new FileChooser.ExtensionFilter("Excel Files", "*.xlsx", "*.xls", "*.csv"),
         new FileChooser.ExtensionFilter("All Files", "*.*")
     );
 
@@ -1,7 +1,9 @@
 package com.openjfx.services;
 
+import com.openjfx.config.DatabaseConfig;
 import com.openjfx.dao.FulfillmentScoreDAO;
 import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.ScoreSheet;
 import com.openjfx.models.StudentAssignment;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -10,10 +12,12 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -35,17 +39,31 @@ public class FulfillmentScoreService {
 
   private final StudentAssignmentService studentAssignmentService;
   private final FulfillmentScoreDAO fulfillmentScoreDAO;
+  private WriteBehindPersister persister;
   private static final int MAX_SCORE_PER_STUDENT = 21;
   private static final int[] WEIGHTS = {6, 5, 4, 3, 2, 1};
 
   /**
-   * Constructs a new FulfillmentScoreService with the specified student assignment service.
+   * Constructs a new FulfillmentScoreService with the specified student assignment service. Scores
+   * are stored for the run of that service.
    *
    * @author mian
    */
   public FulfillmentScoreService(StudentAssignmentService studentAssignmentService) {
     this.studentAssignmentService = studentAssignmentService;
-    this.fulfillmentScoreDAO = new FulfillmentScoreDAO();
+    this.fulfillmentScoreDAO = new FulfillmentScoreDAO(studentAssignmentService.getRunContext());
+  }
+
+  /**
+   * Sets the persister that calculated scores are handed to. When set, {@link
+   * #calculateFulfillmentScore()} returns without waiting for the scores to be written; call
+   * {@link WriteBehindPersister#flush()} before reading them back.
+   *
+   * @param persister the write-behind persister, or null to save synchronously
+   * @author mian
+   */
+  public void setPersister(WriteBehindPersister persister) {
+    this.persister = persister;
   }
 
   /**
@@ -84,6 +102,7 @@ public class FulfillmentScoreService {
     int totalScore = 0;
     double maxPossibleScore = totalStudents * MAX_SCORE_PER_STUDENT;
     LocalDateTime calculationTime = LocalDateTime.now();
+    List<FulfillmentScore> scoresToSave = new ArrayList<>();
 
     // Calculate and save individual scores
     for (Map.Entry<String, Map<Integer, Integer>> entry : studentChoiceScores.entrySet()) {
@@ -133,8 +152,15 @@ public class FulfillmentScoreService {
       double fulfillmentPercentage = (totalScore / maxPossibleScore) * 100;
       score.setOverallFulfillmentPercentage(fulfillmentPercentage);
 
-      try {
-        fulfillmentScoreDAO.saveFulfillmentScore(score);
+      scoresToSave.add(score);
+    }
+
+    if (persister != null) {
+      persister.submit("fulfillment scores",
+          conn -> fulfillmentScoreDAO.saveFulfillmentScores(conn, scoresToSave));
+    } else {
+      try (Connection conn = DatabaseConfig.getConnection()) {
+        fulfillmentScoreDAO.saveFulfillmentScores(conn, scoresToSave);
       } catch (SQLException e) {
         throw new RuntimeException("Failed to save fulfillment score", e);
       }
@@ -159,55 +185,59 @@ public class FulfillmentScoreService {
   /**
    * Prepares fulfillment score data for Excel export
    -  * @param dataToExport List of FulfillmentScore objects
-   -  * @return Map with "Headers" and "Students" keys
-   -  * @author leon
+   -  * @return The score sheet with one row per student
+   -  * @author leon | mian
    -  */
-  public Map<String, Object> prepareDataForExportForFulfillmentScore(List<Object> dataToExport) {
-    // 1. Create headers
-    List<Map<String, String>> headers = new ArrayList<>();
-    headers.add(Map.of("Class", "Class"));
-    headers.add(Map.of("First Name", "First Name"));
-    headers.add(Map.of("Last Name", "Last Name"));
-    headers.add(Map.of("Choice 1 Score", "Choice 1 Score"));
-    headers.add(Map.of("Choice 2 Score", "Choice 2 Score"));
-    headers.add(Map.of("Choice 3 Score", "Choice 3 Score"));
-    headers.add(Map.of("Choice 4 Score", "Choice 4 Score"));
-    headers.add(Map.of("Choice 5 Score", "Choice 5 Score"));
-    headers.add(Map.of("Choice 6 Score", "Choice 6 Score"));
-    headers.add(Map.of("Total Score", "Total Score"));
-    headers.add(Map.of("Overall %", "Overall %"));
-    headers.add(Map.of("Class Total", "Class Total"));
-    headers.add(Map.of("Max Possible", "Max Possible"));
-
-    // 2. Prepare student data
-    List<Map<String, Object>> students = new ArrayList<>();
+  public ScoreSheet prepareDataForExportForFulfillmentScore(List<?> dataToExport) {
+    List<ScoreSheet.Row> rows = new ArrayList<>();
     for (Object item : dataToExport) {
       if (item instanceof FulfillmentScore) {
         FulfillmentScore score = (FulfillmentScore) item;
-        Map<String, Object> student = new HashMap<>();
-        student.put("Class", score.getClassRef());
-        student.put("First Name", score.getFirstName());
-        student.put("Last Name", score.getLastName());
-        student.put("Choice 1 Score", score.getChoice1Score());
-        student.put("Choice 2 Score", score.getChoice2Score());
-        student.put("Choice 3 Score", score.getChoice3Score());
-        student.put("Choice 4 Score", score.getChoice4Score());
-        student.put("Choice 5 Score", score.getChoice5Score());
-        student.put("Choice 6 Score", score.getChoice6Score());
-        student.put("Total Score", score.getStudentTotalScore());
-        student.put("Overall %", Math.round(score.getOverallFulfillmentPercentage() * 100.0) / 100.0);
-        student.put("Class Total", score.getTotalScore());
-        student.put("Max Possible", score.getMaxPossibleScore());
-        students.add(student);
+        // Same order as ScoreSheet.COLUMNS
+        rows.add(new ScoreSheet.Row(
+            score.getClassRef(),
+            score.getFirstName(),
+            score.getLastName(),
+            score.getChoice1Score(),
+            score.getChoice2Score(),
+            score.getChoice3Score(),
+            score.getChoice4Score(),
+            score.getChoice5Score(),
+            score.getChoice6Score(),
+            score.getStudentTotalScore(),
+            Math.round(score.getOverallFulfillmentPercentage() * 100.0) / 100.0,
+            score.getTotalScore(),
+            score.getMaxPossibleScore()));
       }
     }
+    return new ScoreSheet(ScoreSheet.COLUMNS, rows);
+  }
+
+  /**
+   * Converts score data in the map format of {@link #exportScoreData(String, Map)} into a score
+   * sheet. The values of each student are taken in the order of the headers.
+   * @param scoreData The data containing headers and student records
+   * @return The score sheet
+   *
+   * @author mian
+   */
+  @SuppressWarnings("unchecked")
+  private static ScoreSheet toScoreSheet(Map<String, Object> scoreData) {
+    List<Map<String, String>> headers = (List<Map<String, String>>) scoreData.get("Headers");
+    List<String> keys = new ArrayList<>();
+    List<String> columns = new ArrayList<>();
+    for (Map<String, String> header : headers) {
+      keys.add(header.keySet().iterator().next());
+      columns.add(header.values().iterator().next());
+    }
 
-    // 3. Return the structure
-    Map<String, Object> result = new HashMap<>();
-    result.put("Headers", headers);
-    result.put("Students", students);
-    return result;
+    List<ScoreSheet.Row> rows = new ArrayList<>();
+    for (Map<String, Object> student : (List<Map<String, Object>>) scoreData.get("Students")) {
+      rows.add(new ScoreSheet.Row(keys.stream().map(student::get).toArray()));
+    }
+    return new ScoreSheet(columns, rows);
   }
+
   /**
    * The file path where the exported Excel file will be saved for the Fulfillment Score.
    *
@@ -231,85 +261,100 @@ public class FulfillmentScoreService {
    * @param scoreData The data to export containing headers and student records
    * @throws IOException If an error occurs during file writing
    *
-   * @author leon
+   * @author leon | mian
    */
   public void exportScoreData(String filename, Map<String, Object> scoreData) throws IOException {
-    try (Workbook workbook = new XSSFWorkbook()) {
-      Sheet sheet = workbook.createSheet("Fulfillment Scores");
-
-      CellStyle headerStyle = createHeaderStyle(workbook);
-
-      @SuppressWarnings("unchecked")
-      List<Map<String, String>> headers = (List<Map<String, String>>) scoreData.get("Headers");
-      createHeaderRow(sheet, headers, headerStyle);
-
-      @SuppressWarnings("unchecked")
-      List<Map<String, Object>> students = (List<Map<String, Object>>) scoreData.get("Students");
-      createDataRows(sheet, headers, students);
+    exportScoreSheet(filename, toScoreSheet(scoreData));
+  }
 
-      autoSizeColumns(sheet, headers.size());
-      writeWorkbookToFile(workbook, filename);
+  /**
+   * Exports a score sheet to an Excel file
+   * @param filename The name of the output Excel file
+   * @param scoreSheet The score sheet, as prepared by
+   *                   {@link #prepareDataForExportForFulfillmentScore(List)}
+   * @throws IOException If an error occurs during file writing
+   *
+   * @author mian
+   */
+  public void exportScoreSheet(String filename, ScoreSheet scoreSheet) throws IOException {
+    try (OutputStream out = new FileOutputStream(filename)) {
+      exportScoreSheet(out, scoreSheet);
     }
   }
 
   /**
-   * Creates the style for header cells with gray background and bold text
-   * @param workbook The Excel workbook to create the style in
-   * @return The configured cell style for headers
+   * Writes a score sheet as an Excel workbook to a stream. The stream is not closed.
+   * @param out The stream to write the workbook to
+   * @param scoreSheet The score sheet, as prepared by
+   *                   {@link #prepareDataForExportForFulfillmentScore(List)}
+   * @throws IOException If an error occurs during writing
    *
-   * @author leon
+   * @author mian
    */
-  private CellStyle createHeaderStyle(Workbook workbook) {
-    CellStyle headerStyle = workbook.createCellStyle();
-    headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+  public void exportScoreSheet(OutputStream out, ScoreSheet scoreSheet) throws IOException {
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
+      Sheet sheet = workbook.createSheet("Fulfillment Scores");
+      ColumnWidthEstimator widths = new ColumnWidthEstimator();
 
-    Font headerFont = workbook.createFont();
-    headerFont.setBold(true);
-    headerStyle.setFont(headerFont);
+      CellStyle headerStyle = new ExcelStyleRegistry(workbook).get(HEADER_STYLE);
 
-    return headerStyle;
+      List<String> columns = scoreSheet.getColumns();
+      createHeaderRow(sheet, columns, headerStyle, widths);
+      createDataRows(sheet, columns.size(), scoreSheet.getRows(), widths);
+
+      autoSizeColumns(sheet, columns.size(), widths);
+      writeWorkbook(workbook, out);
+    }
   }
 
+  /**
+   * Style for header cells with gray background and bold text
+   */
+  private static final ExcelStyleSpec HEADER_STYLE =
+      ExcelStyleSpec.PLAIN.bold().fill(IndexedColors.GREY_25_PERCENT);
+
   /**
    * Creates the header row with column titles
    * @param sheet The Excel sheet to add headers to
-   * @param headers List of column header definitions
+   * @param columns List of column titles
    * @param headerStyle The style to apply to header cells
+   * @param widths The column widths to update
    *
-   * @author leon
+   * @author leon | mian
    */
-  private void createHeaderRow(Sheet sheet, List<Map<String, String>> headers, CellStyle headerStyle) {
+  private void createHeaderRow(Sheet sheet, List<String> columns, CellStyle headerStyle,
+                               ColumnWidthEstimator widths) {
     Row headerRow = sheet.createRow(0);
     int colNum = 0;
 
-    for (Map<String, String> header : headers) {
+    for (String column : columns) {
       Cell cell = headerRow.createCell(colNum++);
-      cell.setCellValue(header.values().iterator().next());
+      cell.setCellValue(column);
       cell.setCellStyle(headerStyle);
     }
+    widths.track(headerRow);
   }
 
   /**
    * Creates data rows with student score information
    * @param sheet The Excel sheet to add data to
-   * @param headers List of column definitions for data mapping
-   * @param students List of student data records
+   * @param columnCount Number of columns to write
+   * @param students List of student rows in column order
+   * @param widths The column widths to update
    *
-   * @author leon
+   * @author leon | mian
    */
-  private void createDataRows(Sheet sheet, List<Map<String, String>> headers,
-                              List<Map<String, Object>> students) {
+  private void createDataRows(Sheet sheet, int columnCount,
+                              List<ScoreSheet.Row> students,
+                              ColumnWidthEstimator widths) {
     int rowNum = 1;
 
-    for (Map<String, Object> student : students) {
+    for (ScoreSheet.Row student : students) {
       Row row = sheet.createRow(rowNum++);
-      int colNum = 0;
 
-      for (Map<String, String> header : headers) {
-        String key = header.keySet().iterator().next();
-        Object value = student.get(key);
-        Cell cell = row.createCell(colNum++);
+      for (int colNum = 0; colNum < columnCount; colNum++) {
+        Object value = student.get(colNum);
+        Cell cell = row.createCell(colNum);
 
         if (value instanceof Number) {
           cell.setCellValue(((Number) value).doubleValue());
@@ -317,34 +362,33 @@ public class FulfillmentScoreService {
           cell.setCellValue((String) value);
         }
       }
+      widths.track(row);
     }
   }
 
   /**
-   * Automatically adjusts column widths to fit content
+   * Adjusts column widths to fit the recorded content
    * @param sheet The Excel sheet to format
    * @param columnCount Number of columns to adjust
+   * @param widths The recorded column widths
    *
    * @author leon
    */
-  private void autoSizeColumns(Sheet sheet, int columnCount) {
-    for (int i = 0; i < columnCount; i++) {
-      sheet.autoSizeColumn(i);
-    }
+  private void autoSizeColumns(Sheet sheet, int columnCount,
+                               ColumnWidthEstimator widths) {
+    widths.apply(sheet, columnCount);
   }
 
   /**
-   * Writes the workbook content to a file
+   * Writes the workbook content to a stream
    * @param workbook The Excel workbook to save
-   * @param filename The target file name
-   * @throws IOException If an error occurs during file writing
+   * @param out The target stream
+   * @throws IOException If an error occurs during writing
    *
-   * @author leon
+   * @author leon | mian
    */
-  private void writeWorkbookToFile(Workbook workbook, String filename) throws IOException {
-    try (FileOutputStream outputStream = new FileOutputStream(filename)) {
-      workbook.write(outputStream);
-    }
+  private void writeWorkbook(SXSSFWorkbook workbook, OutputStream out) throws IOException {
+    StreamingWorkbook.write(workbook, out);
   }
 
   /**
@@ -353,9 +397,38 @@ public class FulfillmentScoreService {
    * @param scoreData The data to export containing headers and student records
    * @throws IOException If an error occurs during file writing
    *
-   * @author leon
+   * @author leon | mian
    */
   public void exportScoreDataToPDF(String filename, Map<String, Object> scoreData) throws IOException {
+    exportScoreSheetToPDF(filename, toScoreSheet(scoreData));
+  }
+
+  /**
+   * Exports a score sheet to an PDF file
+   * @param filename The name of the output PDF file
+   * @param scoreSheet The score sheet, as prepared by
+   *                   {@link #prepareDataForExportForFulfillmentScore(List)}
+   * @throws IOException If an error occurs during file writing
+   *
+   * @author mian
+   */
+  public void exportScoreSheetToPDF(String filename, ScoreSheet scoreSheet) throws IOException {
+    try (OutputStream out = new FileOutputStream(filename)) {
+      exportScoreSheetToPDF(out, scoreSheet);
+    }
+  }
+
+  /**
+   * Writes a score sheet as PDF document to a stream. The stream is not closed.
+   * @param out The stream to write the document to
+   * @param scoreSheet The score sheet, as prepared by
+   *                   {@link #prepareDataForExportForFulfillmentScore(List)}
+   * @throws IOException If an error occurs during writing
+   *
+   * @author mian
+   */
+  public void exportScoreSheetToPDF(OutputStream out, ScoreSheet scoreSheet)
+      throws IOException {
     try (PDDocument document = new PDDocument()) {
       // Create landscape page with extra width
       PDPage page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight() + 100, PDRectangle.A4.getWidth()));
@@ -375,7 +448,7 @@ public class FulfillmentScoreService {
       contentStream.setFont(fontBold, 14);
 
       // Calculate exact title width
-      float titleWidth = fontBold.getStringWidth(title) / 1000 * 14;
+      float titleWidth = PdfTextLayout.of(fontBold).getWidth(title, 14);
 
       // Draw title text
       contentStream.beginText();
@@ -390,11 +463,7 @@ public class FulfillmentScoreService {
 
       startY -= 30; // Move down for table
 
-      // Prepare data from input map
-      @SuppressWarnings("unchecked")
-      List<Map<String, String>> headers = (List<Map<String, String>>) scoreData.get("Headers");
-      @SuppressWarnings("unchecked")
-      List<Map<String, Object>> students = (List<Map<String, Object>>) scoreData.get("Students");
+      List<String> headers = scoreSheet.getColumns();
 
       // Optimized column widths based on content
       float[] colWidths = {
@@ -418,7 +487,7 @@ public class FulfillmentScoreService {
       startY -= tableHeight;
 
       // Draw all student rows
-      for (Map<String, Object> student : students) {
+      for (ScoreSheet.Row student : scoreSheet.getRows()) {
         if (startY < margin + 20) { // Page break check
           contentStream.close();
           page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight() + 100, PDRectangle.A4.getWidth()));
@@ -434,7 +503,7 @@ public class FulfillmentScoreService {
       }
 
       contentStream.close();
-      document.save(filename);
+      document.save(out);
     }
   }
 
@@ -445,16 +514,16 @@ public class FulfillmentScoreService {
    * @param x Starting X position
    * @param y Starting Y position
    * @param colWidths Array of column widths
-   * @param headers List of header definitions
-   * @param student Student data to display
+   * @param headers List of column titles
+   * @param student Student values in column order
    * @param font Font to use for data
    * @throws IOException If there's an error writing to the content stream
    *
-   * @author batuhan
+   * @author batuhan | mian
    */
   private void drawStudentRow(PDPageContentStream contentStream, float x, float y,
-                              float[] colWidths, List<Map<String, String>> headers,
-                              Map<String, Object> student, PDFont font) throws IOException {
+                              float[] colWidths, List<String> headers,
+                              ScoreSheet.Row student, PDFont font) throws IOException {
     float fontSize = 9;
 
     // Draw row border
@@ -468,15 +537,15 @@ public class FulfillmentScoreService {
 
     // Draw cell content
     contentStream.setFont(font, fontSize);
+    PdfTextLayout layout = PdfTextLayout.of(font);
     float currentX = x;
 
     for (int i = 0; i < headers.size(); i++) {
-      String key = headers.get(i).keySet().iterator().next();
-      Object value = student.get(key);
+      Object value = student.get(i);
       String text = (value != null) ? value.toString() : "";
 
       // Center text in cell
-      float textWidth = font.getStringWidth(text) / 1000 * fontSize;
+      float textWidth = layout.getWidth(text, fontSize);
       float textX = currentX + (colWidths[i] - textWidth) / 2;
 
       contentStream.beginText();
@@ -501,15 +570,15 @@ public class FulfillmentScoreService {
    * @param x Starting X position
    * @param y Starting Y position
    * @param colWidths Array of column widths
-   * @param headers List of header definitions
+   * @param headers List of column titles
    * @param font Font to use for headers
    * @return The height of the drawn header
    * @throws IOException If there's an error writing to the content stream
    *
-   * @author bathan
+   * @author bathan | mian
    */
   private float drawMultiLineTableHeader(PDPageContentStream contentStream, float x, float y,
-                                         float[] colWidths, List<Map<String, String>> headers,
+                                         float[] colWidths, List<String> headers,
                                          PDFont font) throws IOException {
     float fontSize = 9;
 
@@ -524,6 +593,7 @@ public class FulfillmentScoreService {
 
     // Header content with two-line titles
     contentStream.setFont(font, fontSize);
+    PdfTextLayout layout = PdfTextLayout.of(font);
     float currentX = x;
 
     // Main header texts (top line)
@@ -539,7 +609,7 @@ public class FulfillmentScoreService {
 
     for (int i = 0; i < headers.size(); i++) {
       // Draw main header text (centered)
-      float textWidth = font.getStringWidth(headerTexts[i]) / 1000 * fontSize;
+      float textWidth = layout.getWidth(headerTexts[i], fontSize);
       float textX = currentX + (colWidths[i] - textWidth) / 2;
 
       contentStream.beginText();
@@ -549,7 +619,7 @@ public class FulfillmentScoreService {
 
       // Draw sub-header text if exists (centered)
       if (!subHeaderTexts[i].isEmpty()) {
-        textWidth = font.getStringWidth(subHeaderTexts[i]) / 1000 * fontSize;
+        textWidth = layout.getWidth(subHeaderTexts[i], fontSize);
         textX = currentX + (colWidths[i] - textWidth) / 2;
 
         contentStream.beginText();
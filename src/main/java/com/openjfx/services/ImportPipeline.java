@@ -0,0 +1,319 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports an Excel file into the database with parsing, validation and writing running
+ * concurrently.
+ *
+ * <p>A reader thread streams the sheet and cuts the rows into chunks of
+ * {@link AbstractExcelService#getBatchSize()} rows. Each chunk is converted to model objects on a
+ * worker pool, and its pending result is put into a bounded queue in sheet order. The calling
+ * thread takes the results from the queue and inserts each chunk as one JDBC batch. The old rows
+ * of the table are deleted and all chunks are written in a single transaction. When the queue is
+ * full the reader blocks, so memory use stays flat however large the sheet is.</p>
+ *
+ * <p>Row errors carry the row number shown in Excel. On any error the transaction is rolled
+ * back and reading stops. Progress is reported through {@link ImportProgress} after every chunk,
+ * and a cancelled import stops before writing the next chunk and is rolled back as well.</p>
+ *
+ * @param <T> the type of model imported
+ * @author mian
+ */
+public class ImportPipeline<T> {
+
+  /**
+   * Default number of converted chunks that may wait for the writer.
+   *
+   * @author mian
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+  /**
+   * Marks the end of the sheet in the chunk queue.
+   */
+  private final Future<List<T>> endOfSheet = CompletableFuture.completedFuture(null);
+
+  private final AbstractExcelService<T> service;
+  private final int workers;
+  private final int queueCapacity;
+
+  /**
+   * Creates a pipeline with one worker per spare processor and the default queue capacity.
+   *
+   * @param service the service that converts and inserts the rows
+   * @author mian
+   */
+  public ImportPipeline(AbstractExcelService<T> service) {
+    this(service, Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Creates a pipeline.
+   *
+   * @param service       the service that converts and inserts the rows
+   * @param workers       number of threads converting rows to model objects
+   * @param queueCapacity number of converted chunks that may wait for the writer
+   * @author mian
+   */
+  public ImportPipeline(AbstractExcelService<T> service, int workers, int queueCapacity) {
+    if (workers < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException("Workers and queue capacity must be at least 1");
+    }
+    this.service = service;
+    this.workers = workers;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Imports the given Excel file, replacing the rows of the service's table.
+   *
+   * @param excelFile the Excel file to import
+   * @return the number of rows written
+   * @throws IOException              if the file cannot be read or the rows cannot be saved
+   * @throws IllegalArgumentException if the data is invalid or required fields are missing
+   * @author mian
+   */
+  public int run(File excelFile) throws IOException, IllegalArgumentException {
+    return run(excelFile, ImportProgress.NONE);
+  }
+
+  /**
+   * Imports the given Excel file, replacing the rows of the service's table, and reports its
+   * progress. The old rows are deleted within the import transaction once the header and the
+   * first chunk of rows have been validated, so a failed or cancelled import keeps them.
+   *
+   * @param excelFile the Excel file to import
+   * @param progress  receives the row counts after every chunk and is asked before every chunk
+   *                  whether the import has been cancelled
+   * @return the number of rows written
+   * @throws IOException              if the file cannot be read or the rows cannot be saved
+   * @throws IllegalArgumentException if the data is invalid or required fields are missing
+   * @throws CancellationException    if the import was cancelled; all changes are rolled back
+   * @author mian
+   */
+  public int run(File excelFile, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    BlockingQueue<Future<List<T>>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+    ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+      Thread thread = new Thread(r, "import-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    SheetReader reader = new SheetReader(excelFile, chunks, pool);
+    Thread readerThread = new Thread(reader, "import-reader");
+    readerThread.setDaemon(true);
+    readerThread.start();
+
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        int written = write(conn, chunks, reader, progress);
+        reader.rethrowFailure();
+        if (written == 0) {
+          throw new IllegalArgumentException("The Excel file contains no data rows");
+        }
+        conn.commit();
+        return written;
+      } catch (SQLException | IOException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new IOException("Error saving imported rows, transaction rolled back: "
+          + e.getMessage(), e);
+    } finally {
+      readerThread.interrupt();
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Takes converted chunks from the queue in sheet order and inserts them until the end of the
+   * sheet is reached or the import is cancelled. The table is emptied on the same connection
+   * right before the first chunk is inserted.
+   *
+   * @author mian
+   */
+  private int write(Connection conn, BlockingQueue<Future<List<T>>> chunks,
+      SheetReader reader, ImportProgress progress) throws SQLException, IOException {
+    PreparedStatement pstmt = null;
+    int written = 0;
+    try {
+      while (true) {
+        List<T> models = await(chunks.take());
+        if (progress.isCancelled()) {
+          throw new CancellationException("Import cancelled");
+        }
+        if (models == null) {
+          return written;
+        }
+        if (pstmt == null) {
+          new DatabaseResetService().deleteAllRows(conn, service.getTableName());
+          pstmt = conn.prepareStatement(service.getInsertSql());
+        }
+        for (T model : models) {
+          service.bindInsert(pstmt, model);
+          pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+        written += models.size();
+        progress.update(reader.parsed.get(), reader.validated.get(), written);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Import interrupted", e);
+    } finally {
+      if (pstmt != null) {
+        pstmt.close();
+      }
+    }
+  }
+
+  /**
+   * Waits for a chunk and unwraps conversion errors.
+   *
+   * @author mian
+   */
+  private List<T> await(Future<List<T>> chunk) throws InterruptedException {
+    try {
+      return chunk.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * Streams the sheet, cuts it into chunks and submits them to the worker pool. Runs on its own
+   * thread; a failure is kept and rethrown on the writer's thread.
+   */
+  private final class SheetReader implements Runnable, ExcelService.RowConsumer {
+
+    private final File excelFile;
+    private final BlockingQueue<Future<List<T>>> chunks;
+    private final ExecutorService pool;
+
+    private ImportPlan plan;
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger validated = new AtomicInteger();
+    private int[] rowNumbers;
+    private String[][] rows;
+    private int size;
+    private volatile Exception failure;
+
+    SheetReader(File excelFile, BlockingQueue<Future<List<T>>> chunks, ExecutorService pool) {
+      this.excelFile = excelFile;
+      this.chunks = chunks;
+      this.pool = pool;
+    }
+
+    @Override
+    public void run() {
+      try {
+        service.getExcelService().readExcelFile(excelFile.getPath(), this);
+        flush();
+      } catch (CancellationException e) {
+        return;
+      } catch (Exception e) {
+        failure = e;
+      }
+      try {
+        chunks.put(endOfSheet);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void headers(String[] headers) {
+      plan = service.compileImportPlan(headers);
+      service.validateRequiredColumns(plan.getColumnMappings());
+    }
+
+    @Override
+    public void row(int rowNumber, String[] values) {
+      if (rows == null) {
+        rowNumbers = new int[service.getBatchSize()];
+        rows = new String[service.getBatchSize()][];
+      }
+      parsed.incrementAndGet();
+      rowNumbers[size] = rowNumber;
+      // The reader reuses its row buffer, the chunk needs its own copy
+      rows[size++] = values.clone();
+      if (size == rows.length) {
+        flush();
+      }
+    }
+
+    /**
+     * Submits the buffered rows for conversion and queues the pending result, blocking while the
+     * queue is full.
+     */
+    private void flush() {
+      if (size == 0) {
+        return;
+      }
+      int[] chunkRowNumbers = rowNumbers;
+      String[][] chunkRows = rows;
+      int chunkSize = size;
+      ImportPlan chunkPlan = plan;
+
+      Future<List<T>> chunk = pool.submit(() -> {
+        List<T> models = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+          models.add(service.convertRow(chunkRows[i], chunkPlan, chunkRowNumbers[i]));
+        }
+        validated.addAndGet(chunkSize);
+        return models;
+      });
+
+      rows = null;
+      size = 0;
+      try {
+        chunks.put(chunk);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Import cancelled");
+      }
+    }
+
+    /**
+     * Rethrows the failure of the reader thread, if any.
+     */
+    void rethrowFailure() throws IOException {
+      Exception e = failure;
+      if (e instanceof IOException) {
+        throw (IOException) e;
+      }
+      if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      }
+      if (e != null) {
+        throw new IOException(e);
+      }
+    }
+  }
+}
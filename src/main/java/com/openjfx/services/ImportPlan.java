@@ -0,0 +1,106 @@
+package com.openjfx.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The column mapping of one import file, compiled once from its header row.
+ *
+ * <p>Every field of the importing service is matched against the headers by its column prefix
+ * and resolved to a column index. Rows are then read by index straight from the row buffer, so
+ * converting a row needs neither a map nor a lookup by header name.</p>
+ *
+ * @author mian
+ */
+public final class ImportPlan {
+
+  private final int[] columns;
+  private final Map<String, String> columnMappings;
+
+  private ImportPlan(int[] columns, Map<String, String> columnMappings) {
+    this.columns = columns;
+    this.columnMappings = columnMappings;
+  }
+
+  /**
+   * Compiles the plan for a header row. A field is mapped to the first column, from left to
+   * right, whose trimmed lower-case header starts with the field's column prefix.
+   *
+   * @param headers  the header names, indexed by column
+   * @param prefixes the column prefix of every field
+   * @param fields   the fields in the order used by {@link #get(String[], int)}
+   * @return the compiled plan
+   * @author mian
+   */
+  public static ImportPlan compile(String[] headers, Map<String, String> prefixes,
+      List<String> fields) {
+    String[] normalized = new String[headers.length];
+    for (int i = 0; i < headers.length; i++) {
+      normalized[i] = headers[i].toLowerCase().trim();
+    }
+
+    Map<String, String> columnMappings = new HashMap<>();
+    for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+      int column = findColumn(normalized, entry.getValue());
+      columnMappings.put(entry.getKey(), column < 0 ? "" : headers[column]);
+    }
+
+    int[] columns = new int[fields.size()];
+    for (int i = 0; i < columns.length; i++) {
+      String prefix = prefixes.get(fields.get(i));
+      columns[i] = prefix != null ? findColumn(normalized, prefix) : -1;
+    }
+    return new ImportPlan(columns, Collections.unmodifiableMap(columnMappings));
+  }
+
+  /**
+   * Finds the first column whose normalized header starts with the prefix.
+   *
+   * @author mian
+   */
+  private static int findColumn(String[] normalized, String prefix) {
+    for (int i = 0; i < normalized.length; i++) {
+      if (normalized[i].startsWith(prefix)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the value of a field from a row.
+   *
+   * @param values the row buffer, indexed by column
+   * @param field  the position of the field in the list the plan was compiled with
+   * @return the value, or null if the field has no column in this file
+   * @author mian
+   */
+  public String get(String[] values, int field) {
+    int column = columns[field];
+    return column >= 0 && column < values.length ? values[column] : null;
+  }
+
+  /**
+   * Gets the column index a field was resolved to.
+   *
+   * @param field the position of the field in the list the plan was compiled with
+   * @return the column index, or -1 if no header matches the field
+   * @author mian
+   */
+  public int getColumn(int field) {
+    return columns[field];
+  }
+
+  /**
+   * Gets the mappings between property names and the matched header names. Properties without
+   * a matching header are mapped to an empty string.
+   *
+   * @return the column mappings
+   * @author mian
+   */
+  public Map<String, String> getColumnMappings() {
+    return columnMappings;
+  }
+}
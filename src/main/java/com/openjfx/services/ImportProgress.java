@@ -0,0 +1,41 @@
+package com.openjfx.services;
+
+/**
+ * Receives progress updates from a running import and tells it whether to stop. Imports check
+ * for cancellation between batches, so a cancelled import stops after the batch in progress and
+ * rolls back its transaction.
+ *
+ * <p>Updates may come from a background thread.</p>
+ *
+ * @author mian
+ */
+public interface ImportProgress {
+
+  /**
+   * Progress callback that ignores all updates and never cancels.
+   *
+   * @author mian
+   */
+  ImportProgress NONE = (parsed, validated, written) -> {
+  };
+
+  /**
+   * Called whenever a batch has been processed.
+   *
+   * @param parsed    number of rows read from the file so far
+   * @param validated number of rows converted to model objects so far
+   * @param written   number of rows written to the database so far
+   * @author mian
+   */
+  void update(int parsed, int validated, int written);
+
+  /**
+   * Returns whether the import should stop.
+   *
+   * @return true if the import has been cancelled
+   * @author mian
+   */
+  default boolean isCancelled() {
+    return false;
+  }
+}
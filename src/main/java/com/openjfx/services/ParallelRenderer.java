@@ -0,0 +1,117 @@
+package com.openjfx.services;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Renders the files of a batch export on a pool of worker threads and hands them to the calling
+ * thread in their original order. Only a bounded number of files are rendered ahead of the one
+ * being written, so memory use does not grow with the size of the export.
+ *
+ * @author mian
+ */
+final class ParallelRenderer {
+
+  private ParallelRenderer() {
+  }
+
+  /**
+   * Receives the rendered files in order on the calling thread.
+   *
+   * @author mian
+   */
+  interface Sink {
+
+    /**
+     * Writes a rendered file.
+     *
+     * @param index   the position of the file in the task list
+     * @param content the rendered file
+     * @throws IOException if the file cannot be written
+     * @author mian
+     */
+    void write(int index, byte[] content) throws IOException;
+  }
+
+  /**
+   * Renders the files and writes them in task order. Progress is reported after every file, and
+   * the export stops before writing the next file once it has been cancelled.
+   *
+   * @param workers  number of threads rendering files
+   * @param tasks    the tasks rendering one file each
+   * @param progress receives the number of files written and tells the export whether to stop
+   * @param sink     writes the rendered files
+   * @throws IOException           if a file cannot be rendered or written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  static void render(int workers, List<Callable<byte[]>> tasks, ExportProgress progress,
+      Sink sink) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+      Thread thread = new Thread(r, "export-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      Deque<Future<byte[]>> pending = new ArrayDeque<>();
+      int submitted = 0;
+      int done = 0;
+      while (done < tasks.size()) {
+        // Keep a bounded number of files rendering ahead of the one being written
+        while (submitted < tasks.size() && pending.size() < 2 * workers) {
+          pending.add(pool.submit(tasks.get(submitted++)));
+        }
+        byte[] content = await(pending.poll());
+        if (progress.isCancelled()) {
+          throw new CancellationException("Export cancelled");
+        }
+        sink.write(done, content);
+        progress.update(++done, tasks.size());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Export interrupted", e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Replaces the characters that are not allowed in file names.
+   *
+   * @param name the name to clean
+   * @return the name without reserved characters
+   * @author mian
+   */
+  static String sanitize(String name) {
+    return name.replaceAll("[\\\\/:*?\"<>|]", "_").trim();
+  }
+
+  /**
+   * Waits for a rendered file and unwraps rendering errors.
+   *
+   * @author mian
+   */
+  private static byte[] await(Future<byte[]> render) throws IOException, InterruptedException {
+    try {
+      return render.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package com.openjfx.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Measures and wraps text for the PDF exports. Measuring a string with
+ * {@link PDFont#getStringWidth(String)} encodes it and looks up every glyph again, and the exports
+ * measure the same company names and subjects for every student. This class looks up the advance
+ * width of each character only once per font and keeps the widths and wrapped lines of the
+ * strings it has measured.
+ *
+ * <p>There is one instance per font, shared by all exports. It is thread-safe, so the exports
+ * that render on a worker pool can use it as well. Widths are the same as those of
+ * {@link PDFont#getStringWidth(String)}; characters the font cannot encode cause the same
+ * exception.</p>
+ *
+ * @author mian
+ */
+public final class PdfTextLayout {
+
+  /**
+   * Maximum number of strings whose width and wrapped lines are kept per font. Names that occur
+   * once, e.g. student names, stop being remembered when the limit is reached.
+   *
+   * @author mian
+   */
+  static final int MAX_MEMOIZED = 4096;
+
+  private static final Map<PDFont, PdfTextLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+  private final PDFont font;
+  // Advance widths of the characters below 256 in glyph space, NaN until looked up
+  private final float[] latinWidths = new float[256];
+  private final Map<Character, Float> otherWidths = new ConcurrentHashMap<>();
+  private final Map<String, Float> stringWidths = new ConcurrentHashMap<>();
+  private final Map<WrapKey, List<String>> wrappedLines = new ConcurrentHashMap<>();
+
+  private PdfTextLayout(PDFont font) {
+    this.font = font;
+    Arrays.fill(latinWidths, Float.NaN);
+  }
+
+  /**
+   * Gets the layout of a font.
+   *
+   * @param font the font the text is drawn with
+   * @return the shared layout of the font
+   * @author mian
+   */
+  public static PdfTextLayout of(PDFont font) {
+    return LAYOUTS.computeIfAbsent(font, PdfTextLayout::new);
+  }
+
+  /**
+   * Calculates the width of a text.
+   *
+   * @param text     the text to measure
+   * @param fontSize the font size
+   * @return the width of the text in points
+   * @throws IOException if a glyph width cannot be read
+   * @author mian
+   */
+  public float getWidth(String text, float fontSize) throws IOException {
+    return glyphWidth(text) / 1000 * fontSize;
+  }
+
+  /**
+   * Wraps a text into lines no wider than the given width. Lines are broken at spaces; a word
+   * that does not fit on a line of its own is split between characters. An empty text gives one
+   * empty line.
+   *
+   * @param text     the text to wrap, may be null
+   * @param fontSize the font size
+   * @param maxWidth the maximum width of a line in points
+   * @return the lines, which must not be modified
+   * @throws IOException if a glyph width cannot be read
+   * @author mian
+   */
+  public List<String> wrap(String text, float fontSize, float maxWidth) throws IOException {
+    if (text == null || text.isEmpty()) {
+      return Collections.singletonList("");
+    }
+    WrapKey key = new WrapKey(text, fontSize, maxWidth);
+    List<String> lines = wrappedLines.get(key);
+    if (lines == null) {
+      lines = Collections.unmodifiableList(layOut(text, fontSize, maxWidth));
+      if (wrappedLines.size() < MAX_MEMOIZED) {
+        wrappedLines.put(key, lines);
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Breaks a text into lines in one pass, keeping the width of the current line.
+   *
+   * @author mian
+   */
+  private List<String> layOut(String text, float fontSize, float maxWidth) throws IOException {
+    List<String> lines = new ArrayList<>();
+    float space = charWidth(' ');
+    StringBuilder line = new StringBuilder();
+    float lineWidth = 0;
+
+    for (String word : text.split(" ")) {
+      float wordWidth = glyphWidth(word);
+      float testWidth = line.length() > 0 ? lineWidth + space + wordWidth : wordWidth;
+
+      if (testWidth / 1000 * fontSize <= maxWidth) {
+        if (line.length() > 0) {
+          line.append(' ');
+        }
+        line.append(word);
+        lineWidth = testWidth;
+        continue;
+      }
+
+      if (line.length() > 0) {
+        lines.add(line.toString());
+        line.setLength(0);
+        lineWidth = 0;
+      }
+      if (wordWidth / 1000 * fontSize <= maxWidth) {
+        line.append(word);
+        lineWidth = wordWidth;
+      } else {
+        // The word does not fit on a line of its own, split it between characters
+        for (int i = 0; i < word.length(); i++) {
+          char c = word.charAt(i);
+          float width = charWidth(c);
+          if (line.length() > 0 && (lineWidth + width) / 1000 * fontSize > maxWidth) {
+            lines.add(line.toString());
+            line.setLength(0);
+            lineWidth = 0;
+          }
+          line.append(c);
+          lineWidth += width;
+        }
+      }
+    }
+
+    if (line.length() > 0) {
+      lines.add(line.toString());
+    }
+    return lines;
+  }
+
+  /**
+   * Gets the width of a string in glyph space units, remembering it while there is room.
+   *
+   * @author mian
+   */
+  private float glyphWidth(String text) throws IOException {
+    Float known = stringWidths.get(text);
+    if (known != null) {
+      return known;
+    }
+    float width = 0;
+    for (int i = 0; i < text.length(); i++) {
+      width += charWidth(text.charAt(i));
+    }
+    if (stringWidths.size() < MAX_MEMOIZED) {
+      stringWidths.put(text, width);
+    }
+    return width;
+  }
+
+  /**
+   * Gets the advance width of a character in glyph space units.
+   *
+   * @author mian
+   */
+  private float charWidth(char c) throws IOException {
+    if (c < latinWidths.length) {
+      float width = latinWidths[c];
+      if (Float.isNaN(width)) {
+        // Concurrent lookups of the same character store the same value
+        width = font.getStringWidth(String.valueOf(c));
+        latinWidths[c] = width;
+      }
+      return width;
+    }
+    Float width = otherWidths.get(c);
+    if (width == null) {
+      width = font.getStringWidth(String.valueOf(c));
+      otherWidths.put(c, width);
+    }
+    return width;
+  }
+
+  /**
+   * Identifies a wrapped text by the text and the layout parameters.
+   */
+  private static final class WrapKey {
+
+    private final String text;
+    private final float fontSize;
+    private final float maxWidth;
+
+    WrapKey(String text, float fontSize, float maxWidth) {
+      this.text = text;
+      this.fontSize = fontSize;
+      this.maxWidth = maxWidth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof WrapKey)) {
+        return false;
+      }
+      WrapKey other = (WrapKey) o;
+      return Float.compare(fontSize, other.fontSize) == 0
+          && Float.compare(maxWidth, other.maxWidth) == 0 && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(text, fontSize, maxWidth);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.openjfx.models.Room;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Statement;
 import java.util.*;
 
@@ -15,7 +16,7 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -42,6 +43,40 @@ import java.sql.SQLException;
  */
 public class RoomService extends AbstractExcelService<Room> {
 
+  /**
+   * Statement used to insert a single room.
+   *
+   * @author mian
+   */
+  private static final String INSERT_SQL = "INSERT INTO rooms ("
+      + "name, "
+      + "capacity) "
+      + "VALUES (?, ?)";
+
+  /**
+   * Statement used to update a room during a delta import.
+   *
+   * @author mian
+   */
+  private static final String UPDATE_SQL = "UPDATE rooms SET capacity = ? WHERE name = ?";
+
+  /**
+   * Statement used to delete a room during a delta import.
+   *
+   * @author mian
+   */
+  private static final String DELETE_SQL = "DELETE FROM rooms WHERE name = ?";
+
+  /**
+   * Fields read by {@link #createModelFromValues(String[], ImportPlan)}, in plan order.
+   *
+   * @author mian
+   */
+  private static final List<String> IMPORT_FIELDS = List.of("name", "capacity");
+
+  private static final int NAME = 0;
+  private static final int CAPACITY = 1;
+
   /**
    * Constructs a new RoomService with the specified Excel service.
    *
@@ -79,7 +114,19 @@ public class RoomService extends AbstractExcelService<Room> {
   }
 
   /**
-   * Creates a Room object from a row of Excel data.
+   * Returns the fields read from a row buffer, in plan order.
+   *
+   * @return the import fields
+   * @author mian
+   */
+  @Override
+  protected List<String> getImportFields() {
+    return IMPORT_FIELDS;
+  }
+
+  /**
+   * Creates a Room object from a row buffer, reading the fields by the column indexes of the
+   * compiled plan.
    *
    * <p>Required fields are:
    * <ul>
@@ -87,16 +134,24 @@ public class RoomService extends AbstractExcelService<Room> {
    *   <li>Capacity (numeric)</li>
    * </ul>
    *
-   * @param row            the row data from Excel
-   * @param columnMappings the mappings between internal names and actual Excel columns
-   * @return a new Room object, or null if the row data is invalid
+   * @param values the row buffer, indexed by column
+   * @param plan   the import plan compiled from the header row
+   * @return a new Room object, or null if the capacity is not a number
    * @author mian
    */
   @Override
-  protected Room createModelFromRow(Map<String, String> row, Map<String, String> columnMappings) {
-    String name = row.get(columnMappings.get("name"));
-    String capacityStr = row.get(columnMappings.get("capacity"));
+  protected Room createModelFromValues(String[] values, ImportPlan plan) {
+    return createRoom(plan.get(values, NAME), plan.get(values, CAPACITY));
+  }
 
+  /**
+   * Creates a Room object from the raw cell values of a row.
+   *
+   * @return a new Room object, or null if the capacity is not a number
+   * @throws IllegalArgumentException if a required field is missing
+   * @author mian
+   */
+  private Room createRoom(String name, String capacityStr) {
     // Throw an exception if required fields are missing
     if (name == null || capacityStr == null) {
       throw new IllegalArgumentException("Missing required fields: name or capacity");
@@ -108,7 +163,8 @@ public class RoomService extends AbstractExcelService<Room> {
           Integer.parseInt(capacityStr.trim())
       );
     } catch (NumberFormatException e) {
-      System.err.println("Error parsing row: " + row + " - " + e.getMessage());
+      System.err.println("Error parsing capacity '" + capacityStr + "' of room " + name + " - "
+          + e.getMessage());
       return null;
     }
   }
@@ -128,6 +184,114 @@ public class RoomService extends AbstractExcelService<Room> {
     );
   }
 
+  /**
+   * Gets the table rooms are stored in.
+   *
+   * @return the table name
+   * @author mian
+   */
+  @Override
+  protected String getTableName() {
+    return "rooms";
+  }
+
+  /**
+   * Gets the INSERT statement used to save rooms in bulk.
+   *
+   * @return the parameterized INSERT statement
+   * @author mian
+   */
+  @Override
+  protected String getInsertSql() {
+    return INSERT_SQL;
+  }
+
+  /**
+   * Sets the INSERT parameters for one room.
+   *
+   * @param pstmt the prepared INSERT statement
+   * @param room the Room object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindInsert(PreparedStatement pstmt, Room room) throws SQLException {
+    pstmt.setString(1, room.getName());
+    pstmt.setInt(2, room.getCapacity());
+  }
+
+  /**
+   * Identifies a room by its name.
+   *
+   * @param room the Room object
+   * @return the natural key of the room
+   * @author mian
+   */
+  @Override
+  protected String getNaturalKey(Room room) {
+    return room.getName();
+  }
+
+  /**
+   * Loads the stored rooms for comparison during a delta import.
+   *
+   * @return the stored rooms
+   * @author mian
+   */
+  @Override
+  protected List<Room> loadExisting() {
+    return loadRooms();
+  }
+
+  /**
+   * Gets the UPDATE statement used by delta imports.
+   *
+   * @return the parameterized UPDATE statement
+   * @author mian
+   */
+  @Override
+  protected String getUpdateSql() {
+    return UPDATE_SQL;
+  }
+
+  /**
+   * Sets the UPDATE parameters for one room.
+   *
+   * @param pstmt the prepared UPDATE statement
+   * @param room  the Room object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindUpdate(PreparedStatement pstmt, Room room) throws SQLException {
+    pstmt.setInt(1, room.getCapacity());
+    pstmt.setString(2, room.getName());
+  }
+
+  /**
+   * Gets the DELETE statement used by delta imports.
+   *
+   * @return the parameterized DELETE statement
+   * @author mian
+   */
+  @Override
+  protected String getDeleteSql() {
+    return DELETE_SQL;
+  }
+
+  /**
+   * Sets the DELETE parameters for one room.
+   *
+   * @param pstmt the prepared DELETE statement
+   * @param room  the Room object to bind
+   * @throws SQLException if a parameter cannot be set
+   * @author mian
+   */
+  @Override
+  protected void bindDelete(PreparedStatement pstmt, Room room) throws SQLException {
+    pstmt.setString(1, room.getName());
+  }
+
   /**
    * Saves a Room object to the database.
    *
@@ -135,17 +299,11 @@ public class RoomService extends AbstractExcelService<Room> {
    * @author mian
    */
   public void saveRoom(Room room) {
-    String sql = "INSERT INTO rooms ("
-        + "name, "
-        + "capacity) "
-        + "VALUES (?, ?)";
-
     try (Connection conn = DatabaseConfig.getConnection()) {
       conn.setAutoCommit(false);
 
-      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        pstmt.setString(1, room.getName());
-        pstmt.setInt(2, room.getCapacity());
+      try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+        bindInsert(pstmt, room);
 
         int result = pstmt.executeUpdate();
         conn.commit();
@@ -166,17 +324,7 @@ public class RoomService extends AbstractExcelService<Room> {
    * @author mian
    */
   public void clearRooms() {
-    String delete = "DELETE FROM rooms";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement()) {
-      conn.setAutoCommit(false);
-      stmt.executeUpdate(delete);
-      conn.commit();
-    } catch (SQLException e) {
-      System.err.println("Error clearing events: " + e.getMessage());
-      e.printStackTrace();
-    }
+    new DatabaseResetService().reset("rooms");
   }
 
   /**
@@ -237,6 +385,48 @@ public class RoomService extends AbstractExcelService<Room> {
           "", "A", "B", "C", "D", "E"
   );
 
+  /**
+   * Thin border style for all cells.
+   */
+  private static final ExcelStyleSpec BORDER_STYLE =
+      ExcelStyleSpec.PLAIN.borders(BorderStyle.THIN);
+
+  /**
+   * Header style with grey background (bold, size 10).
+   */
+  private static final ExcelStyleSpec HEADER_STYLE = BORDER_STYLE
+      .fill(IndexedColors.GREY_25_PERCENT).align(HorizontalAlignment.LEFT).wrapText()
+      .bold().fontSize(10);
+
+  /**
+   * Organizational plan style (bold, size 14).
+   */
+  private static final ExcelStyleSpec ORG_PLAN_STYLE = BORDER_STYLE
+      .align(HorizontalAlignment.LEFT).wrapText().bold().fontSize(14);
+
+  /**
+   * General header style (bold, size 11, grey background).
+   */
+  private static final ExcelStyleSpec GENERAL_HEADER_STYLE = HEADER_STYLE.fontSize(11);
+
+  /**
+   * Letter style (centered, grey background, bold, size 11).
+   */
+  private static final ExcelStyleSpec LETTER_STYLE = BORDER_STYLE
+      .fill(IndexedColors.GREY_25_PERCENT).align(HorizontalAlignment.CENTER).bold().fontSize(11);
+
+  /**
+   * Bold style with thick right border for the company column.
+   */
+  private static final ExcelStyleSpec BOLD_THICK_BORDER_STYLE = BORDER_STYLE.bold()
+      .borderRight(BorderStyle.THICK);
+
+  /**
+   * Centered bold style for rooms.
+   */
+  private static final ExcelStyleSpec CENTERED_STYLE = BORDER_STYLE.bold()
+      .align(HorizontalAlignment.CENTER);
+
   /**
    * Exports the provided data to an Excel file for rooms.
    *
@@ -255,155 +445,76 @@ public class RoomService extends AbstractExcelService<Room> {
       throw new IllegalArgumentException("File path must not be null or empty");
     }
 
-    try (Workbook workbook = new XSSFWorkbook()) {
+    try (OutputStream out = new FileOutputStream(filePath)) {
+      exportDataToExcel(data, out);
+    }
+  }
+
+  /**
+   * Writes the room plan as an Excel workbook to a stream. The stream is not closed.
+   *
+   * @param data The data to be exported (list of maps containing company and room/time information)
+   * @param out  The stream to write the workbook to
+   * @throws IOException If an error occurs during writing
+   *
+   * @author mian
+   */
+  public void exportDataToExcel(List<Map<String, Object>> data, OutputStream out)
+      throws IOException {
+    if (data == null || data.isEmpty()) {
+      throw new IllegalArgumentException("Data list must not be null or empty");
+    }
+
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
       Sheet sheet = workbook.createSheet("Raumplan");
+      ColumnWidthEstimator widths = new ColumnWidthEstimator();
 
       // Create styles for the Excel sheet
-      Map<String, CellStyle> styles = createStyles(workbook);
+      ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
 
       int rowIndex = 0;
 
       // Add general headers
       rowIndex = addGeneralHeaders(sheet, styles, rowIndex);
 
-      // Add time and letter headers
-      rowIndex = addTimeAndLetterHeaders(workbook, sheet, styles, rowIndex);
+      // Add time and letter headers; the merged general headers don't count for the widths
+      int firstTableRow = rowIndex;
+      rowIndex = addTimeAndLetterHeaders(sheet, styles, rowIndex);
+      for (int i = firstTableRow; i < rowIndex; i++) {
+        widths.track(sheet.getRow(i));
+      }
 
       // Add data rows
-      addDataRows(workbook, sheet, styles, data, rowIndex);
+      addDataRows(sheet, styles, data, rowIndex, widths);
 
-      // Auto-size columns for better readability
-      for (int i = 0; i < TIME_HEADERS.size(); i++) {
-        sheet.autoSizeColumn(i);
-      }
+      // Size columns for better readability
+      widths.apply(sheet, TIME_HEADERS.size());
 
       // Save the file
-      try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-        workbook.write(fileOut);
-      }
+      StreamingWorkbook.write(workbook, out);
     }
   }
 
-  /**
-   * Creates and returns a map of styles for the Excel sheet.
-   *
-   * @param workbook The Excel workbook
-   * @return A map of styles
-   *
-   * @author leon
-   */
-  private Map<String, CellStyle> createStyles(Workbook workbook) {
-    Map<String, CellStyle> styles = new HashMap<>();
-
-    // Thin border style for all cells
-    CellStyle borderStyle = workbook.createCellStyle();
-    borderStyle.setBorderTop(BorderStyle.THIN);
-    borderStyle.setBorderBottom(BorderStyle.THIN);
-    borderStyle.setBorderLeft(BorderStyle.THIN);
-    borderStyle.setBorderRight(BorderStyle.THIN);
-
-    // Thick border style for the bottom section
-    CellStyle thickBorderStyle = workbook.createCellStyle();
-    thickBorderStyle.setBorderTop(BorderStyle.THICK);
-    thickBorderStyle.setBorderBottom(BorderStyle.THICK);
-    thickBorderStyle.setBorderLeft(BorderStyle.THICK);
-    thickBorderStyle.setBorderRight(BorderStyle.THICK);
-
-    // Header style with grey background
-    CellStyle headerStyle = workbook.createCellStyle();
-    headerStyle.cloneStyleFrom(borderStyle);
-    headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-    headerStyle.setAlignment(HorizontalAlignment.LEFT);
-    headerStyle.setWrapText(true);
-
-    // Header font (bold, size 10)
-    Font headerFont = workbook.createFont();
-    headerFont.setBold(true);
-    headerFont.setFontHeightInPoints((short) 10);
-    headerStyle.setFont(headerFont);
-
-    // Organizational plan style (bold, size 14)
-    CellStyle orgPlanStyle = workbook.createCellStyle();
-    orgPlanStyle.cloneStyleFrom(borderStyle);
-    orgPlanStyle.setAlignment(HorizontalAlignment.LEFT);
-    orgPlanStyle.setWrapText(true);
-    Font orgPlanFont = workbook.createFont();
-    orgPlanFont.setBold(true);
-    orgPlanFont.setFontHeightInPoints((short) 14);
-    orgPlanStyle.setFont(orgPlanFont);
-
-    // Letter style (centered, grey background, bold, size 11)
-    CellStyle letterStyle = workbook.createCellStyle();
-    letterStyle.cloneStyleFrom(borderStyle);
-    letterStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    letterStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-    letterStyle.setAlignment(HorizontalAlignment.CENTER);
-    Font letterFont = workbook.createFont();
-    letterFont.setBold(true);
-    letterFont.setFontHeightInPoints((short) 11);
-    letterStyle.setFont(letterFont);
-
-    // Bold and thick border style
-    CellStyle boldThickBorderStyle = workbook.createCellStyle();
-    boldThickBorderStyle.cloneStyleFrom(borderStyle);
-    boldThickBorderStyle.setBorderRight(BorderStyle.THICK);
-    Font boldFont = workbook.createFont();
-    boldFont.setBold(true);
-    boldThickBorderStyle.setFont(boldFont);
-
-    // Centered style for rooms
-    CellStyle centeredStyle = workbook.createCellStyle();
-    centeredStyle.cloneStyleFrom(boldThickBorderStyle);
-    centeredStyle.setBorderTop(BorderStyle.THIN);
-    centeredStyle.setBorderBottom(BorderStyle.THIN);
-    centeredStyle.setBorderLeft(BorderStyle.THIN);
-    centeredStyle.setBorderRight(BorderStyle.THIN);
-    centeredStyle.setAlignment(HorizontalAlignment.CENTER);
-
-    // General header style (bold, size 11, grey background)
-    CellStyle generalHeaderStyle = workbook.createCellStyle();
-    generalHeaderStyle.cloneStyleFrom(headerStyle);
-    generalHeaderStyle.setAlignment(HorizontalAlignment.LEFT);
-    generalHeaderStyle.setWrapText(true);
-    Font generalHeaderFont = workbook.createFont();
-    generalHeaderFont.setBold(true);
-    generalHeaderFont.setFontHeightInPoints((short) 11);
-    generalHeaderStyle.setFont(generalHeaderFont);
-
-    // Add styles to the map
-    styles.put("borderStyle", borderStyle);
-    styles.put("thickBorderStyle", thickBorderStyle);
-    styles.put("headerStyle", headerStyle);
-    styles.put("orgPlanStyle", orgPlanStyle);
-    styles.put("letterStyle", letterStyle);
-    styles.put("boldThickBorderStyle", boldThickBorderStyle);
-    styles.put("centeredStyle", centeredStyle);
-    styles.put("generalHeaderStyle", generalHeaderStyle);
-
-    return styles;
-  }
-
   /**
    * Adds general headers to the Excel sheet.
    *
    * @param sheet      The Excel sheet
-   * @param styles     A map of styles
+   * @param styles     The styles of the workbook
    * @param rowIndex   The current row index
    * @return The updated row index
    *
    * @author leon
    */
-  private int addGeneralHeaders(Sheet sheet, Map<String, CellStyle> styles, int rowIndex) {
+  private int addGeneralHeaders(Sheet sheet, ExcelStyleRegistry styles, int rowIndex) {
     for (String header : GENERAL_HEADERS) {
       Row row = sheet.createRow(rowIndex++);
       Cell cell = row.createCell(0);
       cell.setCellValue(header);
 
       if (header.equals("Organisationsplan für den Berufsorientierungstag")) {
-        cell.setCellStyle(styles.get("orgPlanStyle"));
+        cell.setCellStyle(styles.get(ORG_PLAN_STYLE));
       } else {
-        cell.setCellStyle(styles.get("generalHeaderStyle"));
+        cell.setCellStyle(styles.get(GENERAL_HEADER_STYLE));
       }
 
       sheet.addMergedRegion(new CellRangeAddress(row.getRowNum(), row.getRowNum(), 0, TIME_HEADERS.size() - 1));
@@ -420,32 +531,26 @@ public class RoomService extends AbstractExcelService<Room> {
   /**
    * Adds time and letter headers to the Excel sheet.
    *
-   * @param workbook   The Excel workbook
    * @param sheet      The Excel sheet
-   * @param styles     A map of styles
+   * @param styles     The styles of the workbook
    * @param rowIndex   The current row index
    * @return The updated row index
    *
    * @author leon
    */
-  private int addTimeAndLetterHeaders(Workbook workbook, Sheet sheet, Map<String, CellStyle> styles, int rowIndex) {
+  private int addTimeAndLetterHeaders(Sheet sheet, ExcelStyleRegistry styles, int rowIndex) {
     // Add time headers
     Row timeHeaderRow = sheet.createRow(rowIndex++);
     for (int i = 0; i < TIME_HEADERS.size(); i++) {
       Cell cell = timeHeaderRow.createCell(i);
       cell.setCellValue(TIME_HEADERS.get(i));
 
-      CellStyle timeHeaderCellStyle = workbook.createCellStyle();
-      timeHeaderCellStyle.cloneStyleFrom(styles.get("headerStyle"));
-      timeHeaderCellStyle.setBorderBottom(BorderStyle.NONE);
-      timeHeaderCellStyle.setBorderTop(BorderStyle.THICK);
-      if (i == 0) {
-        timeHeaderCellStyle.setBorderRight(BorderStyle.THICK);
+      ExcelStyleSpec timeHeaderCellStyle = HEADER_STYLE.borderBottom(BorderStyle.NONE)
+          .borderTop(BorderStyle.THICK);
+      if (i == 0 || i == TIME_HEADERS.size() - 1) {
+        timeHeaderCellStyle = timeHeaderCellStyle.borderRight(BorderStyle.THICK);
       }
-      if (i == TIME_HEADERS.size() - 1) {
-        timeHeaderCellStyle.setBorderRight(BorderStyle.THICK);
-      }
-      cell.setCellStyle(timeHeaderCellStyle);
+      cell.setCellStyle(styles.get(timeHeaderCellStyle));
     }
 
     // Add letter headers
@@ -454,33 +559,30 @@ public class RoomService extends AbstractExcelService<Room> {
       Cell cell = letterHeaderRow.createCell(i);
       cell.setCellValue(LETTER_HEADERS.get(i));
 
-      CellStyle letterHeaderCellStyle = workbook.createCellStyle();
-      letterHeaderCellStyle.cloneStyleFrom(styles.get("letterStyle"));
-      letterHeaderCellStyle.setBorderTop(BorderStyle.NONE);
-      if (i == 0) {
-        letterHeaderCellStyle.setBorderRight(BorderStyle.THICK);
+      ExcelStyleSpec letterHeaderCellStyle = LETTER_STYLE.borderTop(BorderStyle.NONE);
+      if (i == 0 || i == LETTER_HEADERS.size() - 1) {
+        letterHeaderCellStyle = letterHeaderCellStyle.borderRight(BorderStyle.THICK);
       }
-      if (i == LETTER_HEADERS.size() - 1) {
-        letterHeaderCellStyle.setBorderRight(BorderStyle.THICK);
-      }
-      cell.setCellStyle(letterHeaderCellStyle);
+      cell.setCellStyle(styles.get(letterHeaderCellStyle));
     }
 
     return rowIndex;
   }
 
   /**
-   * Adds data rows to the Excel sheet.
+   * Adds data rows to the Excel sheet. The last row gets a thick bottom border, the first and
+   * last column a thick right border.
    *
-   * @param workbook   The Excel workbook
    * @param sheet      The Excel sheet
-   * @param styles     A map of styles
+   * @param styles     The styles of the workbook
    * @param data       The data to be added
    * @param rowIndex   The current row index
+   * @param widths     The column widths to update
    *
    * @author leon
    * */
-  private void addDataRows(Workbook workbook, Sheet sheet, Map<String, CellStyle> styles, List<Map<String, Object>> data, int rowIndex) {
+  private void addDataRows(Sheet sheet, ExcelStyleRegistry styles,
+      List<Map<String, Object>> data, int rowIndex, ColumnWidthEstimator widths) {
     int dataRowIndex = 0;
     for (Map<String, Object> rowData : data) {
       Row row = sheet.createRow(rowIndex++);
@@ -492,37 +594,20 @@ public class RoomService extends AbstractExcelService<Room> {
         String cellValue = value != null ? value.toString().trim() : "";
         cell.setCellValue(cellValue);
 
+        ExcelStyleSpec style;
         if (i == 0) {
-          cell.setCellStyle(styles.get("boldThickBorderStyle"));
+          style = BOLD_THICK_BORDER_STYLE;
         } else if (i < TIME_HEADERS.size() - 1) {
-          cell.setCellStyle(styles.get("centeredStyle"));
+          style = CENTERED_STYLE;
         } else {
-          CellStyle centeredStyleLastCell = workbook.createCellStyle();
-          centeredStyleLastCell.cloneStyleFrom(styles.get("centeredStyle"));
-          centeredStyleLastCell.setBorderRight(BorderStyle.THICK);
-          cell.setCellStyle(centeredStyleLastCell);
+          style = CENTERED_STYLE.borderRight(BorderStyle.THICK);
         }
-
         if (data.size() == dataRowIndex) {
-          CellStyle centeredStyleLastLineCell = workbook.createCellStyle();
-          centeredStyleLastLineCell.cloneStyleFrom(styles.get("centeredStyle"));
-          centeredStyleLastLineCell.setBorderBottom(BorderStyle.THICK);
-          cell.setCellStyle(centeredStyleLastLineCell);
-          if (i == 0) {
-            CellStyle newStyle = workbook.createCellStyle();
-            newStyle.cloneStyleFrom(styles.get("boldThickBorderStyle"));
-            newStyle.setBorderBottom(BorderStyle.THICK);
-            cell.setCellStyle(newStyle);
-          }
-          if (i == TIME_HEADERS.size() - 1) {
-            CellStyle newStyle = workbook.createCellStyle();
-            newStyle.cloneStyleFrom(styles.get("centeredStyle"));
-            newStyle.setBorderBottom(BorderStyle.THICK);
-            newStyle.setBorderRight(BorderStyle.THICK);
-            cell.setCellStyle(newStyle);
-          }
+          style = style.borderBottom(BorderStyle.THICK);
         }
+        cell.setCellStyle(styles.get(style));
       }
+      widths.track(row);
     }
   }
 
@@ -536,7 +621,7 @@ public class RoomService extends AbstractExcelService<Room> {
    *
    * @author leon
    */
-  public List<Map<String, Object>> prepareDataForExport(List<Object> dataToExport) {
+  public List<Map<String, Object>> prepareDataForExport(List<?> dataToExport) {
     // Initialize the list to hold the rows of data
     List<Map<String, Object>> data = new ArrayList<>();
 
@@ -588,6 +673,21 @@ public class RoomService extends AbstractExcelService<Room> {
    * @author batuhan
    */
   public void roomExportToPdf(List<Map<String, Object>> data, String outputPath) throws IOException {
+    try (OutputStream out = new FileOutputStream(outputPath)) {
+      roomExportToPdf(data, out);
+    }
+  }
+
+  /**
+   * Writes the room plan as PDF document to a stream. The stream is not closed.
+   *
+   * @param data the rows of the room plan, one map per company
+   * @param out  the stream to write the document to
+   * @throws IOException if the document cannot be created or written
+   * @author mian
+   */
+  public void roomExportToPdf(List<Map<String, Object>> data, OutputStream out)
+      throws IOException {
     try (PDDocument document = new PDDocument()) {
       PDPage page = createNewPage(document);
       PDPageContentStream contentStream = new PDPageContentStream(document, page, PDPageContentStream.AppendMode.OVERWRITE, true);
@@ -608,7 +708,7 @@ public class RoomService extends AbstractExcelService<Room> {
       drawTable(contentStream, startX, startY, tableWidth, rowHeight, colWidths, headers, data, document);
 
       contentStream.close();
-      document.save(outputPath);
+      document.save(out);
     }
   }
 
@@ -665,7 +765,8 @@ public class RoomService extends AbstractExcelService<Room> {
     contentStream.setFont(PDType1Font.HELVETICA, 10);
 
     // Feste Breite für Unternehmen-Spalte setzen
-    float maxUnternehmenWidth = PDType1Font.HELVETICA.getStringWidth("Unternehmen mit 50 Zeichen") / 1000f * 10 + 10;
+    float maxUnternehmenWidth = PdfTextLayout.of(PDType1Font.HELVETICA)
+        .getWidth("Unternehmen mit 50 Zeichen", 10) + 10;
     colWidths[0] = maxUnternehmenWidth;
 
     // Gleichmäßige Verteilung der verbleibenden Breite auf die Zeitslot-Spalten
@@ -693,6 +794,7 @@ public class RoomService extends AbstractExcelService<Room> {
    */
   public void drawRow(PDPageContentStream contentStream, float x, float y, float[] colWidths, String[] columns) throws IOException {
     contentStream.setFont(PDType1Font.HELVETICA, 10); // Schriftart auf normal setzen
+    PdfTextLayout layout = PdfTextLayout.of(PDType1Font.HELVETICA);
     float currentX = x;
 
     for (int i = 0; i < columns.length; i++) {
@@ -711,7 +813,7 @@ public class RoomService extends AbstractExcelService<Room> {
         textX = currentX + 5;
       } else {
         // Numerische Werte zentrieren
-        float textWidth = PDType1Font.HELVETICA.getStringWidth(text) / 1000f * 10;
+        float textWidth = layout.getWidth(text, 10);
         textX = currentX + (colWidths[i] - textWidth) / 2;
       }
 
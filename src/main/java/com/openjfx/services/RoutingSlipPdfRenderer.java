@@ -0,0 +1,266 @@
+package com.openjfx.services;
+
+import com.openjfx.models.RoutingSlip;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * Renders the routing slips of many classes in parallel. Each class is rendered into its own
+ * document on a worker pool with the same layout as {@link TimetableService#exportChoiceDataPDF}.
+ *
+ * <p>The class documents are either merged into one PDF or written as one file per class. Both
+ * keep the order in which the classes first appear in the data, so the output does not depend on
+ * which worker finishes first. Each class starts on a new page. Before the merge, every
+ * rendered class is written to a temporary file, so only the classes rendered ahead are held in
+ * memory. The merge keeps at most {@link #MERGE_MEMORY} bytes of its scratch data in memory and
+ * moves the rest to a temporary file.</p>
+ *
+ * @author mian
+ */
+public class RoutingSlipPdfRenderer {
+
+  /**
+   * Main memory the merge may use for its scratch data, in bytes.
+   *
+   * @author mian
+   */
+  static final long MERGE_MEMORY = 16L * 1024 * 1024;
+
+  private final TimetableService timetableService;
+  private final int workers;
+
+  /**
+   * Creates a renderer with one worker per processor.
+   *
+   * @param timetableService the service that draws the routing slips
+   * @author mian
+   */
+  public RoutingSlipPdfRenderer(TimetableService timetableService) {
+    this(timetableService, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a renderer.
+   *
+   * @param timetableService the service that draws the routing slips
+   * @param workers          number of threads rendering classes
+   * @author mian
+   */
+  public RoutingSlipPdfRenderer(TimetableService timetableService, int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers must be at least 1");
+    }
+    this.timetableService = timetableService;
+    this.workers = workers;
+  }
+
+  /**
+   * Renders the routing slips of all classes and merges them into one PDF file.
+   *
+   * @param slips    the routing slips, as prepared by
+   *                 {@link TimetableService#prepareDataForExportForRoutingSlip(List)}
+   * @param filename the path of the PDF file, overwritten if it exists
+   * @param progress receives the number of classes rendered and tells the export whether to stop
+   * @throws IOException           if a class cannot be rendered or the file cannot be written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public void exportMerged(List<RoutingSlip> slips, String filename,
+      ExportProgress progress) throws IOException {
+    try (OutputStream out = new FileOutputStream(filename)) {
+      exportMerged(slips, out, progress);
+    }
+  }
+
+  /**
+   * Renders the routing slips of all classes and merges them into one PDF stream. The stream is
+   * not closed.
+   *
+   * @param slips    the routing slips, as prepared by
+   *                 {@link TimetableService#prepareDataForExportForRoutingSlip(List)}
+   * @param out      the stream to write the PDF to
+   * @param progress receives the number of classes rendered and tells the export whether to stop
+   * @throws IOException           if a class cannot be rendered or the PDF cannot be written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public void exportMerged(List<RoutingSlip> slips, OutputStream out,
+      ExportProgress progress) throws IOException {
+    List<ClassRender> renders = splitByClass(slips);
+    if (renders.isEmpty()) {
+      // Same output as the sequential export: one empty page
+      try (PDDocument document = new PDDocument()) {
+        timetableService.renderChoicePages(document, Collections.emptyList());
+        document.save(out);
+      }
+      return;
+    }
+
+    List<File> parts = new ArrayList<>();
+    List<InputStream> sources = new ArrayList<>();
+    try {
+      PDFMergerUtility merger = new PDFMergerUtility();
+      ParallelRenderer.render(workers, new ArrayList<>(renders), progress, (index, content) -> {
+        // Spooled to a file, so the finished classes are not held in memory until the merge
+        File part = Files.createTempFile("routing_slips_", ".pdf").toFile();
+        parts.add(part);
+        Files.write(part.toPath(), content);
+        InputStream source = new FileInputStream(part);
+        sources.add(source);
+        merger.addSource(source);
+      });
+      merger.setDestinationStream(out);
+      merger.mergeDocuments(MemoryUsageSetting.setupMixed(MERGE_MEMORY));
+    } finally {
+      for (InputStream source : sources) {
+        source.close();
+      }
+      for (File part : parts) {
+        Files.deleteIfExists(part.toPath());
+      }
+    }
+  }
+
+  /**
+   * Renders the routing slips of each class into its own PDF file. The files are named after the
+   * routing slip export and the class, and the data of each file is recorded in the directory's
+   * {@link ExportManifest}.
+   *
+   * @param slips     the routing slips, as prepared by
+   *                  {@link TimetableService#prepareDataForExportForRoutingSlip(List)}
+   * @param directory the directory to write to, created if it does not exist
+   * @param progress  receives the number of files written and tells the export whether to stop
+   * @return the written files, in class order
+   * @throws IOException           if a class cannot be rendered or a file cannot be written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<File> exportPerClass(List<RoutingSlip> slips, File directory,
+      ExportProgress progress) throws IOException {
+    return exportPerClass(slips, directory, progress, false);
+  }
+
+  /**
+   * Renders the routing slips of the classes whose students' schedules changed since the last
+   * export into their PDF files. Files whose data matches the hash in the directory's
+   * {@link ExportManifest} are kept as they are.
+   *
+   * @param slips     the routing slips, as prepared by
+   *                  {@link TimetableService#prepareDataForExportForRoutingSlip(List)}
+   * @param directory the directory to write to, created if it does not exist
+   * @param progress  receives the number of files written and tells the export whether to stop
+   * @return the files written again, in class order
+   * @throws IOException           if a class cannot be rendered or a file cannot be written
+   * @throws CancellationException if the export was cancelled
+   * @author mian
+   */
+  public List<File> exportChangedPerClass(List<RoutingSlip> slips, File directory,
+      ExportProgress progress) throws IOException {
+    return exportPerClass(slips, directory, progress, true);
+  }
+
+  /**
+   * Writes one PDF file per class, optionally only for the classes whose data changed. The
+   * manifest is updated after every file, so a cancelled export keeps the files it finished.
+   *
+   * @author mian
+   */
+  private List<File> exportPerClass(List<RoutingSlip> slips, File directory,
+      ExportProgress progress, boolean onlyChanged) throws IOException {
+    List<ClassRender> renders = splitByClass(slips);
+    Files.createDirectories(directory.toPath());
+    ExportManifest manifest = ExportManifest.load(directory);
+    String prefix = new File(timetableService.getFilePathChoices()).getName() + "_";
+
+    List<ClassRender> changed = new ArrayList<>();
+    List<File> files = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    Set<String> used = new HashSet<>();
+    for (ClassRender render : renders) {
+      String name = prefix + ParallelRenderer.sanitize(String.valueOf(render.className));
+      // Class names that only differ in reserved characters must not overwrite each other
+      String unique = name;
+      for (int i = 2; !used.add(unique.toLowerCase()); i++) {
+        unique = name + "_" + i;
+      }
+      render.fileName = unique + ".pdf";
+      render.hash = ExportManifest.hash(render.students);
+      names.add(render.fileName);
+      if (!onlyChanged || !manifest.isCurrent(render.fileName, render.hash)) {
+        changed.add(render);
+        files.add(new File(directory, render.fileName));
+      }
+    }
+
+    try {
+      ParallelRenderer.render(workers, new ArrayList<>(changed), progress, (index, content) -> {
+        Files.write(files.get(index).toPath(), content);
+        manifest.put(changed.get(index).fileName, changed.get(index).hash);
+      });
+      manifest.retain(names);
+    } finally {
+      manifest.save();
+    }
+    return files;
+  }
+
+  /**
+   * Splits the routing slips into one render task per class, in the order the classes first
+   * appear.
+   *
+   * @author mian
+   */
+  private List<ClassRender> splitByClass(List<RoutingSlip> slips) {
+    Map<String, List<RoutingSlip>> classes = new LinkedHashMap<>();
+    for (RoutingSlip slip : slips) {
+      classes.computeIfAbsent(slip.getClassName(), k -> new ArrayList<>()).add(slip);
+    }
+    List<ClassRender> renders = new ArrayList<>();
+    classes.forEach((className, students) -> renders.add(new ClassRender(className, students)));
+    return renders;
+  }
+
+  /**
+   * Renders the routing slips of one class into a PDF.
+   */
+  private final class ClassRender implements Callable<byte[]> {
+
+    private final String className;
+    private final List<RoutingSlip> students;
+    private String fileName;
+    private String hash;
+
+    ClassRender(String className, List<RoutingSlip> students) {
+      this.className = className;
+      this.students = students;
+    }
+
+    @Override
+    public byte[] call() throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (PDDocument document = new PDDocument()) {
+        timetableService.renderChoicePages(document, students);
+        document.save(out);
+      }
+      return out.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import com.openjfx.models.RunContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for managing scheduling runs (scenarios). Each run has its own student assignments,
+ * timetable, workshop demand and fulfillment scores, so several variants of a schedule can be
+ * generated and compared side by side. Events, rooms and choices are shared by all runs.
+ *
+ * @author mian
+ */
+public class ScenarioService {
+
+  /**
+   * Run-scoped tables and the columns copied when a run is cloned (everything except the
+   * generated id and run_id).
+   */
+  private static final String[][] RUN_TABLES = {
+      {"student_assignments",
+          "event_id, first_name, last_name, choice_no, class_ref, time_slot, room_id"},
+      {"timetable_assignments", "event_id, room_id, time_slot"},
+      {"workshop_demand", "event_id, demand"},
+      {"fulfillment_scores",
+          "student_id, class_ref, first_name, last_name, choice1_score, choice2_score, "
+              + "choice3_score, choice4_score, choice5_score, choice6_score, student_total_score, "
+              + "calculation_timestamp, overall_fulfillment_percentage, total_students, "
+              + "total_score, max_possible_score"}
+  };
+
+  /**
+   * Creates a new, empty run.
+   *
+   * @param name display name of the run
+   * @return the created run, or null if it could not be created
+   * @author mian
+   */
+  public RunContext createRun(String name) {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      return insertRun(conn, name);
+    } catch (SQLException e) {
+      System.err.println("Error creating run: " + e.getMessage());
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Creates a new run holding a copy of all run-scoped data of an existing run. The copy is made
+   * in a single transaction inside the database.
+   *
+   * @param source the run to copy
+   * @param name   display name of the new run
+   * @return the created run, or null if it could not be created
+   * @author mian
+   */
+  public RunContext cloneRun(RunContext source, String name) {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        RunContext target = insertRun(conn, name);
+        for (String[] table : RUN_TABLES) {
+          String sql = "INSERT INTO " + table[0] + " (run_id, " + table[1] + ") "
+              + "SELECT ?, " + table[1] + " FROM " + table[0] + " WHERE run_id = ?";
+          try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, target.getRunId());
+            stmt.setInt(2, source.getRunId());
+            stmt.executeUpdate();
+          }
+        }
+        conn.commit();
+        return target;
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      System.err.println("Error cloning run " + source.getRunId() + ": " + e.getMessage());
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Deletes a run and all of its data. The rows of the run are deleted by the database together
+   * with the run. The default run cannot be deleted.
+   *
+   * @param run the run to delete
+   * @return true if the run was deleted, false otherwise
+   * @author mian
+   */
+  public boolean deleteRun(RunContext run) {
+    if (RunContext.DEFAULT.equals(run)) {
+      System.err.println("The default run cannot be deleted");
+      return false;
+    }
+
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement stmt = conn.prepareStatement("DELETE FROM runs WHERE id = ?")) {
+      stmt.setInt(1, run.getRunId());
+      return stmt.executeUpdate() > 0;
+    } catch (SQLException e) {
+      System.err.println("Error deleting run " + run.getRunId() + ": " + e.getMessage());
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Lists all runs in the order they were created.
+   *
+   * @return list of runs
+   * @author mian
+   */
+  public List<RunContext> listRuns() {
+    List<RunContext> runs = new ArrayList<>();
+
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT id, name FROM runs ORDER BY id")) {
+      while (rs.next()) {
+        runs.add(new RunContext(rs.getInt("id"), rs.getString("name")));
+      }
+    } catch (SQLException e) {
+      System.err.println("Error loading runs: " + e.getMessage());
+      e.printStackTrace();
+    }
+
+    return runs;
+  }
+
+  /**
+   * Inserts a run row and returns it with its generated id.
+   *
+   * @author mian
+   */
+  private RunContext insertRun(Connection conn, String name) throws SQLException {
+    try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO runs (name) VALUES (?)",
+        Statement.RETURN_GENERATED_KEYS)) {
+      stmt.setString(1, name);
+      stmt.executeUpdate();
+      try (ResultSet keys = stmt.getGeneratedKeys()) {
+        if (!keys.next()) {
+          throw new SQLException("No id generated for run " + name);
+        }
+        return new RunContext(keys.getInt(1), name);
+      }
+    }
+  }
+}
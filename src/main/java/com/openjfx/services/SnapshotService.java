@@ -0,0 +1,636 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for exporting a complete scheduling run to a compact binary snapshot file and restoring
+ * it into the database.
+ *
+ * <p>The snapshot covers events, rooms, time slots and choices, plus every run with its student
+ * and timetable assignments, workshop demand and fulfillment scores. All strings are stored once
+ * in a dictionary and referenced by index; integers are stored as zigzag varints, and timestamps
+ * as seconds plus nanoseconds so that they are restored exactly. Files are written through a {@link
+ * FileChannel} and read back from a memory-mapped buffer, and a restore replaces all tables in a
+ * single transaction.</p>
+ *
+ * <p>File layout:</p>
+ * <pre>
+ *   magic "BOTSNAP" + version byte
+ *   varint string count, then per string: varint byte length + UTF-8 bytes
+ *   varint table count, then per table:
+ *     varint name index, varint column count, varint column name indexes
+ *     varint row count, then the row values column by column type
+ * </pre>
+ *
+ * @author mian
+ */
+public class SnapshotService {
+
+  /**
+   * Column value encodings used in the snapshot.
+   */
+  enum ColumnType {
+    INT, STRING, DOUBLE, TIMESTAMP
+  }
+
+  /**
+   * Describes the columns of one table included in the snapshot.
+   */
+  static class TableSpec {
+
+    private final String name;
+    private final String[] columns;
+    private final ColumnType[] types;
+    private final boolean identity;
+
+    TableSpec(String name, boolean identity, Object... columnsAndTypes) {
+      this.name = name;
+      this.identity = identity;
+      this.columns = new String[columnsAndTypes.length / 2];
+      this.types = new ColumnType[columnsAndTypes.length / 2];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = (String) columnsAndTypes[2 * i];
+        types[i] = (ColumnType) columnsAndTypes[2 * i + 1];
+      }
+    }
+  }
+
+  private static final byte[] MAGIC = "BOTSNAP".getBytes(StandardCharsets.US_ASCII);
+  private static final byte VERSION = 3;
+
+  /**
+   * Last version that stored timestamps as epoch milliseconds; such files can still be restored.
+   */
+  private static final byte MILLIS_VERSION = 2;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Tables in foreign key order; restore inserts in this order and deletes in reverse.
+   */
+  private static final List<TableSpec> TABLES = List.of(
+      new TableSpec("runs", true,
+          "id", ColumnType.INT, "name", ColumnType.STRING, "created_at", ColumnType.TIMESTAMP),
+      new TableSpec("events", false,
+          "id", ColumnType.INT, "company", ColumnType.STRING, "subject", ColumnType.STRING,
+          "max_participants", ColumnType.INT, "min_participants", ColumnType.INT,
+          "earliest_start", ColumnType.STRING),
+      new TableSpec("rooms", false,
+          "name", ColumnType.STRING, "capacity", ColumnType.INT),
+      new TableSpec("timeslots", true,
+          "id", ColumnType.INT, "start_time", ColumnType.STRING, "end_time", ColumnType.STRING,
+          "slot", ColumnType.STRING),
+      new TableSpec("choices", true,
+          "id", ColumnType.INT, "class_ref", ColumnType.STRING, "first_name", ColumnType.STRING,
+          "last_name", ColumnType.STRING, "choice1", ColumnType.STRING,
+          "choice2", ColumnType.STRING, "choice3", ColumnType.STRING,
+          "choice4", ColumnType.STRING, "choice5", ColumnType.STRING,
+          "choice6", ColumnType.STRING),
+      new TableSpec("timetable_assignments", true,
+          "id", ColumnType.INT, "event_id", ColumnType.INT, "room_id", ColumnType.STRING,
+          "time_slot", ColumnType.STRING, "run_id", ColumnType.INT),
+      new TableSpec("student_assignments", true,
+          "id", ColumnType.INT, "event_id", ColumnType.INT, "first_name", ColumnType.STRING,
+          "last_name", ColumnType.STRING, "choice_no", ColumnType.INT,
+          "class_ref", ColumnType.STRING, "time_slot", ColumnType.STRING,
+          "room_id", ColumnType.STRING, "run_id", ColumnType.INT),
+      new TableSpec("workshop_demand", false,
+          "event_id", ColumnType.INT, "demand", ColumnType.INT, "run_id", ColumnType.INT),
+      new TableSpec("fulfillment_scores", true,
+          "id", ColumnType.INT, "student_id", ColumnType.STRING, "class_ref", ColumnType.STRING,
+          "first_name", ColumnType.STRING, "last_name", ColumnType.STRING,
+          "choice1_score", ColumnType.INT, "choice2_score", ColumnType.INT,
+          "choice3_score", ColumnType.INT, "choice4_score", ColumnType.INT,
+          "choice5_score", ColumnType.INT, "choice6_score", ColumnType.INT,
+          "student_total_score", ColumnType.INT, "calculation_timestamp", ColumnType.TIMESTAMP,
+          "overall_fulfillment_percentage", ColumnType.DOUBLE, "total_students", ColumnType.INT,
+          "total_score", ColumnType.INT, "max_possible_score", ColumnType.DOUBLE,
+          "run_id", ColumnType.INT)
+  );
+
+  /**
+   * Writes the shared tables and the run-scoped rows of every run to a snapshot file.
+   *
+   * @param path the file to write, overwritten if it exists
+   * @return map of table names to the number of rows written
+   * @throws IOException  if the file cannot be written
+   * @throws SQLException if the database cannot be read
+   * @author mian
+   */
+  public Map<String, Integer> exportSnapshot(Path path) throws IOException, SQLException {
+    Map<String, List<Object[]>> data = new LinkedHashMap<>();
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      for (TableSpec table : TABLES) {
+        data.put(table.name, readTable(conn, table));
+      }
+    }
+
+    Map<String, Integer> counts = writeSnapshot(path, data);
+    System.out.println("Snapshot written to " + path + ": " + counts);
+    return counts;
+  }
+
+  /**
+   * Encodes rows per table into a snapshot file without touching the database. Tables missing
+   * from {@code data} are written as empty.
+   *
+   * @param path the file to write, overwritten if it exists
+   * @param data map of table names to their rows, values ordered as in the table spec
+   * @return map of table names to the number of rows written
+   * @throws IOException if the file cannot be written
+   * @author mian
+   */
+  Map<String, Integer> writeSnapshot(Path path, Map<String, List<Object[]>> data)
+      throws IOException {
+    // Build the string dictionary
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    for (TableSpec table : TABLES) {
+      dictionary.putIfAbsent(table.name, dictionary.size());
+      for (String column : table.columns) {
+        dictionary.putIfAbsent(column, dictionary.size());
+      }
+      for (Object[] row : data.getOrDefault(table.name, Collections.emptyList())) {
+        for (int i = 0; i < table.columns.length; i++) {
+          if (table.types[i] == ColumnType.STRING && row[i] != null) {
+            dictionary.putIfAbsent((String) row[i], dictionary.size());
+          }
+        }
+      }
+    }
+
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ChannelWriter out = new ChannelWriter(channel);
+      out.putBytes(MAGIC);
+      out.putByte(VERSION);
+
+      out.putVarint(dictionary.size());
+      for (String value : dictionary.keySet()) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putVarint(bytes.length);
+        out.putBytes(bytes);
+      }
+
+      out.putVarint(TABLES.size());
+      for (TableSpec table : TABLES) {
+        List<Object[]> rows = data.getOrDefault(table.name, Collections.emptyList());
+        out.putVarint(dictionary.get(table.name));
+        out.putVarint(table.columns.length);
+        for (String column : table.columns) {
+          out.putVarint(dictionary.get(column));
+        }
+        out.putVarint(rows.size());
+        for (Object[] row : rows) {
+          for (int i = 0; i < table.columns.length; i++) {
+            writeValue(out, table.types[i], row[i], dictionary);
+          }
+        }
+        counts.put(table.name, rows.size());
+      }
+      out.flush();
+    }
+    return counts;
+  }
+
+  /**
+   * Replaces the contents of all snapshot tables with the data from a snapshot file. The file is
+   * memory-mapped and decoded in one pass; all tables are replaced in a single transaction, so a
+   * failed restore leaves the database unchanged.
+   *
+   * @param path the snapshot file to read
+   * @return map of table names to the number of rows restored
+   * @throws IOException  if the file cannot be read or is not a valid snapshot
+   * @throws SQLException if the database cannot be written
+   * @author mian
+   */
+  public Map<String, Integer> importSnapshot(Path path) throws IOException, SQLException {
+    Map<String, List<Object[]>> data = readSnapshot(path);
+
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (Statement stmt = conn.createStatement()) {
+          for (int i = TABLES.size() - 1; i >= 0; i--) {
+            stmt.executeUpdate("DELETE FROM " + TABLES.get(i).name);
+          }
+        }
+
+        for (TableSpec table : TABLES) {
+          List<Object[]> rows = data.getOrDefault(table.name, new ArrayList<>());
+          insertRows(conn, table, rows);
+          counts.put(table.name, rows.size());
+        }
+        // The event ids of the choices are not part of the snapshot
+        ChoiceService.linkEventIds(conn);
+
+        try (Statement stmt = conn.createStatement()) {
+          for (TableSpec table : TABLES) {
+            if (table.identity) {
+              restartIdentity(stmt, table.name);
+            }
+          }
+        }
+
+        conn.commit();
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+
+    System.out.println("Snapshot restored from " + path + ": " + counts);
+    return counts;
+  }
+
+  /**
+   * Decodes a snapshot file into rows per table without touching the database.
+   *
+   * @param path the snapshot file to read
+   * @return map of table names to their rows, values ordered as in the table spec
+   * @throws IOException if the file cannot be read or is not a valid snapshot
+   * @author mian
+   */
+  Map<String, List<Object[]>> readSnapshot(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      try {
+        return decode(in);
+      } catch (RuntimeException e) {
+        throw new IOException("Invalid snapshot file: " + path, e);
+      }
+    }
+  }
+
+  /**
+   * Decodes the snapshot contained in the given buffer.
+   *
+   * @author mian
+   */
+  private Map<String, List<Object[]>> decode(ByteBuffer in) throws IOException {
+    byte[] magic = new byte[MAGIC.length];
+    in.get(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a snapshot file");
+    }
+    byte version = in.get();
+    if (version != VERSION && version != MILLIS_VERSION) {
+      throw new IOException("Unsupported snapshot version: " + version);
+    }
+
+    String[] dictionary = new String[getVarint(in)];
+    for (int i = 0; i < dictionary.length; i++) {
+      byte[] bytes = new byte[getVarint(in)];
+      in.get(bytes);
+      dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Map<String, TableSpec> specs = new HashMap<>();
+    for (TableSpec table : TABLES) {
+      specs.put(table.name, table);
+    }
+
+    Map<String, List<Object[]>> data = new LinkedHashMap<>();
+    int tableCount = getVarint(in);
+    for (int t = 0; t < tableCount; t++) {
+      String name = dictionary[getVarint(in)];
+      TableSpec table = specs.get(name);
+      if (table == null) {
+        throw new IOException("Unknown table in snapshot: " + name);
+      }
+
+      int columnCount = getVarint(in);
+      if (columnCount != table.columns.length) {
+        throw new IOException("Column count mismatch for table " + name);
+      }
+      for (int i = 0; i < columnCount; i++) {
+        String column = dictionary[getVarint(in)];
+        if (!column.equals(table.columns[i])) {
+          throw new IOException("Unexpected column " + column + " in table " + name);
+        }
+      }
+
+      int rowCount = getVarint(in);
+      List<Object[]> rows = new ArrayList<>(rowCount);
+      for (int r = 0; r < rowCount; r++) {
+        Object[] row = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+          row[i] = readValue(in, table.types[i], dictionary, version);
+        }
+        rows.add(row);
+      }
+      data.put(name, rows);
+    }
+    return data;
+  }
+
+  /**
+   * Reads all rows of a table in column order.
+   *
+   * @author mian
+   */
+  private List<Object[]> readTable(Connection conn, TableSpec table) throws SQLException {
+    String sql = "SELECT " + String.join(", ", table.columns) + " FROM " + table.name
+        + " ORDER BY " + table.columns[0];
+    List<Object[]> rows = new ArrayList<>();
+
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      while (rs.next()) {
+        Object[] row = new Object[table.columns.length];
+        for (int i = 0; i < row.length; i++) {
+          switch (table.types[i]) {
+            case INT:
+              int intValue = rs.getInt(i + 1);
+              row[i] = rs.wasNull() ? null : intValue;
+              break;
+            case DOUBLE:
+              double doubleValue = rs.getDouble(i + 1);
+              row[i] = rs.wasNull() ? null : doubleValue;
+              break;
+            case TIMESTAMP:
+              Timestamp timestamp = rs.getTimestamp(i + 1);
+              row[i] = timestamp == null ? null : timestamp.toLocalDateTime();
+              break;
+            default:
+              row[i] = rs.getString(i + 1);
+          }
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Inserts rows into a table as one JDBC batch.
+   *
+   * @author mian
+   */
+  private void insertRows(Connection conn, TableSpec table, List<Object[]> rows)
+      throws SQLException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    String placeholders = String.join(", ", Collections.nCopies(table.columns.length, "?"));
+    String sql = "INSERT INTO " + table.name + " (" + String.join(", ", table.columns)
+        + ") VALUES (" + placeholders + ")";
+
+    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+      for (Object[] row : rows) {
+        for (int i = 0; i < row.length; i++) {
+          bindValue(stmt, i + 1, table.types[i], row[i]);
+        }
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
+    }
+  }
+
+  /**
+   * Moves the identity sequence of a table past the restored ids so later inserts don't collide.
+   *
+   * @author mian
+   */
+  private void restartIdentity(Statement stmt, String tableName) throws SQLException {
+    int next = 1;
+    try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tableName)) {
+      if (rs.next()) {
+        next = rs.getInt(1);
+      }
+    }
+    stmt.execute("ALTER TABLE " + tableName + " ALTER COLUMN id RESTART WITH " + next);
+  }
+
+  /**
+   * Binds a decoded value to a statement parameter.
+   *
+   * @author mian
+   */
+  private void bindValue(PreparedStatement stmt, int index, ColumnType type, Object value)
+      throws SQLException {
+    switch (type) {
+      case INT:
+        if (value == null) {
+          stmt.setNull(index, Types.INTEGER);
+        } else {
+          stmt.setInt(index, (Integer) value);
+        }
+        break;
+      case DOUBLE:
+        if (value == null) {
+          stmt.setNull(index, Types.DOUBLE);
+        } else {
+          stmt.setDouble(index, (Double) value);
+        }
+        break;
+      case TIMESTAMP:
+        if (value == null) {
+          stmt.setNull(index, Types.TIMESTAMP);
+        } else {
+          stmt.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+        }
+        break;
+      default:
+        stmt.setString(index, (String) value);
+    }
+  }
+
+  /**
+   * Encodes a single value. Integers, strings and timestamps use a nullable varint where 0 stands
+   * for null; a timestamp stores its epoch seconds that way, followed by a varint of its
+   * nanoseconds. Doubles are prefixed by a presence byte.
+   *
+   * @author mian
+   */
+  private void writeValue(ChannelWriter out, ColumnType type, Object value,
+      Map<String, Integer> dictionary) throws IOException {
+    switch (type) {
+      case INT:
+        out.putNullableLong(value == null ? null : ((Integer) value).longValue());
+        break;
+      case STRING:
+        out.putVarint(value == null ? 0 : dictionary.get(value) + 1);
+        break;
+      case DOUBLE:
+        if (value == null) {
+          out.putByte((byte) 0);
+        } else {
+          out.putByte((byte) 1);
+          out.putLong(Double.doubleToLongBits((Double) value));
+        }
+        break;
+      case TIMESTAMP:
+        if (value == null) {
+          out.putNullableLong(null);
+        } else {
+          LocalDateTime time = (LocalDateTime) value;
+          out.putNullableLong(time.toEpochSecond(ZoneOffset.UTC));
+          out.putVarint(time.getNano());
+        }
+        break;
+    }
+  }
+
+  /**
+   * Decodes a single value written by {@link #writeValue}, or by a version that stored timestamps
+   * as milliseconds.
+   *
+   * @author mian
+   */
+  private Object readValue(ByteBuffer in, ColumnType type, String[] dictionary, byte version) {
+    switch (type) {
+      case INT:
+        Long intValue = getNullableLong(in);
+        return intValue == null ? null : intValue.intValue();
+      case STRING:
+        int index = getVarint(in);
+        return index == 0 ? null : dictionary[index - 1];
+      case DOUBLE:
+        return in.get() == 0 ? null : Double.longBitsToDouble(in.getLong());
+      case TIMESTAMP:
+        Long time = getNullableLong(in);
+        if (time == null) {
+          return null;
+        }
+        if (version == MILLIS_VERSION) {
+          return LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1000),
+              Math.floorMod(time, 1000) * 1_000_000, ZoneOffset.UTC);
+        }
+        return LocalDateTime.ofEpochSecond(time, getVarint(in), ZoneOffset.UTC);
+      default:
+        throw new IllegalStateException("Unknown column type: " + type);
+    }
+  }
+
+  /**
+   * Reads an unsigned LEB128 varint.
+   *
+   * @author mian
+   */
+  private static int getVarint(ByteBuffer in) {
+    return (int) getVarlong(in);
+  }
+
+  /**
+   * Reads an unsigned LEB128 varlong.
+   *
+   * @author mian
+   */
+  private static long getVarlong(ByteBuffer in) {
+    long result = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      result |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return result;
+  }
+
+  /**
+   * Reads a nullable zigzag-encoded varlong (0 means null).
+   *
+   * @author mian
+   */
+  private static Long getNullableLong(ByteBuffer in) {
+    long raw = getVarlong(in);
+    if (raw == 0) {
+      return null;
+    }
+    long zigzag = raw - 1;
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+
+  /**
+   * Buffered writer that encodes primitives into a reusable buffer and drains it to a channel.
+   */
+  private static class ChannelWriter {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    ChannelWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void putByte(byte b) throws IOException {
+      ensure(1);
+      buffer.put(b);
+    }
+
+    void putLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    void putVarint(long value) throws IOException {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer.put((byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.put((byte) value);
+    }
+
+    void putNullableLong(Long value) throws IOException {
+      if (value == null) {
+        putVarint(0);
+      } else {
+        putVarint(((value << 1) ^ (value >> 63)) + 1);
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+  }
+}
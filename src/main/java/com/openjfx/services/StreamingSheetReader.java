@@ -0,0 +1,153 @@
+package com.openjfx.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads the sheets of an .xlsx file with POI's SAX based event model. Only the shared string
+ * table is kept in memory; each sheet is parsed element by element and every row is handed to the
+ * consumer as soon as it is complete, so the memory used does not grow with the number of rows.
+ * The package is opened once, however many sheets are read.
+ *
+ * @author mian
+ */
+class StreamingSheetReader {
+
+  private final File file;
+  private final ExcelService.SheetConsumer sheetConsumer;
+  private final boolean firstSheetOnly;
+
+  /**
+   * Creates a reader for the first sheet of the given file.
+   *
+   * @param file     the .xlsx file
+   * @param consumer receives the header and data rows
+   * @author mian
+   */
+  StreamingSheetReader(File file, ExcelService.RowConsumer consumer) {
+    this.file = file;
+    this.sheetConsumer = sheetName -> consumer;
+    this.firstSheetOnly = true;
+  }
+
+  /**
+   * Creates a reader for all sheets of the given file.
+   *
+   * @param file          the .xlsx file
+   * @param sheetConsumer chooses the row consumer of each sheet
+   * @author mian
+   */
+  StreamingSheetReader(File file, ExcelService.SheetConsumer sheetConsumer) {
+    this.file = file;
+    this.sheetConsumer = sheetConsumer;
+    this.firstSheetOnly = false;
+  }
+
+  /**
+   * Parses the sheets in workbook order and pushes their rows to the consumers.
+   *
+   * @throws IOException if the file cannot be read or is not a valid .xlsx file
+   * @author mian
+   */
+  void read() throws IOException {
+    try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+      XSSFReader reader = new XSSFReader(pkg);
+      ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+      StylesTable styles = reader.getStylesTable();
+
+      DataFormatter formatter = new DataFormatter();
+      XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+      while (sheets.hasNext()) {
+        try (InputStream sheet = sheets.next()) {
+          ExcelService.RowConsumer consumer = sheetConsumer.sheet(sheets.getSheetName());
+          if (consumer != null) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                new RowCollector(consumer), formatter, false));
+            parser.parse(new InputSource(sheet));
+          }
+        }
+        if (firstSheetOnly) {
+          return;
+        }
+      }
+    } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+      throw new IOException("Error reading Excel file " + file.getName() + ": " + e.getMessage(),
+          e);
+    }
+  }
+
+  /**
+   * Collects the cells of the current row into an array indexed by column and emits the row when
+   * it ends. The first row is emitted as the header and fixes the number of columns; the data rows
+   * share one reused array.
+   */
+  private static final class RowCollector implements SheetContentsHandler {
+
+    private final ExcelService.RowConsumer consumer;
+    private String[] headers;
+    private String[] values = new String[16];
+    private int width;
+    private int rowNumber;
+    private int nextColumn;
+
+    RowCollector(ExcelService.RowConsumer consumer) {
+      this.consumer = consumer;
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+      rowNumber = rowNum + 1;
+      nextColumn = 0;
+      width = 0;
+      Arrays.fill(values, "");
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+      if (headers == null) {
+        headers = Arrays.copyOf(values, width);
+        values = new String[Math.max(headers.length, 1)];
+        consumer.headers(headers.clone());
+        return;
+      }
+      consumer.row(rowNumber, values);
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+      int column = cellReference != null
+          ? new CellReference(cellReference).getCol() : nextColumn;
+      nextColumn = column + 1;
+
+      if (headers == null) {
+        if (column >= values.length) {
+          values = Arrays.copyOf(values, Math.max(column + 1, values.length * 2));
+          Arrays.fill(values, width, values.length, "");
+        }
+      } else if (column >= headers.length) {
+        return;
+      }
+      values[column] = formattedValue != null ? formattedValue.trim() : "";
+      width = Math.max(width, column + 1);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.openjfx.services;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Creates and writes the workbooks of the Excel exports. The workbooks stream their rows: only a
+ * window of the most recently created rows is kept in memory, older rows are flushed to a
+ * compressed temporary file. An export therefore needs about the same memory for one class as for
+ * the whole school.
+ *
+ * <p>Flushed rows cannot be read any more, so {@link Sheet#autoSizeColumn(int)} does not work on
+ * these workbooks. Exports record the values of each column with {@link ColumnWidthEstimator} while
+ * they write the rows and set the column widths once at the end.</p>
+ *
+ * @author mian
+ */
+public final class StreamingWorkbook {
+
+  /**
+   * Number of rows kept in memory per sheet. Rows above the window are flushed to disk; an export
+   * can still access the rows it has just written, e.g. to style a cell of the previous row.
+   *
+   * @author mian
+   */
+  public static final int ROW_WINDOW = 100;
+
+  private StreamingWorkbook() {
+  }
+
+  /**
+   * Creates an empty streaming workbook. The temporary files are compressed, and strings are
+   * written inline instead of into a shared strings table that would grow with the export. The
+   * temporary files are deleted when the workbook is closed, so callers create it in a
+   * try-with-resources statement.
+   *
+   * @return the new workbook
+   * @author mian
+   */
+  public static SXSSFWorkbook create() {
+    return new SXSSFWorkbook(null, ROW_WINDOW, true, false);
+  }
+
+  /**
+   * Writes a streaming workbook to a file.
+   *
+   * @param workbook the workbook to write
+   * @param filePath the path of the Excel file, overwritten if it exists
+   * @throws IOException if the file cannot be written
+   * @author mian
+   */
+  public static void write(SXSSFWorkbook workbook, String filePath) throws IOException {
+    try (FileOutputStream out = new FileOutputStream(filePath)) {
+      write(workbook, out);
+    }
+  }
+
+  /**
+   * Writes a streaming workbook to a stream. The stream is not closed.
+   *
+   * @param workbook the workbook to write
+   * @param out      the stream to write to
+   * @throws IOException if the workbook cannot be written
+   * @author mian
+   */
+  public static void write(SXSSFWorkbook workbook, OutputStream out) throws IOException {
+    workbook.write(out);
+  }
+}
@@ -3,12 +3,12 @@ package com.openjfx.services;
 import com.openjfx.config.DatabaseConfig;
 import com.openjfx.models.Choice;
 import com.openjfx.models.Event;
+import com.openjfx.models.RunContext;
 import com.openjfx.models.StudentAssignment;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -26,9 +26,31 @@ import java.util.Set;
 public class StudentAssignmentService {
 
   private Map<String, Map<Integer, Integer>> studentEventChoiceNumbers;
+  private final RunContext runContext;
 
   public StudentAssignmentService() {
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Creates a service that reads and writes the assignments of the given run.
+   *
+   * @param runContext the run to work on
+   * @author mian
+   */
+  public StudentAssignmentService(RunContext runContext) {
     this.studentEventChoiceNumbers = new HashMap<>();
+    this.runContext = runContext;
+  }
+
+  /**
+   * Returns the run this service works on.
+   *
+   * @return the run context
+   * @author mian
+   */
+  public RunContext getRunContext() {
+    return runContext;
   }
 
   /**
@@ -46,6 +68,7 @@ public class StudentAssignmentService {
     Map<String, Integer> studentAssignmentCount = new HashMap<>();
     Map<String, Set<Integer>> studentAssignedEvents = new HashMap<>();
 
+    Map<Integer, Event> eventsById = mapEventsById(events);
     initializeEventSlots(assignments, events);
     for (Choice choice : choices) {
       String studentId =
@@ -59,15 +82,12 @@ public class StudentAssignmentService {
     for (Choice choice : choices) {
       String studentId =
           choice.getFirstName() + "_" + choice.getLastName() + "_" + choice.getClassRef();
-      String firstChoice = choice.getChoice1();
-      if (!firstChoice.isEmpty()) {
-        Event event = findEventByChoice(firstChoice, events);
-        if (event != null) {
-          assignments.get(event.getId()).add(choice);
-          studentAssignmentCount.put(studentId, 1);
-          studentAssignedEvents.get(studentId).add(event.getId());
-          studentEventChoiceNumbers.get(studentId).put(event.getId(), 1);
-        }
+      Event event = findEventByChoice(choice, 1, eventsById);
+      if (event != null) {
+        assignments.get(event.getId()).add(choice);
+        studentAssignmentCount.put(studentId, 1);
+        studentAssignedEvents.get(studentId).add(event.getId());
+        studentEventChoiceNumbers.get(studentId).put(event.getId(), 1);
       }
     }
 
@@ -77,12 +97,9 @@ public class StudentAssignmentService {
       String studentId =
           choice.getFirstName() + "_" + choice.getLastName() + "_" + choice.getClassRef();
       for (int priority = 2; priority <= 6; priority++) {
-        String choiceStr = getChoiceByPriority(choice, priority);
-        if (!choiceStr.isEmpty()) {
-          Event event = findEventByChoice(choiceStr, events);
-          if (event != null) {
-            allChoices.add(new StudentChoicePriority(studentId, choice, event.getId(), priority));
-          }
+        Event event = findEventByChoice(choice, priority, eventsById);
+        if (event != null) {
+          allChoices.add(new StudentChoicePriority(studentId, choice, event.getId(), priority));
         }
       }
     }
@@ -117,12 +134,9 @@ public class StudentAssignmentService {
 
       List<EventPriority> remainingChoices = new ArrayList<>();
       for (int priority = 2; priority <= 6; priority++) {
-        String choiceStr = getChoiceByPriority(choice, priority);
-        if (!choiceStr.isEmpty()) {
-          Event event = findEventByChoice(choiceStr, events);
-          if (event != null && !studentAssignedEvents.get(studentId).contains(event.getId())) {
-            remainingChoices.add(new EventPriority(event, priority));
-          }
+        Event event = findEventByChoice(choice, priority, eventsById);
+        if (event != null && !studentAssignedEvents.get(studentId).contains(event.getId())) {
+          remainingChoices.add(new EventPriority(event, priority));
         }
       }
 
@@ -225,13 +239,9 @@ public class StudentAssignmentService {
    */
   private void assignFirstChoices(Map<Integer, List<Choice>> assignments, List<Choice> choices,
       List<Event> events) {
+    Map<Integer, Event> eventsById = mapEventsById(events);
     for (Choice choice : choices) {
-      String firstChoice = choice.getChoice1();
-      if (firstChoice.isEmpty()) {
-        continue;
-      }
-
-      Event event = findEventByChoice(firstChoice, events);
+      Event event = findEventByChoice(choice, 1, eventsById);
       if (event == null) {
         continue;
       }
@@ -249,14 +259,10 @@ public class StudentAssignmentService {
    */
   private void assignRemainingChoices(Map<Integer, List<Choice>> assignments, List<Choice> choices,
       List<Event> events) {
+    Map<Integer, Event> eventsById = mapEventsById(events);
     for (int priority = 2; priority <= 6; priority++) {
       for (Choice choice : choices) {
-        String choiceStr = getChoiceByPriority(choice, priority);
-        if (choiceStr.isEmpty()) {
-          continue;
-        }
-
-        Event event = findEventByChoice(choiceStr, events);
+        Event event = findEventByChoice(choice, priority, eventsById);
         if (event == null) {
           continue;
         }
@@ -270,20 +276,26 @@ public class StudentAssignmentService {
   }
 
   /**
-   * Finds an event by the choice string provided.
+   * Finds the event a choice of the given priority was resolved to at import.
+   *
+   * @return the event, or null if the choice names none of the given events
+   * @author mian
+   */
+  private Event findEventByChoice(Choice choice, int priority, Map<Integer, Event> eventsById) {
+    return eventsById.get(choice.getChoiceEventId(priority));
+  }
+
+  /**
+   * Indexes the events by their id.
    *
    * @author mian
    */
-  private Event findEventByChoice(String choice, List<Event> events) {
-    try {
-      int eventId = Integer.parseInt(choice.replaceAll("[^0-9]", ""));
-      return events.stream()
-          .filter(e -> e.getId() == eventId)
-          .findFirst()
-          .orElse(null);
-    } catch (NumberFormatException e) {
-      return null;
+  private Map<Integer, Event> mapEventsById(List<Event> events) {
+    Map<Integer, Event> eventsById = new HashMap<>();
+    for (Event event : events) {
+      eventsById.put(event.getId(), event);
     }
+    return eventsById;
   }
 
   /**
@@ -306,28 +318,6 @@ public class StudentAssignmentService {
     return assignments.get(event.getId()).contains(student);
   }
 
-  /**
-   * Returns the choice string based on the priority provided.
-   */
-  private String getChoiceByPriority(Choice choice, int priority) {
-    switch (priority) {
-      case 1:
-        return choice.getChoice1();
-      case 2:
-        return choice.getChoice2();
-      case 3:
-        return choice.getChoice3();
-      case 4:
-        return choice.getChoice4();
-      case 5:
-        return choice.getChoice5();
-      case 6:
-        return choice.getChoice6();
-      default:
-        return "";
-    }
-  }
-
   /**
    * Saves the student assignments to the database.
    *
@@ -336,46 +326,103 @@ public class StudentAssignmentService {
    * @author mian
    */
   public boolean saveAssignmentsToDatabase(Map<Integer, List<Choice>> assignments) {
-    String sql = "INSERT INTO student_assignments (event_id, first_name, last_name, class_ref, choice_no) VALUES (?, ?, ?, ?, ?)";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql)) {
+    WriteBehindPersister.PersistTask writer = createAssignmentsWriter(assignments);
 
+    try (Connection conn = DatabaseConfig.getConnection()) {
       conn.setAutoCommit(false);
-
-      // Clear existing assignments first
-      try (Statement clearStmt = conn.createStatement()) {
-        clearStmt.execute("DELETE FROM student_assignments");
+      try {
+        writer.persist(conn);
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
       }
+      return true;
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
 
-      for (Map.Entry<Integer, List<Choice>> entry : assignments.entrySet()) {
-        int eventId = entry.getKey();
-        List<Choice> students = entry.getValue();
-
-        for (Choice student : students) {
-          stmt.setInt(1, eventId);
-          stmt.setString(2, student.getFirstName());
-          stmt.setString(3, student.getLastName());
-          stmt.setString(4, student.getClassRef());
+  /**
+   * Creates a writer that replaces the stored student assignments with the given ones. The rows,
+   * including the choice numbers of the last assignment run, are captured when this method is
+   * called, so the writer can run later on another thread.
+   *
+   * @param assignments Map of event IDs to assigned student choices
+   * @return a task that writes the assignments using the caller's transaction
+   * @author mian
+   */
+  public WriteBehindPersister.PersistTask createAssignmentsWriter(
+      Map<Integer, List<Choice>> assignments) {
+    List<Object[]> rows = new ArrayList<>();
+    for (Map.Entry<Integer, List<Choice>> entry : assignments.entrySet()) {
+      int eventId = entry.getKey();
+
+      for (Choice student : entry.getValue()) {
+        // Determine choice number
+        String studentId =
+            student.getFirstName() + "_" + student.getLastName() + "_" + student.getClassRef();
+        int choiceNo = studentEventChoiceNumbers.getOrDefault(studentId, new HashMap<>())
+            .getOrDefault(eventId, 0);
+        rows.add(new Object[]{eventId, student.getFirstName(), student.getLastName(),
+            student.getClassRef(), choiceNo});
+      }
+    }
 
-          // Determine choice number
-          String studentId =
-              student.getFirstName() + "_" + student.getLastName() + "_" + student.getClassRef();
-          int choiceNo = studentEventChoiceNumbers.getOrDefault(studentId, new HashMap<>())
-              .getOrDefault(eventId, 0);
-          stmt.setInt(5, choiceNo);
+    int runId = runContext.getRunId();
+    String sql = "INSERT INTO student_assignments (run_id, event_id, first_name, last_name, class_ref, choice_no) VALUES (?, ?, ?, ?, ?, ?)";
+    return conn -> {
+      // Clear existing assignments of this run first
+      try (PreparedStatement clearStmt = conn.prepareStatement(
+          "DELETE FROM student_assignments WHERE run_id = ?")) {
+        clearStmt.setInt(1, runId);
+        clearStmt.executeUpdate();
+      }
 
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        for (Object[] row : rows) {
+          stmt.setInt(1, runId);
+          stmt.setInt(2, (Integer) row[0]);
+          stmt.setString(3, (String) row[1]);
+          stmt.setString(4, (String) row[2]);
+          stmt.setString(5, (String) row[3]);
+          stmt.setInt(6, (Integer) row[4]);
           stmt.addBatch();
         }
+        stmt.executeBatch();
       }
+    };
+  }
 
-      stmt.executeBatch();
-      conn.commit();
-      return true;
-    } catch (SQLException e) {
-      e.printStackTrace();
-      return false;
+  /**
+   * Converts in-memory assignments to the same shape as {@link #getAssignmentsAsMap()}, where
+   * {@code choice1} of every entry holds the assigned event ID. Lets later stages continue from
+   * the computed result without reading it back from the database.
+   *
+   * @param assignments Map of event IDs to assigned student choices
+   * @return map of event IDs to their assigned choices
+   * @author mian
+   */
+  public Map<Integer, List<Choice>> toAssignmentMap(Map<Integer, List<Choice>> assignments) {
+    Map<Integer, List<Choice>> assignmentMap = new HashMap<>();
+
+    for (Map.Entry<Integer, List<Choice>> entry : assignments.entrySet()) {
+      for (Choice student : entry.getValue()) {
+        Choice choice = new Choice();
+        choice.setFirstName(student.getFirstName());
+        choice.setLastName(student.getLastName());
+        choice.setClassRef(student.getClassRef());
+        choice.setChoice1(String.valueOf(entry.getKey()));
+        choice.setChoiceEventId(1, entry.getKey());
+
+        assignmentMap
+            .computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+            .add(choice);
+      }
     }
+
+    return assignmentMap;
   }
 
   /**
@@ -389,13 +436,15 @@ public class StudentAssignmentService {
         "SELECT sa.event_id, sa.first_name, sa.last_name, sa.class_ref, " +
             "e.company, e.subject, sa.time_slot, sa.room_id, sa.choice_no " +
             "FROM student_assignments sa " +
-            "JOIN events e ON sa.event_id = e.id";
+            "JOIN events e ON sa.event_id = e.id " +
+            "WHERE sa.run_id = ?";
 
     List<StudentAssignment> assignments = new ArrayList<>();
 
     try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(sql)) {
+        PreparedStatement stmt = conn.prepareStatement(sql)) {
+      stmt.setInt(1, runContext.getRunId());
+      ResultSet rs = stmt.executeQuery();
 
       while (rs.next()) {
         StudentAssignment assignment = new StudentAssignment(
@@ -435,6 +484,7 @@ public class StudentAssignmentService {
       choice.setLastName(assignment.getLastName());
       choice.setClassRef(assignment.getClassRef());
       choice.setChoice1(String.valueOf(assignment.getEventId()));
+      choice.setChoiceEventId(1, assignment.getEventId());
 
       assignmentMap
           .computeIfAbsent(assignment.getEventId(), k -> new ArrayList<>())
@@ -3,6 +3,7 @@ package com.openjfx.services;
 import com.openjfx.config.DatabaseConfig;
 import com.openjfx.models.Event;
 import com.openjfx.models.EventRoomAssignment;
+import com.openjfx.models.RunContext;
 import com.openjfx.models.StudentAssignment;
 import com.openjfx.models.WorkshopDemand;
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ public class StudentTimetableMappingService {
   private final WorkshopDemandService workshopDemandService;
   private final TimetableService timetableService;
   private final EventService eventService;
+  private final RunContext runContext;
 
 
   /**
@@ -37,9 +39,20 @@ public class StudentTimetableMappingService {
    * @author mian
    */
   public StudentTimetableMappingService() {
-    this.studentAssignmentService = new StudentAssignmentService();
-    this.workshopDemandService = new WorkshopDemandService();
-    this.timetableService = new TimetableService();
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Constructs a new StudentTimetableMappingService that works on the given run.
+   *
+   * @param runContext the run to work on
+   * @author mian
+   */
+  public StudentTimetableMappingService(RunContext runContext) {
+    this.runContext = runContext;
+    this.studentAssignmentService = new StudentAssignmentService(runContext);
+    this.workshopDemandService = new WorkshopDemandService(runContext);
+    this.timetableService = new TimetableService(runContext);
     ExcelService excelService = new ExcelService();
     this.eventService = new EventService(excelService);
   }
@@ -221,13 +234,14 @@ public class StudentTimetableMappingService {
   private void clearExistingAssignments(Connection conn, List<StudentAssignment> assignments)
       throws SQLException {
     String sql = "UPDATE student_assignments SET time_slot = NULL, room_id = NULL " +
-        "WHERE first_name = ? AND last_name = ? AND event_id = ?";
+        "WHERE first_name = ? AND last_name = ? AND event_id = ? AND run_id = ?";
 
     try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
       for (StudentAssignment student : assignments) {
         pstmt.setString(1, student.getFirstName());
         pstmt.setString(2, student.getLastName());
         pstmt.setInt(3, student.getEventId());
+        pstmt.setInt(4, runContext.getRunId());
         pstmt.addBatch();
       }
       pstmt.executeBatch();
@@ -277,7 +291,7 @@ public class StudentTimetableMappingService {
       return;
     }
 
-    ConflictResolutionService conflictService = new ConflictResolutionService();
+    ConflictResolutionService conflictService = new ConflictResolutionService(runContext);
     boolean success = conflictService.resolveConflicts();
 
     if (success) {
@@ -297,7 +311,7 @@ public class StudentTimetableMappingService {
   private void updateStudentAssignment(Connection conn, StudentAssignment student,
       String timeSlot, String roomId) throws SQLException {
     String sql = "UPDATE student_assignments SET time_slot = ?, room_id = ? " +
-        "WHERE first_name = ? AND last_name = ? AND event_id = ?";
+        "WHERE first_name = ? AND last_name = ? AND event_id = ? AND run_id = ?";
 
     try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
       pstmt.setString(1, timeSlot);
@@ -305,6 +319,7 @@ public class StudentTimetableMappingService {
       pstmt.setString(3, student.getFirstName());
       pstmt.setString(4, student.getLastName());
       pstmt.setInt(5, student.getEventId());
+      pstmt.setInt(6, runContext.getRunId());
       pstmt.executeUpdate();
     }
   }
@@ -343,7 +358,7 @@ public class StudentTimetableMappingService {
    * @author mian
    */
   public boolean resolveUnassignedStudentConflicts() {
-    ConflictResolutionService resolutionService = new ConflictResolutionService();
+    ConflictResolutionService resolutionService = new ConflictResolutionService(runContext);
     boolean resolved = resolutionService.resolveConflicts();
 
     if (resolved) {
@@ -534,12 +549,13 @@ public class StudentTimetableMappingService {
    */
   private void clearAssignment(Connection conn, StudentAssignment assignment) throws SQLException {
     String sql = "UPDATE student_assignments SET time_slot = NULL, room_id = NULL " +
-        "WHERE first_name = ? AND last_name = ? AND event_id = ?";
+        "WHERE first_name = ? AND last_name = ? AND event_id = ? AND run_id = ?";
 
     try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
       pstmt.setString(1, assignment.getFirstName());
       pstmt.setString(2, assignment.getLastName());
       pstmt.setInt(3, assignment.getEventId());
+      pstmt.setInt(4, runContext.getRunId());
       pstmt.executeUpdate();
     }
   }
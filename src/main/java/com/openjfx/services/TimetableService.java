@@ -9,10 +9,11 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -27,6 +28,27 @@ import java.util.stream.Collectors;
  */
 public class TimetableService {
 
+  private final RunContext runContext;
+
+  /**
+   * Creates a service that works on the default run.
+   *
+   * @author mian
+   */
+  public TimetableService() {
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Creates a service that reads and writes the timetable of the given run.
+   *
+   * @param runContext the run to work on
+   * @author mian
+   */
+  public TimetableService(RunContext runContext) {
+    this.runContext = runContext;
+  }
+
   /**
    * Creates and saves a timetable for events based on room availability and time slots.
    *
@@ -40,16 +62,37 @@ public class TimetableService {
   public Map<String, List<EventRoomAssignment>> createAndSaveTimetable(
       List<Event> events, List<Room> rooms, List<TimeSlot> timeSlots,
       Map<Integer, Integer> workshopsNeeded) {
+    return createAndSaveTimetable(events, rooms, timeSlots, workshopsNeeded, null);
+  }
+
+  /**
+   * Creates a timetable and hands it to the given persister instead of writing it synchronously.
+   *
+   * @param events          list of events
+   * @param rooms           list of rooms
+   * @param timeSlots       list of time slots
+   * @param workshopsNeeded map of event IDs to the number of workshops needed (can be null)
+   * @param persister       write-behind persister, or null to save before returning
+   * @return a map of time slots to the list of event-room assignments
+   * @author mian
+   */
+  public Map<String, List<EventRoomAssignment>> createAndSaveTimetable(
+      List<Event> events, List<Room> rooms, List<TimeSlot> timeSlots,
+      Map<Integer, Integer> workshopsNeeded, WriteBehindPersister persister) {
 
     // If no workshop demand data is provided, load it from the database
     if (workshopsNeeded == null || workshopsNeeded.isEmpty()) {
-      WorkshopDemandService demandService = new WorkshopDemandService();
+      WorkshopDemandService demandService = new WorkshopDemandService(runContext);
       workshopsNeeded = demandService.loadDemandFromDatabase();
     }
 
     Map<String, List<EventRoomAssignment>> timeSlotAssignments = createTimetable(events, rooms,
         timeSlots, workshopsNeeded);
-    saveTimeTableAssignments(timeSlotAssignments);
+    if (persister != null) {
+      persister.submit("timetable assignments", createTimetableWriter(timeSlotAssignments));
+    } else {
+      saveTimeTableAssignments(timeSlotAssignments);
+    }
     printTimetable(timeSlotAssignments, timeSlots);
 
     // Print the timetable with company and subject information
@@ -207,31 +250,57 @@ public class TimetableService {
    */
   private void saveTimeTableAssignments(
       Map<String, List<EventRoomAssignment>> timeSlotAssignments) {
-    String sql = "INSERT INTO timetable_assignments (event_id, room_id, time_slot) VALUES (?, ?, ?)";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    WriteBehindPersister.PersistTask writer = createTimetableWriter(timeSlotAssignments);
 
+    try (Connection conn = DatabaseConfig.getConnection()) {
       conn.setAutoCommit(false);
-
-      for (Map.Entry<String, List<EventRoomAssignment>> entry : timeSlotAssignments.entrySet()) {
-        String timeSlot = entry.getKey();
-        for (EventRoomAssignment assignment : entry.getValue()) {
-          pstmt.setInt(1, assignment.getEvent().getId());
-          pstmt.setString(2, assignment.getRoom().getName());
-          pstmt.setString(3, timeSlot);
-          pstmt.addBatch();
-        }
+      try {
+        writer.persist(conn);
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
       }
-
-      pstmt.executeBatch();
-      conn.commit();
     } catch (SQLException e) {
       System.err.println("Error saving timetable assignments: " + e.getMessage());
       e.printStackTrace();
     }
   }
 
+  /**
+   * Creates a writer for the given timetable assignments. The rows are captured when this method
+   * is called, so the writer can run later on another thread.
+   *
+   * @param timeSlotAssignments map of time slots to the list of event-room assignments
+   * @return a task that writes the assignments using the caller's transaction
+   * @author mian
+   */
+  public WriteBehindPersister.PersistTask createTimetableWriter(
+      Map<String, List<EventRoomAssignment>> timeSlotAssignments) {
+    List<Object[]> rows = new ArrayList<>();
+    for (Map.Entry<String, List<EventRoomAssignment>> entry : timeSlotAssignments.entrySet()) {
+      for (EventRoomAssignment assignment : entry.getValue()) {
+        rows.add(new Object[]{assignment.getEvent().getId(), assignment.getRoom().getName(),
+            entry.getKey()});
+      }
+    }
+
+    int runId = runContext.getRunId();
+    String sql = "INSERT INTO timetable_assignments (run_id, event_id, room_id, time_slot) VALUES (?, ?, ?, ?)";
+    return conn -> {
+      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        for (Object[] row : rows) {
+          pstmt.setInt(1, runId);
+          pstmt.setInt(2, (Integer) row[0]);
+          pstmt.setString(3, (String) row[1]);
+          pstmt.setString(4, (String) row[2]);
+          pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+      }
+    };
+  }
+
   /**
    * Prints the timetable for debugging purposes.
    *
@@ -292,11 +361,13 @@ public class TimetableService {
         "FROM timetable_assignments t " +
         "JOIN events e ON t.event_id = e.id " +
         "JOIN rooms r ON t.room_id = r.name " +
+        "WHERE t.run_id = ? " +
         "ORDER BY t.time_slot, t.room_id";
 
     try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        ResultSet rs = pstmt.executeQuery()) {
+        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setInt(1, runContext.getRunId());
+      ResultSet rs = pstmt.executeQuery();
 
       while (rs.next()) {
         Event event = new Event(
@@ -352,6 +423,31 @@ public class TimetableService {
    */
   private String filePathEvents = "EXPORT BOT5_Anwesenheitsliste";
 
+  /**
+   * Style of the title "Anwesenheitsliste": font size 16, no borders.
+   */
+  private static final ExcelStyleSpec TITLE_STYLE = ExcelStyleSpec.PLAIN.fontSize(16);
+
+  /**
+   * Style of the event name: bold, font size 16, no borders.
+   */
+  private static final ExcelStyleSpec EVENT_STYLE = ExcelStyleSpec.PLAIN.bold().fontSize(16);
+
+  /**
+   * Style of the time slots: bold, font size 11, no borders.
+   */
+  private static final ExcelStyleSpec TIME_STYLE = ExcelStyleSpec.PLAIN.bold().fontSize(11);
+
+  /**
+   * Style of the data rows of the attendance list: thin borders.
+   */
+  private static final ExcelStyleSpec DATA_STYLE = ExcelStyleSpec.PLAIN.borders(BorderStyle.THIN);
+
+  /**
+   * Style of the table headers of the attendance list: bold, thin borders.
+   */
+  private static final ExcelStyleSpec HEADER_STYLE = DATA_STYLE.bold();
+
     /**
    * Exports the provided event data to an Excel file at the specified file path.
    *
@@ -360,32 +456,67 @@ public class TimetableService {
    * @throws IOException If an I/O error occurs during file writing.
    * @throws IllegalArgumentException If the event data is empty.
    *
-   * @author leon
+   * @author leon | mian
    */
   public void exportEventData(String filePath, Map<String, Object> eventData) throws IOException {
     if (eventData.isEmpty()) {
       throw new IllegalArgumentException("Event data must not be empty.");
     }
 
-    try (Workbook workbook = new XSSFWorkbook()) {
-      Sheet sheet = workbook.createSheet("Data");
+    exportAttendanceSheet(filePath, toAttendanceSheet(eventData));
+  }
 
-      int rowIndex = 0;
+  /**
+   * Exports the attendance list of an event to an Excel file at the specified file path.
+   *
+   * @param filePath        The path where the Excel file will be saved.
+   * @param attendanceSheet The attendance list, as prepared by
+   *                        {@link #prepareDataForExportForAttendanceList(List)}.
+   * @throws IOException If an I/O error occurs during file writing.
+   * @throws IllegalArgumentException If there is no attendance list.
+   *
+   * @author mian
+   */
+  public void exportAttendanceSheet(String filePath, AttendanceSheet attendanceSheet)
+      throws IOException {
+    if (attendanceSheet == null) {
+      throw new IllegalArgumentException("Event data must not be empty.");
+    }
 
-      // Style for the title "Anwesenheitsliste" with font size 16 (no borders)
-      CellStyle titleStyle = createTitleStyle(workbook);
+    try (FileOutputStream out = new FileOutputStream(filePath)) {
+      exportAttendanceSheet(out, attendanceSheet);
+    }
+  }
 
-      // Style for the event name with font size 16 (no borders)
-      CellStyle eventStyle = createEventStyle(workbook);
+  /**
+   * Writes the attendance list of an event as an Excel workbook to a stream. The stream is not
+   * closed.
+   *
+   * @param out             The stream to write the workbook to.
+   * @param attendanceSheet The attendance list, as prepared by
+   *                        {@link #prepareDataForExportForAttendanceList(List)}.
+   * @throws IOException If an I/O error occurs during writing.
+   * @throws IllegalArgumentException If there is no attendance list.
+   *
+   * @author mian
+   */
+  public void exportAttendanceSheet(OutputStream out, AttendanceSheet attendanceSheet)
+      throws IOException {
+    if (attendanceSheet == null) {
+      throw new IllegalArgumentException("Event data must not be empty.");
+    }
 
-      // Style for the time slots with font size 11 (no borders)
-      CellStyle timeStyle = createTimeStyle(workbook);
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
+      Sheet sheet = workbook.createSheet("Data");
 
-      // Style for the headers (with borders)
-      CellStyle headerStyle = createHeaderStyle(workbook);
+      int rowIndex = 0;
 
-      // Style for the data rows (with borders)
-      CellStyle dataStyle = createDataStyle(workbook);
+      ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+      CellStyle titleStyle = styles.get(TITLE_STYLE);
+      CellStyle eventStyle = styles.get(EVENT_STYLE);
+      CellStyle timeStyle = styles.get(TIME_STYLE);
+      CellStyle headerStyle = styles.get(HEADER_STYLE);
+      CellStyle dataStyle = styles.get(DATA_STYLE);
 
       // Add the title "Anwesenheitsliste"
       Row titleRow = sheet.createRow(rowIndex++);
@@ -396,19 +527,18 @@ public class TimetableService {
       // Add the event name
       Row eventRow = sheet.createRow(rowIndex++);
       Cell eventCell = eventRow.createCell(0);
-      eventCell.setCellValue((String) eventData.get("Veranstaltung"));
+      eventCell.setCellValue(attendanceSheet.getEvent());
       eventCell.setCellStyle(eventStyle);
 
       // Define headers for the table
       String[] headers = {"Klasse", "Name", "Vorname", "Anwesend?"};
 
       // Add time slots and participant data
-      List<Map<String, Object>> timeSlots = (List<Map<String, Object>>) eventData.get("Zeitfenster");
-      for (Map<String, Object> timeSlot : timeSlots) {
+      for (AttendanceSheet.Slot timeSlot : attendanceSheet.getSlots()) {
         // Add the time slot (without borders)
         Row timeRow = sheet.createRow(rowIndex++);
         Cell timeCell = timeRow.createCell(0);
-        timeCell.setCellValue((String) timeSlot.get("Uhrzeit"));
+        timeCell.setCellValue(timeSlot.getTime());
         timeCell.setCellStyle(timeStyle);
 
         // Add headers (with borders)
@@ -420,12 +550,13 @@ public class TimetableService {
         }
 
         // Add participant data (with borders)
-        List<Map<String, String>> participants = (List<Map<String, String>>) timeSlot.get("Teilnehmer");
-        for (Map<String, String> participant : participants) {
+        for (AttendanceSheet.Participant participant : timeSlot.getParticipants()) {
           Row row = sheet.createRow(rowIndex++);
-          for (int i = 0; i < headers.length; i++) {
+          String[] values = {participant.getClassName(), participant.getLastName(),
+              participant.getFirstName(), ""};
+          for (int i = 0; i < values.length; i++) {
             Cell cell = row.createCell(i);
-            cell.setCellValue(participant.get(headers[i]));
+            cell.setCellValue(values[i]);
             cell.setCellStyle(dataStyle); // Borders for data rows
           }
         }
@@ -437,98 +568,11 @@ public class TimetableService {
       // Adjust column widths
       adjustColumnWidths(sheet);
 
-      // Save the workbook to the specified file path
-      saveWorkbook(workbook, filePath);
+      // Write the workbook to the stream
+      StreamingWorkbook.write(workbook, out);
     }
   }
 
-  /**
-   * Creates a cell style for the title with a font size of 16 and no borders.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createTitleStyle(Workbook workbook) {
-    CellStyle titleStyle = workbook.createCellStyle();
-    Font titleFont = workbook.createFont();
-    titleFont.setFontHeightInPoints((short) 16);
-    titleStyle.setFont(titleFont);
-    return titleStyle;
-  }
-
-  /**
-   * Creates a cell style for the event name with a bold font size of 16 and no borders.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createEventStyle(Workbook workbook) {
-    CellStyle eventStyle = workbook.createCellStyle();
-    Font eventFont = workbook.createFont();
-    eventFont.setFontHeightInPoints((short) 16);
-    eventFont.setBold(true);
-    eventStyle.setFont(eventFont);
-    return eventStyle;
-  }
-
-  /**
-   * Creates a cell style for the time slots with a bold font size of 11 and no borders.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createTimeStyle(Workbook workbook) {
-    CellStyle timeStyle = workbook.createCellStyle();
-    Font timeFont = workbook.createFont();
-    timeFont.setFontHeightInPoints((short) 11);
-    timeFont.setBold(true);
-    timeStyle.setFont(timeFont);
-    return timeStyle;
-  }
-
-  /**
-   * Creates a cell style for the headers with bold text and thin borders.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createHeaderStyle(Workbook workbook) {
-    CellStyle headerStyle = workbook.createCellStyle();
-    Font headerFont = workbook.createFont();
-    headerFont.setBold(true);
-    headerStyle.setFont(headerFont);
-    headerStyle.setBorderTop(BorderStyle.THIN);
-    headerStyle.setBorderBottom(BorderStyle.THIN);
-    headerStyle.setBorderLeft(BorderStyle.THIN);
-    headerStyle.setBorderRight(BorderStyle.THIN);
-    return headerStyle;
-  }
-
-  /**
-   * Creates a cell style for the data rows with thin borders.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createDataStyle(Workbook workbook) {
-    CellStyle dataStyle = workbook.createCellStyle();
-    dataStyle.setBorderTop(BorderStyle.THIN);
-    dataStyle.setBorderBottom(BorderStyle.THIN);
-    dataStyle.setBorderLeft(BorderStyle.THIN);
-    dataStyle.setBorderRight(BorderStyle.THIN);
-    return dataStyle;
-  }
-
   /**
    * Adjusts the column widths for the sheet to ensure all data is visible.
    *
@@ -544,50 +588,45 @@ public class TimetableService {
   }
 
   /**
-   * Saves the workbook to the specified file path.
+   * Writes the workbook to a stream.
    *
    * @param workbook The workbook to save.
-   * @param filePath The path where the workbook will be saved.
-   * @throws IOException If an I/O error occurs during file writing.
+   * @param out      The stream the workbook is written to.
+   * @throws IOException If an I/O error occurs during writing.
    *
-   * @author leon
+   * @author leon | mian
    */
-  private void saveWorkbook(Workbook workbook, String filePath) throws IOException {
-    try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-      workbook.write(fileOut);
-    }
+  private void saveWorkbook(SXSSFWorkbook workbook, OutputStream out) throws IOException {
+    StreamingWorkbook.write(workbook, out);
   }
 
 
+  /**
+   * Time ranges of the time slots on the attendance lists.
+   */
+  private static final Map<String, String> ATTENDANCE_TIME_RANGES = Map.of(
+      "A", "08:45-09:30",
+      "B", "09:50-10:35",
+      "C", "10:35-11:20",
+      "D", "11:40-12:25",
+      "E", "12:25-13:10");
+
   /**
    * Prepares data for export in attendance list format, grouping participants by time slots
    * and sorting them in chronological order (A → B → C → D → E).
    *
    * @param dataToExport List of objects to be exported (expected to contain StudentAssignment instances)
-   * @return Map containing the prepared export data with sorted time slots
+   * @return The attendance list with sorted time slots, or null if there is nothing to export
    *
-   * @author leon
+   * @author leon | mian
    */
-  public Map<String, Object> prepareDataForExportForAttendanceList(List<Object> dataToExport) {
+  public AttendanceSheet prepareDataForExportForAttendanceList(List<?> dataToExport) {
     if (dataToExport == null || dataToExport.isEmpty()) {
-      return Collections.emptyMap();
+      return null;
     }
 
-    // Define time slot mapping with proper chronological order
-    Map<String, String> timeSlotMapping = new LinkedHashMap<>(); // Maintains insertion order
-    timeSlotMapping.put("A", "08:45-09:30");
-    timeSlotMapping.put("B", "09:50-10:35");
-    timeSlotMapping.put("C", "10:35-11:20");
-    timeSlotMapping.put("D", "11:40-12:25");
-    timeSlotMapping.put("E", "12:25-13:10");
-
-    // Create a reverse mapping from time range to slot for sorting
-    Map<String, String> timeRangeToSlot = new HashMap<>();
-    timeSlotMapping.forEach((slot, range) -> timeRangeToSlot.put(range, slot));
-
-    Map<String, Object> eventData = new HashMap<>();
-    Map<String, List<Map<String, String>>> timeSlotMap = new HashMap<>();
-
+    // The slot letters sort chronologically; unknown slots are kept as they are
+    Map<String, List<AttendanceSheet.Participant>> participantsBySlot = new TreeMap<>();
     String companyName = null;
 
     for (Object obj : dataToExport) {
@@ -599,46 +638,45 @@ public class TimetableService {
 
       if (companyName == null) {
         companyName = assignment.getCompanyName();
-        eventData.put("Veranstaltung", companyName);
       }
 
-      String timeSlotValue = timeSlotMapping.getOrDefault(
-              assignment.getTimeSlot(),
-              assignment.getTimeSlot()
-      );
-
-      Map<String, String> participant = new HashMap<>();
-      participant.put("Klasse", assignment.getClassRef());
-      participant.put("Name", assignment.getLastName());
-      participant.put("Vorname", assignment.getFirstName());
-      participant.put("Anwesend?", "");
-
-      timeSlotMap.computeIfAbsent(timeSlotValue, k -> new ArrayList<>()).add(participant);
+      participantsBySlot.computeIfAbsent(assignment.getTimeSlot(), k -> new ArrayList<>())
+              .add(new AttendanceSheet.Participant(assignment.getClassRef(),
+                      assignment.getLastName(), assignment.getFirstName()));
     }
 
     if (companyName == null) {
-      return Collections.emptyMap();
+      return null;
     }
 
-    // Sort time slots chronologically using the predefined order
-    List<Map<String, Object>> timeSlots = timeSlotMap.entrySet().stream()
-            .sorted((e1, e2) -> {
-              // Get the original slot letters for comparison
-              String slot1 = timeRangeToSlot.getOrDefault(e1.getKey(), e1.getKey());
-              String slot2 = timeRangeToSlot.getOrDefault(e2.getKey(), e2.getKey());
-              // Compare based on natural order of slot letters (A, B, C, D, E)
-              return slot1.compareTo(slot2);
-            })
-            .map(entry -> {
-              Map<String, Object> timeSlot = new HashMap<>();
-              timeSlot.put("Uhrzeit", entry.getKey());
-              timeSlot.put("Teilnehmer", entry.getValue());
-              return timeSlot;
-            })
-            .collect(Collectors.toList());
-
-    eventData.put("Zeitfenster", timeSlots);
-    return eventData;
+    List<AttendanceSheet.Slot> timeSlots = new ArrayList<>();
+    participantsBySlot.forEach((slot, participants) -> timeSlots.add(new AttendanceSheet.Slot(
+            ATTENDANCE_TIME_RANGES.getOrDefault(slot, slot), participants)));
+    return new AttendanceSheet(companyName, timeSlots);
+  }
+
+  /**
+   * Converts event data in the map format of {@link #exportEventData(String, Map)} into an
+   * attendance list.
+   *
+   * @param eventData The event data with "Veranstaltung" and "Zeitfenster" entries.
+   * @return The attendance list.
+   *
+   * @author mian
+   */
+  @SuppressWarnings("unchecked")
+  private static AttendanceSheet toAttendanceSheet(Map<String, Object> eventData) {
+    List<AttendanceSheet.Slot> timeSlots = new ArrayList<>();
+    for (Map<String, Object> timeSlot : (List<Map<String, Object>>) eventData.get("Zeitfenster")) {
+      List<AttendanceSheet.Participant> participants = new ArrayList<>();
+      for (Map<String, String> participant
+          : (List<Map<String, String>>) timeSlot.get("Teilnehmer")) {
+        participants.add(new AttendanceSheet.Participant(participant.get("Klasse"),
+            participant.get("Name"), participant.get("Vorname")));
+      }
+      timeSlots.add(new AttendanceSheet.Slot((String) timeSlot.get("Uhrzeit"), participants));
+    }
+    return new AttendanceSheet((String) eventData.get("Veranstaltung"), timeSlots);
   }
   /**
    * Returns the file path to which the data will be exported for the Events.
@@ -652,6 +690,24 @@ public class TimetableService {
   }
   private static final List<String> HEADERS = Arrays.asList("Zeit", "Raum", "Veranstaltung", "Beschreibung", "Wunsch");
 
+  /**
+   * Style of the data cells of the routing slips: font size 12, thin borders.
+   */
+  private static final ExcelStyleSpec DATA_STYLE_FOR_CHOICES =
+      ExcelStyleSpec.PLAIN.fontSize(12).borders(BorderStyle.THIN);
+
+  /**
+   * Style of the gray cell at A3 of the routing slips.
+   */
+  private static final ExcelStyleSpec GRAY_CELL_STYLE_FOR_CHOICES =
+      DATA_STYLE_FOR_CHOICES.fill(IndexedColors.GREY_25_PERCENT);
+
+  /**
+   * Style of the headers of the routing slips: bold, centered and gray.
+   */
+  private static final ExcelStyleSpec HEADER_STYLE_FOR_CHOICES =
+      GRAY_CELL_STYLE_FOR_CHOICES.bold().align(HorizontalAlignment.CENTER);
+
   /**
    * Exports the provided data to an Excel file.
    *
@@ -659,179 +715,159 @@ public class TimetableService {
    * @param data     The data to be exported.
    * @throws IOException If an I/O error occurs.
    *
-   * @author leon
+   * @author leon | mian
    */
   public void exportChoiceData(String filePath, List<Map<String, Object>> data) throws IOException {
     if (data.isEmpty()) {
       throw new IllegalArgumentException("Data list must not be empty.");
     }
 
-    // Group data by class and name
-    Map<String, Map<String, List<Map<String, Object>>>> groupedData = groupDataByClassAndName(data);
+    exportRoutingSlips(filePath, groupRoutingSlips(data));
+  }
+
+  /**
+   * Exports the routing slips to an Excel file.
+   *
+   * @param filePath The path where the Excel file will be saved.
+   * @param slips    The routing slips, as prepared by
+   *                 {@link #prepareDataForExportForRoutingSlip(List)}.
+   * @throws IOException If an I/O error occurs.
+   *
+   * @author mian
+   */
+  public void exportRoutingSlips(String filePath, List<RoutingSlip> slips) throws IOException {
+    if (slips.isEmpty()) {
+      throw new IllegalArgumentException("Data list must not be empty.");
+    }
 
-    // Export the grouped data to an Excel file
-    exportDataToExcelForChoices(groupedData, filePath);
+    try (FileOutputStream out = new FileOutputStream(filePath)) {
+      exportRoutingSlips(out, slips);
+    }
   }
 
   /**
-   * Groups the data by class and name.
+   * Writes the routing slips as an Excel workbook to a stream. The stream is not closed.
    *
-   * @param data The data to be grouped.
-   * @return A map containing the grouped data.
+   * @param out   The stream to write the workbook to.
+   * @param slips The routing slips, as prepared by
+   *              {@link #prepareDataForExportForRoutingSlip(List)}.
+   * @throws IOException If an I/O error occurs.
    *
-   * @author leon
+   * @author mian
    */
-  private Map<String, Map<String, List<Map<String, Object>>>> groupDataByClassAndName(List<Map<String, Object>> data) {
-    Map<String, Map<String, List<Map<String, Object>>>> groupedData = new LinkedHashMap<>();
-    for (Map<String, Object> row : data) {
-      String klasse = (String) row.get("Klasse");
-      String name = (String) row.get("Name");
+  public void exportRoutingSlips(OutputStream out, List<RoutingSlip> slips) throws IOException {
+    if (slips.isEmpty()) {
+      throw new IllegalArgumentException("Data list must not be empty.");
+    }
 
-      // Remove the last two columns (Name and Klasse) from the data rows
-      Map<String, Object> cleanedRow = new LinkedHashMap<>(row);
-      cleanedRow.remove("Name");
-      cleanedRow.remove("Klasse");
+    exportDataToExcelForChoices(slips, out);
+  }
 
-      groupedData.computeIfAbsent(klasse, k -> new LinkedHashMap<>())
-              .computeIfAbsent(name, n -> new ArrayList<>())
-              .add(cleanedRow);
+  /**
+   * Groups choice data in the map format of {@link #exportChoiceData(String, List)} by class and
+   * name into routing slips.
+   *
+   * @param data The data to be grouped, containing "Klasse" and "Name" entries.
+   * @return The routing slips, grouped by class in the order the classes first appear.
+   *
+   * @author leon | mian
+   */
+  static List<RoutingSlip> groupRoutingSlips(List<Map<String, Object>> data) {
+    Map<String, Map<String, List<RoutingSlip.Entry>>> groupedData = new LinkedHashMap<>();
+    for (Map<String, Object> row : data) {
+      Object choice = row.get("Wunsch");
+      groupedData.computeIfAbsent((String) row.get("Klasse"), k -> new LinkedHashMap<>())
+              .computeIfAbsent((String) row.get("Name"), n -> new ArrayList<>())
+              .add(new RoutingSlip.Entry(Objects.toString(row.get("Zeit"), null),
+                      Objects.toString(row.get("Raum"), null),
+                      Objects.toString(row.get("Veranstaltung"), null),
+                      Objects.toString(row.get("Beschreibung"), null),
+                      choice == null || choice instanceof Integer ? (Integer) choice
+                              : Integer.valueOf(choice.toString().trim())));
     }
-    return groupedData;
+    return toRoutingSlips(groupedData);
+  }
+
+  /**
+   * Creates the routing slips of entries grouped by class and student name.
+   *
+   * @param groupedData The entries grouped by class and then by student name.
+   * @return The routing slips, in the order of the grouping.
+   *
+   * @author mian
+   */
+  private static List<RoutingSlip> toRoutingSlips(
+          Map<String, Map<String, List<RoutingSlip.Entry>>> groupedData) {
+    List<RoutingSlip> slips = new ArrayList<>();
+    groupedData.forEach((klasse, students) -> students.forEach(
+            (name, entries) -> slips.add(new RoutingSlip(klasse, name, entries))));
+    return slips;
   }
 
   /**
-   * Exports the grouped data to an Excel file.
+   * Exports the routing slips as an Excel workbook. A class header is written before the first
+   * slip of each class.
    *
-   * @param groupedData The grouped data to be exported.
-   * @param filePath    The path where the Excel file will be saved.
+   * @param slips The routing slips, grouped by class.
+   * @param out   The stream the workbook is written to.
    * @throws IOException If an I/O error occurs.
    *
-   * @author leon
+   * @author leon | mian
    */
-  private void exportDataToExcelForChoices(Map<String, Map<String, List<Map<String, Object>>>> groupedData, String filePath) throws IOException {
-    try (Workbook workbook = new XSSFWorkbook()) {
+  private void exportDataToExcelForChoices(List<RoutingSlip> slips, OutputStream out) throws IOException {
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
       Sheet sheet = workbook.createSheet("Data");
+      ColumnWidthEstimator widths = new ColumnWidthEstimator();
 
       // Create styles for headers and data
-      CellStyle headerStyle = createHeaderStyleForChoices(workbook);
-      CellStyle dataStyle = createDataStyleForChoices(workbook);
-      CellStyle grayCellStyle = createGrayCellStyleForChoices(workbook);
+      ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+      CellStyle headerStyle = styles.get(HEADER_STYLE_FOR_CHOICES);
+      CellStyle dataStyle = styles.get(DATA_STYLE_FOR_CHOICES);
+      CellStyle grayCellStyle = styles.get(GRAY_CELL_STYLE_FOR_CHOICES);
 
       int rowIndex = 0;
+      String klasse = null;
 
-      // Iterate through the grouped data
-      for (Map.Entry<String, Map<String, List<Map<String, Object>>>> klasseEntry : groupedData.entrySet()) {
-        String klasse = klasseEntry.getKey();
-        Map<String, List<Map<String, Object>>> nameMap = klasseEntry.getValue();
-
-        // Write class as a header
-        rowIndex = writeClassHeaderForChoices(sheet, klasse, headerStyle, rowIndex);
+      // Iterate through the routing slips
+      for (RoutingSlip slip : slips) {
+        if (rowIndex == 0 || !Objects.equals(klasse, slip.getClassName())) {
+          klasse = slip.getClassName();
 
-        // Iterate through the names
-        for (Map.Entry<String, List<Map<String, Object>>> nameEntry : nameMap.entrySet()) {
-          String name = nameEntry.getKey();
-          List<Map<String, Object>> rows = nameEntry.getValue();
+          // Write class as a header
+          int classRow = rowIndex;
+          rowIndex = writeClassHeaderForChoices(sheet, klasse, headerStyle, rowIndex);
+          trackRowsForChoices(sheet, widths, classRow, rowIndex);
+        }
 
-          // Write name as a header
-          rowIndex = writeNameHeaderForChoices(sheet, name, headerStyle, rowIndex);
+        // Write name as a header
+        int firstRow = rowIndex;
+        rowIndex = writeNameHeaderForChoices(sheet, slip.getStudentName(), headerStyle, rowIndex);
 
-          // Write column headers
-          rowIndex = writeColumnHeadersForChoices(sheet, headerStyle, rowIndex);
+        // Write column headers
+        rowIndex = writeColumnHeadersForChoices(sheet, headerStyle, rowIndex);
 
-          // Color the cell at A3 gray
-          rowIndex = colorA3CellGrayForChoices(sheet, grayCellStyle, rowIndex);
+        // Color the cell at A3 gray
+        rowIndex = colorA3CellGrayForChoices(sheet, grayCellStyle, rowIndex);
 
-          // Write data rows
-          rowIndex = writeDataRowsForChoices(sheet, rows, dataStyle, rowIndex);
+        // Write data rows
+        rowIndex = writeDataRowsForChoices(sheet, slip.getEntries(), dataStyle, rowIndex);
+        trackRowsForChoices(sheet, widths, firstRow, rowIndex);
 
-          // Add an empty row between names
-          rowIndex++;
-        }
+        // Add an empty row between names
+        rowIndex++;
       }
 
       // Adjust column widths
-      autoSizeColumnsForChoices(sheet);
+      autoSizeColumnsForChoices(sheet, widths);
 
       // Manually adjust the "Beschreibung" column width
       adjustBeschreibungColumnWidthForChoices(sheet);
 
       // Save the file
-      saveWorkbook(workbook, filePath);
+      saveWorkbook(workbook, out);
     }
   }
 
-  /**
-   * Creates a style for the headers.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created header style.
-   *
-   * @author leon
-   */
-  private CellStyle createHeaderStyleForChoices(Workbook workbook) {
-    Font headerFont = workbook.createFont();
-    headerFont.setBold(true);
-    headerFont.setFontHeightInPoints((short) 12);
-
-    CellStyle headerStyle = workbook.createCellStyle();
-    headerStyle.setFont(headerFont);
-    headerStyle.setAlignment(HorizontalAlignment.CENTER);
-    headerStyle.setBorderTop(BorderStyle.THIN);
-    headerStyle.setBorderBottom(BorderStyle.THIN);
-    headerStyle.setBorderLeft(BorderStyle.THIN);
-    headerStyle.setBorderRight(BorderStyle.THIN);
-    headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-    return headerStyle;
-  }
-
-  /**
-   * Creates a style for the data cells.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created data style.
-   *
-   * @author leon
-   */
-  private CellStyle createDataStyleForChoices(Workbook workbook) {
-    Font dataFont = workbook.createFont();
-    dataFont.setFontHeightInPoints((short) 12);
-
-    CellStyle dataStyle = workbook.createCellStyle();
-    dataStyle.setFont(dataFont);
-    dataStyle.setBorderTop(BorderStyle.THIN);
-    dataStyle.setBorderBottom(BorderStyle.THIN);
-    dataStyle.setBorderLeft(BorderStyle.THIN);
-    dataStyle.setBorderRight(BorderStyle.THIN);
-
-    return dataStyle;
-  }
-
-  /**
-   * Creates a style for the gray cell at A3.
-   *
-   * @param workbook The workbook to create the style in.
-   * @return The created gray cell style.
-   *
-   * @author leon
-   */
-  private CellStyle createGrayCellStyleForChoices(Workbook workbook) {
-    Font dataFont = workbook.createFont();
-    dataFont.setFontHeightInPoints((short) 12);
-
-    CellStyle grayCellStyle = workbook.createCellStyle();
-    grayCellStyle.setFont(dataFont);
-    grayCellStyle.setBorderTop(BorderStyle.THIN);
-    grayCellStyle.setBorderBottom(BorderStyle.THIN);
-    grayCellStyle.setBorderLeft(BorderStyle.THIN);
-    grayCellStyle.setBorderRight(BorderStyle.THIN);
-    grayCellStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    grayCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-    return grayCellStyle;
-  }
-
   /**
    * Writes the class header to the sheet.
    *
@@ -911,25 +947,27 @@ public class TimetableService {
    * Writes the data rows to the sheet.
    *
    * @param sheet     The sheet to write to.
-   * @param rows      The data rows.
+   * @param entries   The entries of the routing slip.
    * @param dataStyle The style for the data cells.
    * @param rowIndex  The current row index.
    * @return The updated row index.
    *
-   * @author leon
+   * @author leon | mian
    */
-  private int writeDataRowsForChoices(Sheet sheet, List<Map<String, Object>> rows, CellStyle dataStyle, int rowIndex) {
+  private int writeDataRowsForChoices(Sheet sheet, List<RoutingSlip.Entry> entries, CellStyle dataStyle, int rowIndex) {
     char rowLabel = 'A'; // Start with 'A'
-    for (Map<String, Object> row : rows) {
+    for (RoutingSlip.Entry entry : entries) {
       Row dataRow = sheet.createRow(rowIndex++);
       Cell labelCell = dataRow.createCell(0); // Row label in the first column
       labelCell.setCellValue(String.valueOf(rowLabel)); // Row label (A, B, C, ...)
       labelCell.setCellStyle(dataStyle);
 
+      // Same order as HEADERS
+      Object[] values = {entry.getTime(), entry.getRoom(), entry.getEvent(),
+              entry.getDescription(), entry.getChoice()};
       int cellIndex = 1; // Start at 1, since the first column contains the row label
-      for (String header : HEADERS) {
+      for (Object value : values) {
         Cell cell = dataRow.createCell(cellIndex++);
-        Object value = row.get(header);
         cell.setCellValue(value != null ? value.toString() : "");
         cell.setCellStyle(dataStyle);
       }
@@ -939,18 +977,38 @@ public class TimetableService {
   }
 
   /**
-   * Automatically adjusts the column widths.
+   * Records the values of the rows just written, while they are still in the row window of the
+   * streaming workbook.
    *
-   * @param sheet The sheet to adjust.
+   * @param sheet    The sheet written to.
+   * @param widths   The column widths to update.
+   * @param fromRow  The first row to record.
+   * @param toRow    The row after the last row to record.
    *
-   * @author leon
+   * @author mian
    */
-  private void autoSizeColumnsForChoices(Sheet sheet) {
-    for (int i = 0; i < HEADERS.size() + 1; i++) { // +1 for the row label column
-      sheet.autoSizeColumn(i);
+  private void trackRowsForChoices(Sheet sheet, ColumnWidthEstimator widths, int fromRow,
+      int toRow) {
+    for (int i = fromRow; i < toRow; i++) {
+      Row row = sheet.getRow(i);
+      if (row != null) {
+        widths.track(row);
+      }
     }
   }
 
+  /**
+   * Adjusts the column widths to the recorded values.
+   *
+   * @param sheet  The sheet to adjust.
+   * @param widths The recorded column widths.
+   *
+   * @author leon
+   */
+  private void autoSizeColumnsForChoices(Sheet sheet, ColumnWidthEstimator widths) {
+    widths.apply(sheet, HEADERS.size() + 1); // +1 for the row label column
+  }
+
   /**
    * Manually adjusts the width of the "Beschreibung" column.
    *
@@ -987,14 +1045,16 @@ public class TimetableService {
    * Prepares data for export in routing slip format by converting StudentAssignment objects
    * into a structured map with time slots converted to time ranges.
    *
+   * The entries are grouped by class and student in the same pass.
+   *
    * @param dataToExport List of objects to be exported (expected to contain StudentAssignment instances)
-   * @return Map containing the prepared export data under the "data" key
+   * @return The routing slips, grouped by class in the order the classes first appear
    *
-   * @author leon
+   * @author leon | mian
    */
-  public Map<String, Object> prepareDataForExportForRoutingSlip(List<Object> dataToExport) {
-    // Initialize list to hold all converted assignment records
-    List<Map<String, Object>> exportData = new ArrayList<>();
+  public List<RoutingSlip> prepareDataForExportForRoutingSlip(List<?> dataToExport) {
+    // Entries by class and student name, in the order they first appear
+    Map<String, Map<String, List<RoutingSlip.Entry>>> groupedData = new LinkedHashMap<>();
 
     // Process each item in the input list
     for (Object item : dataToExport) {
@@ -1002,9 +1062,6 @@ public class TimetableService {
       if (item instanceof StudentAssignment) {
         StudentAssignment assignment = (StudentAssignment) item;
 
-        // Create a new row with ordered columns for the export
-        Map<String, Object> row = new LinkedHashMap<>();
-
         // Convert time slot to time range
         String timeRange;
         switch(assignment.getTimeSlot()) {
@@ -1017,22 +1074,16 @@ public class TimetableService {
           default: timeRange = assignment.getTimeSlot(); // Return original if no match
         }
 
-        row.put("Zeit", timeRange);
-        row.put("Raum", assignment.getRoomId());
-        row.put("Veranstaltung", assignment.getCompanyName());
-        row.put("Beschreibung", assignment.getSubject());
-        row.put("Wunsch", assignment.getChoiceNo());
-        row.put("Name", assignment.getLastName() + ", " + assignment.getFirstName());
-        row.put("Klasse", assignment.getClassRef());
-
-        exportData.add(row);
+        String name = assignment.getLastName() + ", " + assignment.getFirstName();
+        groupedData.computeIfAbsent(assignment.getClassRef(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(name, n -> new ArrayList<>())
+                .add(new RoutingSlip.Entry(timeRange, assignment.getRoomId(),
+                        assignment.getCompanyName(), assignment.getSubject(),
+                        assignment.getChoiceNo()));
       }
     }
 
-    // Return the data in a structured map (grouping happens later during export)
-    Map<String, Object> result = new HashMap<>();
-    result.put("data", exportData);
-    return result;
+    return toRoutingSlips(groupedData);
   }
 
   /**
@@ -1041,41 +1092,56 @@ public class TimetableService {
    * @param filename The path where to save the PDF file
    * @param data     The choice data to export
    * @throws IOException If there's an error during file operations
-   * @author batuhan
+   * @author batuhan | mian
    */
   public void exportChoiceDataPDF(String filename, List<Map<String, Object>> data) throws IOException {
     try (PDDocument document = new PDDocument()) {
-      // Create landscape page
-      PDPage page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
-      document.addPage(page);
-      PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-      // Font configuration
-      PDFont font = PDType1Font.HELVETICA_BOLD;
-      PDFont regularFont = PDType1Font.HELVETICA;
-      float titleFontSize = 14;
-      float headerFontSize = 12;
-      float regularFontSize = 10;
-      float margin = 50;
-      float yPosition = page.getMediaBox().getHeight() - margin;
-      float tableWidth = page.getMediaBox().getWidth() - 2 * margin;
-
-      // Column widths (adjusted for landscape)
-      float[] colWidths = {
-              tableWidth * 0.15f, // Zeit
-              tableWidth * 0.10f, // Raum
-              tableWidth * 0.20f, // Veranstaltung
-              tableWidth * 0.45f, // Beschreibung
-              tableWidth * 0.10f  // Wunsch
-      };
-      float rowHeight = 20;
-
-      // Group data by class and name
-      Map<String, Map<String, List<Map<String, Object>>>> groupedData = groupDataByClassAndNameChoice(data);
+      renderChoicePages(document, groupRoutingSlips(data));
+      document.save(filename);
+    }
+  }
 
-      for (Map.Entry<String, Map<String, List<Map<String, Object>>>> classEntry : groupedData.entrySet()) {
-        String className = classEntry.getKey();
-        Map<String, List<Map<String, Object>>> nameMap = classEntry.getValue();
+  /**
+   * Draws routing slips onto new pages of a document. The slips of all classes follow each
+   * other on the same pages, as in {@link #exportChoiceDataPDF}, with a class header before the
+   * first slip of each class.
+   *
+   * @param document the document to add the pages to
+   * @param slips    the routing slips, grouped by class
+   * @throws IOException if a page cannot be drawn
+   * @author batuhan | mian
+   */
+  void renderChoicePages(PDDocument document, List<RoutingSlip> slips) throws IOException {
+    // Create landscape page
+    PDPage page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
+    document.addPage(page);
+    PDPageContentStream contentStream = new PDPageContentStream(document, page);
+
+    // Font configuration
+    PDFont font = PDType1Font.HELVETICA_BOLD;
+    PDFont regularFont = PDType1Font.HELVETICA;
+    float titleFontSize = 14;
+    float headerFontSize = 12;
+    float regularFontSize = 10;
+    float margin = 50;
+    float yPosition = page.getMediaBox().getHeight() - margin;
+    float tableWidth = page.getMediaBox().getWidth() - 2 * margin;
+
+    // Column widths (adjusted for landscape)
+    float[] colWidths = {
+            tableWidth * 0.15f, // Zeit
+            tableWidth * 0.10f, // Raum
+            tableWidth * 0.20f, // Veranstaltung
+            tableWidth * 0.45f, // Beschreibung
+            tableWidth * 0.10f  // Wunsch
+    };
+    float rowHeight = 20;
+
+    String className = null;
+    for (int i = 0; i < slips.size(); i++) {
+      RoutingSlip slip = slips.get(i);
+      if (i == 0 || !Objects.equals(className, slip.getClassName())) {
+        className = slip.getClassName();
 
         // Class header
         contentStream.setFont(font, titleFontSize);
@@ -1084,12 +1150,41 @@ public class TimetableService {
         contentStream.showText("Klasse: " + className);
         contentStream.endText();
         yPosition -= 30;
+      }
+
+      String studentName = slip.getStudentName();
 
-        for (Map.Entry<String, List<Map<String, Object>>> nameEntry : nameMap.entrySet()) {
-          String studentName = nameEntry.getKey();
-          List<Map<String, Object>> choices = nameEntry.getValue();
+      // Student name header
+      contentStream.setFont(font, headerFontSize);
+      contentStream.beginText();
+      contentStream.newLineAtOffset(margin, yPosition);
+      contentStream.showText("Name: " + studentName);
+      contentStream.endText();
+      yPosition -= 25;
+
+      // Draw table headers
+      drawTableHeader(contentStream, margin, yPosition, colWidths, rowHeight,
+              new String[]{"Zeit", "Raum", "Veranstaltung", "Beschreibung", "Wunsch"}, font);
+      yPosition -= rowHeight;
+
+      // Draw choices
+      for (RoutingSlip.Entry choice : slip.getEntries()) {
+        // Check for page break
+        if (yPosition < margin + rowHeight) {
+          contentStream.close();
+          page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
+          document.addPage(page);
+          contentStream = new PDPageContentStream(document, page);
+          yPosition = page.getMediaBox().getHeight() - margin;
+
+          // Redraw headers
+          contentStream.setFont(font, titleFontSize);
+          contentStream.beginText();
+          contentStream.newLineAtOffset(margin, yPosition);
+          contentStream.showText("Klasse: " + className);
+          contentStream.endText();
+          yPosition -= 30;
 
-          // Student name header
           contentStream.setFont(font, headerFontSize);
           contentStream.beginText();
           contentStream.newLineAtOffset(margin, yPosition);
@@ -1097,62 +1192,29 @@ public class TimetableService {
           contentStream.endText();
           yPosition -= 25;
 
-          // Draw table headers
           drawTableHeader(contentStream, margin, yPosition, colWidths, rowHeight,
                   new String[]{"Zeit", "Raum", "Veranstaltung", "Beschreibung", "Wunsch"}, font);
           yPosition -= rowHeight;
-
-          // Draw choices
-          for (Map<String, Object> choice : choices) {
-            // Check for page break
-            if (yPosition < margin + rowHeight) {
-              contentStream.close();
-              page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
-              document.addPage(page);
-              contentStream = new PDPageContentStream(document, page);
-              yPosition = page.getMediaBox().getHeight() - margin;
-
-              // Redraw headers
-              contentStream.setFont(font, titleFontSize);
-              contentStream.beginText();
-              contentStream.newLineAtOffset(margin, yPosition);
-              contentStream.showText("Klasse: " + className);
-              contentStream.endText();
-              yPosition -= 30;
-
-              contentStream.setFont(font, headerFontSize);
-              contentStream.beginText();
-              contentStream.newLineAtOffset(margin, yPosition);
-              contentStream.showText("Name: " + studentName);
-              contentStream.endText();
-              yPosition -= 25;
-
-              drawTableHeader(contentStream, margin, yPosition, colWidths, rowHeight,
-                      new String[]{"Zeit", "Raum", "Veranstaltung", "Beschreibung", "Wunsch"}, font);
-              yPosition -= rowHeight;
-            }
-
-            // Draw choice row
-            drawTableRowChoice(contentStream, margin, yPosition, colWidths, rowHeight,
-                    new String[]{
-                            String.valueOf(choice.get("Zeit")),
-                            String.valueOf(choice.get("Raum")),
-                            String.valueOf(choice.get("Veranstaltung")),
-                            String.valueOf(choice.get("Beschreibung")),
-                            String.valueOf(choice.get("Wunsch"))
-                    },
-                    regularFont, regularFontSize);
-            yPosition -= rowHeight;
-          }
-
-          // Add space between students
-          yPosition -= 15;
         }
+
+        // Draw choice row
+        drawTableRowChoice(contentStream, margin, yPosition, colWidths, rowHeight,
+                new String[]{
+                        String.valueOf(choice.getTime()),
+                        String.valueOf(choice.getRoom()),
+                        String.valueOf(choice.getEvent()),
+                        String.valueOf(choice.getDescription()),
+                        String.valueOf(choice.getChoice())
+                },
+                regularFont, regularFontSize);
+        yPosition -= rowHeight;
       }
 
-      contentStream.close();
-      document.save(filename);
+      // Add space between students
+      yPosition -= 15;
     }
+
+    contentStream.close();
   }
 
   /**
@@ -1270,6 +1332,7 @@ public class TimetableService {
   /**
    * Wraps long text into multiple lines based on the available width constraints.
    * Handles both regular word wrapping and forced character splitting for overly long words.
+   * The layout is done by {@link PdfTextLayout}, which caches the glyph widths of the font.
    *
    * @param text The text content to be wrapped
    * @param font The PDF font used for width calculation
@@ -1282,43 +1345,7 @@ public class TimetableService {
    */
   private List<String> wrapText(String text, PDFont font, float fontSize, float maxWidth)
           throws IOException {
-    List<String> lines = new ArrayList<>();
-    if (text == null || text.isEmpty()) {
-      lines.add("");
-      return lines;
-    }
-
-    String[] words = text.split(" ");
-    StringBuilder currentLine = new StringBuilder();
-
-    for (String word : words) {
-      String testLine = currentLine.length() > 0 ? currentLine + " " + word : word;
-      float width = font.getStringWidth(testLine) / 1000 * fontSize;
-
-      if (width <= maxWidth) {
-        currentLine.append(currentLine.length() > 0 ? " " + word : word);
-      } else {
-        if (currentLine.length() > 0) {
-          lines.add(currentLine.toString());
-          currentLine = new StringBuilder(word);
-        } else {
-          // Word is too long, split it
-          for (char c : word.toCharArray()) {
-            if (font.getStringWidth(currentLine.toString() + c) / 1000 * fontSize > maxWidth) {
-              lines.add(currentLine.toString());
-              currentLine = new StringBuilder();
-            }
-            currentLine.append(c);
-          }
-        }
-      }
-    }
-
-    if (currentLine.length() > 0) {
-      lines.add(currentLine.toString());
-    }
-
-    return lines;
+    return PdfTextLayout.of(font).wrap(text, fontSize, maxWidth);
   }
 
   /**
@@ -1339,43 +1366,60 @@ public class TimetableService {
   }
 
   /**
-   * Groups choice data by class and student name in a nested map structure.
+   * Generates a PDF attendance list for an event with time slots and participants.
+   * The PDF includes event information, time slots, and participant lists in a table format.
    *
-   * @param data The choice data to group, containing "Klasse" and "Name" entries
-   * @return Nested map structure organized by class → student → list of entries
-   * @throws NullPointerException If data contains null values for class or name
+   * @param filePath The full path where the PDF file should be saved
+   * @param data A map containing the event data with keys:
+   *             - "Veranstaltung" (String): Event name
+   *             - "Zeitfenster" (List<Map<String, Object>>): List of time slots
+   * @throws IOException if there's an error during PDF generation or file saving
    *
-   * @author batuhan
+   * @author batuhan | mian
    */
-  private Map<String, Map<String, List<Map<String, Object>>>> groupDataByClassAndNameChoice(
-          List<Map<String, Object>> data) {
-    Map<String, Map<String, List<Map<String, Object>>>> groupedData = new LinkedHashMap<>();
-
-    for (Map<String, Object> row : data) {
-      String className = (String) row.get("Klasse");
-      String studentName = (String) row.get("Name");
+  public void exportEventDataPDF(String filePath, Map<String, Object> data) throws IOException {
+    exportAttendanceSheetPDF(filePath, toAttendanceSheet(data));
+  }
 
-      groupedData.computeIfAbsent(className, k -> new LinkedHashMap<>())
-              .computeIfAbsent(studentName, k -> new ArrayList<>())
-              .add(row);
+  /**
+   * Generates a PDF attendance list for an event with time slots and participants.
+   *
+   * @param filePath        The full path where the PDF file should be saved
+   * @param attendanceSheet The attendance list, as prepared by
+   *                        {@link #prepareDataForExportForAttendanceList(List)}
+   * @throws IOException if there's an error during PDF generation or file saving
+   * @throws IllegalArgumentException if there is no attendance list
+   *
+   * @author mian
+   */
+  public void exportAttendanceSheetPDF(String filePath, AttendanceSheet attendanceSheet)
+      throws IOException {
+    if (attendanceSheet == null) {
+      throw new IllegalArgumentException("Event data must not be empty.");
     }
 
-    return groupedData;
+    try (FileOutputStream out = new FileOutputStream(filePath)) {
+      exportAttendanceSheetPDF(out, attendanceSheet);
+    }
   }
 
   /**
-   * Generates a PDF attendance list for an event with time slots and participants.
-   * The PDF includes event information, time slots, and participant lists in a table format.
+   * Writes the PDF attendance list of an event to a stream. The stream is not closed.
    *
-   * @param filePath The full path where the PDF file should be saved
-   * @param data A map containing the event data with keys:
-   *             - "Veranstaltung" (String): Event name
-   *             - "Zeitfenster" (List<Map<String, Object>>): List of time slots
-   * @throws IOException if there's an error during PDF generation or file saving
+   * @param out             The stream to write the PDF to
+   * @param attendanceSheet The attendance list, as prepared by
+   *                        {@link #prepareDataForExportForAttendanceList(List)}
+   * @throws IOException if there's an error during PDF generation or writing
+   * @throws IllegalArgumentException if there is no attendance list
    *
-   * @author batuhan
+   * @author mian
    */
-  public void exportEventDataPDF(String filePath, Map<String, Object> data) throws IOException {
+  public void exportAttendanceSheetPDF(OutputStream out, AttendanceSheet attendanceSheet)
+      throws IOException {
+    if (attendanceSheet == null) {
+      throw new IllegalArgumentException("Event data must not be empty.");
+    }
+
     try (PDDocument document = new PDDocument()) {
       PDPage page = new PDPage(PDRectangle.A4);
       document.addPage(page);
@@ -1392,7 +1436,7 @@ public class TimetableService {
       float colWidth = tableWidth / 4; // 4 columns
 
       // Event header
-      String eventName = (String) data.get("Veranstaltung");
+      String eventName = attendanceSheet.getEvent();
       contentStream.setFont(font, 14);
       contentStream.beginText();
       contentStream.newLineAtOffset(margin, yPosition);
@@ -1401,14 +1445,12 @@ public class TimetableService {
       yPosition -= 30;
 
       // Process time slots
-      List<Map<String, Object>> timeSlots = (List<Map<String, Object>>) data.get("Zeitfenster");
-
-      for (Map<String, Object> slot : timeSlots) {
+      for (AttendanceSheet.Slot slot : attendanceSheet.getSlots()) {
         // Time slot header
         contentStream.setFont(font, fontSize);
         contentStream.beginText();
         contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("Uhrzeit: " + slot.get("Uhrzeit"));
+        contentStream.showText("Uhrzeit: " + slot.getTime());
         contentStream.endText();
         yPosition -= rowHeight;
 
@@ -1424,10 +1466,9 @@ public class TimetableService {
         yPosition -= 5;
 
         // Participants
-        List<Map<String, String>> participants = (List<Map<String, String>>) slot.get("Teilnehmer");
         contentStream.setFont(regularFont, fontSize);
 
-        for (Map<String, String> participant : participants) {
+        for (AttendanceSheet.Participant participant : slot.getParticipants()) {
           if (yPosition < margin + rowHeight) {
             // New page
             contentStream.close();
@@ -1439,9 +1480,9 @@ public class TimetableService {
 
           drawTableRow(contentStream, margin, yPosition, colWidth, rowHeight,
                   new String[]{
-                          participant.get("Klasse"),
-                          participant.get("Name"),
-                          participant.get("Vorname"),
+                          participant.getClassName(),
+                          participant.getLastName(),
+                          participant.getFirstName(),
                           "" // Empty for "Anwesend"
                   },
                   regularFont);
@@ -1452,7 +1493,7 @@ public class TimetableService {
       }
 
       contentStream.close();
-      document.save(filePath);
+      document.save(out);
     }
   }
 
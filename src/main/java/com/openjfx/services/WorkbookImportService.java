@@ -0,0 +1,355 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Imports events, rooms and choices from a single workbook that holds each of them on its own
+ * sheet. Each sheet is assigned to the service whose column prefixes match its header row,
+ * whatever the sheet is called. Sheets that match no service are skipped.
+ *
+ * <p>The workbook is opened and read once. Each sheet is matched on its header row, and its rows
+ * are inserted in JDBC batches while they are read, so memory use does not grow with the number
+ * of rows. Only a sheet that comes before the sheet of a service saved ahead of it is kept in
+ * memory until the end of the workbook, so that the entities are still saved in save order.</p>
+ *
+ * <p>The imported entities replace the stored ones together in one transaction: either all
+ * sheets are saved or, if any row is invalid or cannot be saved, nothing changes. Entities that
+ * have no sheet in the workbook are left as they are.</p>
+ *
+ * @author mian
+ */
+public class WorkbookImportService {
+
+  private final ExcelService excelService;
+  private final List<AbstractExcelService<?>> services;
+
+  /**
+   * Creates a service that imports events, rooms and choices.
+   *
+   * @param excelService the Excel service used to read the workbook
+   * @author mian
+   */
+  public WorkbookImportService(ExcelService excelService) {
+    this(excelService, List.of(new EventService(excelService), new RoomService(excelService),
+        new ChoiceService(excelService)));
+  }
+
+  /**
+   * Creates a service that imports the entities of the given services. The entities are saved in
+   * the order of the list.
+   *
+   * @param excelService the Excel service used to read the workbook
+   * @param services     the services whose entities can be imported
+   * @author mian
+   */
+  public WorkbookImportService(ExcelService excelService,
+      List<AbstractExcelService<?>> services) {
+    this.excelService = excelService;
+    this.services = services;
+  }
+
+  /**
+   * Imports all matching sheets of the workbook.
+   *
+   * @param workbook the workbook to import
+   * @return the number of rows saved per table, in save order
+   * @throws IOException              if the file cannot be read or the rows cannot be saved
+   * @throws IllegalArgumentException if no sheet matches, two sheets hold the same entity or a
+   *                                  row is invalid
+   * @author mian
+   */
+  public Map<String, Integer> importWorkbook(File workbook)
+      throws IOException, IllegalArgumentException {
+    return importWorkbook(workbook, ImportProgress.NONE);
+  }
+
+  /**
+   * Imports all matching sheets of the workbook and reports the progress. The import can be
+   * cancelled between sheets and between batches; it is then rolled back.
+   *
+   * @param workbook the workbook to import
+   * @param progress receives the row counts and tells the import whether to stop
+   * @return the number of rows saved per table, in save order
+   * @throws IOException              if the file cannot be read or the rows cannot be saved
+   * @throws IllegalArgumentException if no sheet matches, two sheets hold the same entity or a
+   *                                  row is invalid
+   * @throws CancellationException    if the import was cancelled
+   * @author mian
+   */
+  public Map<String, Integer> importWorkbook(File workbook, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        Map<String, Integer> saved = new WorkbookPass(conn, progress).read(workbook);
+        if (saved.containsKey("events") && !saved.containsKey("choices")) {
+          // Replacing the events cleared the event ids of the stored choices
+          ChoiceService.linkEventIds(conn);
+        }
+        conn.commit();
+        return saved;
+      } catch (SQLException | IOException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new IOException("Error saving the imported workbook, transaction rolled back: "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Finds the service whose required columns are all present in the header row. If several
+   * services match, the one with the most matching columns wins.
+   *
+   * @param headers the header names of a sheet
+   * @return the matching service, or null if none matches
+   * @author mian
+   */
+  AbstractExcelService<?> detectService(String[] headers) {
+    AbstractExcelService<?> best = null;
+    int bestMatches = 0;
+    for (AbstractExcelService<?> service : services) {
+      Map<String, String> mappings = service.compileImportPlan(headers).getColumnMappings();
+      boolean complete = true;
+      for (String field : service.getRequiredFields()) {
+        if (mappings.getOrDefault(field, "").isEmpty()) {
+          complete = false;
+          break;
+        }
+      }
+      if (!complete) {
+        continue;
+      }
+      int matches = 0;
+      for (String column : mappings.values()) {
+        if (!column.isEmpty()) {
+          matches++;
+        }
+      }
+      if (matches > bestMatches) {
+        best = service;
+        bestMatches = matches;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Reads the workbook once and saves every matched sheet within the transaction of the
+   * connection. A sheet is streamed into its inserts while it is read if the sheets of all
+   * services before it in save order have been saved already; otherwise its rows are kept until
+   * the end of the workbook and saved then, so the save order does not depend on the order of
+   * the sheets.
+   */
+  private final class WorkbookPass implements ExcelService.SheetConsumer {
+
+    private final Connection conn;
+    private final ImportProgress progress;
+    private final Map<AbstractExcelService<?>, SheetImport> matched = new HashMap<>();
+    private final Map<String, Integer> saved = new LinkedHashMap<>();
+    private SheetImport current;
+    private int written;
+
+    WorkbookPass(Connection conn, ImportProgress progress) {
+      this.conn = conn;
+      this.progress = progress;
+    }
+
+    /**
+     * Reads the workbook and saves its sheets.
+     *
+     * @return the number of rows saved per table, in save order
+     */
+    Map<String, Integer> read(File workbook) throws IOException, SQLException {
+      try {
+        excelService.readAllSheets(workbook.getPath(), this);
+      } catch (BatchFailure e) {
+        throw e.getCause();
+      }
+      endSheet();
+      if (matched.isEmpty()) {
+        throw new IllegalArgumentException("No sheet of " + workbook.getName()
+            + " contains events, rooms or choices");
+      }
+
+      // The kept sheets follow every streamed sheet in save order
+      for (AbstractExcelService<?> service : services) {
+        SheetImport sheet = matched.get(service);
+        if (sheet != null && !sheet.streamed) {
+          checkCancelled();
+          new DatabaseResetService().deleteAllRows(conn, service.getTableName());
+          for (int from = 0; from < sheet.batch.size(); from += service.getBatchSize()) {
+            checkCancelled();
+            int to = Math.min(from + service.getBatchSize(), sheet.batch.size());
+            written += sheet.insert(sheet.batch.subList(from, to));
+          }
+          saved.put(service.getTableName(), sheet.rows);
+        }
+      }
+      return saved;
+    }
+
+    @Override
+    public ExcelService.RowConsumer sheet(String sheetName) {
+      checkCancelled();
+      try {
+        endSheet();
+      } catch (SQLException e) {
+        throw new BatchFailure(e);
+      }
+      current = new SheetImport(sheetName);
+      return current;
+    }
+
+    /**
+     * Assigns a sheet to the service matching its header row. If the services before it in save
+     * order are saved, the stored rows of its table are deleted so that its rows can be inserted
+     * while they are read.
+     */
+    void match(SheetImport sheet) throws SQLException {
+      SheetImport other = matched.putIfAbsent(sheet.service, sheet);
+      if (other != null) {
+        throw new IllegalArgumentException("Sheets '" + other.sheetName + "' and '"
+            + sheet.sheetName + "' contain the same data");
+      }
+      sheet.streamed = true;
+      for (AbstractExcelService<?> service : services.subList(0, services.indexOf(sheet.service))) {
+        if (!saved.containsKey(service.getTableName())) {
+          sheet.streamed = false;
+          break;
+        }
+      }
+      if (sheet.streamed) {
+        new DatabaseResetService().deleteAllRows(conn, sheet.service.getTableName());
+      }
+    }
+
+    /**
+     * Finishes the sheet read last: a streamed sheet inserts its last batch.
+     */
+    private void endSheet() throws SQLException {
+      SheetImport sheet = current;
+      current = null;
+      if (sheet == null || sheet.service == null) {
+        return;
+      }
+      if (sheet.rows == 0 && sheet.batch.isEmpty()) {
+        throw new IllegalArgumentException("Sheet '" + sheet.sheetName
+            + "' contains no data rows");
+      }
+      if (sheet.streamed) {
+        written += sheet.insert(sheet.batch);
+        saved.put(sheet.service.getTableName(), sheet.rows);
+      }
+    }
+
+    private void checkCancelled() {
+      if (progress.isCancelled()) {
+        throw new CancellationException("Import cancelled");
+      }
+    }
+
+    /**
+     * Converts the rows of one sheet. The rows of a streamed sheet are inserted in batches while
+     * they are read; the rows of a kept sheet are collected until the end of the workbook.
+     */
+    private final class SheetImport implements ExcelService.RowConsumer {
+
+      private final String sheetName;
+      private final List<Object> batch = new ArrayList<>();
+      private AbstractExcelService<Object> service;
+      private ImportPlan plan;
+      private boolean streamed;
+      private int rows;
+
+      SheetImport(String sheetName) {
+        this.sheetName = sheetName;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void headers(String[] headers) {
+        service = (AbstractExcelService<Object>) detectService(headers);
+        if (service == null) {
+          return;
+        }
+        plan = service.compileImportPlan(headers);
+        try {
+          match(this);
+        } catch (SQLException e) {
+          throw new BatchFailure(e);
+        }
+      }
+
+      @Override
+      public void row(int rowNumber, String[] values) {
+        if (service == null) {
+          return;
+        }
+        try {
+          batch.add(service.convertRow(values, plan, rowNumber));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Sheet '" + sheetName + "': " + e.getMessage());
+        }
+        if (streamed && batch.size() == service.getBatchSize()) {
+          checkCancelled();
+          try {
+            written += insert(batch);
+          } catch (SQLException e) {
+            throw new BatchFailure(e);
+          }
+        }
+      }
+
+      /**
+       * Inserts rows of the sheet and clears them if they are the pending batch.
+       *
+       * @return the number of rows inserted
+       */
+      int insert(List<Object> models) throws SQLException {
+        int count = models.size();
+        if (count == 0) {
+          return 0;
+        }
+        service.insertAll(conn, models);
+        if (models == batch) {
+          batch.clear();
+        }
+        rows += count;
+        int total = written + count;
+        progress.update(total, total, total);
+        return count;
+      }
+    }
+  }
+
+  /**
+   * Carries a failed insert out of the row callback, which cannot throw checked exceptions.
+   */
+  private static final class BatchFailure extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    BatchFailure(SQLException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+      return (SQLException) super.getCause();
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.openjfx.services;
 
 import com.openjfx.models.Choice;
 import com.openjfx.models.Event;
+import com.openjfx.models.RunContext;
 import com.openjfx.models.WorkshopDemand;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -11,7 +12,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import com.openjfx.config.DatabaseConfig;
 
 /**
@@ -21,6 +21,27 @@ import com.openjfx.config.DatabaseConfig;
  */
 public class WorkshopDemandService {
 
+  private final RunContext runContext;
+
+  /**
+   * Creates a service that works on the default run.
+   *
+   * @author mian
+   */
+  public WorkshopDemandService() {
+    this(RunContext.DEFAULT);
+  }
+
+  /**
+   * Creates a service that reads and writes the workshop demand of the given run.
+   *
+   * @param runContext the run to work on
+   * @author mian
+   */
+  public WorkshopDemandService(RunContext runContext) {
+    this.runContext = runContext;
+  }
+
   /**
    * Calculates how many workshops are needed for each event based on student assignments.
    *
@@ -57,14 +78,10 @@ public class WorkshopDemandService {
 
       for (List<Choice> assignments : studentAssignments.values()) {
           for (Choice assignment : assignments) {
-              String eventStr = assignment.getChoice1(); // Assuming choice1 contains the assigned event
-              if (eventStr != null && !eventStr.isEmpty()) {
-                  try {
-                      int eventId = Integer.parseInt(eventStr.replaceAll("[^0-9]", ""));
-                      counts.merge(eventId, 1, Integer::sum);
-                  } catch (NumberFormatException e) {
-                      // Ignore invalid assignments
-                  }
+              // The first choice holds the assigned event
+              int eventId = assignment.getChoiceEventId(1);
+              if (eventId != Choice.NO_EVENT) {
+                  counts.merge(eventId, 1, Integer::sum);
               }
           }
       }
@@ -81,12 +98,9 @@ public class WorkshopDemandService {
     Map<Integer, Integer> counts = new HashMap<>();
 
     for (Choice choice : choices) {
-      countEventChoice(counts, choice.getChoice1());
-      countEventChoice(counts, choice.getChoice2());
-      countEventChoice(counts, choice.getChoice3());
-      countEventChoice(counts, choice.getChoice4());
-      countEventChoice(counts, choice.getChoice5());
-      countEventChoice(counts, choice.getChoice6());
+      for (int priority = 1; priority <= 6; priority++) {
+        countEventChoice(counts, choice.getChoiceEventId(priority));
+      }
     }
 
     return counts;
@@ -97,15 +111,9 @@ public class WorkshopDemandService {
    *
    * @author mian
    */
-  private void countEventChoice(Map<Integer, Integer> counts, String choice) {
-    if (choice == null || choice.isEmpty()) {
-      return;
-    }
-    try {
-      int eventId = Integer.parseInt(choice.replaceAll("[^0-9]", ""));
+  private void countEventChoice(Map<Integer, Integer> counts, int eventId) {
+    if (eventId != Choice.NO_EVENT) {
       counts.merge(eventId, 1, Integer::sum);
-    } catch (NumberFormatException e) {
-      // Ignore invalid choices
     }
   }
 
@@ -139,21 +147,17 @@ public class WorkshopDemandService {
    * @author mian
    */
   public boolean saveDemandToDatabase(Map<Integer, Integer> workshopDemand) {
-    String sql = "MERGE INTO workshop_demand (event_id, demand) VALUES (?, ?)";
-
-    try (Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql)) {
+    WriteBehindPersister.PersistTask writer = createDemandWriter(workshopDemand);
 
+    try (Connection conn = DatabaseConfig.getConnection()) {
       conn.setAutoCommit(false);
-
-      for (Map.Entry<Integer, Integer> entry : workshopDemand.entrySet()) {
-        stmt.setInt(1, entry.getKey());
-        stmt.setInt(2, entry.getValue());
-        stmt.addBatch();
+      try {
+        writer.persist(conn);
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
       }
-
-      stmt.executeBatch();
-      conn.commit();
       System.out.println("Workshop demand saved to database successfully");
       return true;
     } catch (SQLException e) {
@@ -163,6 +167,33 @@ public class WorkshopDemandService {
     }
   }
 
+  /**
+   * Creates a writer that merges the given workshop demand into the database. The demand is copied
+   * when this method is called, so the writer can run later on another thread.
+   *
+   * @param workshopDemand Map of event IDs to demand count
+   * @return a task that writes the demand using the caller's transaction
+   * @author mian
+   */
+  public WriteBehindPersister.PersistTask createDemandWriter(Map<Integer, Integer> workshopDemand) {
+    Map<Integer, Integer> snapshot = new HashMap<>(workshopDemand);
+    int runId = runContext.getRunId();
+    String sql = "MERGE INTO workshop_demand (run_id, event_id, demand) KEY (run_id, event_id) "
+        + "VALUES (?, ?, ?)";
+
+    return conn -> {
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        for (Map.Entry<Integer, Integer> entry : snapshot.entrySet()) {
+          stmt.setInt(1, runId);
+          stmt.setInt(2, entry.getKey());
+          stmt.setInt(3, entry.getValue());
+          stmt.addBatch();
+        }
+        stmt.executeBatch();
+      }
+    };
+  }
+
   /**
    * Loads workshop demand data from the database.
    *
@@ -170,12 +201,13 @@ public class WorkshopDemandService {
    * @author mian
    */
   public Map<Integer, Integer> loadDemandFromDatabase() {
-    String sql = "SELECT event_id, demand FROM workshop_demand";
+    String sql = "SELECT event_id, demand FROM workshop_demand WHERE run_id = ?";
     Map<Integer, Integer> workshopDemand = new HashMap<>();
 
     try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(sql)) {
+        PreparedStatement stmt = conn.prepareStatement(sql)) {
+      stmt.setInt(1, runContext.getRunId());
+      ResultSet rs = stmt.executeQuery();
 
       while (rs.next()) {
         int eventId = rs.getInt("event_id");
@@ -202,12 +234,14 @@ public class WorkshopDemandService {
   public List<WorkshopDemand> getAllWorkshopDemands() {
     String sql = "SELECT wd.event_id, wd.demand, e.company, e.subject " +
         "FROM workshop_demand wd " +
-        "JOIN events e ON wd.event_id = e.id";
+        "JOIN events e ON wd.event_id = e.id " +
+        "WHERE wd.run_id = ?";
     List<WorkshopDemand> demands = new ArrayList<>();
 
     try (Connection conn = DatabaseConfig.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(sql)) {
+        PreparedStatement stmt = conn.prepareStatement(sql)) {
+      stmt.setInt(1, runContext.getRunId());
+      ResultSet rs = stmt.executeQuery();
 
       while (rs.next()) {
         int eventId = rs.getInt("event_id");
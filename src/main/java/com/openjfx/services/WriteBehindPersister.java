@@ -0,0 +1,303 @@
+package com.openjfx.services;
+
+import com.openjfx.config.DatabaseConfig;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Write-behind persistence queue for pipeline stage results.
+ *
+ * <p>Stages hand their results to the persister instead of blocking on the database. A dedicated
+ * writer thread drains everything that has queued up since its last pass and writes it in a single
+ * transaction, so computation of the next stage overlaps with the I/O of the previous one. Callers
+ * that need the data to be in the database (exports, steps that read back from the tables) call
+ * {@link #flush()} first.</p>
+ *
+ * <p>If a batched transaction fails, the batch is rolled back and each task is retried in its own
+ * transaction, so one broken stage does not take the others down with it. The first failure,
+ * including a runtime exception thrown by a task, is reported by the next call to
+ * {@link #flush()}.</p>
+ *
+ * <p>If a task throws an {@link Error}, the writer thread stops. The queued tasks are dropped,
+ * and from then on {@link #submit} and {@link #flush()} fail at once instead of waiting for a
+ * writer that no longer runs.</p>
+ *
+ * @author mian
+ */
+public class WriteBehindPersister implements AutoCloseable {
+
+  /**
+   * A unit of work that writes a stage result using the given connection. Implementations must not
+   * commit, roll back or close the connection; the persister owns the transaction.
+   *
+   * @author mian
+   */
+  @FunctionalInterface
+  public interface PersistTask {
+
+    /**
+     * Writes the stage result.
+     *
+     * @param conn the connection of the current write transaction
+     * @throws SQLException if a database access error occurs
+     * @author mian
+     */
+    void persist(Connection conn) throws SQLException;
+  }
+
+  /**
+   * Default maximum number of tasks coalesced into one transaction.
+   */
+  private static final int DEFAULT_MAX_BATCH = 16;
+
+  private final Object lock = new Object();
+  private final Deque<PendingTask> pending = new ArrayDeque<>();
+  private final int maxBatch;
+  private final Thread writerThread;
+
+  private long submittedSeq = 0;
+  private long completedSeq = 0;
+  private SQLException failure;
+  private SQLException stopped;
+  private boolean closed = false;
+
+  /**
+   * Constructs a new persister with the default batch size and starts its writer thread.
+   *
+   * @author mian
+   */
+  public WriteBehindPersister() {
+    this(DEFAULT_MAX_BATCH);
+  }
+
+  /**
+   * Constructs a new persister and starts its writer thread.
+   *
+   * @param maxBatch maximum number of tasks coalesced into one transaction
+   * @author mian
+   */
+  public WriteBehindPersister(int maxBatch) {
+    if (maxBatch < 1) {
+      throw new IllegalArgumentException("maxBatch must be at least 1");
+    }
+    this.maxBatch = maxBatch;
+    this.writerThread = new Thread(this::runWriter, "write-behind-persister");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /**
+   * Queues a stage result for writing and returns immediately.
+   *
+   * @param label a short description used in error messages (e.g. "student assignments")
+   * @param task  the write to perform
+   * @throws IllegalStateException if the persister has been closed or its writer has stopped
+   * @author mian
+   */
+  public void submit(String label, PersistTask task) {
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("Persister is closed");
+      }
+      if (stopped != null) {
+        throw new IllegalStateException(stopped.getMessage(), stopped);
+      }
+      pending.addLast(new PendingTask(++submittedSeq, label, task));
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Blocks until every task submitted before this call has been written.
+   *
+   * @throws SQLException if any write failed since the last flush or the writer has stopped
+   * @author mian
+   */
+  public void flush() throws SQLException {
+    synchronized (lock) {
+      long target = submittedSeq;
+      while (completedSeq < target && stopped == null) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException("Interrupted while waiting for pending writes", e);
+        }
+      }
+      if (failure != null) {
+        SQLException e = failure;
+        failure = null;
+        throw e;
+      }
+      if (stopped != null) {
+        throw stopped;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of tasks that are queued or currently being written.
+   *
+   * @return the number of outstanding tasks
+   * @author mian
+   */
+  public int getPendingCount() {
+    synchronized (lock) {
+      return (int) (submittedSeq - completedSeq);
+    }
+  }
+
+  /**
+   * Flushes all outstanding writes and stops the writer thread.
+   *
+   * @throws SQLException if any write failed since the last flush
+   * @author mian
+   */
+  @Override
+  public void close() throws SQLException {
+    try {
+      flush();
+    } finally {
+      synchronized (lock) {
+        closed = true;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Main loop of the writer thread: waits for work, drains up to {@code maxBatch} tasks and writes
+   * them in one transaction.
+   *
+   * @author mian
+   */
+  private void runWriter() {
+    while (true) {
+      List<PendingTask> batch = new ArrayList<>();
+      synchronized (lock) {
+        while (pending.isEmpty() && !closed) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending.isEmpty()) {
+          return; // closed and drained
+        }
+        while (!pending.isEmpty() && batch.size() < maxBatch) {
+          batch.add(pending.pollFirst());
+        }
+      }
+
+      SQLException batchFailure;
+      try {
+        batchFailure = writeBatch(batch);
+      } catch (Error e) {
+        // The writer dies with the error, so nothing queued will be written anymore
+        synchronized (lock) {
+          stopped = new SQLException("Writer stopped while persisting " + batch.get(0).label
+              + ": " + e, e);
+          pending.clear();
+          completedSeq = submittedSeq;
+          lock.notifyAll();
+        }
+        throw e;
+      }
+      synchronized (lock) {
+        completedSeq = batch.get(batch.size() - 1).seq;
+        if (batchFailure != null && failure == null) {
+          failure = batchFailure;
+        }
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Writes a batch of tasks in one transaction, falling back to one transaction per task if the
+   * batch fails.
+   *
+   * @param batch the tasks to write
+   * @return the first failure, or null if every task was written
+   * @author mian
+   */
+  private SQLException writeBatch(List<PendingTask> batch) {
+    try {
+      runInTransaction(batch);
+      return null;
+    } catch (SQLException | RuntimeException e) {
+      if (batch.size() == 1) {
+        return describe(batch.get(0), e);
+      }
+      System.err.println("Batched write failed, retrying tasks individually: " + e.getMessage());
+    }
+
+    SQLException first = null;
+    for (PendingTask task : batch) {
+      try {
+        runInTransaction(List.of(task));
+      } catch (SQLException | RuntimeException e) {
+        if (first == null) {
+          first = describe(task, e);
+        }
+      }
+    }
+    return first;
+  }
+
+  /**
+   * Runs the given tasks in a single transaction.
+   *
+   * @param tasks the tasks to run
+   * @throws SQLException if any task fails; the transaction is rolled back and runtime exceptions
+   *                      thrown by a task are rethrown as they are
+   * @author mian
+   */
+  private void runInTransaction(List<PendingTask> tasks) throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        for (PendingTask task : tasks) {
+          task.task.persist(conn);
+        }
+        conn.commit();
+      } catch (SQLException | RuntimeException | Error e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  /**
+   * Wraps a failure with the label of the task that caused it.
+   *
+   * @author mian
+   */
+  private SQLException describe(PendingTask task, Exception e) {
+    System.err.println("Error persisting " + task.label + ": " + e.getMessage());
+    return new SQLException("Failed to persist " + task.label + ": " + e.getMessage(), e);
+  }
+
+  /**
+   * A queued task together with its sequence number.
+   */
+  private static class PendingTask {
+
+    private final long seq;
+    private final String label;
+    private final PersistTask task;
+
+    PendingTask(long seq, String label, PersistTask task) {
+      this.seq = seq;
+      this.label = label;
+      this.task = task;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.openjfx.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The file an import reads from. Files on local disks are read in place; files on removable or
+ * network media are first copied to a uniquely named temporary file with {@link TempFileManager},
+ * so that the import is not affected if the medium is unplugged or the connection drops while
+ * it is being read.
+ *
+ * <p>Use it in a try-with-resources block; closing it deletes the snapshot, if one was made.</p>
+ *
+ * @author mian
+ */
+public final class ImportSource implements AutoCloseable {
+
+  /**
+   * File system types of network shares and removable media, as reported by
+   * {@link FileStore#type()}.
+   *
+   * @author mian
+   */
+  private static final Set<String> SNAPSHOT_FILE_SYSTEMS = Set.of(
+      "nfs", "nfs4", "cifs", "smb", "smbfs", "smb2", "smb3", "afpfs", "webdav", "davfs",
+      "fuse.sshfs", "sshfs", "9p", "ftp",
+      "vfat", "msdos", "fat", "fat32", "exfat", "udf", "iso9660", "cd9660", "cdfs");
+
+  private final File file;
+  private final boolean snapshot;
+
+  private ImportSource(File file, boolean snapshot) {
+    this.file = file;
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Opens the selected file for importing.
+   *
+   * @param selectedFile the file selected by the user
+   * @return the import source
+   * @throws IOException if the file does not exist or cannot be copied
+   * @author mian
+   */
+  public static ImportSource open(File selectedFile) throws IOException {
+    Path path = selectedFile.toPath();
+    if (!Files.isRegularFile(path)) {
+      throw new IOException("File not found: " + selectedFile);
+    }
+    if (needsSnapshot(path)) {
+      return new ImportSource(TempFileManager.createTempFile(selectedFile), true);
+    }
+    return new ImportSource(selectedFile, false);
+  }
+
+  /**
+   * Returns whether a file lies on removable or network media. If the file store cannot be
+   * determined, the file is read in place.
+   *
+   * @param path the file to check
+   * @return true if the file should be copied before it is read
+   * @author mian
+   */
+  static boolean needsSnapshot(Path path) {
+    // Windows UNC path such as \\server\share
+    if (path.toString().startsWith("\\\\")) {
+      return true;
+    }
+    try {
+      FileStore store = Files.getFileStore(path);
+      if (SNAPSHOT_FILE_SYSTEMS.contains(store.type().toLowerCase(Locale.ROOT))) {
+        return true;
+      }
+      return isRemovable(store);
+    } catch (IOException | SecurityException e) {
+      System.err.println("Could not determine the file store of " + path + ": " + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Asks the file store whether it is a removable drive or CD-ROM. Only Windows reports this.
+   *
+   * @author mian
+   */
+  private static boolean isRemovable(FileStore store) {
+    for (String attribute : new String[]{"volume:isRemovable", "volume:isCdrom"}) {
+      try {
+        if (Boolean.TRUE.equals(store.getAttribute(attribute))) {
+          return true;
+        }
+      } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the file to read, which is either the selected file or its snapshot.
+   *
+   * @return the file to read
+   * @author mian
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Returns whether the file is a temporary snapshot of the selected file.
+   *
+   * @return true if the selected file was copied
+   * @author mian
+   */
+  public boolean isSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Deletes the snapshot, if one was made. The selected file is never touched.
+   *
+   * @author mian
+   */
+  @Override
+  public void close() {
+    if (snapshot) {
+      TempFileManager.deleteTempFile(file);
+    }
+  }
+}
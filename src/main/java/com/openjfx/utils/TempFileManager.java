@@ -17,7 +17,9 @@ public class TempFileManager {
   public static final String TEMP_DIR = "temp_imports";
 
   /**
-   * Creates a temporary file by copying the source file to a temporary directory.
+   * Creates a temporary file by copying the source file to a temporary directory. The name of the
+   * copy is unique, so concurrent imports of files with the same name do not overwrite each other;
+   * it keeps the original name and extension as prefix and suffix.
    *
    * @param sourceFile the source file to be copied
    * @return the created temporary file
@@ -29,12 +31,20 @@ public class TempFileManager {
     Path tempDir = Path.of(TEMP_DIR);
     Files.createDirectories(tempDir);
 
-    // Create temp file with original name
+    // Create a uniquely named temp file that keeps the original extension
     String originalName = sourceFile.getName();
-    Path tempPath = tempDir.resolve(originalName);
+    int dot = originalName.lastIndexOf('.');
+    String baseName = dot > 0 ? originalName.substring(0, dot) : originalName;
+    String extension = dot > 0 ? originalName.substring(dot) : "";
+    Path tempPath = Files.createTempFile(tempDir, baseName + "-", extension);
 
     // Copy the file
-    Files.copy(sourceFile.toPath(), tempPath, StandardCopyOption.REPLACE_EXISTING);
+    try {
+      Files.copy(sourceFile.toPath(), tempPath, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(tempPath);
+      throw e;
+    }
 
     return tempPath.toFile();
   }
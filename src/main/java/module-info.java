@@ -12,6 +12,7 @@ module com.openjfx {
   requires com.h2database;
   requires javafx.base;
   requires java.desktop;
+  requires java.xml;
   opens com.openjfx.models to javafx.base;
 
   opens com.openjfx to javafx.fxml;
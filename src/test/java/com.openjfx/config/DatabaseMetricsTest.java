@@ -0,0 +1,56 @@
+package com.openjfx.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the DatabaseMetrics class.
+ *
+ * @author mian
+ */
+class DatabaseMetricsTest {
+
+  private static final String SQL = "SELECT * FROM metrics_test WHERE id = ?";
+
+  @BeforeEach
+  void setUp() {
+    DatabaseMetrics.reset();
+  }
+
+  @Test
+  void recordStatement_countsExecutionsAndRows() {
+    DatabaseMetrics.recordStatement(SQL, 2_000_000, -1);
+    DatabaseMetrics.recordRows(SQL, 3);
+    DatabaseMetrics.recordStatement(SQL, 500_000, 4);
+
+    assertEquals(2, DatabaseMetrics.getExecutionCount(SQL));
+    assertEquals(7, DatabaseMetrics.getRowCount(SQL));
+  }
+
+  @Test
+  void recordStatement_normalizesWhitespace() {
+    DatabaseMetrics.recordStatement("SELECT *\n  FROM metrics_test   WHERE id = ?", 1000, 1);
+
+    assertEquals(1, DatabaseMetrics.getExecutionCount(SQL));
+  }
+
+  @Test
+  void getSummary_listsStatements() {
+    DatabaseMetrics.recordStatement(SQL, 1_000_000, 1);
+    DatabaseMetrics.recordPoolWait(10_000);
+
+    String summary = DatabaseMetrics.getSummary();
+    assertTrue(summary.contains(SQL));
+    assertTrue(summary.contains("Pool wait: n=1"));
+  }
+
+  @Test
+  void reset_clearsStatistics() {
+    DatabaseMetrics.recordStatement(SQL, 1000, 1);
+    DatabaseMetrics.reset();
+
+    assertEquals(0, DatabaseMetrics.getExecutionCount(SQL));
+  }
+}
@@ -0,0 +1,34 @@
+package com.openjfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportDeltaTest {
+
+  @Test
+  void testAffectedKeys() {
+    ImportDelta delta = new ImportDelta(List.of("1"), List.of("2"), List.of("3"), 7);
+
+    assertEquals(Set.of("1", "2", "3"), delta.getAffectedKeys());
+    assertEquals(7, delta.getUnchanged());
+    assertFalse(delta.isEmpty());
+  }
+
+  @Test
+  void testEmptyDelta() {
+    ImportDelta delta = new ImportDelta(List.of(), List.of(), List.of(), 4);
+
+    assertTrue(delta.isEmpty());
+    assertTrue(delta.getAffectedKeys().isEmpty());
+  }
+
+  @Test
+  void testToString() {
+    ImportDelta delta = new ImportDelta(List.of("1"), List.of(), List.of("3", "4"), 2);
+    assertEquals("ImportDelta{inserted=1, updated=0, deleted=2, unchanged=2}", delta.toString());
+  }
+}
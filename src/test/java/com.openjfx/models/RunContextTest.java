@@ -0,0 +1,38 @@
+package com.openjfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunContextTest {
+
+  @Test
+  void testRunContext() {
+    RunContext run = new RunContext(3, "Fewer rooms");
+
+    assertEquals(3, run.getRunId());
+    assertEquals("Fewer rooms", run.getName());
+  }
+
+  @Test
+  void testDefaultRun() {
+    assertEquals(1, RunContext.DEFAULT.getRunId());
+  }
+
+  @Test
+  void testEquals() {
+    RunContext run1 = new RunContext(2, "A");
+    RunContext run2 = new RunContext(2, "B");
+    RunContext run3 = new RunContext(3, "A");
+
+    assertEquals(run1, run2);
+    assertNotEquals(run1, run3);
+    assertEquals(run1.hashCode(), run2.hashCode());
+  }
+
+  @Test
+  void testToString() {
+    RunContext run = new RunContext(2, "Test");
+    assertEquals("RunContext{runId=2, name='Test'}", run.toString());
+  }
+}
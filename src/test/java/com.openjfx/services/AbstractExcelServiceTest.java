@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,8 @@ import java.util.List;
 
 class AbstractExcelServiceTest {
 
+  private static final String TABLE = "test_models";
+
   private TestModelService testService;
 
   @BeforeEach
@@ -25,14 +29,14 @@ class AbstractExcelServiceTest {
   }
 
   @Test
-  void testFindColumn() {
-    Map<String, String> row = Map.of(
-        "Test Column", "value",
-        "Another Column", "value2"
-    );
-
-    assertEquals("Test Column", testService.findColumn(row, "test"));
-    assertEquals("", testService.findColumn(row, "nonexistent"));
+  void testCompileImportPlan() {
+    ImportPlan plan = testService.compileImportPlan(
+        new String[]{"Another Column", "Test Column"});
+
+    assertEquals("Test Column", plan.getColumnMappings().get("name"));
+    assertEquals(1, plan.getColumn(0));
+    assertEquals("", testService.compileImportPlan(new String[]{"Other"})
+        .getColumnMappings().get("name"));
   }
 
   @Test
@@ -67,6 +71,15 @@ class AbstractExcelServiceTest {
     }
   }
 
+  @Test
+  void testBatchSize() {
+    assertEquals(AbstractExcelService.DEFAULT_BATCH_SIZE, testService.getBatchSize());
+
+    testService.setBatchSize(50);
+    assertEquals(50, testService.getBatchSize());
+    assertThrows(IllegalArgumentException.class, () -> testService.setBatchSize(0));
+  }
+
   // Test implementation of AbstractExcelService
   private static class TestModelService extends AbstractExcelService<TestModel> {
 
@@ -85,9 +98,13 @@ class AbstractExcelServiceTest {
     }
 
     @Override
-    protected TestModel createModelFromRow(Map<String, String> row,
-        Map<String, String> columnMappings) {
-      String name = row.get(columnMappings.get("name"));
+    protected List<String> getImportFields() {
+      return List.of("name");
+    }
+
+    @Override
+    protected TestModel createModelFromValues(String[] values, ImportPlan plan) {
+      String name = plan.get(values, 0);
       return name != null ? new TestModel(name) : null;
     }
 
@@ -95,6 +112,52 @@ class AbstractExcelServiceTest {
     protected Map<String, Object> convertModelToRow(TestModel model) {
       return Map.of("Test Column", model.getName());
     }
+
+    @Override
+    protected String getInsertSql() {
+      return "INSERT INTO " + TABLE + " (name) VALUES (?)";
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement pstmt, TestModel model) throws SQLException {
+      pstmt.setString(1, model.getName());
+    }
+
+    @Override
+    protected String getTableName() {
+      return TABLE;
+    }
+
+    @Override
+    protected String getNaturalKey(TestModel model) {
+      return model.getName();
+    }
+
+    @Override
+    protected List<TestModel> loadExisting() {
+      return List.of();
+    }
+
+    @Override
+    protected String getUpdateSql() {
+      return "UPDATE " + TABLE + " SET name = ? WHERE name = ?";
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement pstmt, TestModel model) throws SQLException {
+      pstmt.setString(1, model.getName());
+      pstmt.setString(2, model.getName());
+    }
+
+    @Override
+    protected String getDeleteSql() {
+      return "DELETE FROM " + TABLE + " WHERE name = ?";
+    }
+
+    @Override
+    protected void bindDelete(PreparedStatement pstmt, TestModel model) throws SQLException {
+      pstmt.setString(1, model.getName());
+    }
   }
 
   private static class TestModel {
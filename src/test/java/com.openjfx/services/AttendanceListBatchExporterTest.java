@@ -0,0 +1,156 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.StudentAssignment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the AttendanceListBatchExporter class.
+ *
+ * @author mian
+ */
+class AttendanceListBatchExporterTest {
+
+  private final TimetableService timetableService = new TimetableService();
+  private final String prefix = new File(timetableService.getFilePathEvent()).getName();
+
+  private static StudentAssignment assignment(int eventId, String lastName, String company,
+      String timeSlot) {
+    StudentAssignment assignment = new StudentAssignment(eventId, "Max", lastName, "ASS221",
+        company, "");
+    assignment.setTimeSlot(timeSlot);
+    return assignment;
+  }
+
+  private static List<Object> assignments() {
+    List<Object> assignments = new ArrayList<>();
+    assignments.add(assignment(3, "Weber", "Zoll", "A"));
+    assignments.add(assignment(1, "Schmidt", "Polizei", "A"));
+    assignments.add("not an assignment");
+    assignments.add(assignment(3, "Meyer", "Zoll", "B"));
+    assignments.add(assignment(2, "Fischer", "Polizei", "C"));
+    return assignments;
+  }
+
+  @Test
+  void groupByEvent_groupsAssignmentsInEventOrder() {
+    Map<Integer, List<Object>> groups = AttendanceListBatchExporter.groupByEvent(assignments());
+
+    assertEquals(List.of(1, 2, 3), new ArrayList<>(groups.keySet()));
+    assertEquals(2, groups.get(3).size());
+    assertEquals("Weber", ((StudentAssignment) groups.get(3).get(0)).getLastName());
+    assertEquals("Meyer", ((StudentAssignment) groups.get(3).get(1)).getLastName());
+  }
+
+  @Test
+  void exportToDirectory_writesOneFilePerEventAndFormat(@TempDir Path tempDir)
+      throws IOException {
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService, 2);
+    List<int[]> updates = new ArrayList<>();
+
+    List<File> files = exporter.exportToDirectory(assignments(), tempDir.toFile(),
+        EnumSet.allOf(AttendanceListBatchExporter.Format.class),
+        (done, total) -> updates.add(new int[]{done, total}));
+
+    assertEquals(6, files.size());
+    assertEquals(prefix + "_Polizei.xlsx", files.get(0).getName());
+    assertEquals(prefix + "_Polizei.pdf", files.get(1).getName());
+    assertEquals(prefix + "_Polizei_2.xlsx", files.get(2).getName());
+    assertEquals(prefix + "_Zoll.pdf", files.get(5).getName());
+    for (File file : files) {
+      assertTrue(file.length() > 0);
+    }
+    assertEquals(6, updates.size());
+    assertArrayEquals(new int[]{6, 6}, updates.get(5));
+
+    try (Workbook workbook = WorkbookFactory.create(files.get(4))) {
+      assertEquals(1, workbook.getNumberOfSheets());
+    }
+  }
+
+  @Test
+  void exportToZip_writesEntriesInEventOrder() throws IOException {
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService, 3);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    List<String> names = exporter.exportToZip(assignments(), out,
+        EnumSet.of(AttendanceListBatchExporter.Format.EXCEL), ExportProgress.NONE);
+
+    List<String> entries = new ArrayList<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.add(entry.getName());
+        assertTrue(zip.readAllBytes().length > 0);
+      }
+    }
+    assertEquals(List.of(prefix + "_Polizei.xlsx", prefix + "_Polizei_2.xlsx",
+        prefix + "_Zoll.xlsx"), entries);
+    assertEquals(entries, names);
+  }
+
+  @Test
+  void exportToZip_stopsWhenCancelled() {
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService, 2);
+    int[] written = new int[1];
+    ExportProgress progress = new ExportProgress() {
+      @Override
+      public void update(int done, int total) {
+        written[0] = done;
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return written[0] >= 1;
+      }
+    };
+
+    assertThrows(CancellationException.class, () -> exporter.exportToZip(assignments(),
+        new ByteArrayOutputStream(), EnumSet.of(AttendanceListBatchExporter.Format.PDF),
+        progress));
+    assertEquals(1, written[0]);
+  }
+
+  @Test
+  void exportChangedToDirectory_rendersOnlyEventsWhoseParticipantsChanged(@TempDir Path tempDir)
+      throws IOException {
+    AttendanceListBatchExporter exporter = new AttendanceListBatchExporter(timetableService, 2);
+    EnumSet<AttendanceListBatchExporter.Format> pdf =
+        EnumSet.of(AttendanceListBatchExporter.Format.PDF);
+    exporter.exportToDirectory(assignments(), tempDir.toFile(), pdf, ExportProgress.NONE);
+
+    assertTrue(exporter.exportChangedToDirectory(assignments(), tempDir.toFile(), pdf,
+        ExportProgress.NONE).isEmpty());
+
+    List<Object> corrected = assignments();
+    corrected.add(assignment(3, "Neumann", "Zoll", "B"));
+    List<File> files = exporter.exportChangedToDirectory(corrected, tempDir.toFile(), pdf,
+        ExportProgress.NONE);
+
+    assertEquals(1, files.size());
+    assertEquals(prefix + "_Zoll.pdf", files.get(0).getName());
+    assertTrue(tempDir.resolve(ExportManifest.FILE_NAME).toFile().isFile());
+
+    // Deleted outputs count as changed
+    assertTrue(tempDir.resolve(prefix + "_Polizei.pdf").toFile().delete());
+    files = exporter.exportChangedToDirectory(corrected, tempDir.toFile(), pdf,
+        ExportProgress.NONE);
+    assertEquals(1, files.size());
+    assertEquals(prefix + "_Polizei.pdf", files.get(0).getName());
+  }
+}
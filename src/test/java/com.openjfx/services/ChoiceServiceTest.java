@@ -108,4 +108,74 @@ class ChoiceServiceTest {
     assertEquals("Event1", loadedChoice.getChoice1());
     assertTrue(loadedChoice.getChoice2().isEmpty());
   }
-}
\ No newline at end of file
+
+  @Test
+  void testPlanDelta_DetectsInsertedUpdatedAndDeletedStudents() {
+    List<Choice> stored = List.of(
+        new Choice("10A", "John", "Doe", "1", "2", "3", "4", "5", "6"),
+        new Choice("10A", "Jane", "Smith", "1", "2", "3", "4", "5", "6"),
+        new Choice("10B", "Max", "Muster", "1", "2", "3", "4", "5", "6"));
+    List<Choice> imported = List.of(
+        new Choice("10A", "John", "Doe", "1", "2", "3", "4", "5", "6"),
+        new Choice("10A", "Jane", "Smith", "6", "2", "3", "4", "5", "1"),
+        new Choice("10C", "Erika", "Muster", "1", "2", "3", "4", "5", "6"));
+
+    AbstractExcelService.DeltaPlan<Choice> plan = choiceService.planDelta(stored, imported);
+
+    assertEquals(List.of("Erika Muster (10C)"), plan.inserted);
+    assertEquals(List.of("Jane Smith (10A)"), plan.updated);
+    assertEquals(List.of("Max Muster (10B)"), plan.deleted);
+    assertEquals(1, plan.unchanged);
+    assertEquals(1, plan.updates.size());
+    assertEquals(1, plan.deletes.size());
+  }
+
+  @Test
+  void testPlanDelta_ReplacesStoredDuplicates() {
+    Choice duplicate = new Choice("10A", "John", "Doe", "1", "2", "3", "4", "5", "6");
+    List<Choice> stored = List.of(duplicate, duplicate);
+
+    AbstractExcelService.DeltaPlan<Choice> plan =
+        choiceService.planDelta(stored, List.of(duplicate));
+
+    assertEquals(List.of("John Doe (10A)"), plan.updated);
+    assertEquals(1, plan.deletes.size());
+    assertEquals(1, plan.inserts.size());
+  }
+
+  @Test
+  void testPlanDelta_RejectsDuplicateImportRows() {
+    Choice choice = new Choice("10A", "John", "Doe", "1", "2", "3", "4", "5", "6");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> choiceService.planDelta(List.of(), List.of(choice, choice)));
+  }
+
+  @Test
+  void testParseEventId_IgnoresAllButDigits() {
+    assertEquals(12, ChoiceService.parseEventId("12"));
+    assertEquals(7, ChoiceService.parseEventId(" Nr. 07 "));
+    assertEquals(Choice.NO_EVENT, ChoiceService.parseEventId(""));
+    assertEquals(Choice.NO_EVENT, ChoiceService.parseEventId("Event"));
+    assertEquals(Choice.NO_EVENT, ChoiceService.parseEventId(null));
+    assertEquals(Choice.NO_EVENT, ChoiceService.parseEventId("99999999999"));
+  }
+
+  @Test
+  void testLoadChoicesFromExcel_ResolvesEventIds(@TempDir Path tempDir) throws IOException {
+    Path testFile = tempDir.resolve("choices.xlsx");
+    choiceService.saveToExcel(
+        List.of(new Choice("10A", "John", "Doe", "3", "Nr. 5", "", "x", "12", "4")),
+        testFile.toString());
+
+    Choice choice = choiceService.loadFromExcel(testFile.toFile()).get(0);
+
+    assertEquals("Nr. 5", choice.getChoice2());
+    assertEquals(3, choice.getChoiceEventId(1));
+    assertEquals(5, choice.getChoiceEventId(2));
+    assertEquals(Choice.NO_EVENT, choice.getChoiceEventId(3));
+    assertEquals(Choice.NO_EVENT, choice.getChoiceEventId(4));
+    assertEquals(12, choice.getChoiceEventId(5));
+    assertEquals(4, choice.getChoiceEventId(6));
+  }
+}
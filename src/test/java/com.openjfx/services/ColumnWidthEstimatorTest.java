@@ -0,0 +1,93 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ColumnWidthEstimator class.
+ *
+ * @author mian
+ */
+class ColumnWidthEstimatorTest {
+
+  @Test
+  void track_measuresDigitsInCharacterUnits() {
+    ColumnWidthEstimator widths = new ColumnWidthEstimator();
+
+    widths.track(0, "12345");
+    widths.track(1, "first line\nlonger second line");
+    widths.track(1, "short");
+
+    assertEquals(5, widths.getWidth(0), 0.001f);
+    assertTrue(widths.getWidth(1) > widths.getWidth(0));
+    assertEquals(0, widths.getWidth(7));
+  }
+
+  @Test
+  void track_weighsCharacterWidthsFontSizeAndWeight() {
+    ColumnWidthEstimator widths = new ColumnWidthEstimator();
+
+    widths.track(0, "iiiiiiiiii");
+    widths.track(1, "WWWWWWWWWW");
+    widths.track(2, "Mustermann");
+    widths.track(3, "Mustermann", true, 11);
+    widths.track(4, "Mustermann", false, 22);
+
+    assertTrue(widths.getWidth(0) < widths.getWidth(1));
+    assertTrue(widths.getWidth(2) < widths.getWidth(3));
+    assertEquals(2 * widths.getWidth(2), widths.getWidth(4), 0.001f);
+  }
+
+  @Test
+  void track_countsUnsupportedCharactersAsOneCharacter() {
+    ColumnWidthEstimator widths = new ColumnWidthEstimator();
+
+    widths.track(0, "中文");
+
+    assertEquals(2, widths.getWidth(0), 0.001f);
+  }
+
+  @Test
+  void apply_setsWidthsFromStyledRowsOfStreamingSheet(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("widths.xlsx");
+
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
+      Sheet sheet = workbook.createSheet("Data");
+      ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+      ColumnWidthEstimator widths = new ColumnWidthEstimator();
+      Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue("Name");
+      header.createCell(1).setCellValue("Punkte");
+      header.getCell(1).setCellStyle(styles.get(ExcelStyleSpec.PLAIN.bold().fontSize(22)));
+      widths.track(header);
+      for (int i = 1; i <= StreamingWorkbook.ROW_WINDOW * 2; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0).setCellValue(i == 1 ? "Maximilian Mustermann" : "Anna");
+        row.createCell(1).setCellValue(i);
+        widths.track(row);
+      }
+
+      widths.apply(sheet, 3);
+      StreamingWorkbook.write(workbook, file.toString());
+    }
+
+    try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+      Sheet sheet = workbook.getSheetAt(0);
+      int nameWidth = sheet.getColumnWidth(0);
+      int pointsWidth = sheet.getColumnWidth(1);
+      assertTrue(nameWidth > 18 * 256 && nameWidth < 23 * 256, "name: " + nameWidth);
+      // The large bold header is wider than its six characters
+      assertTrue(pointsWidth > (6 + 2) * 256, "points: " + pointsWidth);
+      assertEquals(sheet.getDefaultColumnWidth() * 256, sheet.getColumnWidth(2));
+    }
+  }
+}
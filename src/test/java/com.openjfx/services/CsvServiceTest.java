@@ -0,0 +1,103 @@
+package com.openjfx.services;
+
+import com.openjfx.models.Choice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testRoundTripWithQuotedFields() throws IOException {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("Name", "Doe, \"Johnny\"");
+    row.put("Note", "line1\nline2");
+    row.put("Age", 30);
+    String filePath = tempDir.resolve("roundtrip.csv").toString();
+
+    new ExcelService().createExcelFile(List.of(row), filePath);
+    List<Map<String, String>> result = new ExcelService().readExcelFile(filePath);
+
+    assertEquals(1, result.size());
+    assertEquals("Doe, \"Johnny\"", result.get(0).get("Name"));
+    assertEquals("line1\nline2", result.get(0).get("Note"));
+    assertEquals("30", result.get(0).get("Age"));
+  }
+
+  @Test
+  void testReadsSemicolonSeparatedWindows1252() throws IOException {
+    Path file = tempDir.resolve("rooms.csv");
+    Files.write(file, "Raum;Kapazität\r\nRäum 1;20\r\n\r\nB 2;15"
+        .getBytes(Charset.forName("windows-1252")));
+
+    List<Integer> rowNumbers = new ArrayList<>();
+    List<String[]> rows = new ArrayList<>();
+    new CsvService().readCsvFile(file.toString(), new ExcelService.RowConsumer() {
+      @Override
+      public void headers(String[] headers) {
+        assertArrayEquals(new String[]{"Raum", "Kapazität"}, headers);
+      }
+
+      @Override
+      public void row(int rowNumber, String[] values) {
+        rowNumbers.add(rowNumber);
+        rows.add(values.clone());
+      }
+    });
+
+    assertEquals(List.of(2, 4), rowNumbers);
+    assertArrayEquals(new String[]{"Räum 1", "20"}, rows.get(0));
+    assertArrayEquals(new String[]{"B 2", "15"}, rows.get(1));
+  }
+
+  @Test
+  void testReadsRecordsAcrossBufferBoundaries() throws IOException {
+    StringBuilder csv = new StringBuilder("Name,Value\n");
+    for (int i = 0; i < 20000; i++) {
+      csv.append("\"name ").append(i).append("\",ü").append(i).append('\n');
+    }
+    Path file = tempDir.resolve("large.csv");
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    List<Map<String, String>> result = new ExcelService().readExcelFile(file.toString());
+
+    assertEquals(20000, result.size());
+    assertEquals("name 12345", result.get(12345).get("Name"));
+    assertEquals("ü19999", result.get(19999).get("Value"));
+  }
+
+  @Test
+  void testLoadChoicesFromCsv() throws IOException {
+    Path file = tempDir.resolve("choices.csv");
+    Files.writeString(file, "Klasse;Vorname;Name;Wahl 1;Wahl 2;Wahl 3;Wahl 4;Wahl 5;Wahl 6\n"
+        + "10A;John;Doe;1;2;3;4;5;6\n");
+
+    List<Choice> choices = new ChoiceService(new ExcelService()).loadFromExcel(file.toFile());
+
+    assertEquals(1, choices.size());
+    assertEquals("10A", choices.get(0).getClassRef());
+    assertEquals("Doe", choices.get(0).getLastName());
+    assertEquals("6", choices.get(0).getChoice6());
+  }
+
+  @Test
+  void testIsCsvFile() {
+    assertTrue(CsvService.isCsvFile("data" + File.separator + "Choices.CSV"));
+    assertFalse(CsvService.isCsvFile("choices.xlsx"));
+  }
+}
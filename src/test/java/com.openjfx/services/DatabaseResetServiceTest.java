@@ -0,0 +1,185 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.config.DatabaseConfig;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * Tests for the DatabaseResetService class. The table ordering is tested on its own; resetting
+ * and deleting use scratch tables in the application database.
+ *
+ * @author mian
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DatabaseResetServiceTest {
+
+  private static final String PARENT = "reset_test_parent";
+  private static final String CHILD = "reset_test_child";
+  private static final String NULLED = "reset_test_nulled";
+  private static final String LONE = "reset_test_lone";
+
+  private final DatabaseResetService resetService = new DatabaseResetService();
+
+  @BeforeAll
+  void createTables() throws SQLException {
+    DatabaseConfig.initializeDatabase();
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE IF NOT EXISTS " + PARENT
+          + " (id INTEGER PRIMARY KEY AUTO_INCREMENT, name VARCHAR(50))");
+      stmt.execute("CREATE TABLE IF NOT EXISTS " + CHILD
+          + " (id INTEGER PRIMARY KEY AUTO_INCREMENT, parent_id INTEGER NOT NULL,"
+          + " FOREIGN KEY (parent_id) REFERENCES " + PARENT + "(id))");
+      stmt.execute("CREATE TABLE IF NOT EXISTS " + NULLED
+          + " (id INTEGER PRIMARY KEY AUTO_INCREMENT, parent_id INTEGER NULL,"
+          + " FOREIGN KEY (parent_id) REFERENCES " + PARENT + "(id) ON DELETE SET NULL)");
+      stmt.execute("CREATE TABLE IF NOT EXISTS " + LONE
+          + " (id INTEGER PRIMARY KEY AUTO_INCREMENT, name VARCHAR(50))");
+    }
+  }
+
+  @AfterAll
+  void dropTables() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      for (String table : List.of(CHILD, NULLED, PARENT, LONE)) {
+        stmt.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      for (String table : List.of(CHILD, NULLED, PARENT, LONE)) {
+        stmt.executeUpdate("DELETE FROM " + table);
+      }
+      stmt.executeUpdate("INSERT INTO " + PARENT + " (name) VALUES ('a'), ('b')");
+      stmt.executeUpdate("INSERT INTO " + CHILD + " (parent_id) SELECT id FROM " + PARENT);
+      stmt.executeUpdate("INSERT INTO " + NULLED + " (parent_id) SELECT id FROM " + PARENT);
+      stmt.executeUpdate("INSERT INTO " + LONE + " (name) VALUES ('x'), ('y')");
+    }
+  }
+
+  @Test
+  void reset_emptiesReferencingTablesAndRestartsIdentities() throws SQLException {
+    // The parent is referenced, so it is deleted; the unreferenced table is truncated
+    assertTrue(resetService.reset(PARENT, LONE));
+
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      assertEquals(0, count(conn, PARENT));
+      assertEquals(0, count(conn, CHILD));
+      assertEquals(0, count(conn, LONE));
+      // ON DELETE SET NULL keeps the rows and only clears the reference
+      assertEquals(2, count(conn, NULLED));
+      assertEquals(0, count(conn, NULLED + " WHERE parent_id IS NOT NULL"));
+
+      assertEquals(1, insertName(conn, PARENT));
+      assertEquals(1, insertName(conn, LONE));
+    }
+  }
+
+  @Test
+  void deleteAllRows_isUndoneByRollback() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection()) {
+      int lastId = max(conn, PARENT);
+      conn.setAutoCommit(false);
+      try {
+        resetService.deleteAllRows(conn, PARENT.toLowerCase());
+
+        assertEquals(0, count(conn, PARENT));
+        assertEquals(0, count(conn, CHILD));
+        assertEquals(2, count(conn, NULLED));
+        assertEquals(2, count(conn, LONE));
+      } finally {
+        conn.rollback();
+        conn.setAutoCommit(true);
+      }
+
+      assertEquals(2, count(conn, PARENT));
+      assertEquals(2, count(conn, CHILD));
+      assertEquals(2, count(conn, NULLED + " WHERE parent_id IS NOT NULL"));
+      // Nothing was truncated and no identity restarted, so new ids continue
+      assertTrue(insertName(conn, PARENT) > lastId);
+    }
+  }
+
+  private static int count(Connection conn, String from) throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + from)) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private static int max(Connection conn, String table) throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM " + table)) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private static int insertName(Connection conn, String table) throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.executeUpdate("INSERT INTO " + table + " (name) VALUES ('new')",
+          Statement.RETURN_GENERATED_KEYS);
+      try (ResultSet keys = stmt.getGeneratedKeys()) {
+        keys.next();
+        return keys.getInt(1);
+      }
+    }
+  }
+
+  @Test
+  void orderForReset_addsReferencingTablesBeforeParent() {
+    Map<String, Set<String>> children = Map.of("EVENTS", Set.of("WORKSHOP_DEMAND"));
+
+    List<String> ordered = DatabaseResetService.orderForReset(Set.of("EVENTS"), children);
+
+    assertEquals(List.of("WORKSHOP_DEMAND", "EVENTS"), ordered);
+  }
+
+  @Test
+  void orderForReset_followsChainsOfForeignKeys() {
+    Map<String, Set<String>> children = Map.of(
+        "A", Set.of("B"),
+        "B", Set.of("C"));
+
+    List<String> ordered = DatabaseResetService.orderForReset(Set.of("A", "B"), children);
+
+    assertEquals(List.of("C", "B", "A"), ordered);
+  }
+
+  @Test
+  void orderForReset_leavesUnrelatedTablesAlone() {
+    Map<String, Set<String>> children = Map.of("EVENTS", Set.of("WORKSHOP_DEMAND"));
+
+    List<String> ordered = DatabaseResetService.orderForReset(Set.of("CHOICES"), children);
+
+    assertEquals(List.of("CHOICES"), ordered);
+  }
+
+  @Test
+  void orderForReset_rejectsCycles() {
+    Map<String, Set<String>> children = Map.of(
+        "A", Set.of("B"),
+        "B", Set.of("A"));
+
+    assertThrows(IllegalStateException.class,
+        () -> DatabaseResetService.orderForReset(Set.of("A"), children));
+  }
+}
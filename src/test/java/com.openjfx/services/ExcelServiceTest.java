@@ -1,7 +1,13 @@
 package com.openjfx.services;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.util.Date;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
@@ -251,4 +257,59 @@ class ExcelServiceTest {
     assertEquals("", result.get(1).get("Name"));
     assertEquals("", result.get(2).get("Role"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testReadExcelFileStreamsIndexedRows() throws IOException {
+    String filePath = tempDir.resolve("stream.xlsx").toString();
+    try (Workbook workbook = new XSSFWorkbook()) {
+      Sheet sheet = workbook.createSheet("Data");
+      Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue(" Name ");
+      header.createCell(1).setCellValue("Age");
+      Row row = sheet.createRow(3);
+      row.createCell(1).setCellValue(42);
+      row.createCell(5).setCellValue("ignored");
+      try (FileOutputStream out = new FileOutputStream(filePath)) {
+        workbook.write(out);
+      }
+    }
+
+    List<String[]> headers = new ArrayList<>();
+    List<Integer> rowNumbers = new ArrayList<>();
+    List<String[]> rows = new ArrayList<>();
+    new ExcelService().readExcelFile(filePath, new ExcelService.RowConsumer() {
+      @Override
+      public void headers(String[] names) {
+        headers.add(names);
+      }
+
+      @Override
+      public void row(int rowNumber, String[] values) {
+        rowNumbers.add(rowNumber);
+        rows.add(values.clone());
+      }
+    });
+
+    assertArrayEquals(new String[]{"Name", "Age"}, headers.get(0));
+    assertEquals(List.of(4), rowNumbers);
+    assertArrayEquals(new String[]{"", "42"}, rows.get(0));
+  }
+
+  @Test
+  void testReadLegacyXlsFile() throws IOException {
+    String filePath = tempDir.resolve("legacy.xls").toString();
+    try (Workbook workbook = new HSSFWorkbook()) {
+      Sheet sheet = workbook.createSheet("Data");
+      sheet.createRow(0).createCell(0).setCellValue("Name");
+      sheet.createRow(1).createCell(0).setCellValue("John");
+      try (FileOutputStream out = new FileOutputStream(filePath)) {
+        workbook.write(out);
+      }
+    }
+
+    List<Map<String, String>> result = new ExcelService().readExcelFile(filePath);
+
+    assertEquals(1, result.size());
+    assertEquals("John", result.get(0).get("Name"));
+  }
+}
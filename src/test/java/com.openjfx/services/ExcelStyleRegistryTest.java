@@ -0,0 +1,94 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ExcelStyleRegistry class.
+ *
+ * @author mian
+ */
+class ExcelStyleRegistryTest {
+
+  @Test
+  void get_createsEachSpecAndFontOnce() throws IOException {
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
+      ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+      int initialStyles = workbook.getNumCellStyles();
+      int initialFonts = workbook.getNumberOfFonts();
+      ExcelStyleSpec header = ExcelStyleSpec.PLAIN.borders(BorderStyle.THIN).bold().fontSize(12);
+
+      CellStyle first = styles.get(header);
+      CellStyle second = styles.get(ExcelStyleSpec.PLAIN.bold().fontSize(12)
+          .borders(BorderStyle.THIN));
+      CellStyle gray = styles.get(header.fill(IndexedColors.GREY_25_PERCENT));
+
+      assertSame(first, second);
+      assertNotSame(first, gray);
+      assertEquals(2, styles.size());
+      assertEquals(initialStyles + 2, workbook.getNumCellStyles());
+      assertEquals(initialFonts + 1, workbook.getNumberOfFonts());
+      assertEquals(first.getFontIndex(), gray.getFontIndex());
+      assertEquals(BorderStyle.THIN, first.getBorderLeft());
+      assertEquals(FillPatternType.NO_FILL, first.getFillPattern());
+      assertEquals(FillPatternType.SOLID_FOREGROUND, gray.getFillPattern());
+      assertEquals(IndexedColors.GREY_25_PERCENT.getIndex(), gray.getFillForegroundColor());
+      assertTrue(workbook.getFontAt(first.getFontIndex()).getBold());
+      assertEquals(12, workbook.getFontAt(first.getFontIndex()).getFontHeightInPoints());
+    }
+  }
+
+  @Test
+  void spec_derivedVariantsLeaveOriginalUnchanged() {
+    ExcelStyleSpec base = ExcelStyleSpec.PLAIN.borders(BorderStyle.THIN);
+    ExcelStyleSpec variant = base.borderRight(BorderStyle.THICK).align(HorizontalAlignment.CENTER);
+
+    assertEquals(BorderStyle.THIN, base.getBorderRight());
+    assertEquals(HorizontalAlignment.GENERAL, base.getAlignment());
+    assertEquals(BorderStyle.THICK, variant.getBorderRight());
+    assertEquals(BorderStyle.THIN, variant.getBorderLeft());
+    assertNotEquals(base, variant);
+    assertEquals(variant, base.align(HorizontalAlignment.CENTER).borderRight(BorderStyle.THICK));
+  }
+
+  @Test
+  void roomExport_usesFixedNumberOfStylesForAnyRowCount(@TempDir Path tempDir)
+      throws IOException {
+    RoomService roomService = new RoomService(new ExcelService());
+    Path file = tempDir.resolve("rooms.xlsx");
+    List<Map<String, Object>> data = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("Unternehmen", "Company " + i);
+      for (int slot = 1; slot <= 5; slot++) {
+        row.put("Zeit " + slot, "R" + slot);
+      }
+      data.add(row);
+    }
+
+    roomService.exportDataToExcel(data, file.toString());
+
+    try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+      assertTrue(workbook.getNumCellStyles() < 20, "styles: " + workbook.getNumCellStyles());
+      assertEquals(BorderStyle.THICK,
+          workbook.getSheetAt(0).getRow(workbook.getSheetAt(0).getLastRowNum()).getCell(5)
+              .getCellStyle().getBorderBottom());
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.StudentAssignment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ExportBundleExporter class.
+ *
+ * @author mian
+ */
+class ExportBundleExporterTest {
+
+  private final TimetableService timetableService = new TimetableService();
+  private final RoomService roomService = new RoomService(new ExcelService());
+  private final FulfillmentScoreService fulfillmentScoreService =
+      new FulfillmentScoreService(new StudentAssignmentService());
+
+  private static List<Map<String, String>> roomPlan() {
+    List<Map<String, String>> rows = new ArrayList<>();
+    for (String company : List.of("Polizei", "Zoll")) {
+      Map<String, String> row = new LinkedHashMap<>();
+      row.put("company", company);
+      row.put("slot_A", "101");
+      row.put("slot_B", "102");
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private static List<StudentAssignment> assignments() {
+    List<StudentAssignment> assignments = new ArrayList<>();
+    String[][] rows = {{"1", "Weber", "Polizei", "A"}, {"2", "Meyer", "Zoll", "B"},
+        {"1", "Schmidt", "Polizei", "C"}};
+    for (String[] row : rows) {
+      StudentAssignment assignment = new StudentAssignment(Integer.parseInt(row[0]), "Max",
+          row[1], "ASS221", row[2], "Ausbildung");
+      assignment.setTimeSlot(row[3]);
+      assignment.setRoomId("101");
+      assignment.setChoiceNo(1);
+      assignments.add(assignment);
+    }
+    return assignments;
+  }
+
+  private static List<FulfillmentScore> scores() {
+    FulfillmentScore score = new FulfillmentScore();
+    score.setClassRef("ASS221");
+    score.setFirstName("Max");
+    score.setLastName("Weber");
+    score.setChoice1Score(6);
+    score.setStudentTotalScore(6);
+    score.setOverallFulfillmentPercentage(75.0);
+    score.setTotalScore(6);
+    score.setMaxPossibleScore(8.0);
+    return List.of(score);
+  }
+
+  @Test
+  void export_streamsAllDocumentsIntoOneZip() throws IOException {
+    ExportBundleExporter exporter = new ExportBundleExporter(timetableService, roomService,
+        fulfillmentScoreService, new File("."), ExportBundleExporter.DEFAULT_PATTERN, 3);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    List<Integer> updates = new ArrayList<>();
+
+    List<String> names = exporter.export(roomPlan(), assignments(), scores(),
+        EnumSet.allOf(AttendanceListBatchExporter.Format.class), out,
+        (done, total) -> updates.add(total));
+
+    String events = timetableService.getFilePathEvent();
+    assertEquals(List.of(roomService.getFilePath() + ".xlsx", roomService.getFilePath() + ".pdf",
+        events + "_Polizei.xlsx", events + "_Polizei.pdf", events + "_Zoll.xlsx",
+        events + "_Zoll.pdf", timetableService.getFilePathChoices() + ".xlsx",
+        timetableService.getFilePathChoices() + ".pdf",
+        fulfillmentScoreService.getFilePathScore() + ".xlsx",
+        fulfillmentScoreService.getFilePathScore() + ".pdf"), names);
+    assertEquals(10, updates.size());
+    assertEquals(10, (int) updates.get(0));
+
+    List<String> entries = new ArrayList<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.add(entry.getName());
+        byte[] content = zip.readAllBytes();
+        if (entry.getName().endsWith(".pdf")) {
+          try (PDDocument document = PDDocument.load(content)) {
+            assertTrue(document.getNumberOfPages() > 0);
+          }
+        } else {
+          assertTrue(content.length > 0);
+        }
+      }
+    }
+    assertEquals(names, entries);
+  }
+
+  @Test
+  void export_writesBundleWithNamingPatternAndLeavesOutEmptyDocuments(@TempDir Path tempDir)
+      throws IOException {
+    File directory = tempDir.resolve("out").toFile();
+    ExportBundleExporter exporter = new ExportBundleExporter(timetableService, roomService,
+        fulfillmentScoreService, directory, "{date} {document}", 2);
+    String date = LocalDate.now().toString();
+
+    File bundle = exporter.export(List.of(), assignments(), List.of(),
+        EnumSet.of(AttendanceListBatchExporter.Format.PDF), ExportProgress.NONE);
+
+    assertEquals(new File(directory, date + " " + ExportBundleExporter.BUNDLE_NAME + ".zip"),
+        bundle);
+    List<String> entries = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(bundle)) {
+      zip.stream().forEach(entry -> entries.add(entry.getName()));
+      try (InputStream in = zip.getInputStream(zip.getEntry(entries.get(0)))) {
+        assertTrue(in.readAllBytes().length > 0);
+      }
+    }
+    assertEquals(List.of(date + " " + timetableService.getFilePathEvent() + "_Polizei.pdf",
+        date + " " + timetableService.getFilePathEvent() + "_Zoll.pdf",
+        date + " " + timetableService.getFilePathChoices() + ".pdf"), entries);
+    assertEquals(1, directory.listFiles().length);
+  }
+
+  @Test
+  void export_deletesUnfinishedBundleAndRejectsPatternWithoutDocument(@TempDir Path tempDir) {
+    ExportBundleExporter exporter = new ExportBundleExporter(timetableService, roomService,
+        fulfillmentScoreService, tempDir.toFile(), ExportBundleExporter.DEFAULT_PATTERN, 2);
+    ExportProgress cancelled = new ExportProgress() {
+      @Override
+      public void update(int done, int total) {
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return true;
+      }
+    };
+
+    assertThrows(CancellationException.class, () -> exporter.export(roomPlan(), assignments(),
+        scores(), EnumSet.of(AttendanceListBatchExporter.Format.PDF), cancelled));
+    assertFalse(exporter.getBundleFile().exists());
+    assertThrows(IllegalArgumentException.class, () -> new ExportBundleExporter(timetableService,
+        roomService, fulfillmentScoreService, tempDir.toFile(), "{date}"));
+  }
+}
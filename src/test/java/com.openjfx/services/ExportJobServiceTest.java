@@ -0,0 +1,184 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ExportJobService class.
+ *
+ * @author mian
+ */
+class ExportJobServiceTest {
+
+  private static final long TIMEOUT = 10;
+
+  /**
+   * Collects the finished jobs so that tests can wait for them.
+   *
+   * @author mian
+   */
+  private static final class Finished implements Consumer<ExportJob> {
+
+    private final ConcurrentHashMap<ExportJob, CountDownLatch> latches = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(ExportJob job) {
+      if (job.isFinished()) {
+        latch(job).countDown();
+      }
+    }
+
+    void await(ExportJob job) throws InterruptedException {
+      assertTrue(latch(job).await(TIMEOUT, TimeUnit.SECONDS), job.getName() + " did not finish");
+    }
+
+    private CountDownLatch latch(ExportJob job) {
+      return latches.computeIfAbsent(job, key -> new CountDownLatch(1));
+    }
+  }
+
+  @Test
+  void submit_runsJobsConcurrentlyAndReturnsTheirFiles(@TempDir Path tempDir) throws Exception {
+    ExportJobService service = new ExportJobService(2, 4);
+    Finished finished = new Finished();
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    ExportJob.Work work = progress -> {
+      bothRunning.countDown();
+      // Only returns if the other job runs at the same time
+      assertTrue(bothRunning.await(TIMEOUT, TimeUnit.SECONDS));
+      File file = Files.createTempFile(tempDir, "export", ".xlsx").toFile();
+      progress.update(1, 1);
+      return List.of(file);
+    };
+
+    ExportJob first = service.submit("first", work, finished);
+    ExportJob second = service.submit("second", work, finished);
+    finished.await(first);
+    finished.await(second);
+
+    assertEquals(ExportJob.State.SUCCEEDED, first.getState());
+    assertEquals(ExportJob.State.SUCCEEDED, second.getState());
+    assertEquals(1, first.getFiles().size());
+    assertTrue(first.getFiles().get(0).exists());
+    assertEquals(1, first.getDone());
+    assertEquals(1, first.getTotal());
+    assertTrue(service.getActiveJobs().isEmpty());
+  }
+
+  @Test
+  void cancel_stopsRunningJobAndKeepsFilesOfJobsThatCannotStop(@TempDir Path tempDir)
+      throws Exception {
+    ExportJobService service = new ExportJobService(2, 4);
+    Finished finished = new Finished();
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    File written = tempDir.resolve("written.pdf").toFile();
+
+    ExportJob stoppable = service.submit("stoppable", progress -> {
+      started.countDown();
+      for (int done = 0; ; done++) {
+        if (progress.isCancelled()) {
+          throw new CancellationException();
+        }
+        progress.update(done, 1000);
+        Thread.sleep(5);
+      }
+    }, finished);
+    ExportJob unstoppable = service.submit("unstoppable", progress -> {
+      started.countDown();
+      assertTrue(cancelled.await(TIMEOUT, TimeUnit.SECONDS));
+      assertTrue(written.createNewFile());
+      return List.of(written);
+    }, finished);
+
+    assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+    service.cancel(stoppable, finished);
+    service.cancel(unstoppable, finished);
+    cancelled.countDown();
+    finished.await(stoppable);
+    finished.await(unstoppable);
+
+    assertEquals(ExportJob.State.CANCELLED, stoppable.getState());
+    // The export finished anyway, so its file may have replaced the one the user had
+    assertEquals(ExportJob.State.SUCCEEDED, unstoppable.getState());
+    assertEquals(List.of(written), unstoppable.getFiles());
+    assertTrue(written.exists());
+  }
+
+  @Test
+  void submit_failsJobThatThrowsError() throws Exception {
+    ExportJobService service = new ExportJobService(1, 1);
+    Finished finished = new Finished();
+
+    ExportJob job = service.submit("broken", progress -> {
+      throw new OutOfMemoryError("render");
+    }, finished);
+    finished.await(job);
+
+    assertEquals(ExportJob.State.FAILED, job.getState());
+    assertInstanceOf(OutOfMemoryError.class, job.getError());
+    assertTrue(service.getActiveJobs().isEmpty());
+  }
+
+  @Test
+  void cancel_removesQueuedJobAtOnce() throws Exception {
+    ExportJobService service = new ExportJobService(1, 4);
+    Finished finished = new Finished();
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExportJob blocking = service.submit("blocking", progress -> {
+      assertTrue(release.await(TIMEOUT, TimeUnit.SECONDS));
+      return List.of();
+    }, finished);
+    ExportJob queued = service.submit("queued", progress -> {
+      fail("a cancelled job must not run");
+      return List.of();
+    }, finished);
+
+    assertEquals(ExportJob.State.QUEUED, queued.getState());
+    service.cancel(queued, finished);
+
+    assertEquals(ExportJob.State.CANCELLED, queued.getState());
+    assertEquals(List.of(blocking), service.getActiveJobs());
+    release.countDown();
+    finished.await(blocking);
+    assertEquals(ExportJob.State.SUCCEEDED, blocking.getState());
+  }
+
+  @Test
+  void submit_rejectsJobsBeyondQueueAndRecordsFailures() throws Exception {
+    ExportJobService service = new ExportJobService(1, 1);
+    Finished finished = new Finished();
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExportJob failing = service.submit("failing", progress -> {
+      assertTrue(release.await(TIMEOUT, TimeUnit.SECONDS));
+      throw new IOException("disk full");
+    }, finished);
+    ExportJob waiting = service.submit("waiting", progress -> List.of(), finished);
+
+    assertThrows(RejectedExecutionException.class,
+        () -> service.submit("rejected", progress -> List.of(), finished));
+    assertEquals(2, service.getActiveJobs().size());
+
+    release.countDown();
+    finished.await(failing);
+    finished.await(waiting);
+    assertEquals(ExportJob.State.FAILED, failing.getState());
+    assertEquals("disk full", failing.getError().getMessage());
+    assertEquals(ExportJob.State.SUCCEEDED, waiting.getState());
+  }
+}
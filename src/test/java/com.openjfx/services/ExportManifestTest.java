@@ -0,0 +1,81 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.AttendanceSheet;
+import com.openjfx.models.RoutingSlip;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ExportManifest class.
+ *
+ * @author mian
+ */
+class ExportManifestTest {
+
+  @Test
+  void hash_dependsOnFieldsAndOrderOfTypedData() {
+    AttendanceSheet.Participant weber = new AttendanceSheet.Participant("ASS221", "Weber", "Max");
+    AttendanceSheet.Participant meyer = new AttendanceSheet.Participant("ITF221", "Meyer", "Eva");
+    AttendanceSheet sheet = new AttendanceSheet("Zoll",
+        List.of(new AttendanceSheet.Slot("08:00-08:45", List.of(weber, meyer))));
+    AttendanceSheet same = new AttendanceSheet("Zoll",
+        List.of(new AttendanceSheet.Slot("08:00-08:45", List.of(weber, meyer))));
+    AttendanceSheet reordered = new AttendanceSheet("Zoll",
+        List.of(new AttendanceSheet.Slot("08:00-08:45", List.of(meyer, weber))));
+
+    assertEquals(ExportManifest.hash(sheet), ExportManifest.hash(same));
+    assertNotEquals(ExportManifest.hash(sheet), ExportManifest.hash(reordered));
+    assertNotEquals(ExportManifest.hash(List.of("ab", "c")),
+        ExportManifest.hash(List.of("a", "bc")));
+    assertNotEquals(ExportManifest.hash(List.of("Weber")), ExportManifest.hash("Weber"));
+    assertEquals(64, ExportManifest.hash(null).length());
+  }
+
+  @Test
+  void hash_keepsFieldsApartWhateverTheyContain() {
+    // Both print as the same text, so they must not be hashed through toString
+    AttendanceSheet.Participant first =
+        new AttendanceSheet.Participant("ASS221", "Weber, firstName=Max", "Eva");
+    AttendanceSheet.Participant second =
+        new AttendanceSheet.Participant("ASS221", "Weber", "Max, firstName=Eva");
+    assertEquals(first.toString(), second.toString());
+    assertNotEquals(ExportManifest.hash(first), ExportManifest.hash(second));
+
+    RoutingSlip.Entry chosen = new RoutingSlip.Entry("08:00-08:45", "101", "Zoll", "Ausbildung",
+        1);
+    RoutingSlip.Entry text = new RoutingSlip.Entry("08:00-08:45", "101", "Zoll", "Ausbildung",
+        null);
+    assertNotEquals(ExportManifest.hash(new RoutingSlip("ASS221", "Weber, Max", List.of(chosen))),
+        ExportManifest.hash(new RoutingSlip("ASS221", "Weber, Max", List.of(text))));
+    assertThrows(IllegalArgumentException.class, () -> ExportManifest.hash(new Object()));
+  }
+
+  @Test
+  void save_keepsHashesOfExistingFilesOnly(@TempDir Path tempDir) throws IOException {
+    Files.writeString(tempDir.resolve("Zoll.pdf"), "pdf");
+    ExportManifest manifest = ExportManifest.load(tempDir.toFile());
+    manifest.put("Zoll.pdf", "1234");
+    manifest.put("Polizei.pdf", "5678");
+    manifest.put("Alt.pdf", "9999");
+    manifest.retain(List.of("Zoll.pdf", "Polizei.pdf"));
+    manifest.save();
+
+    ExportManifest loaded = ExportManifest.load(tempDir.toFile());
+
+    assertTrue(loaded.isCurrent("Zoll.pdf", "1234"));
+    assertFalse(loaded.isCurrent("Zoll.pdf", "4321"));
+    // Recorded, but the file does not exist
+    assertFalse(loaded.isCurrent("Polizei.pdf", "5678"));
+    assertNull(loaded.getHash("Alt.pdf"));
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(2, files.count());
+    }
+  }
+}
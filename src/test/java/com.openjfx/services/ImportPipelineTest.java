@@ -0,0 +1,276 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.config.DatabaseConfig;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the ImportPipeline class. Uses a scratch table in the application database.
+ *
+ * @author mian
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ImportPipelineTest {
+
+  private static final String TABLE = "import_pipeline_test";
+  private static final List<String> OLD_NAMES = List.of("old0", "old1");
+
+  @TempDir
+  Path tempDir;
+
+  private NameService service;
+
+  @BeforeAll
+  void createTable() throws SQLException {
+    DatabaseConfig.initializeDatabase();
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+          + " (id INTEGER PRIMARY KEY AUTO_INCREMENT, name VARCHAR(50))");
+    }
+  }
+
+  @AfterAll
+  void dropTable() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE IF EXISTS " + TABLE);
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    service = new NameService(new ExcelService());
+    service.setBatchSize(100);
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.executeUpdate("DELETE FROM " + TABLE);
+    }
+  }
+
+  @Test
+  void run_replacesOldRowsAndWritesAllRowsInSheetOrder() throws IOException, SQLException {
+    insertOldRows();
+    File file = createSheet(1050, -1);
+
+    int written = new ImportPipeline<>(service, 3, 2).run(file);
+
+    assertEquals(1050, written);
+    List<String> names = loadNames();
+    assertEquals(1050, names.size());
+    for (int i = 0; i < names.size(); i++) {
+      assertEquals("name" + i, names.get(i));
+    }
+  }
+
+  @Test
+  void run_reportsExcelRowNumberAndKeepsOldRows() throws IOException, SQLException {
+    insertOldRows();
+    // The invalid row is in the eighth chunk, after the table has been emptied
+    File file = createSheet(900, 700);
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> new ImportPipeline<>(service, 3, 2).run(file));
+
+    // Data row 700 is on Excel row 702 (header on row 1)
+    assertTrue(e.getMessage().contains("row 702"), e.getMessage());
+    assertEquals(OLD_NAMES, loadNames());
+  }
+
+  @Test
+  void run_rejectsMissingColumnsBeforeClearing() throws IOException, SQLException {
+    insertOldRows();
+    File file = tempDir.resolve("other.xlsx").toFile();
+    new ExcelService().createExcelFile(List.of(Map.of("Other", "x")), file.getPath());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new ImportPipeline<>(service, 2, 1).run(file));
+    assertEquals(OLD_NAMES, loadNames());
+  }
+
+  @Test
+  void run_reportsProgressAndRollsBackWhenCancelled() throws IOException {
+    File file = createSheet(1050, -1);
+    List<Integer> written = new ArrayList<>();
+    ImportProgress progress = new ImportProgress() {
+      @Override
+      public void update(int parsed, int validated, int writtenRows) {
+        assertTrue(parsed >= validated && validated >= writtenRows);
+        written.add(writtenRows);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return written.size() == 3;
+      }
+    };
+
+    assertThrows(CancellationException.class,
+        () -> new ImportPipeline<>(service, 2, 2).run(file, progress));
+
+    assertEquals(List.of(100, 200, 300), written);
+    assertDoesNotThrow(() -> assertTrue(loadNames().isEmpty()));
+  }
+
+  @Test
+  void run_keepsOldRowsWhenCancelledAfterFirstChunk() throws IOException, SQLException {
+    insertOldRows();
+    File file = createSheet(1050, -1);
+    AtomicInteger chunks = new AtomicInteger();
+    ImportProgress progress = new ImportProgress() {
+      @Override
+      public void update(int parsed, int validated, int written) {
+        chunks.incrementAndGet();
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return chunks.get() == 2;
+      }
+    };
+
+    assertThrows(CancellationException.class,
+        () -> new ImportPipeline<>(service, 2, 2).run(file, progress));
+
+    assertEquals(2, chunks.get());
+    assertEquals(OLD_NAMES, loadNames());
+  }
+
+  private File createSheet(int rows, int invalidRow) throws IOException {
+    List<Map<String, Object>> data = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      Map<String, Object> row = new HashMap<>();
+      row.put("Name", i == invalidRow ? "" : "name" + i);
+      data.add(row);
+    }
+    File file = tempDir.resolve("names.xlsx").toFile();
+    new ExcelService().createExcelFile(data, file.getPath());
+    return file;
+  }
+
+  private void insertOldRows() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(
+            "INSERT INTO " + TABLE + " (name) VALUES (?)")) {
+      for (String name : OLD_NAMES) {
+        pstmt.setString(1, name);
+        pstmt.executeUpdate();
+      }
+    }
+  }
+
+  private static List<String> loadNames() throws SQLException {
+    List<String> names = new ArrayList<>();
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT name FROM " + TABLE + " ORDER BY id")) {
+      while (rs.next()) {
+        names.add(rs.getString(1));
+      }
+    }
+    return names;
+  }
+
+  private static class NameService extends AbstractExcelService<String> {
+
+    NameService(ExcelService excelService) {
+      super(excelService);
+    }
+
+    @Override
+    protected List<String> getRequiredFields() {
+      return List.of("name");
+    }
+
+    @Override
+    protected Map<String, String> getColumnPrefixes() {
+      return Map.of("name", "name");
+    }
+
+    @Override
+    protected List<String> getImportFields() {
+      return List.of("name");
+    }
+
+    @Override
+    protected String createModelFromValues(String[] values, ImportPlan plan) {
+      String name = plan.get(values, 0);
+      return name == null || name.isEmpty() ? null : name;
+    }
+
+    @Override
+    protected Map<String, Object> convertModelToRow(String model) {
+      return Map.of("Name", model);
+    }
+
+    @Override
+    protected String getInsertSql() {
+      return "INSERT INTO " + TABLE + " (name) VALUES (?)";
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+    }
+
+    @Override
+    protected String getTableName() {
+      return TABLE;
+    }
+
+    @Override
+    protected String getNaturalKey(String model) {
+      return model;
+    }
+
+    @Override
+    protected List<String> loadExisting() {
+      try {
+        return loadNames();
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    protected String getUpdateSql() {
+      return "UPDATE " + TABLE + " SET name = ? WHERE name = ?";
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+      pstmt.setString(2, model);
+    }
+
+    @Override
+    protected String getDeleteSql() {
+      return "DELETE FROM " + TABLE + " WHERE name = ?";
+    }
+
+    @Override
+    protected void bindDelete(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.Choice;
+import com.openjfx.models.Event;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ImportPlan class.
+ *
+ * @author mian
+ */
+class ImportPlanTest {
+
+  @Test
+  void compile_resolvesFieldsToFirstMatchingColumn() {
+    ImportPlan plan = ImportPlan.compile(
+        new String[]{"Nummer", " Name ", "Name 2", "Vorname"},
+        Map.of("lastName", "name", "firstName", "vorname", "id", "nr"),
+        List.of("firstName", "lastName", "id"));
+
+    assertEquals(3, plan.getColumn(0));
+    assertEquals(1, plan.getColumn(1));
+    assertEquals(-1, plan.getColumn(2));
+    assertEquals(" Name ", plan.getColumnMappings().get("lastName"));
+    assertEquals("", plan.getColumnMappings().get("id"));
+  }
+
+  @Test
+  void get_readsValuesByColumnIndex() {
+    ImportPlan plan = ImportPlan.compile(new String[]{"Kapazität", "Raum"},
+        Map.of("name", "raum", "capacity", "kapazität", "floor", "etage"),
+        List.of("name", "capacity", "floor"));
+    String[] values = {"20", "A 1"};
+
+    assertEquals("A 1", plan.get(values, 0));
+    assertEquals("20", plan.get(values, 1));
+    assertNull(plan.get(values, 2));
+  }
+
+  @Test
+  void createModelFromValues_readsFieldsByColumnIndex() {
+    ChoiceService service = new ChoiceService(new ExcelService());
+    String[] headers = {"Wahl 2", "Name", "Klasse", "Wahl 1", "Vorname"};
+    String[] values = {"7", "Doe", "10A", " 3 ", "John"};
+    ImportPlan plan = service.compileImportPlan(headers);
+
+    Choice choice = service.createModelFromValues(values, plan);
+
+    assertEquals("10A", choice.getClassRef());
+    assertEquals("John", choice.getFirstName());
+    assertEquals("Doe", choice.getLastName());
+    assertEquals("3", choice.getChoice1());
+    assertEquals("7", choice.getChoice2());
+    assertEquals("", choice.getChoice3());
+
+    // The row buffer is reused for the next row
+    values[1] = "Roe";
+    assertEquals("Roe", service.createModelFromValues(values, plan).getLastName());
+    assertEquals("Doe", choice.getLastName());
+  }
+
+  @Test
+  void convertRow_reportsRowNumberForMissingEventId() {
+    EventService service = new EventService(new ExcelService());
+    ImportPlan plan = service.compileImportPlan(new String[]{"Nr.", "Unternehmen", "Max."});
+
+    Event event = service.convertRow(new String[]{"4", "ACME", ""}, plan, 2);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> service.convertRow(new String[]{" ", "ACME", "5"}, plan, 3));
+
+    assertEquals(4, event.getId());
+    assertEquals("ACME", event.getCompany());
+    assertEquals(0, event.getMaxParticipants());
+    assertEquals("Empty", event.getSubject());
+    assertTrue(e.getMessage().startsWith("Error in row 3"), e.getMessage());
+  }
+}
@@ -0,0 +1,114 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the PdfTextLayout class.
+ *
+ * @author mian
+ */
+class PdfTextLayoutTest {
+
+  private static final PDFont FONT = PDType1Font.HELVETICA;
+
+  /**
+   * Wraps a text by measuring every candidate line with the font.
+   */
+  private static List<String> wrapByMeasuring(String text, float fontSize, float maxWidth)
+      throws IOException {
+    List<String> lines = new ArrayList<>();
+    StringBuilder currentLine = new StringBuilder();
+    for (String word : text.split(" ")) {
+      String testLine = currentLine.length() > 0 ? currentLine + " " + word : word;
+      if (FONT.getStringWidth(testLine) / 1000 * fontSize <= maxWidth) {
+        currentLine.append(currentLine.length() > 0 ? " " + word : word);
+        continue;
+      }
+      if (currentLine.length() > 0) {
+        lines.add(currentLine.toString());
+        currentLine = new StringBuilder();
+      }
+      if (FONT.getStringWidth(word) / 1000 * fontSize <= maxWidth) {
+        currentLine.append(word);
+      } else {
+        for (char c : word.toCharArray()) {
+          if (currentLine.length() > 0
+              && FONT.getStringWidth(currentLine.toString() + c) / 1000 * fontSize > maxWidth) {
+            lines.add(currentLine.toString());
+            currentLine = new StringBuilder();
+          }
+          currentLine.append(c);
+        }
+      }
+    }
+    if (currentLine.length() > 0) {
+      lines.add(currentLine.toString());
+    }
+    return lines;
+  }
+
+  @Test
+  void getWidth_matchesFontMetrics() throws IOException {
+    PdfTextLayout layout = PdfTextLayout.of(FONT);
+
+    for (String text : new String[]{"", "Finanzamt", "Übungsfirma GmbH & Co. KG", "08:45-09:30"}) {
+      assertEquals(FONT.getStringWidth(text) / 1000 * 10, layout.getWidth(text, 10), 0.001f);
+    }
+    assertSame(layout, PdfTextLayout.of(FONT));
+  }
+
+  @Test
+  void wrap_breaksLinesLikeMeasuringEachCandidate() throws IOException {
+    PdfTextLayout layout = PdfTextLayout.of(FONT);
+    String[] texts = {
+        "duales Studium Dipl. Finanzwirt/-in",
+        "This is a very long description that should trigger the text wrapping functionality",
+        "Donaudampfschifffahrtsgesellschaftskapitänsmütze und weitere Wörter",
+        "two  spaces and a trailing space ",
+    };
+
+    for (String text : texts) {
+      for (float maxWidth : new float[]{40, 100, 300}) {
+        assertEquals(wrapByMeasuring(text, 10, maxWidth), layout.wrap(text, 10, maxWidth),
+            text + " / " + maxWidth);
+      }
+    }
+  }
+
+  @Test
+  void wrap_splitsLongWordAfterShortWord() throws IOException {
+    PdfTextLayout layout = PdfTextLayout.of(FONT);
+
+    List<String> lines = layout.wrap("Die Donaudampfschifffahrtsgesellschaft", 10, 60);
+
+    assertEquals("Die", lines.get(0));
+    assertTrue(lines.size() > 2, lines.toString());
+    for (String line : lines) {
+      assertTrue(layout.getWidth(line, 10) <= 60, line);
+    }
+  }
+
+  @Test
+  void wrap_returnsRememberedUnmodifiableLines() throws IOException {
+    PdfTextLayout layout = PdfTextLayout.of(FONT);
+
+    List<String> lines = layout.wrap("Ausbildung Finanzwirt/-in im gehobenen Dienst", 10, 80);
+
+    assertSame(lines, layout.wrap("Ausbildung Finanzwirt/-in im gehobenen Dienst", 10, 80));
+    assertThrows(UnsupportedOperationException.class, () -> lines.add("x"));
+    assertEquals(List.of(""), layout.wrap(null, 10, 80));
+  }
+
+  @Test
+  void getWidth_rejectsCharactersTheFontCannotEncode() {
+    assertThrows(IllegalArgumentException.class,
+        () -> PdfTextLayout.of(FONT).getWidth("中", 10));
+  }
+}
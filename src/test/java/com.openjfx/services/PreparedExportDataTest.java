@@ -0,0 +1,116 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.AttendanceSheet;
+import com.openjfx.models.FulfillmentScore;
+import com.openjfx.models.RoutingSlip;
+import com.openjfx.models.ScoreSheet;
+import com.openjfx.models.StudentAssignment;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the typed export data prepared by the TimetableService and the
+ * FulfillmentScoreService.
+ *
+ * @author mian
+ */
+class PreparedExportDataTest {
+
+  private final TimetableService timetableService = new TimetableService();
+
+  private static StudentAssignment assignment(String className, String lastName, String company,
+      String timeSlot, int choice) {
+    StudentAssignment assignment = new StudentAssignment(1, "Max", lastName, className, company,
+        "Ausbildung");
+    assignment.setTimeSlot(timeSlot);
+    assignment.setRoomId("101");
+    assignment.setChoiceNo(choice);
+    return assignment;
+  }
+
+  @Test
+  void prepareDataForExportForAttendanceList_sortsTimeSlotsChronologically() {
+    List<Object> assignments = new ArrayList<>(List.of(
+        assignment("ASS221", "Weber", "Polizei", "C", 1),
+        assignment("ITF221", "Meyer", "Polizei", "A", 2),
+        assignment("ASS221", "Schmidt", "Polizei", "C", 3)));
+
+    AttendanceSheet sheet = timetableService.prepareDataForExportForAttendanceList(assignments);
+
+    assertEquals(new AttendanceSheet("Polizei", List.of(
+        new AttendanceSheet.Slot("08:45-09:30",
+            List.of(new AttendanceSheet.Participant("ITF221", "Meyer", "Max"))),
+        new AttendanceSheet.Slot("10:35-11:20",
+            List.of(new AttendanceSheet.Participant("ASS221", "Weber", "Max"),
+                new AttendanceSheet.Participant("ASS221", "Schmidt", "Max"))))), sheet);
+    assertNull(timetableService.prepareDataForExportForAttendanceList(new ArrayList<>()));
+  }
+
+  @Test
+  void prepareDataForExportForRoutingSlip_groupsByClassAndStudent() {
+    List<Object> assignments = new ArrayList<>(List.of(
+        assignment("ITF221", "Meyer", "Zoll", "A", 1),
+        assignment("ASS221", "Weber", "Polizei", "B", 2),
+        assignment("ITF221", "Meyer", "Polizei", "C", 3)));
+
+    List<RoutingSlip> slips = timetableService.prepareDataForExportForRoutingSlip(assignments);
+
+    assertEquals(2, slips.size());
+    assertEquals("ITF221", slips.get(0).getClassName());
+    assertEquals("Meyer, Max", slips.get(0).getStudentName());
+    assertEquals(List.of(new RoutingSlip.Entry("08:00-08:45", "101", "Zoll", "Ausbildung", 1),
+        new RoutingSlip.Entry("09:50-10:35", "101", "Polizei", "Ausbildung", 3)),
+        slips.get(0).getEntries());
+    assertEquals("ASS221", slips.get(1).getClassName());
+
+    // The map format of the older export methods is grouped into the same routing slips
+    String[] times = {"08:00-08:45", "08:45-09:30", "09:50-10:35"};
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < assignments.size(); i++) {
+      StudentAssignment assignment = (StudentAssignment) assignments.get(i);
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("Zeit", times[i]);
+      row.put("Raum", assignment.getRoomId());
+      row.put("Veranstaltung", assignment.getCompanyName());
+      row.put("Beschreibung", assignment.getSubject());
+      row.put("Wunsch", String.valueOf(assignment.getChoiceNo()));
+      row.put("Name", assignment.getLastName() + ", " + assignment.getFirstName());
+      row.put("Klasse", assignment.getClassRef());
+      rows.add(row);
+    }
+    assertEquals(slips, TimetableService.groupRoutingSlips(rows));
+    assertEquals(ExportManifest.hash(slips),
+        ExportManifest.hash(TimetableService.groupRoutingSlips(rows)));
+  }
+
+  @Test
+  void prepareDataForExportForFulfillmentScore_keepsValuesInColumnOrder() {
+    FulfillmentScore score = new FulfillmentScore();
+    score.setClassRef("ASS221");
+    score.setFirstName("Max");
+    score.setLastName("Weber");
+    score.setChoice1Score(6);
+    score.setStudentTotalScore(6);
+    score.setOverallFulfillmentPercentage(28.5714);
+    score.setTotalScore(6);
+    score.setMaxPossibleScore(21.0);
+
+    ScoreSheet sheet = new FulfillmentScoreService(new StudentAssignmentService())
+        .prepareDataForExportForFulfillmentScore(new ArrayList<>(List.of(score, "no score")));
+
+    assertEquals(ScoreSheet.COLUMNS, sheet.getColumns());
+    assertEquals(1, sheet.getRows().size());
+    ScoreSheet.Row row = sheet.getRows().get(0);
+    assertEquals(ScoreSheet.COLUMNS.size(), row.size());
+    assertEquals("ASS221", row.get(0));
+    assertEquals(6, row.get(3));
+    assertEquals(28.57, row.get(10));
+    assertEquals(21.0, row.get(12));
+    assertNull(row.get(13));
+  }
+}
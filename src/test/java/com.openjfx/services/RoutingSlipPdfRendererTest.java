@@ -0,0 +1,133 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.models.RoutingSlip;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the RoutingSlipPdfRenderer class.
+ *
+ * @author mian
+ */
+class RoutingSlipPdfRendererTest {
+
+  private final TimetableService timetableService = new TimetableService();
+
+  private static Map<String, Object> row(String className, String name, String company) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("Zeit", "08:45-09:30");
+    row.put("Raum", "103");
+    row.put("Veranstaltung", company);
+    row.put("Beschreibung", "Ausbildung");
+    row.put("Wunsch", 1);
+    row.put("Name", name);
+    row.put("Klasse", className);
+    return row;
+  }
+
+  private static List<Map<String, Object>> rows() {
+    List<Map<String, Object>> data = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      data.add(row("ITF221", "Student " + i, "Zoll"));
+    }
+    data.add(row("ASS221", "Doe, Jane", "Finanzamt"));
+    data.add(row("BFS/1", "Roe, Max", "Polizei"));
+    data.add(row("ASS221", "Doe, John", "Polizei"));
+    return data;
+  }
+
+  private static List<RoutingSlip> data() {
+    return TimetableService.groupRoutingSlips(rows());
+  }
+
+  @Test
+  void exportMerged_keepsClassOrderAndStartsEachClassOnNewPage() throws IOException {
+    RoutingSlipPdfRenderer renderer = new RoutingSlipPdfRenderer(timetableService, 3);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    List<Integer> updates = new ArrayList<>();
+
+    renderer.exportMerged(data(), out, (done, total) -> updates.add(done));
+
+    assertEquals(List.of(1, 2, 3), updates);
+    try (PDDocument document = PDDocument.load(out.toByteArray())) {
+      assertTrue(document.getNumberOfPages() > 3);
+      String text = new PDFTextStripper().getText(document);
+      int itf = text.indexOf("Klasse: ITF221");
+      int ass = text.indexOf("Klasse: ASS221");
+      int bfs = text.indexOf("Klasse: BFS/1");
+      assertTrue(itf >= 0 && itf < ass && ass < bfs);
+
+      PDFTextStripper lastPage = new PDFTextStripper();
+      lastPage.setStartPage(document.getNumberOfPages());
+      lastPage.setEndPage(document.getNumberOfPages());
+      assertTrue(lastPage.getText(document).startsWith("Klasse: BFS/1"));
+    }
+  }
+
+  @Test
+  void exportMerged_writesEmptyPageWithoutData() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new RoutingSlipPdfRenderer(timetableService, 2).exportMerged(new ArrayList<>(), out,
+        ExportProgress.NONE);
+
+    try (PDDocument document = PDDocument.load(out.toByteArray())) {
+      assertEquals(1, document.getNumberOfPages());
+    }
+  }
+
+  @Test
+  void exportPerClass_writesOneFilePerClass(@TempDir Path tempDir) throws IOException {
+    String prefix = new File(timetableService.getFilePathChoices()).getName() + "_";
+
+    List<File> files = new RoutingSlipPdfRenderer(timetableService, 2)
+        .exportPerClass(data(), tempDir.toFile(), ExportProgress.NONE);
+
+    assertEquals(3, files.size());
+    assertEquals(prefix + "ITF221.pdf", files.get(0).getName());
+    assertEquals(prefix + "ASS221.pdf", files.get(1).getName());
+    assertEquals(prefix + "BFS_1.pdf", files.get(2).getName());
+    try (PDDocument document = PDDocument.load(files.get(1))) {
+      String text = new PDFTextStripper().getText(document);
+      assertTrue(text.contains("Doe, Jane"));
+      assertTrue(text.contains("Doe, John"));
+      assertFalse(text.contains("Roe, Max"));
+    }
+  }
+
+  @Test
+  void exportChangedPerClass_rendersOnlyClassesWhoseSchedulesChanged(@TempDir Path tempDir)
+      throws IOException {
+    RoutingSlipPdfRenderer renderer = new RoutingSlipPdfRenderer(timetableService, 2);
+    String prefix = new File(timetableService.getFilePathChoices()).getName();
+    renderer.exportPerClass(data(), tempDir.toFile(), ExportProgress.NONE);
+
+    assertTrue(renderer.exportChangedPerClass(data(), tempDir.toFile(), ExportProgress.NONE)
+        .isEmpty());
+
+    List<Map<String, Object>> rows = rows();
+    rows.get(40).put("Raum", "204");
+    List<RoutingSlip> corrected = TimetableService.groupRoutingSlips(rows);
+    List<Integer> updates = new ArrayList<>();
+    List<File> files = renderer.exportChangedPerClass(corrected, tempDir.toFile(),
+        (done, total) -> updates.add(total));
+
+    assertEquals(1, files.size());
+    assertEquals(prefix + "_ASS221.pdf", files.get(0).getName());
+    assertEquals(List.of(1), updates);
+    assertTrue(renderer.exportChangedPerClass(corrected, tempDir.toFile(), ExportProgress.NONE)
+        .isEmpty());
+  }
+}
@@ -0,0 +1,148 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.config.DatabaseConfig;
+import com.openjfx.models.RunContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for cloning and deleting runs with the ScenarioService class. The runs are created in the
+ * application database and deleted again after each test.
+ *
+ * @author mian
+ */
+class ScenarioServiceTest {
+
+  private final ScenarioService scenarioService = new ScenarioService();
+  private final List<RunContext> created = new ArrayList<>();
+
+  @BeforeAll
+  static void initializeDatabase() {
+    DatabaseConfig.initializeDatabase();
+  }
+
+  @BeforeEach
+  void setUp() {
+    created.clear();
+  }
+
+  @AfterEach
+  void deleteRuns() {
+    created.forEach(scenarioService::deleteRun);
+  }
+
+  @Test
+  void cloneRun_copiesRunScopedRowsToNewRun() throws SQLException {
+    RunContext source = createRun("clone source");
+    insertAssignment(source, "Anna");
+    insertAssignment(source, "Ben");
+    insertTimetableRow(source, "A");
+
+    RunContext copy = scenarioService.cloneRun(source, "clone copy");
+    created.add(copy);
+
+    assertNotNull(copy);
+    assertNotEquals(source.getRunId(), copy.getRunId());
+    assertEquals(List.of("Anna", "Ben"), loadAssignedNames(copy));
+    assertEquals(1, countRows("timetable_assignments", copy));
+    // The source keeps its rows
+    assertEquals(List.of("Anna", "Ben"), loadAssignedNames(source));
+    assertEquals(1, countRows("timetable_assignments", source));
+  }
+
+  @Test
+  void deleteRun_removesOnlyRowsOfThatRun() throws SQLException {
+    RunContext kept = createRun("kept run");
+    RunContext deleted = createRun("deleted run");
+    insertAssignment(kept, "Anna");
+    insertAssignment(deleted, "Ben");
+    insertTimetableRow(deleted, "B");
+
+    assertTrue(scenarioService.deleteRun(deleted));
+
+    assertTrue(loadAssignedNames(deleted).isEmpty());
+    assertEquals(0, countRows("timetable_assignments", deleted));
+    assertEquals(List.of("Anna"), loadAssignedNames(kept));
+    assertFalse(scenarioService.listRuns().contains(deleted));
+    assertTrue(scenarioService.listRuns().contains(kept));
+  }
+
+  @Test
+  void insert_rejectsRowsOfDeletedRun() {
+    RunContext deleted = createRun("stale run");
+    assertTrue(scenarioService.deleteRun(deleted));
+
+    assertThrows(SQLException.class, () -> insertAssignment(deleted, "Anna"));
+  }
+
+  @Test
+  void deleteRun_keepsDefaultRun() {
+    assertFalse(scenarioService.deleteRun(RunContext.DEFAULT));
+    assertTrue(scenarioService.listRuns().contains(RunContext.DEFAULT));
+  }
+
+  private RunContext createRun(String name) {
+    RunContext run = scenarioService.createRun(name);
+    assertNotNull(run);
+    created.add(run);
+    return run;
+  }
+
+  private void insertAssignment(RunContext run, String firstName) throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement("INSERT INTO student_assignments "
+            + "(run_id, event_id, first_name, last_name, class_ref) "
+            + "VALUES (?, 1, ?, 'Test', 'T1')")) {
+      pstmt.setInt(1, run.getRunId());
+      pstmt.setString(2, firstName);
+      pstmt.executeUpdate();
+    }
+  }
+
+  private void insertTimetableRow(RunContext run, String timeSlot) throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement("INSERT INTO timetable_assignments "
+            + "(run_id, event_id, room_id, time_slot) VALUES (?, 1, '101', ?)")) {
+      pstmt.setInt(1, run.getRunId());
+      pstmt.setString(2, timeSlot);
+      pstmt.executeUpdate();
+    }
+  }
+
+  private List<String> loadAssignedNames(RunContext run) throws SQLException {
+    List<String> names = new ArrayList<>();
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement("SELECT first_name "
+            + "FROM student_assignments WHERE run_id = ? ORDER BY first_name")) {
+      pstmt.setInt(1, run.getRunId());
+      try (ResultSet rs = pstmt.executeQuery()) {
+        while (rs.next()) {
+          names.add(rs.getString(1));
+        }
+      }
+    }
+    return names;
+  }
+
+  private int countRows(String table, RunContext run) throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(
+            "SELECT COUNT(*) FROM " + table + " WHERE run_id = ?")) {
+      pstmt.setInt(1, run.getRunId());
+      try (ResultSet rs = pstmt.executeQuery()) {
+        rs.next();
+        return rs.getInt(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the binary encoding of SnapshotService.
+ *
+ * @author mian
+ */
+class SnapshotServiceTest {
+
+  private SnapshotService snapshotService;
+
+  @BeforeEach
+  void setUp() {
+    snapshotService = new SnapshotService();
+  }
+
+  @Test
+  void testWriteAndReadSnapshot_roundTripsAllColumnTypes(@TempDir Path tempDir)
+      throws IOException {
+    Path file = tempDir.resolve("run.botsnap");
+    LocalDateTime timestamp = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000);
+
+    Map<String, List<Object[]>> data = new HashMap<>();
+    data.put("events", List.of(
+        new Object[]{1, "Firma Ä", "Informatik", 20, 5, "A"},
+        new Object[]{-7, null, "", null, 0, null}));
+    data.put("rooms", List.<Object[]>of(new Object[]{"R101", 30}));
+    data.put("fulfillment_scores", List.<Object[]>of(
+        new Object[]{1, "Max_Muster_10A", "10A", "Max", "Muster", 6, 5, 4, 3, 2, 0, 20,
+            timestamp, 95.238, 1, 20, 21.0, 1},
+        new Object[]{2, null, null, null, null, null, null, null, null, null, null, null,
+            null, null, null, null, null, 2}));
+
+    Map<String, Integer> counts = snapshotService.writeSnapshot(file, data);
+    assertEquals(2, counts.get("events"));
+    assertEquals(0, counts.get("choices"));
+
+    Map<String, List<Object[]>> restored = snapshotService.readSnapshot(file);
+
+    assertArrayEquals(data.get("events").get(0), restored.get("events").get(0));
+    assertArrayEquals(data.get("events").get(1), restored.get("events").get(1));
+    assertArrayEquals(data.get("rooms").get(0), restored.get("rooms").get(0));
+    assertArrayEquals(data.get("fulfillment_scores").get(0),
+        restored.get("fulfillment_scores").get(0));
+    assertArrayEquals(data.get("fulfillment_scores").get(1),
+        restored.get("fulfillment_scores").get(1));
+    assertTrue(restored.get("choices").isEmpty());
+  }
+
+  @Test
+  void testWriteSnapshot_storesRepeatedStringsOnce(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("run.botsnap");
+    List<Object[]> assignments = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      assignments.add(new Object[]{i + 1, 3, "Maximilian", "Mustermann", 1, "10A", "A",
+          "Raum 101", 1});
+    }
+    Map<String, List<Object[]>> data = new HashMap<>();
+    data.put("student_assignments", assignments);
+
+    snapshotService.writeSnapshot(file, data);
+
+    // Each row needs only a few bytes once its strings are in the dictionary
+    assertTrue(Files.size(file) < 12 * assignments.size(),
+        "Snapshot should be dictionary encoded, size was " + Files.size(file));
+    assertEquals(1000, snapshotService.readSnapshot(file).get("student_assignments").size());
+  }
+
+  @Test
+  void testReadSnapshot_invalidFile_throwsIOException(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("invalid.botsnap");
+    Files.writeString(file, "not a snapshot");
+
+    assertThrows(IOException.class, () -> snapshotService.readSnapshot(file));
+  }
+}
@@ -0,0 +1,45 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the StreamingWorkbook class.
+ *
+ * @author mian
+ */
+class StreamingWorkbookTest {
+
+  @Test
+  void write_keepsRowsFlushedOutOfTheWindow(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("rows.xlsx");
+    int rowCount = StreamingWorkbook.ROW_WINDOW * 3;
+
+    try (SXSSFWorkbook workbook = StreamingWorkbook.create()) {
+      Sheet sheet = workbook.createSheet("Data");
+      for (int i = 0; i < rowCount; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0).setCellValue("Row " + i);
+        row.createCell(1).setCellValue(i);
+      }
+      assertNull(sheet.getRow(0));
+      StreamingWorkbook.write(workbook, file.toString());
+    }
+
+    try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+      Sheet sheet = workbook.getSheetAt(0);
+      assertEquals(rowCount - 1, sheet.getLastRowNum());
+      assertEquals("Row 0", sheet.getRow(0).getCell(0).getStringCellValue());
+      assertEquals(rowCount - 1, sheet.getRow(rowCount - 1).getCell(1).getNumericCellValue());
+    }
+  }
+}
@@ -0,0 +1,301 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.config.DatabaseConfig;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the WorkbookImportService class. Uses scratch tables in the application database.
+ *
+ * @author mian
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WorkbookImportServiceTest {
+
+  private static final String CITIES = "workbook_import_cities";
+  private static final String COLORS = "workbook_import_colors";
+
+  @TempDir
+  Path tempDir;
+
+  private WorkbookImportService service;
+
+  @BeforeAll
+  void createTables() throws SQLException {
+    DatabaseConfig.initializeDatabase();
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      for (String table : List.of(CITIES, COLORS)) {
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " (name VARCHAR(50))");
+      }
+    }
+  }
+
+  @AfterAll
+  void dropTables() throws SQLException {
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      for (String table : List.of(CITIES, COLORS)) {
+        stmt.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ExcelService excelService = new ExcelService();
+    service = new WorkbookImportService(excelService, List.of(
+        new NameService(excelService, CITIES, "city"),
+        new NameService(excelService, COLORS, "color")));
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.executeUpdate("DELETE FROM " + CITIES);
+      stmt.executeUpdate("INSERT INTO " + CITIES + " VALUES ('Old Town')");
+      stmt.executeUpdate("DELETE FROM " + COLORS);
+      stmt.executeUpdate("INSERT INTO " + COLORS + " VALUES ('grey')");
+    }
+  }
+
+  @Test
+  void importWorkbook_replacesEverySheetByHeader() throws IOException, SQLException {
+    File file = createWorkbook(
+        new String[][]{{"Color"}, {"red"}, {"blue"}},
+        new String[][]{{"Notes"}, {"ignored"}},
+        new String[][]{{"City"}, {"Berlin"}});
+
+    Map<String, Integer> saved = service.importWorkbook(file);
+
+    assertEquals(Map.of(CITIES, 1, COLORS, 2), saved);
+    assertEquals(List.of(CITIES, COLORS), new ArrayList<>(saved.keySet()));
+    assertEquals(List.of("Berlin"), loadNames(CITIES));
+    assertEquals(List.of("red", "blue"), loadNames(COLORS));
+  }
+
+  @Test
+  void importWorkbook_rollsBackAllSheetsOnInvalidRow() throws IOException, SQLException {
+    File file = createWorkbook(
+        new String[][]{{"City"}, {"Berlin"}},
+        new String[][]{{"Color"}, {"red"}, {""}});
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> service.importWorkbook(file));
+
+    assertTrue(e.getMessage().startsWith("Sheet 'Sheet1': Error in row 3"), e.getMessage());
+    assertEquals(List.of("Old Town"), loadNames(CITIES));
+    assertEquals(List.of("grey"), loadNames(COLORS));
+  }
+
+  @Test
+  void importWorkbook_insertsSheetsInBatchesInSaveOrder() throws IOException, SQLException {
+    ExcelService excelService = new ExcelService();
+    NameService cities = new NameService(excelService, CITIES, "city");
+    NameService colors = new NameService(excelService, COLORS, "color");
+    cities.setBatchSize(2);
+    colors.setBatchSize(2);
+    service = new WorkbookImportService(excelService, List.of(cities, colors));
+    List<Integer> written = new ArrayList<>();
+    ImportProgress progress = new ImportProgress() {
+      @Override
+      public void update(int parsed, int validated, int writtenRows) {
+        written.add(writtenRows);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return false;
+      }
+    };
+    File file = createWorkbook(
+        new String[][]{{"Color"}, {"red"}, {"blue"}, {"green"}},
+        new String[][]{{"City"}, {"Berlin"}, {"Paris"}, {"Rome"}, {"Oslo"}, {"Bern"}});
+
+    Map<String, Integer> saved = service.importWorkbook(file, progress);
+
+    assertEquals(Map.of(CITIES, 5, COLORS, 3), saved);
+    // The cities are saved first although their sheet comes second
+    assertEquals(List.of(2, 4, 5, 7, 8), written);
+    assertEquals(List.of("Berlin", "Paris", "Rome", "Oslo", "Bern"), loadNames(CITIES));
+    assertEquals(List.of("red", "blue", "green"), loadNames(COLORS));
+  }
+
+  @Test
+  void importWorkbook_rollsBackSavedBatchesOnInvalidRow() throws IOException, SQLException {
+    ExcelService excelService = new ExcelService();
+    NameService cities = new NameService(excelService, CITIES, "city");
+    cities.setBatchSize(1);
+    service = new WorkbookImportService(excelService,
+        List.of(cities, new NameService(excelService, COLORS, "color")));
+    File file = createWorkbook(
+        new String[][]{{"City"}, {"Berlin"}, {"Paris"}, {""}},
+        new String[][]{{"Color"}, {"red"}});
+
+    assertThrows(IllegalArgumentException.class, () -> service.importWorkbook(file));
+
+    assertEquals(List.of("Old Town"), loadNames(CITIES));
+    assertEquals(List.of("grey"), loadNames(COLORS));
+  }
+
+  @Test
+  void importWorkbook_rejectsTwoSheetsWithSameData() throws IOException {
+    File file = createWorkbook(
+        new String[][]{{"City"}, {"Berlin"}},
+        new String[][]{{"City"}, {"Paris"}});
+
+    assertThrows(IllegalArgumentException.class, () -> service.importWorkbook(file));
+  }
+
+  @Test
+  void detectService_matchesEventsRoomsAndChoices() {
+    ExcelService excelService = new ExcelService();
+    WorkbookImportService defaults = new WorkbookImportService(excelService);
+
+    assertInstanceOf(EventService.class,
+        defaults.detectService(new String[]{"Nr.", "Unternehmen", "Max.", "Min."}));
+    assertInstanceOf(RoomService.class,
+        defaults.detectService(new String[]{"Raum", "Kapazität"}));
+    assertInstanceOf(ChoiceService.class,
+        defaults.detectService(new String[]{"Klasse", "Vorname", "Name", "Wahl 1"}));
+    assertNull(defaults.detectService(new String[]{"Something else"}));
+  }
+
+  private File createWorkbook(String[][]... sheets) throws IOException {
+    File file = tempDir.resolve("workbook.xlsx").toFile();
+    try (Workbook workbook = new XSSFWorkbook()) {
+      for (String[][] rows : sheets) {
+        Sheet sheet = workbook.createSheet();
+        for (int r = 0; r < rows.length; r++) {
+          Row row = sheet.createRow(r);
+          for (int c = 0; c < rows[r].length; c++) {
+            row.createCell(c).setCellValue(rows[r][c]);
+          }
+        }
+      }
+      try (FileOutputStream out = new FileOutputStream(file)) {
+        workbook.write(out);
+      }
+    }
+    return file;
+  }
+
+  private static List<String> loadNames(String table) throws SQLException {
+    List<String> names = new ArrayList<>();
+    try (Connection conn = DatabaseConfig.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT name FROM " + table)) {
+      while (rs.next()) {
+        names.add(rs.getString(1));
+      }
+    }
+    return names;
+  }
+
+  private static class NameService extends AbstractExcelService<String> {
+
+    private final String table;
+    private final String prefix;
+
+    NameService(ExcelService excelService, String table, String prefix) {
+      super(excelService);
+      this.table = table;
+      this.prefix = prefix;
+    }
+
+    @Override
+    protected List<String> getRequiredFields() {
+      return List.of("name");
+    }
+
+    @Override
+    protected Map<String, String> getColumnPrefixes() {
+      return Map.of("name", prefix);
+    }
+
+    @Override
+    protected List<String> getImportFields() {
+      return List.of("name");
+    }
+
+    @Override
+    protected String createModelFromValues(String[] values, ImportPlan plan) {
+      String name = plan.get(values, 0);
+      return name == null || name.isEmpty() ? null : name;
+    }
+
+    @Override
+    protected Map<String, Object> convertModelToRow(String model) {
+      return Map.of("Name", model);
+    }
+
+    @Override
+    protected String getTableName() {
+      return table;
+    }
+
+    @Override
+    protected String getInsertSql() {
+      return "INSERT INTO " + table + " (name) VALUES (?)";
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+    }
+
+    @Override
+    protected String getNaturalKey(String model) {
+      return model;
+    }
+
+    @Override
+    protected List<String> loadExisting() {
+      try {
+        return loadNames(table);
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    protected String getUpdateSql() {
+      return "UPDATE " + table + " SET name = ? WHERE name = ?";
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+      pstmt.setString(2, model);
+    }
+
+    @Override
+    protected String getDeleteSql() {
+      return "DELETE FROM " + table + " WHERE name = ?";
+    }
+
+    @Override
+    protected void bindDelete(PreparedStatement pstmt, String model) throws SQLException {
+      pstmt.setString(1, model);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.openjfx.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.openjfx.config.DatabaseConfig;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the WriteBehindPersister class. The tasks only count their runs, so the application
+ * database is opened but not changed.
+ *
+ * @author mian
+ */
+class WriteBehindPersisterTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @BeforeAll
+  static void initializeDatabase() {
+    DatabaseConfig.initializeDatabase();
+  }
+
+  @Test
+  void flush_reportsRuntimeExceptionOfTaskAndKeepsWriting() {
+    assertTimeoutPreemptively(TIMEOUT, () -> {
+      try (WriteBehindPersister persister = new WriteBehindPersister()) {
+        AtomicInteger written = new AtomicInteger();
+
+        persister.submit("broken stage", conn -> {
+          throw new IllegalStateException("boom");
+        });
+        SQLException e = assertThrows(SQLException.class, persister::flush);
+        assertTrue(e.getMessage().contains("broken stage"), e.getMessage());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        persister.submit("next stage", conn -> written.incrementAndGet());
+        persister.flush();
+        assertEquals(1, written.get());
+        assertEquals(0, persister.getPendingCount());
+      }
+    });
+  }
+
+  @Test
+  void flush_retriesOtherTasksOfBatchWithThrowingTask() {
+    assertTimeoutPreemptively(TIMEOUT, () -> {
+      try (WriteBehindPersister persister = new WriteBehindPersister()) {
+        AtomicInteger written = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Holds the writer so that the following tasks are written as one batch
+        persister.submit("blocking stage", conn -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+        started.await();
+        persister.submit("first stage", conn -> written.incrementAndGet());
+        persister.submit("broken stage", conn -> {
+          throw new IllegalStateException("boom");
+        });
+        persister.submit("last stage", conn -> written.incrementAndGet());
+        release.countDown();
+
+        assertThrows(SQLException.class, persister::flush);
+        // The first stage ran in the failed batch, then both good stages ran on their own
+        assertEquals(3, written.get());
+        persister.flush();
+      }
+    });
+  }
+
+  @Test
+  void flush_failsFastAfterWriterStoppedByError() {
+    assertTimeoutPreemptively(TIMEOUT, () -> {
+      WriteBehindPersister persister = new WriteBehindPersister();
+      CountDownLatch release = new CountDownLatch(1);
+
+      persister.submit("fatal stage", conn -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new Error("fatal");
+      });
+      persister.submit("queued stage", conn -> fail("written after the writer stopped"));
+      release.countDown();
+
+      SQLException e = assertThrows(SQLException.class, persister::flush);
+      assertTrue(e.getMessage().contains("fatal stage"), e.getMessage());
+      assertThrows(IllegalStateException.class,
+          () -> persister.submit("later stage", conn -> { }));
+      assertThrows(SQLException.class, persister::flush);
+      assertEquals(0, persister.getPendingCount());
+      assertThrows(SQLException.class, persister::close);
+    });
+  }
+}
@@ -0,0 +1,38 @@
+package com.openjfx.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImportSourceTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testLocalFileIsReadInPlace() throws IOException {
+    File file = Files.writeString(tempDir.resolve("rooms.csv"), "Raum;Kapazität").toFile();
+
+    try (ImportSource source = ImportSource.open(file)) {
+      assertFalse(source.isSnapshot());
+      assertEquals(file, source.getFile());
+    }
+    assertTrue(file.exists());
+  }
+
+  @Test
+  void testUncPathNeedsSnapshot() {
+    assertTrue(ImportSource.needsSnapshot(Path.of("\\\\server\\share\\choices.xlsx")));
+  }
+
+  @Test
+  void testMissingFileIsRejected() {
+    assertThrows(IOException.class,
+        () -> ImportSource.open(tempDir.resolve("missing.xlsx").toFile()));
+  }
+}
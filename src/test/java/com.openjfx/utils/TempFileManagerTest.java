@@ -56,6 +56,16 @@ class TempFileManagerTest {
     assertTrue(Files.list(Path.of(TempFileManager.TEMP_DIR)).count() == 0);
   }
 
+  @Test
+  void testCreateTempFileUsesUniqueNames() throws IOException {
+    File tempFile1 = TempFileManager.createTempFile(sourceFile);
+    File tempFile2 = TempFileManager.createTempFile(sourceFile);
+
+    assertNotEquals(tempFile1, tempFile2);
+    assertTrue(tempFile1.getName().endsWith(".txt"));
+    assertEquals(Files.readAllLines(sourceFile.toPath()), Files.readAllLines(tempFile2.toPath()));
+  }
+
   @Test
   void testCreateTempFileWithNullSource() {
     assertThrows(NullPointerException.class, () -> TempFileManager.createTempFile(null));